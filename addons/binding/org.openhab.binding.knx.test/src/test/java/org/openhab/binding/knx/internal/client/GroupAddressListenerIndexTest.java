@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.knx.internal.client;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.Test;
+import org.openhab.binding.knx.handler.GroupAddressListener;
+
+import tuwien.auto.calimero.GroupAddress;
+
+/**
+ *
+ * @author agent - Initial contribution
+ *
+ */
+public class GroupAddressListenerIndexTest {
+
+    private static final GroupAddress GA_1 = new GroupAddress(1);
+    private static final GroupAddress GA_2 = new GroupAddress(2);
+    private static final GroupAddress GA_3 = new GroupAddress(3);
+
+    private static GroupAddressListener listener(GroupAddress... groupAddresses) {
+        GroupAddressListener listener = mock(GroupAddressListener.class);
+        when(listener.getGroupAddresses()).thenReturn(new HashSet<>(Arrays.asList(groupAddresses)));
+        return listener;
+    }
+
+    @Test
+    public void testListenersByGroupAddress() {
+        GroupAddressListenerIndex index = new GroupAddressListenerIndex();
+        GroupAddressListener first = listener(GA_1, GA_2);
+        GroupAddressListener second = listener(GA_2);
+
+        assertTrue(index.register(first));
+        assertTrue(index.register(second));
+
+        assertEquals(Collections.singleton(first), index.getListeners(GA_1));
+        assertEquals(new HashSet<>(Arrays.asList(first, second)), index.getListeners(GA_2));
+        assertTrue(index.getListeners(GA_3).isEmpty());
+    }
+
+    @Test
+    public void testRegisteringAgainUpdatesGroupAddresses() {
+        GroupAddressListenerIndex index = new GroupAddressListenerIndex();
+        GroupAddressListener listener = listener(GA_1, GA_2);
+        index.register(listener);
+
+        when(listener.getGroupAddresses()).thenReturn(new HashSet<>(Arrays.asList(GA_2, GA_3)));
+        assertFalse(index.register(listener));
+
+        assertTrue(index.getListeners(GA_1).isEmpty());
+        assertEquals(Collections.singleton(listener), index.getListeners(GA_2));
+        assertEquals(Collections.singleton(listener), index.getListeners(GA_3));
+    }
+
+    @Test
+    public void testUnregister() {
+        GroupAddressListenerIndex index = new GroupAddressListenerIndex();
+        GroupAddressListener listener = listener(GA_1);
+        index.register(listener);
+
+        assertTrue(index.unregister(listener));
+        assertFalse(index.unregister(listener));
+        assertTrue(index.getListeners(GA_1).isEmpty());
+    }
+
+}
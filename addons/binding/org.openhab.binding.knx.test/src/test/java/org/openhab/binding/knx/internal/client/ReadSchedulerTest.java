@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.knx.internal.client;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.knx.internal.client.ReadScheduler.ReadPriority;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.datapoint.CommandDP;
+import tuwien.auto.calimero.datapoint.Datapoint;
+
+/**
+ *
+ * @author agent - Initial contribution
+ *
+ */
+public class ReadSchedulerTest {
+
+    private static final int READING_PAUSE = 50;
+    private static final int RETRIES_LIMIT = 2;
+    private static final long RESPONSE_TIMEOUT = 1000;
+
+    private ReadScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        scheduler = new ReadScheduler(READING_PAUSE, RETRIES_LIMIT, RESPONSE_TIMEOUT);
+    }
+
+    private static Datapoint datapoint(int address) {
+        return new CommandDP(new GroupAddress(address), "test", 0, "1.001");
+    }
+
+    private static GroupAddress addressOf(ReadDatapoint readDatapoint) {
+        return readDatapoint.getDatapoint().getMainAddress();
+    }
+
+    @Test
+    public void testDuplicatesAreIgnored() {
+        assertTrue(scheduler.schedule(datapoint(1), ReadPriority.INITIAL, 0));
+        assertFalse(scheduler.schedule(datapoint(1), ReadPriority.INITIAL, 0));
+        assertFalse(scheduler.schedule(datapoint(1), ReadPriority.REFRESH, 0));
+        assertEquals(1, scheduler.getBacklog());
+
+        ReadDatapoint next = scheduler.next(0);
+        assertEquals(new GroupAddress(1), addressOf(next));
+        assertNull(scheduler.next(0));
+
+        scheduler.sent(next, 0, 10);
+        assertFalse(scheduler.schedule(datapoint(1), ReadPriority.INITIAL, 0));
+        scheduler.received(new GroupAddress(1));
+        assertTrue(scheduler.schedule(datapoint(1), ReadPriority.INITIAL, 0));
+    }
+
+    @Test
+    public void testPriorities() {
+        scheduler.schedule(datapoint(1), ReadPriority.REFRESH, 0);
+        scheduler.schedule(datapoint(2), ReadPriority.REFRESH, 0);
+        scheduler.schedule(datapoint(3), ReadPriority.INITIAL, 0);
+        // moved up from refresh to initial
+        scheduler.schedule(datapoint(2), ReadPriority.INITIAL, 0);
+
+        assertEquals(new GroupAddress(3), addressOf(scheduler.next(0)));
+        assertEquals(new GroupAddress(2), addressOf(scheduler.next(0)));
+        assertEquals(new GroupAddress(1), addressOf(scheduler.next(0)));
+        assertNull(scheduler.next(0));
+        assertEquals(0, scheduler.getBacklog());
+    }
+
+    @Test
+    public void testUnansweredReadsAreRetried() {
+        scheduler.schedule(datapoint(1), ReadPriority.INITIAL, 0);
+        ReadDatapoint first = scheduler.next(0);
+        scheduler.sent(first, 0, 10);
+        assertNull(scheduler.next(RESPONSE_TIMEOUT - 1));
+
+        ReadDatapoint retry = scheduler.next(RESPONSE_TIMEOUT);
+        assertEquals(ReadPriority.RETRY, retry.getPriority());
+        assertEquals(2, retry.getRetries());
+        scheduler.sent(retry, RESPONSE_TIMEOUT, 10);
+
+        // limit reached
+        assertNull(scheduler.next(2 * RESPONSE_TIMEOUT));
+        assertEquals(0, scheduler.getAwaitingResponse());
+        assertEquals(0, scheduler.getBacklog());
+    }
+
+    @Test
+    public void testFailedReadsAreRetried() {
+        scheduler.schedule(datapoint(1), ReadPriority.INITIAL, 0);
+        scheduler.failed(scheduler.next(0), 0, "failure");
+        assertEquals(1, scheduler.getBacklog());
+        scheduler.failed(scheduler.next(0), 0, "failure");
+        assertEquals(0, scheduler.getBacklog());
+    }
+
+    @Test
+    public void testOutstandingReadsAreLimited() {
+        for (int i = 0; i < ReadScheduler.MAX_OUTSTANDING_READS + 1; i++) {
+            scheduler.schedule(datapoint(i + 1), ReadPriority.INITIAL, 0);
+        }
+        for (int i = 0; i < ReadScheduler.MAX_OUTSTANDING_READS; i++) {
+            scheduler.sent(scheduler.next(0), 0, 10);
+        }
+        assertEquals(0, scheduler.getBatchSize());
+        assertNull(scheduler.next(0));
+        scheduler.received(new GroupAddress(1));
+        assertNotNull(scheduler.next(0));
+    }
+
+    @Test
+    public void testPacingFollowsAcknowledgements() {
+        assertEquals(READING_PAUSE, scheduler.getPauseMillis());
+        assertEquals(ReadScheduler.MAX_BATCH_SIZE, scheduler.getBatchSize());
+        for (int i = 0; i < 4; i++) {
+            scheduler.schedule(datapoint(i + 1), ReadPriority.INITIAL, 0);
+        }
+
+        scheduler.sent(scheduler.next(0), 0, 10);
+        scheduler.sent(scheduler.next(0), 0, 10);
+        assertEquals(READING_PAUSE, scheduler.getPauseMillis());
+        assertEquals(ReadScheduler.MAX_BATCH_SIZE, scheduler.getBatchSize());
+
+        // slow acknowledgements
+        scheduler.sent(scheduler.next(0), 0, 200);
+        scheduler.sent(scheduler.next(0), 0, 200);
+        assertTrue(scheduler.getPauseMillis() > READING_PAUSE);
+        assertTrue(scheduler.getPauseMillis() <= READING_PAUSE * ReadScheduler.MAX_PAUSE_FACTOR);
+        assertEquals(1, scheduler.getBatchSize());
+    }
+
+    @Test
+    public void testLag() {
+        assertEquals(0, scheduler.getLagMillis(100));
+        scheduler.schedule(datapoint(1), ReadPriority.REFRESH, 100);
+        scheduler.schedule(datapoint(2), ReadPriority.INITIAL, 200);
+        assertEquals(200, scheduler.getLagMillis(300));
+        scheduler.clear();
+        assertEquals(0, scheduler.getBacklog());
+        assertEquals(0, scheduler.getLagMillis(300));
+    }
+
+}
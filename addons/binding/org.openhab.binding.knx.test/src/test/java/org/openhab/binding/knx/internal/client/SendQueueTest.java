@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.knx.internal.client;
+
+import static org.junit.Assert.*;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.IncreaseDecreaseType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.types.Type;
+import org.junit.Test;
+import org.openhab.binding.knx.client.OutboundSpec;
+
+import tuwien.auto.calimero.GroupAddress;
+
+/**
+ *
+ * @author agent - Initial contribution
+ *
+ */
+public class SendQueueTest {
+
+    private static class TestSpec implements OutboundSpec {
+        private final GroupAddress groupAddress;
+        private final String dpt;
+        private final Type type;
+
+        TestSpec(int groupAddress, String dpt, Type type) {
+            this.groupAddress = new GroupAddress(groupAddress);
+            this.dpt = dpt;
+            this.type = type;
+        }
+
+        @Override
+        public String getDPT() {
+            return dpt;
+        }
+
+        @Override
+        public GroupAddress getGroupAddress() {
+            return groupAddress;
+        }
+
+        @Override
+        public Type getType() {
+            return type;
+        }
+    }
+
+    @Test
+    public void testWritesToSameGroupAddressAreMerged() {
+        SendQueue queue = new SendQueue(0);
+        TestSpec first = new TestSpec(1, "5.001", new DecimalType(10));
+        TestSpec other = new TestSpec(2, "5.001", new DecimalType(20));
+        TestSpec last = new TestSpec(1, "5.001", new DecimalType(30));
+        queue.add(first);
+        queue.add(other);
+        queue.add(last);
+
+        assertEquals(2, queue.size());
+        assertEquals(1, queue.getMerged());
+        // the replacing write is sent after the writes queued in between
+        assertSame(other, queue.poll(0));
+        assertSame(last, queue.poll(0));
+        assertNull(queue.poll(0));
+        assertEquals(2, queue.getSent());
+    }
+
+    @Test
+    public void testScenesAreNotMerged() {
+        SendQueue queue = new SendQueue(0);
+        queue.add(new TestSpec(1, "17.001", new DecimalType(1)));
+        queue.add(new TestSpec(1, "17.001", new DecimalType(2)));
+
+        assertEquals(2, queue.size());
+        assertEquals(0, queue.getMerged());
+    }
+
+    @Test
+    public void testStepDimmingIsNotMerged() {
+        SendQueue queue = new SendQueue(0);
+        TestSpec first = new TestSpec(1, "3.007", IncreaseDecreaseType.INCREASE);
+        TestSpec second = new TestSpec(1, "3.007", IncreaseDecreaseType.INCREASE);
+        queue.add(first);
+        queue.add(second);
+
+        assertEquals(2, queue.size());
+        assertEquals(0, queue.getMerged());
+        assertSame(first, queue.poll(0));
+        assertSame(second, queue.poll(0));
+    }
+
+    @Test
+    public void testTriggersAreNotMerged() {
+        SendQueue queue = new SendQueue(0);
+        queue.add(new TestSpec(1, "1.017", OnOffType.ON));
+        queue.add(new TestSpec(1, "1.017", OnOffType.ON));
+        queue.add(new TestSpec(2, "1.001", OnOffType.ON));
+        queue.add(new TestSpec(2, "1.001", OnOffType.OFF));
+
+        assertEquals(3, queue.size());
+        assertEquals(1, queue.getMerged());
+    }
+
+    @Test
+    public void testValueThenSwitchKeepsOrder() {
+        SendQueue queue = new SendQueue(0);
+        TestSpec value = new TestSpec(1, "5.001", new DecimalType(40));
+        TestSpec switching = new TestSpec(2, "1.001", OnOffType.OFF);
+        queue.add(value);
+        queue.add(switching);
+
+        // the light must end up switched off
+        assertSame(value, queue.poll(0));
+        assertSame(switching, queue.poll(0));
+    }
+
+    @Test
+    public void testReplacedValueBeforeSwitchKeepsOrder() {
+        SendQueue queue = new SendQueue(0);
+        TestSpec switching = new TestSpec(2, "1.001", OnOffType.OFF);
+        TestSpec value = new TestSpec(1, "5.001", new DecimalType(40));
+        queue.add(new TestSpec(1, "5.001", new DecimalType(20)));
+        queue.add(switching);
+        queue.add(value);
+
+        assertEquals(2, queue.size());
+        assertSame(switching, queue.poll(0));
+        assertSame(value, queue.poll(0));
+    }
+
+    @Test
+    public void testTelegramsPerSecond() {
+        SendQueue queue = new SendQueue(20);
+        queue.add(new TestSpec(1, "1.001", OnOffType.ON));
+        queue.add(new TestSpec(2, "1.001", OnOffType.ON));
+
+        assertNotNull(queue.poll(1000));
+        assertEquals(50, queue.getDelayMillis(1000));
+        assertNull(queue.poll(1049));
+        assertNotNull(queue.poll(1050));
+    }
+
+    @Test
+    public void testFullQueueDropsTelegrams() {
+        SendQueue queue = new SendQueue(0);
+        for (int i = 0; i < SendQueue.MAX_QUEUED_TELEGRAMS; i++) {
+            assertTrue(queue.add(new TestSpec(i + 1, "1.001", OnOffType.ON)));
+        }
+        assertFalse(queue.add(new TestSpec(SendQueue.MAX_QUEUED_TELEGRAMS + 1, "1.001", OnOffType.ON)));
+        // replacing a queued write is still possible
+        assertTrue(queue.add(new TestSpec(1, "1.001", OnOffType.OFF)));
+        assertEquals(1, queue.getDropped());
+
+        queue.clear();
+        assertEquals(0, queue.size());
+        assertEquals(1 + SendQueue.MAX_QUEUED_TELEGRAMS, queue.getDropped());
+    }
+
+}
@@ -10,9 +10,23 @@ package org.openhab.binding.knx.internal.dpt;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.types.Type;
 import org.junit.Test;
 
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.datapoint.CommandDP;
+import tuwien.auto.calimero.datapoint.Datapoint;
+
 /**
  *
  * @author Simon Kaufmann - initial contribution and API
@@ -26,4 +40,44 @@ public class KNXCoreTypeMapperTest {
         assertEquals("3", new KNXCoreTypeMapper().toDPTValue(new DecimalType("3.0"), "17.001"));
     }
 
+    private static Type toType(KNXCoreTypeMapper mapper, String dpt, byte... data) {
+        Datapoint datapoint = new CommandDP(new GroupAddress(1), "test", 0, dpt);
+        return mapper.toType(datapoint, data);
+    }
+
+    @Test
+    public void testToType_translatorsAreReused() {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        for (int i = 0; i < 3; i++) {
+            assertEquals(OnOffType.ON, toType(mapper, "1.001", (byte) 1));
+            assertEquals(OnOffType.OFF, toType(mapper, "1.001", (byte) 0));
+            assertEquals(new PercentType(100), toType(mapper, "5.001", (byte) 0xFF));
+            assertEquals(new DecimalType(21.0), toType(mapper, "9.001", (byte) 0x0C, (byte) 0x1A));
+            assertEquals(new DecimalType(42.0),
+                    toType(mapper, "14.056", (byte) 0x42, (byte) 0x28, (byte) 0x00, (byte) 0x00));
+            assertEquals(HSBType.fromRGB(200, 10, 255),
+                    toType(mapper, "232.600", (byte) 200, (byte) 10, (byte) 255));
+        }
+        assertEquals("21", mapper.toDPTValue(new DecimalType("21.0"), "9.001"));
+    }
+
+    @Test
+    public void testToType_concurrentTranslations() throws Exception {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                int value = i;
+                results.add(executor.submit(() -> new PercentType(value)
+                        .equals(toType(mapper, "5.001", (byte) Math.round(value * 255 / 100.0)))));
+            }
+            for (Future<Boolean> result : results) {
+                assertEquals(true, result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
 }
@@ -79,6 +79,14 @@ public interface KNXClient {
      */
     void readDatapoint(Datapoint datapoint);
 
+    /**
+     * Schedule the given data point for asynchronous reading with a lower priority than {@link #readDatapoint}, e.g.
+     * for the periodic refresh of a value which is already known.
+     *
+     * @param datapoint the datapoint
+     */
+    void refreshDatapoint(Datapoint datapoint);
+
     /**
      * Write a command to the KNX bus.
      *
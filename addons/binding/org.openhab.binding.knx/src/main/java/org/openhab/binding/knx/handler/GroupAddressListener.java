@@ -8,6 +8,8 @@
  */
 package org.openhab.binding.knx.handler;
 
+import java.util.Set;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.openhab.binding.knx.internal.client.BusMessageListener;
 
@@ -30,4 +32,13 @@ public interface GroupAddressListener extends BusMessageListener {
      */
     public boolean listensTo(GroupAddress destination);
 
+    /**
+     * Get all group addresses the GroupAddressListener has an interest in
+     *
+     * The client takes them when the listener gets registered, so they must be known by then.
+     *
+     * @return the group addresses
+     */
+    public Set<GroupAddress> getGroupAddresses();
+
 }
@@ -9,11 +9,10 @@
 package org.openhab.binding.knx.internal.client;
 
 import java.util.Set;
-import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -28,16 +27,19 @@ import org.openhab.binding.knx.client.KNXClient;
 import org.openhab.binding.knx.client.OutboundSpec;
 import org.openhab.binding.knx.client.StatusUpdateCallback;
 import org.openhab.binding.knx.handler.GroupAddressListener;
+import org.openhab.binding.knx.internal.client.ReadScheduler.ReadPriority;
 import org.openhab.binding.knx.internal.dpt.KNXCoreTypeMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import tuwien.auto.calimero.CloseEvent;
+import tuwien.auto.calimero.DataUnitBuilder;
 import tuwien.auto.calimero.DetachEvent;
 import tuwien.auto.calimero.FrameEvent;
 import tuwien.auto.calimero.GroupAddress;
 import tuwien.auto.calimero.IndividualAddress;
 import tuwien.auto.calimero.KNXException;
+import tuwien.auto.calimero.Priority;
 import tuwien.auto.calimero.datapoint.CommandDP;
 import tuwien.auto.calimero.datapoint.Datapoint;
 import tuwien.auto.calimero.device.ProcessCommunicationResponder;
@@ -64,6 +66,8 @@ import tuwien.auto.calimero.process.ProcessListener;
 public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClient {
 
     private static final int MAX_SEND_ATTEMPTS = 2;
+    private static final int GROUP_READ = 0x00;
+    private static final long BACKLOG_REPORT_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(30);
 
     private final Logger logger = LoggerFactory.getLogger(AbstractKNXClient.class);
     private final KNXTypeMapper typeHelper = new KNXCoreTypeMapper();
@@ -72,7 +76,6 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     private final int responseTimeout;
     private final int readingPause;
     private final int autoReconnectPeriod;
-    private final int readRetriesLimit;
     private final StatusUpdateCallback statusUpdateCallback;
     private final ScheduledExecutorService knxScheduler;
 
@@ -85,8 +88,15 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     private @Nullable ScheduledFuture<?> busJob;
     private @Nullable ScheduledFuture<?> connectJob;
 
-    private final Set<GroupAddressListener> groupAddressListeners = new CopyOnWriteArraySet<>();
-    private final LinkedBlockingQueue<ReadDatapoint> readDatapoints = new LinkedBlockingQueue<>();
+    private final GroupAddressListenerIndex groupAddressListeners = new GroupAddressListenerIndex();
+    private final ReadScheduler readScheduler;
+    private final SendQueue sendQueue;
+    private final Object sendLock = new Object();
+    private final AtomicBoolean sendJobScheduled = new AtomicBoolean();
+    private volatile long nextReadMillis;
+    private volatile long nextBacklogReportMillis;
+    private long lastReportedMerged;
+    private long lastReportedDropped;
 
     @FunctionalInterface
     private interface ListenerNotification {
@@ -103,6 +113,7 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
 
         @Override
         public void groupWrite(ProcessEvent e) {
+            readScheduler.received(e.getDestination());
             processEvent("Group Write", e, (listener, source, destination, asdu) -> {
                 listener.onGroupWrite(AbstractKNXClient.this, source, destination, asdu);
             });
@@ -117,6 +128,7 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
 
         @Override
         public void groupReadResponse(ProcessEvent e) {
+            readScheduler.received(e.getDestination());
             processEvent("Group Read Response", e, (listener, source, destination, asdu) -> {
                 listener.onGroupReadResponse(AbstractKNXClient.this, source, destination, asdu);
             });
@@ -124,14 +136,17 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     };
 
     public AbstractKNXClient(int autoReconnectPeriod, ThingUID thingUID, int responseTimeout, int readingPause,
-            int readRetriesLimit, ScheduledExecutorService knxScheduler, StatusUpdateCallback statusUpdateCallback) {
+            int readRetriesLimit, int maxTelegramsPerSecond, ScheduledExecutorService knxScheduler,
+            StatusUpdateCallback statusUpdateCallback) {
         this.autoReconnectPeriod = autoReconnectPeriod;
         this.thingUID = thingUID;
         this.responseTimeout = responseTimeout;
         this.readingPause = readingPause;
-        this.readRetriesLimit = readRetriesLimit;
         this.knxScheduler = knxScheduler;
         this.statusUpdateCallback = statusUpdateCallback;
+        this.readScheduler = new ReadScheduler(readingPause, readRetriesLimit,
+                TimeUnit.SECONDS.toMillis(responseTimeout));
+        this.sendQueue = new SendQueue(maxTelegramsPerSecond);
     }
 
     public void initialize() {
@@ -196,7 +211,7 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
 
             link.addLinkListener(this);
 
-            busJob = knxScheduler.scheduleWithFixedDelay(() -> readNextQueuedDatapoint(), 0, readingPause,
+            busJob = knxScheduler.scheduleWithFixedDelay(() -> readNextQueuedDatapoints(), 0, readingPause,
                     TimeUnit.MILLISECONDS);
 
             statusUpdateCallback.updateStatus(ThingStatus.ONLINE);
@@ -221,7 +236,8 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
 
     private void releaseConnection() {
         logger.debug("Bridge {} is disconnecting from the KNX bus", thingUID);
-        readDatapoints.clear();
+        readScheduler.clear();
+        sendQueue.clear();
         busJob = nullify(busJob, j -> j.cancel(true));
         deviceInfoClient = null;
         managementProcedures = nullify(managementProcedures, mp -> mp.detach());
@@ -249,11 +265,19 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         IndividualAddress source = event.getSourceAddr();
         byte[] asdu = event.getASDU();
         logger.trace("Received a {} telegram from '{}' to '{}'", task, source, destination);
-        for (GroupAddressListener listener : groupAddressListeners) {
-            if (listener.listensTo(destination)) {
-                knxScheduler.schedule(() -> action.apply(listener, source, destination, asdu), 0, TimeUnit.SECONDS);
-            }
+        Set<GroupAddressListener> listeners = groupAddressListeners.getListeners(destination);
+        if (listeners.isEmpty()) {
+            return;
         }
+        knxScheduler.schedule(() -> {
+            for (GroupAddressListener listener : listeners) {
+                try {
+                    action.apply(listener, source, destination, asdu);
+                } catch (RuntimeException e) {
+                    logger.warn("Processing a {} telegram to '{}' failed: {}", task, destination, e.getMessage(), e);
+                }
+            }
+        }, 0, TimeUnit.SECONDS);
     }
 
     /**
@@ -268,32 +292,102 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         return typeHelper.toDPTValue(type, dpt);
     }
 
-    private void readNextQueuedDatapoint() {
+    private void readNextQueuedDatapoints() {
         if (!connectIfNotAutomatic()) {
             return;
         }
-        ProcessCommunicator processCommunicator = this.processCommunicator;
-        if (processCommunicator == null) {
+        KNXNetworkLink link = this.link;
+        if (link == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (now < nextReadMillis) {
             return;
         }
-        ReadDatapoint datapoint = readDatapoints.poll();
-        if (datapoint != null) {
-            datapoint.incrementRetries();
+        int batchSize = readScheduler.getBatchSize();
+        for (int i = 0; i < batchSize; i++) {
+            ReadDatapoint datapoint = readScheduler.next(now);
+            if (datapoint == null) {
+                break;
+            }
+            GroupAddress groupAddress = datapoint.getDatapoint().getMainAddress();
             try {
-                logger.trace("Sending a Group Read Request telegram for {}", datapoint.getDatapoint().getMainAddress());
-                processCommunicator.read(datapoint.getDatapoint());
+                logger.trace("Sending a Group Read Request telegram for {}", groupAddress);
+                long start = System.nanoTime();
+                // the response is received by the process listener, no need to block until it arrives
+                link.sendRequestWait(groupAddress, Priority.LOW,
+                        DataUnitBuilder.createLengthOptimizedAPDU(GROUP_READ, null));
+                now = System.currentTimeMillis();
+                readScheduler.sent(datapoint, now, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
             } catch (KNXException e) {
-                if (datapoint.getRetries() < datapoint.getLimit()) {
-                    readDatapoints.add(datapoint);
-                    logger.debug("Could not read value for datapoint {}: {}. Going to retry.",
-                            datapoint.getDatapoint().getMainAddress(), e.getMessage());
-                } else {
-                    logger.warn("Giving up reading datapoint {}, the number of maximum retries ({}) is reached.",
-                            datapoint.getDatapoint().getMainAddress(), datapoint.getLimit());
+                readScheduler.failed(datapoint, System.currentTimeMillis(), e.getMessage());
+                break;
+            }
+        }
+        // the job itself runs every reading pause already
+        nextReadMillis = System.currentTimeMillis() + readScheduler.getPauseMillis() - readingPause;
+        reportBacklog(now);
+    }
+
+    private void reportBacklog(long now) {
+        if (now < nextBacklogReportMillis || !logger.isDebugEnabled()) {
+            return;
+        }
+        int backlog = readScheduler.getBacklog();
+        if (backlog > 0) {
+            logger.debug(
+                    "Bridge {} has {} datapoints waiting to be read, the oldest one for {} ms ({} waiting for a response, pausing {} ms)",
+                    thingUID, backlog, readScheduler.getLagMillis(now), readScheduler.getAwaitingResponse(),
+                    readScheduler.getPauseMillis());
+        }
+        long merged = sendQueue.getMerged();
+        long dropped = sendQueue.getDropped();
+        if (sendQueue.size() > 0 || merged != lastReportedMerged || dropped != lastReportedDropped) {
+            logger.debug("Bridge {} has {} telegrams waiting to be sent ({} sent, {} replaced, {} dropped)", thingUID,
+                    sendQueue.size(), sendQueue.getSent(), merged, dropped);
+            lastReportedMerged = merged;
+            lastReportedDropped = dropped;
+        }
+        nextBacklogReportMillis = now + BACKLOG_REPORT_INTERVAL_MILLIS;
+    }
+
+    private void scheduleSendJob(long delayMillis) {
+        if (sendJobScheduled.compareAndSet(false, true)) {
+            knxScheduler.schedule(() -> sendQueuedTelegrams(), delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void sendQueuedTelegrams() {
+        synchronized (sendLock) {
+            sendJobScheduled.set(false);
+            while (true) {
+                long delay = sendQueue.getDelayMillis(System.currentTimeMillis());
+                if (delay > 0) {
+                    if (sendQueue.size() > 0) {
+                        scheduleSendJob(delay);
+                    }
+                    return;
+                }
+                OutboundSpec spec = sendQueue.poll(System.currentTimeMillis());
+                if (spec == null) {
+                    return;
+                }
+                ProcessCommunicator processCommunicator = this.processCommunicator;
+                KNXNetworkLink link = this.link;
+                GroupAddress groupAddress = spec.getGroupAddress();
+                if (processCommunicator == null || link == null || groupAddress == null) {
+                    logger.debug("Cannot write to the KNX bus, dropping value '{}' for datapoint '{}'", spec.getType(),
+                            groupAddress);
+                    continue;
+                }
+                try {
+                    sendToKNX(processCommunicator, link, groupAddress, spec.getDPT(), spec.getType());
+                } catch (KNXException e) {
+                    // the write failed after all attempts, report the bridge offline and reconnect as for a lost link
+                    disconnect(e);
+                    scheduleReconnectJob();
+                    return;
                 }
-            } catch (InterruptedException e) {
-                logger.debug("Interrupted sending KNX read request");
-                return;
             }
         }
     }
@@ -363,22 +457,22 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
 
     @Override
     public void readDatapoint(Datapoint datapoint) {
-        synchronized (this) {
-            ReadDatapoint retryDatapoint = new ReadDatapoint(datapoint, readRetriesLimit);
-            if (!readDatapoints.contains(retryDatapoint)) {
-                readDatapoints.add(retryDatapoint);
-            }
-        }
+        readScheduler.schedule(datapoint, ReadPriority.INITIAL, System.currentTimeMillis());
+    }
+
+    @Override
+    public void refreshDatapoint(Datapoint datapoint) {
+        readScheduler.schedule(datapoint, ReadPriority.REFRESH, System.currentTimeMillis());
     }
 
     @Override
     public final boolean registerGroupAddressListener(GroupAddressListener listener) {
-        return groupAddressListeners.add(listener);
+        return groupAddressListeners.register(listener);
     }
 
     @Override
     public final boolean unregisterGroupAddressListener(GroupAddressListener listener) {
-        return groupAddressListeners.remove(listener);
+        return groupAddressListeners.unregister(listener);
     }
 
     @Override
@@ -405,9 +499,12 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
                     link == null ? "Not OK" : (link.isOpen() ? "Open" : "Closed"));
             return;
         }
-        GroupAddress groupAddress = commandSpec.getGroupAddress();
-        if (groupAddress != null) {
-            sendToKNX(processCommunicator, link, groupAddress, commandSpec.getDPT(), commandSpec.getType());
+        if (commandSpec.getGroupAddress() != null) {
+            if (!sendQueue.add(commandSpec)) {
+                logger.warn("Too many telegrams waiting to be sent to the KNX bus, dropping value '{}' for '{}'",
+                        commandSpec.getType(), commandSpec.getGroupAddress());
+            }
+            scheduleSendJob(0);
         }
     }
 
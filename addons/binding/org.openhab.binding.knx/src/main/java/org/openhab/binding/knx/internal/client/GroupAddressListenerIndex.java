@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.knx.internal.client;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.binding.knx.handler.GroupAddressListener;
+
+import tuwien.auto.calimero.GroupAddress;
+
+/**
+ * Keeps track of the {@link GroupAddressListener}s interested in each group address, so that a telegram can be
+ * dispatched without asking every listener.
+ *
+ * The group addresses of a listener are taken when it is registered. Registering a listener again updates them.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class GroupAddressListenerIndex {
+
+    private final Map<GroupAddress, Set<GroupAddressListener>> listenersByAddress = new ConcurrentHashMap<>();
+    private final Map<GroupAddressListener, Set<GroupAddress>> addressesByListener = new HashMap<>();
+
+    /**
+     * Register the given listener for its current group addresses.
+     *
+     * @param listener the listener
+     * @return {@code true} if it wasn't registered before
+     */
+    public synchronized boolean register(GroupAddressListener listener) {
+        Set<GroupAddress> groupAddresses = new HashSet<>(listener.getGroupAddresses());
+        Set<GroupAddress> previous = addressesByListener.put(listener, groupAddresses);
+        if (previous != null) {
+            for (GroupAddress groupAddress : previous) {
+                if (!groupAddresses.contains(groupAddress)) {
+                    removeListener(groupAddress, listener);
+                }
+            }
+        }
+        for (GroupAddress groupAddress : groupAddresses) {
+            listenersByAddress.computeIfAbsent(groupAddress, key -> new CopyOnWriteArraySet<>()).add(listener);
+        }
+        return previous == null;
+    }
+
+    /**
+     * Remove the given listener.
+     *
+     * @param listener the listener
+     * @return {@code true} if it was registered
+     */
+    public synchronized boolean unregister(GroupAddressListener listener) {
+        Set<GroupAddress> previous = addressesByListener.remove(listener);
+        if (previous == null) {
+            return false;
+        }
+        for (GroupAddress groupAddress : previous) {
+            removeListener(groupAddress, listener);
+        }
+        return true;
+    }
+
+    private void removeListener(GroupAddress groupAddress, GroupAddressListener listener) {
+        listenersByAddress.computeIfPresent(groupAddress, (key, listeners) -> {
+            listeners.remove(listener);
+            return listeners.isEmpty() ? null : listeners;
+        });
+    }
+
+    /**
+     * Get the listeners interested in the given group address.
+     *
+     * @param groupAddress the group address
+     * @return the listeners, empty if there are none
+     */
+    public Set<GroupAddressListener> getListeners(GroupAddress groupAddress) {
+        Set<GroupAddressListener> listeners = listenersByAddress.get(groupAddress);
+        return listeners != null ? listeners : Collections.emptySet();
+    }
+
+}
@@ -8,6 +8,8 @@
  */
 package org.openhab.binding.knx.internal.client;
 
+import org.openhab.binding.knx.internal.client.ReadScheduler.ReadPriority;
+
 import tuwien.auto.calimero.datapoint.Datapoint;
 
 /**
@@ -20,11 +22,32 @@ public class ReadDatapoint {
     private final Datapoint datapoint;
     private int retries;
     private final int limit;
+    private final ReadPriority priority;
+    private final long queuedAt;
+    private long sentAt;
 
     public ReadDatapoint(Datapoint datapoint, int limit) {
+        this(datapoint, limit, ReadPriority.INITIAL, System.currentTimeMillis());
+    }
+
+    public ReadDatapoint(Datapoint datapoint, int limit, ReadPriority priority, long queuedAt) {
         this.datapoint = datapoint;
         this.retries = 0;
         this.limit = limit;
+        this.priority = priority;
+        this.queuedAt = queuedAt;
+    }
+
+    /**
+     * Create a copy of the given data point to be queued with another priority, keeping the number of retries.
+     *
+     * @param other the data point to copy
+     * @param priority the new priority
+     * @param queuedAt the time in milliseconds when the copy is queued
+     */
+    public ReadDatapoint(ReadDatapoint other, ReadPriority priority, long queuedAt) {
+        this(other.datapoint, other.limit, priority, queuedAt);
+        this.retries = other.retries;
     }
 
     public Datapoint getDatapoint() {
@@ -43,6 +66,22 @@ public class ReadDatapoint {
         return limit;
     }
 
+    public ReadPriority getPriority() {
+        return priority;
+    }
+
+    public long getQueuedAt() {
+        return queuedAt;
+    }
+
+    public long getSentAt() {
+        return sentAt;
+    }
+
+    public void setSentAt(long sentAt) {
+        this.sentAt = sentAt;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
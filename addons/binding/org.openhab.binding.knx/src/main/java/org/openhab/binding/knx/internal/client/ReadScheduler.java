@@ -0,0 +1,275 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.knx.internal.client;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.datapoint.Datapoint;
+
+/**
+ * Keeps track of the data points which should be read from the KNX bus.
+ *
+ * Data points are queued per {@link ReadPriority} and de-duplicated by their group address. Read requests are sent
+ * without waiting for the responses, which are matched by group address instead. Requests which are not answered
+ * within the response timeout are queued again as retries.
+ *
+ * The pacing of the read requests follows the time it takes the KNX gateway to acknowledge a request: while the
+ * acknowledgements are as fast as usual, requests are sent in small batches every reading pause. When they slow down
+ * because the bus is busy, only single requests are sent and the pause is increased accordingly.
+ *
+ * All times are in milliseconds and passed in by the caller.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ReadScheduler {
+
+    /**
+     * Priority of a read request, in descending order
+     */
+    public enum ReadPriority {
+        /** Initial read of a value or explicitly requested refresh */
+        INITIAL,
+        /** Periodic refresh of a value which is already known */
+        REFRESH,
+        /** Repeated read of a value for which no response has been received */
+        RETRY
+    }
+
+    static final int MAX_BATCH_SIZE = 4;
+    static final int MAX_OUTSTANDING_READS = 16;
+    static final int MAX_PAUSE_FACTOR = 10;
+
+    /**
+     * Acknowledgements slower than this factor times the fastest ones observed indicate a busy bus
+     */
+    private static final double BUSY_FACTOR = 1.5;
+    private static final double ACK_AVERAGE_WEIGHT = 0.2;
+
+    private final Logger logger = LoggerFactory.getLogger(ReadScheduler.class);
+
+    private final int readingPause;
+    private final int readRetriesLimit;
+    private final long responseTimeoutMillis;
+
+    private final Map<ReadPriority, Deque<ReadDatapoint>> queues = new EnumMap<>(ReadPriority.class);
+    private final Map<GroupAddress, ReadDatapoint> queued = new HashMap<>();
+    // in the order the requests have been sent
+    private final Map<GroupAddress, ReadDatapoint> awaitingResponse = new LinkedHashMap<>();
+
+    private double ackAverageMillis = -1;
+    private double ackBaselineMillis = Double.MAX_VALUE;
+
+    public ReadScheduler(int readingPause, int readRetriesLimit, long responseTimeoutMillis) {
+        this.readingPause = readingPause;
+        this.readRetriesLimit = readRetriesLimit;
+        this.responseTimeoutMillis = responseTimeoutMillis;
+        for (ReadPriority priority : ReadPriority.values()) {
+            queues.put(priority, new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * Queue the given data point for reading.
+     *
+     * Data points already queued with the same or a higher priority, or waiting for their response, are not queued
+     * again. Data points queued with a lower priority are moved up.
+     *
+     * @param datapoint the data point to read
+     * @param priority the priority of the read request
+     * @param now the current time
+     * @return {@code true} if the data point has been queued
+     */
+    public synchronized boolean schedule(Datapoint datapoint, ReadPriority priority, long now) {
+        GroupAddress groupAddress = datapoint.getMainAddress();
+        if (awaitingResponse.containsKey(groupAddress)) {
+            return false;
+        }
+        ReadDatapoint existing = queued.get(groupAddress);
+        ReadDatapoint readDatapoint;
+        if (existing == null) {
+            readDatapoint = new ReadDatapoint(datapoint, readRetriesLimit, priority, now);
+        } else if (priority.compareTo(existing.getPriority()) < 0) {
+            // the entry in the queue of the lower priority is skipped when polled
+            readDatapoint = new ReadDatapoint(existing, priority, existing.getQueuedAt());
+        } else {
+            return false;
+        }
+        queued.put(groupAddress, readDatapoint);
+        queues.get(priority).add(readDatapoint);
+        return true;
+    }
+
+    /**
+     * Get the next data point to read.
+     *
+     * Read requests not answered in time are queued for retrying first.
+     *
+     * @param now the current time
+     * @return the data point with the highest priority, or {@code null} if there is none or too many requests are
+     *         waiting for their response
+     */
+    public synchronized @Nullable ReadDatapoint next(long now) {
+        expireResponses(now);
+        if (awaitingResponse.size() >= MAX_OUTSTANDING_READS) {
+            return null;
+        }
+        for (ReadPriority priority : ReadPriority.values()) {
+            Deque<ReadDatapoint> queue = queues.get(priority);
+            ReadDatapoint readDatapoint;
+            while ((readDatapoint = queue.poll()) != null) {
+                GroupAddress groupAddress = readDatapoint.getDatapoint().getMainAddress();
+                if (queued.get(groupAddress) == readDatapoint) {
+                    queued.remove(groupAddress);
+                    readDatapoint.incrementRetries();
+                    return readDatapoint;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Record that the read request of the given data point has been acknowledged.
+     *
+     * @param readDatapoint the data point
+     * @param now the current time
+     * @param ackMillis the time it took to get the request acknowledged
+     */
+    public synchronized void sent(ReadDatapoint readDatapoint, long now, long ackMillis) {
+        readDatapoint.setSentAt(now);
+        awaitingResponse.put(readDatapoint.getDatapoint().getMainAddress(), readDatapoint);
+        ackAverageMillis = ackAverageMillis < 0 ? ackMillis
+                : ACK_AVERAGE_WEIGHT * ackMillis + (1 - ACK_AVERAGE_WEIGHT) * ackAverageMillis;
+        ackBaselineMillis = Math.min(ackBaselineMillis, Math.max(1, ackAverageMillis));
+    }
+
+    /**
+     * Record that the read request of the given data point could not be sent.
+     *
+     * @param readDatapoint the data point
+     * @param now the current time
+     * @param reason the reason of the failure
+     */
+    public synchronized void failed(ReadDatapoint readDatapoint, long now, @Nullable String reason) {
+        if (retry(readDatapoint, now)) {
+            logger.debug("Could not read value for datapoint {}: {}. Going to retry.",
+                    readDatapoint.getDatapoint().getMainAddress(), reason);
+        }
+    }
+
+    /**
+     * Record that the value of the given group address has been received.
+     *
+     * @param groupAddress the group address
+     */
+    public synchronized void received(GroupAddress groupAddress) {
+        awaitingResponse.remove(groupAddress);
+    }
+
+    private void expireResponses(long now) {
+        Iterator<ReadDatapoint> iterator = awaitingResponse.values().iterator();
+        while (iterator.hasNext()) {
+            ReadDatapoint readDatapoint = iterator.next();
+            if (now - readDatapoint.getSentAt() < responseTimeoutMillis) {
+                break;
+            }
+            iterator.remove();
+            if (retry(readDatapoint, now)) {
+                logger.debug("No response for datapoint {} received. Going to retry.",
+                        readDatapoint.getDatapoint().getMainAddress());
+            }
+        }
+    }
+
+    private boolean retry(ReadDatapoint readDatapoint, long now) {
+        GroupAddress groupAddress = readDatapoint.getDatapoint().getMainAddress();
+        if (readDatapoint.getRetries() >= readDatapoint.getLimit()) {
+            logger.warn("Giving up reading datapoint {}, the number of maximum retries ({}) is reached.", groupAddress,
+                    readDatapoint.getLimit());
+            return false;
+        }
+        if (queued.containsKey(groupAddress)) {
+            // has been queued again in the meantime
+            return false;
+        }
+        ReadDatapoint retryDatapoint = new ReadDatapoint(readDatapoint, ReadPriority.RETRY, now);
+        queued.put(groupAddress, retryDatapoint);
+        queues.get(ReadPriority.RETRY).add(retryDatapoint);
+        return true;
+    }
+
+    /**
+     * @return how many read requests to send in a row
+     */
+    public synchronized int getBatchSize() {
+        int available = MAX_OUTSTANDING_READS - awaitingResponse.size();
+        return Math.max(0, Math.min(available, isBusBusy() ? 1 : MAX_BATCH_SIZE));
+    }
+
+    /**
+     * @return the pause before sending the next batch of read requests
+     */
+    public synchronized long getPauseMillis() {
+        double factor = ackAverageMillis < 0 ? 1 : ackAverageMillis / ackBaselineMillis;
+        return Math.round(readingPause * Math.min(MAX_PAUSE_FACTOR, Math.max(1, factor)));
+    }
+
+    private boolean isBusBusy() {
+        return ackAverageMillis >= 0 && ackAverageMillis > BUSY_FACTOR * ackBaselineMillis;
+    }
+
+    /**
+     * @return the number of data points waiting to be read
+     */
+    public synchronized int getBacklog() {
+        return queued.size();
+    }
+
+    /**
+     * @return the number of read requests waiting for their response
+     */
+    public synchronized int getAwaitingResponse() {
+        return awaitingResponse.size();
+    }
+
+    /**
+     * @param now the current time
+     * @return how long the oldest data point waiting to be read has been queued, 0 if there is none
+     */
+    public synchronized long getLagMillis(long now) {
+        long oldest = now;
+        for (ReadDatapoint readDatapoint : queued.values()) {
+            oldest = Math.min(oldest, readDatapoint.getQueuedAt());
+        }
+        return now - oldest;
+    }
+
+    /**
+     * Forget about all data points.
+     */
+    public synchronized void clear() {
+        queues.values().forEach(Deque::clear);
+        queued.clear();
+        awaitingResponse.clear();
+    }
+
+}
@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.knx.internal.client;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.knx.client.OutboundSpec;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.dptxlator.DPTXlatorBoolean;
+
+/**
+ * Queue of the telegrams to be written to the KNX bus.
+ *
+ * The telegrams are sent in the order they have been queued, across all group addresses, so that e.g. a dimming
+ * value followed by a switch off ends with the light switched off. A write to a group address which is still queued
+ * replaces the queued value and moves to the end of the queue, except for telegrams which are events rather than
+ * states: step dimming and blinds control (DPT 3), scenes, and step, trigger and scene A/B telegrams of DPT 1. The
+ * telegrams are spaced so that the configured number of telegrams per second is not exceeded.
+ *
+ * All times are in milliseconds and passed in by the caller.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class SendQueue {
+
+    static final int MAX_QUEUED_TELEGRAMS = 1000;
+
+    private static final int MAIN_NUMBER_BOOLEAN = 1;
+    private static final int MAIN_NUMBER_3BIT_CONTROLLED = 3;
+    private static final int MAIN_NUMBER_SCENE_NUMBER = 17;
+    private static final int MAIN_NUMBER_SCENE_CONTROL = 18;
+
+    // DPT 1 sub types describing an event rather than a state
+    private static final Set<String> BOOLEAN_EVENT_DPTS = new HashSet<>(
+            Arrays.asList(DPTXlatorBoolean.DPT_STEP.getID(), DPTXlatorBoolean.DPT_TRIGGER.getID(),
+                    DPTXlatorBoolean.DPT_SCENE_AB.getID()));
+
+    private final long minIntervalMillis;
+
+    // keyed by group address, or by a key of their own for telegrams which must not be replaced
+    private final Map<Object, OutboundSpec> queue = new LinkedHashMap<>();
+
+    private long nextSendMillis;
+    private long sent;
+    private long merged;
+    private long dropped;
+
+    /**
+     * @param maxTelegramsPerSecond the maximum number of telegrams to send per second, 0 for no limit
+     */
+    public SendQueue(int maxTelegramsPerSecond) {
+        this.minIntervalMillis = maxTelegramsPerSecond > 0 ? Math.round(1000.0 / maxTelegramsPerSecond) : 0;
+    }
+
+    /**
+     * Queue the given telegram at the end of the queue, replacing a queued one to the same group address.
+     *
+     * @param spec the telegram, must have a group address
+     * @return {@code false} if the telegram has been dropped because the queue is full
+     */
+    public synchronized boolean add(OutboundSpec spec) {
+        GroupAddress groupAddress = spec.getGroupAddress();
+        if (groupAddress == null) {
+            throw new IllegalArgumentException("The telegram must have a group address");
+        }
+        boolean replaceable = isReplaceable(getMainNumber(spec.getDPT()), spec.getDPT());
+        if (replaceable && queue.remove(groupAddress) != null) {
+            // sent after the telegrams queued in between, to keep the order of writes to the same device
+            queue.put(groupAddress, spec);
+            merged++;
+            return true;
+        }
+        if (size() >= MAX_QUEUED_TELEGRAMS) {
+            dropped++;
+            return false;
+        }
+        queue.put(replaceable ? groupAddress : new Object(), spec);
+        return true;
+    }
+
+    /**
+     * Get the next telegram to send, if it may be sent already.
+     *
+     * @param now the current time
+     * @return the oldest telegram or {@code null} if there is none or it is too early
+     */
+    public synchronized @Nullable OutboundSpec poll(long now) {
+        if (now < nextSendMillis) {
+            return null;
+        }
+        Iterator<OutboundSpec> iterator = queue.values().iterator();
+        if (!iterator.hasNext()) {
+            return null;
+        }
+        OutboundSpec spec = iterator.next();
+        iterator.remove();
+        nextSendMillis = now + minIntervalMillis;
+        sent++;
+        return spec;
+    }
+
+    /**
+     * @param now the current time
+     * @return how long to wait until the next telegram may be sent, 0 if it may be sent right away
+     */
+    public synchronized long getDelayMillis(long now) {
+        return Math.max(0, nextSendMillis - now);
+    }
+
+    private static boolean isReplaceable(int mainNumber, String dpt) {
+        switch (mainNumber) {
+            case MAIN_NUMBER_BOOLEAN:
+                return !BOOLEAN_EVENT_DPTS.contains(dpt);
+            case MAIN_NUMBER_3BIT_CONTROLLED:
+            case MAIN_NUMBER_SCENE_NUMBER:
+            case MAIN_NUMBER_SCENE_CONTROL:
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    private static int getMainNumber(String dpt) {
+        int separator = dpt.indexOf('.');
+        try {
+            return Integer.parseInt(separator > 0 ? dpt.substring(0, separator) : dpt);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @return the number of queued telegrams
+     */
+    public synchronized int size() {
+        return queue.size();
+    }
+
+    /**
+     * @return the number of telegrams taken from the queue for sending
+     */
+    public synchronized long getSent() {
+        return sent;
+    }
+
+    /**
+     * @return the number of telegrams which replaced a queued one
+     */
+    public synchronized long getMerged() {
+        return merged;
+    }
+
+    /**
+     * @return the number of telegrams dropped because the queue was full or the connection was released
+     */
+    public synchronized long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * Drop all queued telegrams.
+     */
+    public synchronized void clear() {
+        dropped += size();
+        queue.clear();
+    }
+
+}
@@ -20,6 +20,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.eclipse.smarthome.core.library.types.DateTimeType;
 import org.eclipse.smarthome.core.library.types.DecimalType;
@@ -103,6 +106,37 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
     /** stores the default KNX DPT to use for each openHAB type */
     private final Map<Class<? extends Type>, String> defaultDptMap;
 
+    /** stores the resolved datapoint types and their translators by datapoint type id */
+    private final Map<String, DPTInfo> dptInfoMap = new ConcurrentHashMap<>();
+
+    /**
+     * A datapoint type resolved once, together with a pool of translators for it.
+     *
+     * Translators keep the data they translate, so an instance is used by one thread at a time only.
+     */
+    private static class DPTInfo {
+        private final DPT dpt;
+        private final int mainNumber;
+        private final int subNumber;
+        private final Queue<DPTXlator> translators = new ConcurrentLinkedQueue<>();
+
+        private DPTInfo(DPTXlator translator, int mainNumber, int subNumber) {
+            this.dpt = translator.getType();
+            this.mainNumber = mainNumber;
+            this.subNumber = subNumber;
+            translators.add(translator);
+        }
+
+        private DPTXlator borrowTranslator() throws KNXException {
+            DPTXlator translator = translators.poll();
+            return translator != null ? translator : TranslatorTypes.createTranslator(0, dpt.getID());
+        }
+
+        private void returnTranslator(DPTXlator translator) {
+            translators.offer(translator);
+        }
+    }
+
     public KNXCoreTypeMapper() {
 
         @SuppressWarnings("unused")
@@ -547,8 +581,7 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
         }
 
         try {
-            DPTXlator translator = TranslatorTypes.createTranslator(mainNumber, dptID);
-            dpt = translator.getType();
+            dpt = getDPTInfo(mainNumber, dptID).dpt;
         } catch (KNXException e) {
             return null;
         }
@@ -615,20 +648,23 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
 
     @Override
     public Type toType(Datapoint datapoint, byte[] data) {
+        DPTInfo dptInfo = null;
+        DPTXlator translator = null;
         try {
-            DPTXlator translator = TranslatorTypes.createTranslator(datapoint.getMainNumber(), datapoint.getDPT());
+            dptInfo = getDPTInfo(datapoint.getMainNumber(), datapoint.getDPT());
+            translator = dptInfo.borrowTranslator();
             translator.setData(data);
             String value = translator.getValue();
 
-            String id = translator.getType().getID();
+            String id = dptInfo.dpt.getID();
             logger.trace("toType datapoint DPT = {}", datapoint.getDPT());
 
-            int mainNumber = getMainNumber(id);
+            int mainNumber = dptInfo.mainNumber;
             if (mainNumber == -1) {
                 logger.debug("toType: couldn't identify mainnumber in dptID: {}.", id);
                 return null;
             }
-            int subNumber = getSubNumber(id);
+            int subNumber = dptInfo.subNumber;
             if (subNumber == -1) {
                 logger.debug("toType: couldn't identify sub number in dptID: {}.", id);
                 return null;
@@ -781,12 +817,9 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
             }
 
             if (typeClass.equals(HSBType.class)) {
-                // value has format of "r:<red value> g:<green value> b:<blue value>"
-                int r = Integer.parseInt(value.split(" ")[0].split(":")[1]);
-                int g = Integer.parseInt(value.split(" ")[1].split(":")[1]);
-                int b = Integer.parseInt(value.split(" ")[2].split(":")[1]);
-
-                return HSBType.fromRGB(r, g, b);
+                // the data consists of one unsigned byte each for red, green and blue
+                byte[] rgb = translator.getData();
+                return HSBType.fromRGB(rgb[0] & 0xff, rgb[1] & 0xff, rgb[2] & 0xff);
             }
 
         } catch (KNXFormatException kfe) {
@@ -797,11 +830,37 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
                     datapoint.getDPT());
         } catch (KNXException e) {
             logger.warn("Failed creating a translator for datapoint type '{}'.", datapoint.getDPT(), e);
+        } finally {
+            if (dptInfo != null && translator != null) {
+                dptInfo.returnTranslator(translator);
+            }
         }
 
         return null;
     }
 
+    /**
+     * Resolves the given datapoint type id, creating the first translator for it only once.
+     *
+     * @param mainNumber the main number of the datapoint type, or 0 to take it from the id
+     * @param dptID the datapoint type id
+     * @return the resolved datapoint type
+     * @throws KNXException if there is no translator for the datapoint type
+     */
+    private DPTInfo getDPTInfo(int mainNumber, String dptID) throws KNXException {
+        DPTInfo dptInfo = dptInfoMap.get(dptID);
+        if (dptInfo == null) {
+            DPTXlator translator = TranslatorTypes.createTranslator(mainNumber, dptID);
+            String id = translator.getType().getID();
+            dptInfo = new DPTInfo(translator, getMainNumber(id), getSubNumber(id));
+            DPTInfo existing = dptInfoMap.putIfAbsent(dptID, dptInfo);
+            if (existing != null) {
+                dptInfo = existing;
+            }
+        }
+        return dptInfo;
+    }
+
     /**
      * Converts a datapoint type id into an openHAB type class
      *
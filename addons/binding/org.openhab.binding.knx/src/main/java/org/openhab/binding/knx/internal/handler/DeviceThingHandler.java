@@ -11,6 +11,8 @@ package org.openhab.binding.knx.internal.handler;
 import static org.openhab.binding.knx.KNXBindingConstants.*;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -66,6 +68,7 @@ public class DeviceThingHandler extends AbstractKNXThingHandler {
 
     private final KNXTypeMapper typeHelper = new KNXCoreTypeMapper();
     private final Set<GroupAddress> groupAddresses = new HashSet<>();
+    private volatile Map<GroupAddress, List<ListenRoute>> listenRoutes = Collections.emptyMap();
     private final Map<GroupAddress, @Nullable ScheduledFuture<?>> readFutures = new HashMap<>();
     private final Map<ChannelUID, @Nullable ScheduledFuture<?>> channelFutures = new HashMap<>();
     private @Nullable IndividualAddress address;
@@ -75,20 +78,46 @@ public class DeviceThingHandler extends AbstractKNXThingHandler {
         super(thing);
     }
 
+    /**
+     * A channel listening to a group address, together with how to interpret the received data
+     */
+    private static class ListenRoute {
+        private final ChannelUID channelUID;
+        private final InboundSpec listenSpec;
+
+        private ListenRoute(ChannelUID channelUID, InboundSpec listenSpec) {
+            this.channelUID = channelUID;
+            this.listenSpec = listenSpec;
+        }
+    }
+
     @Override
     public void initialize() {
-        super.initialize();
         DeviceConfig config = getConfigAs(DeviceConfig.class);
         readInterval = config.getReadInterval().intValue();
+        // the group addresses must be known before registering with the client
         initializeGroupAddresses();
+        super.initialize();
     }
 
     private void initializeGroupAddresses() {
-        forAllChannels((selector, channelConfiguration) -> {
-            groupAddresses.addAll(selector.getReadAddresses(channelConfiguration));
-            groupAddresses.addAll(selector.getWriteAddresses(channelConfiguration));
-            groupAddresses.addAll(selector.getListenAddresses(channelConfiguration));
-        });
+        groupAddresses.clear();
+        Map<GroupAddress, List<ListenRoute>> routes = new HashMap<>();
+        for (Channel channel : getThing().getChannels()) {
+            withKNXType(channel, (selector, channelConfiguration) -> {
+                groupAddresses.addAll(selector.getReadAddresses(channelConfiguration));
+                groupAddresses.addAll(selector.getWriteAddresses(channelConfiguration));
+                for (GroupAddress groupAddress : selector.getListenAddresses(channelConfiguration)) {
+                    groupAddresses.add(groupAddress);
+                    InboundSpec listenSpec = selector.getListenSpec(channelConfiguration, groupAddress);
+                    if (listenSpec != null) {
+                        routes.computeIfAbsent(groupAddress, key -> new ArrayList<>())
+                                .add(new ListenRoute(channel.getUID(), listenSpec));
+                    }
+                }
+            });
+        }
+        listenRoutes = routes;
     }
 
     @Override
@@ -124,12 +153,6 @@ public class DeviceThingHandler extends AbstractKNXThingHandler {
         }
     }
 
-    private void forAllChannels(ChannelFunction function) {
-        for (Channel channel : getThing().getChannels()) {
-            withKNXType(channel, function);
-        }
-    }
-
     @Override
     public void channelLinked(ChannelUID channelUID) {
         if (!isControl(channelUID)) {
@@ -164,23 +187,28 @@ public class DeviceThingHandler extends AbstractKNXThingHandler {
         if (readInterval > 0) {
             ScheduledFuture<?> future = readFutures.get(groupAddress);
             if (future == null || future.isDone() || future.isCancelled()) {
-                future = getScheduler().scheduleWithFixedDelay(() -> readDatapoint(groupAddress, dpt), 0, readInterval,
-                        TimeUnit.SECONDS);
+                getScheduler().submit(() -> readDatapoint(groupAddress, dpt, false));
+                future = getScheduler().scheduleWithFixedDelay(() -> readDatapoint(groupAddress, dpt, true),
+                        readInterval, readInterval, TimeUnit.SECONDS);
                 readFutures.put(groupAddress, future);
             }
         } else {
-            getScheduler().submit(() -> readDatapoint(groupAddress, dpt));
+            getScheduler().submit(() -> readDatapoint(groupAddress, dpt, false));
         }
     }
 
-    private void readDatapoint(GroupAddress groupAddress, String dpt) {
+    private void readDatapoint(GroupAddress groupAddress, String dpt, boolean refresh) {
         if (getClient().isConnected()) {
             if (!isDPTSupported(dpt)) {
                 logger.warn("DPT '{}' is not supported by the KNX binding", dpt);
                 return;
             }
             Datapoint datapoint = new CommandDP(groupAddress, getThing().getUID().toString(), 0, dpt);
-            getClient().readDatapoint(datapoint);
+            if (refresh) {
+                getClient().refreshDatapoint(datapoint);
+            } else {
+                getClient().readDatapoint(datapoint);
+            }
         }
     }
 
@@ -189,6 +217,11 @@ public class DeviceThingHandler extends AbstractKNXThingHandler {
         return groupAddresses.contains(destination);
     }
 
+    @Override
+    public Set<GroupAddress> getGroupAddresses() {
+        return Collections.unmodifiableSet(groupAddresses);
+    }
+
     @Override
     public void handleCommand(ChannelUID channelUID, Command command) {
         logger.trace("Handling command '{}' for channel '{}'", command, channelUID);
@@ -265,15 +298,14 @@ public class DeviceThingHandler extends AbstractKNXThingHandler {
         logger.debug("Thing '{}' received a Group Write telegram from '{}' for destination '{}'", getThing().getUID(),
                 source, destination);
 
-        for (Channel channel : getThing().getChannels()) {
-            withKNXType(channel, (selector, configuration) -> {
-                InboundSpec listenSpec = selector.getListenSpec(configuration, destination);
-                if (listenSpec != null) {
-                    logger.trace("Thing '{}' processes a Group Write telegram for destination '{}' for channel '{}'",
-                            getThing().getUID(), destination, channel.getUID());
-                    processDataReceived(destination, asdu, listenSpec, channel.getUID());
-                }
-            });
+        List<ListenRoute> routes = listenRoutes.get(destination);
+        if (routes == null) {
+            return;
+        }
+        for (ListenRoute route : routes) {
+            logger.trace("Thing '{}' processes a Group Write telegram for destination '{}' for channel '{}'",
+                    getThing().getUID(), destination, route.channelUID);
+            processDataReceived(destination, asdu, route.listenSpec, route.channelUID);
         }
     }
 
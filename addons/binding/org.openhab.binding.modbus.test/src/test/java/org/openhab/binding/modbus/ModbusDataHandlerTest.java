@@ -15,6 +15,7 @@ import static org.mockito.Mockito.*;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -728,6 +729,94 @@ public class ModbusDataHandlerTest extends JavaTest {
         // no datetime, conversion not possible without transformation
     }
 
+    @SuppressWarnings({ "null" })
+    @Test
+    public void testOnRegistersUnchangedValueReusesState() {
+        ModbusSlaveEndpoint endpoint = new ModbusTCPSlaveEndpoint("thisishost", 502);
+
+        // Minimally mocked request
+        ModbusReadRequestBlueprint request = Mockito.mock(ModbusReadRequestBlueprint.class);
+        doReturn(3).when(request).getDataLength();
+        doReturn(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS).when(request).getFunctionCode();
+
+        PollTask task = Mockito.mock(PollTask.class);
+        doReturn(endpoint).when(task).getEndpoint();
+        doReturn(request).when(task).getRequest();
+
+        Bridge poller = createPollerMock("poller1", task);
+
+        Configuration dataConfig = new Configuration();
+        dataConfig.put("readStart", "0");
+        dataConfig.put("readTransform", "default");
+        dataConfig.put("readValueType", "int16");
+        ModbusDataThingHandler dataHandler = createDataHandler("read1", poller,
+                builder -> builder.withConfiguration(dataConfig));
+        assertThat(dataHandler.getThing().getStatus(), is(equalTo(ThingStatus.ONLINE)));
+
+        ChannelUID numberChannel = new ChannelUID(dataHandler.getThing().getUID(),
+                ModbusBindingConstants.CHANNEL_NUMBER);
+
+        dataHandler.onRegisters(request, new BasicModbusRegisterArray(5));
+        dataHandler.onRegisters(request, new BasicModbusRegisterArray(5));
+        dataHandler.onRegisters(request, new BasicModbusRegisterArray(6));
+
+        // unchanged value is still updated (default configuration), using the same state object
+        List<State> states = stateUpdates.get(numberChannel);
+        assertThat(states, is(equalTo(Arrays.asList(new DecimalType(5), new DecimalType(5), new DecimalType(6)))));
+        assertThat(states.get(1), is(sameInstance(states.get(0))));
+        assertThat(states.get(2), is(not(sameInstance(states.get(1)))));
+    }
+
+    @SuppressWarnings({ "null" })
+    @Test
+    public void testOnRegistersUnchangedValueUpdatedEveryNPolls() {
+        ModbusSlaveEndpoint endpoint = new ModbusTCPSlaveEndpoint("thisishost", 502);
+
+        // Minimally mocked request
+        ModbusReadRequestBlueprint request = Mockito.mock(ModbusReadRequestBlueprint.class);
+        doReturn(3).when(request).getDataLength();
+        doReturn(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS).when(request).getFunctionCode();
+
+        PollTask task = Mockito.mock(PollTask.class);
+        doReturn(endpoint).when(task).getEndpoint();
+        doReturn(request).when(task).getRequest();
+
+        Bridge poller = createPollerMock("poller1", task);
+
+        Configuration dataConfig = new Configuration();
+        dataConfig.put("readStart", "0");
+        dataConfig.put("readTransform", "default");
+        dataConfig.put("readValueType", "int16");
+        dataConfig.put("updateUnchangedValuesEveryNPolls", new BigDecimal(3));
+        ModbusDataThingHandler dataHandler = createDataHandler("read1", poller,
+                builder -> builder.withConfiguration(dataConfig));
+        assertThat(dataHandler.getThing().getStatus(), is(equalTo(ThingStatus.ONLINE)));
+
+        ChannelUID numberChannel = new ChannelUID(dataHandler.getThing().getUID(),
+                ModbusBindingConstants.CHANNEL_NUMBER);
+        ChannelUID lastReadSuccessChannel = new ChannelUID(dataHandler.getThing().getUID(),
+                ModbusBindingConstants.CHANNEL_LAST_READ_SUCCESS);
+
+        // first poll and every third poll with unchanged value update the channels
+        for (int i = 0; i < 4; i++) {
+            dataHandler.onRegisters(request, new BasicModbusRegisterArray(5));
+        }
+        assertThat(stateUpdates.get(numberChannel),
+                is(equalTo(Arrays.asList(new DecimalType(5), new DecimalType(5)))));
+        assertThat(stateUpdates.get(lastReadSuccessChannel).size(), is(equalTo(4)));
+
+        // changed value is updated immediately
+        dataHandler.onRegisters(request, new BasicModbusRegisterArray(6));
+        assertThat(stateUpdates.get(numberChannel).size(), is(equalTo(3)));
+        assertThat(stateUpdates.get(numberChannel).get(2), is(equalTo(new DecimalType(6))));
+
+        // error resets the change detection
+        dataHandler.onError(request, new Exception("fooerror"));
+        dataHandler.onRegisters(request, new BasicModbusRegisterArray(6));
+        assertThat(stateUpdates.get(numberChannel).size(), is(equalTo(4)));
+        assertThat(dataHandler.getThing().getStatus(), is(equalTo(ThingStatus.ONLINE)));
+    }
+
     private void mockTransformation(String name, TransformationService service) throws InvalidSyntaxException {
         doReturn(Arrays.asList(new Object[] { null })).when(bundleContext)
                 .getServiceReferences(TransformationService.class, "(smarthome.transform=" + name + ")");
@@ -90,6 +90,7 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
     private final Logger logger = LoggerFactory.getLogger(ModbusDataThingHandler.class);
 
     private static final Map<String, List<Class<? extends State>>> CHANNEL_ID_TO_ACCEPTED_TYPES = new HashMap<>();
+    private static final DecimalType DECIMAL_ONE = new DecimalType(BigDecimal.ONE);
 
     static {
         CHANNEL_ID_TO_ACCEPTED_TYPES.put(ModbusBindingConstants.CHANNEL_SWITCH,
@@ -129,6 +130,14 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
     private volatile boolean transformationOnlyInWrite;
     private volatile boolean childOfEndpoint;
     private volatile @Nullable ModbusPollerThingHandler pollerHandler;
+    private volatile int updateUnchangedValuesEveryNPolls = 1;
+    // change detection: raw bits of the previously processed value, and number of polls it has been unchanged
+    private volatile boolean hasLastReadValue;
+    private volatile long lastReadValue;
+    private volatile int unchangedPolls;
+    // state object of the previously extracted value, reused while the value does not change
+    private volatile @Nullable DecimalType lastNumericState;
+    private volatile long lastNumericStateValue;
 
     public ModbusDataThingHandler(Thing thing) {
         super(thing);
@@ -151,6 +160,8 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
                 // There is no data to update
                 return;
             }
+            // Make sure the refreshed data updates the channels even if the value has not changed
+            resetChangeDetection();
             // We *schedule* the REFRESH to avoid dead-lock situation where poller is trying update this
             // data thing with cached data (resulting in deadlock in two synchronized methods: this (handleCommand) and
             // onRegisters.
@@ -387,6 +398,10 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
         transformationOnlyInWrite = false;
         childOfEndpoint = false;
         pollerHandler = null;
+        updateUnchangedValuesEveryNPolls = 1;
+        resetChangeDetection();
+        lastNumericState = null;
+        lastNumericStateValue = 0;
     }
 
     @Override
@@ -476,6 +491,12 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
             }
         }
         readTransformation = new Transformation(config.getReadTransform());
+        if (config.getUpdateUnchangedValuesEveryNPolls() < 1) {
+            String errmsg = String.format("Thing %s updateUnchangedValuesEveryNPolls=%d is invalid! Must be at least 1",
+                    getThing().getUID(), config.getUpdateUnchangedValuesEveryNPolls());
+            throw new ModbusConfigurationException(errmsg);
+        }
+        updateUnchangedValuesEveryNPolls = config.getUpdateUnchangedValuesEveryNPolls();
 
         validateReadIndex(pollTask);
     }
@@ -648,8 +669,20 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
             int itemsPerRegister = 16 / readValueType.getBits();
             extractIndex = (readIndex.get() - pollStart) * itemsPerRegister + subIndex;
         }
-        numericState = ModbusBitUtilities.extractStateFromRegisters(registers, extractIndex, readValueType);
-        boolean boolValue = !numericState.equals(DecimalType.ZERO);
+        // Decode the value as primitive. Intermediate buffers and big decimals are avoided, and nothing is allocated
+        // when the value has not changed
+        boolean floatType = ModbusBitUtilities.isFloatType(readValueType);
+        double doubleValue = floatType
+                ? ModbusBitUtilities.extractDoubleFromRegisters(registers, extractIndex, readValueType)
+                : 0;
+        long longValue = floatType ? Double.doubleToLongBits(doubleValue)
+                : ModbusBitUtilities.extractLongFromRegisters(registers, extractIndex, readValueType);
+        if (!valueChangedOrUpdateDue(longValue)) {
+            processUnchangedValue();
+            return;
+        }
+        numericState = numericStateOf(longValue, floatType, doubleValue);
+        boolean boolValue = floatType ? doubleValue != 0 : longValue != 0;
         Map<ChannelUID, State> values = processUpdatedValue(numericState, boolValue);
         logger.debug(
                 "Thing {} channels updated: {}. readValueType={}, readIndex={}, readSubIndex(or 0)={}, extractIndex={} -> numeric value {} and boolValue={}. Registers {} for request {}",
@@ -665,7 +698,11 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
             return;
         }
         boolean boolValue = bits.getBit(readIndex.get() - pollStart);
-        DecimalType numericState = boolValue ? new DecimalType(BigDecimal.ONE) : DecimalType.ZERO;
+        if (!valueChangedOrUpdateDue(boolValue ? 1 : 0)) {
+            processUnchangedValue();
+            return;
+        }
+        DecimalType numericState = boolValue ? DECIMAL_ONE : DecimalType.ZERO;
         Map<ChannelUID, State> values = processUpdatedValue(numericState, boolValue);
         logger.debug(
                 "Thing {} channels updated: {}. readValueType={}, readIndex={} -> numeric value {} and boolValue={}. Bits {} for request {}",
@@ -691,6 +728,8 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
                     getThing().getUID(), getThing().getLabel(), error.getClass().getName(), error.toString(),
                     error.getMessage(), error);
         }
+        // Channels and status are updated with the next successful read, even if the value has not changed
+        resetChangeDetection();
         Map<@NonNull ChannelUID, @NonNull State> states = new HashMap<>();
         states.put(new ChannelUID(getThing().getUID(), ModbusBindingConstants.CHANNEL_LAST_READ_ERROR),
                 new DateTimeType());
@@ -755,6 +794,63 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
         updateState(ModbusBindingConstants.CHANNEL_LAST_WRITE_SUCCESS, now);
     }
 
+    /**
+     * Whether the polled value should be processed, i.e. transformed and the channels updated
+     *
+     * Changed values are always processed. Unchanged values are processed only every
+     * <code>updateUnchangedValuesEveryNPolls</code>'th poll.
+     *
+     * @param rawValue raw bits of the value extracted from the polled data
+     * @return whether to process the value
+     */
+    private boolean valueChangedOrUpdateDue(long rawValue) {
+        if (hasLastReadValue && rawValue == lastReadValue && ++unchangedPolls < updateUnchangedValuesEveryNPolls) {
+            return false;
+        }
+        hasLastReadValue = true;
+        lastReadValue = rawValue;
+        unchangedPolls = 0;
+        return true;
+    }
+
+    /**
+     * State object for the extracted value. The state of the previous value is reused when the value has not changed,
+     * so that polls returning the same value do not allocate new states.
+     *
+     * @param rawValue raw bits of the value extracted from the polled data
+     * @param floatType whether the value is floating point
+     * @param doubleValue the value, in case of floating point value
+     * @return state representing the value
+     */
+    private DecimalType numericStateOf(long rawValue, boolean floatType, double doubleValue) {
+        DecimalType numericState = lastNumericState;
+        if (numericState == null || rawValue != lastNumericStateValue) {
+            numericState = floatType ? new DecimalType(doubleValue) : new DecimalType(rawValue);
+            lastNumericState = numericState;
+            lastNumericStateValue = rawValue;
+        }
+        return numericState;
+    }
+
+    private void resetChangeDetection() {
+        hasLastReadValue = false;
+        lastReadValue = 0;
+        unchangedPolls = 0;
+    }
+
+    /**
+     * Update the last successful read time when value has not changed since it was last processed
+     *
+     * Other channels are left as they are.
+     */
+    private void processUnchangedValue() {
+        logger.trace("Thing {} value unchanged for {} polls, not updating channels", thing.getUID(), unchangedPolls);
+        if (isLinked(ModbusBindingConstants.CHANNEL_LAST_READ_SUCCESS)) {
+            tryUpdateState(new ChannelUID(getThing().getUID(), ModbusBindingConstants.CHANNEL_LAST_READ_SUCCESS),
+                    new DateTimeType());
+        }
+    }
+
     /**
      * Update linked channels
      *
@@ -785,6 +881,9 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
                 if (boolLikeState != null) {
                     // A bit of smartness for ON/OFF and OPEN/CLOSED with boolean like items
                     transformedState = boolLikeState;
+                } else if (DecimalType.class.equals(acceptedDataTypes.get(0))) {
+                    // The numeric state is what the transformation would parse back, no need to re-create it
+                    transformedState = numericState;
                 } else {
                     // Numeric states always go through transformation. This allows value of 17.5 to be
                     // converted to
@@ -51,7 +51,10 @@ public class ModbusTcpThingHandler
         poolConfiguration.setConnectTimeoutMillis(config.getConnectTimeoutMillis());
         poolConfiguration.setInterConnectDelayMillis(config.getTimeBetweenReconnectMillis());
         poolConfiguration.setInterTransactionDelayMillis(config.getTimeBetweenTransactionsMillis());
+        poolConfiguration.setMaxInterTransactionDelayMillis(config.getTimeBetweenTransactionsMaxMillis());
         poolConfiguration.setReconnectAfterMillis(config.getReconnectAfterMillis());
+        poolConfiguration.setMaxInFlightTransactions(config.getMaxInFlightTransactions());
+        poolConfiguration.setReadMergeMaxGap(config.getReadMergeMaxGap());
     }
 
     @Override
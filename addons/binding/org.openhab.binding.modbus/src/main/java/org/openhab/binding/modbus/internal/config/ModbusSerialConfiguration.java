@@ -37,8 +37,10 @@ public class ModbusSerialConfiguration {
     @Nullable
     private String flowControlOut;
     private int timeBetweenTransactionsMillis;
+    private int timeBetweenTransactionsMaxMillis;
     private int connectMaxTries;
     private int connectTimeoutMillis;
+    private int readMergeMaxGap = -1;
 
     public @Nullable String getPort() {
         return port;
@@ -152,4 +154,20 @@ public class ModbusSerialConfiguration {
         this.connectTimeoutMillis = connectTimeoutMillis;
     }
 
+    public int getTimeBetweenTransactionsMaxMillis() {
+        return timeBetweenTransactionsMaxMillis;
+    }
+
+    public void setTimeBetweenTransactionsMaxMillis(int timeBetweenTransactionsMaxMillis) {
+        this.timeBetweenTransactionsMaxMillis = timeBetweenTransactionsMaxMillis;
+    }
+
+    public int getReadMergeMaxGap() {
+        return readMergeMaxGap;
+    }
+
+    public void setReadMergeMaxGap(int readMergeMaxGap) {
+        this.readMergeMaxGap = readMergeMaxGap;
+    }
+
 }
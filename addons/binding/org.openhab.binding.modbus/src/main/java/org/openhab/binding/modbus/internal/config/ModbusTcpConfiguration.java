@@ -24,10 +24,13 @@ public class ModbusTcpConfiguration {
     private int port;
     private int id;
     private int timeBetweenTransactionsMillis;
+    private int timeBetweenTransactionsMaxMillis;
     private int timeBetweenReconnectMillis;
     private int connectMaxTries;
     private int reconnectAfterMillis;
     private int connectTimeoutMillis;
+    private int maxInFlightTransactions = 1;
+    private int readMergeMaxGap = -1;
 
     public @Nullable String getHost() {
         return host;
@@ -93,4 +96,28 @@ public class ModbusTcpConfiguration {
         this.connectTimeoutMillis = connectTimeoutMillis;
     }
 
+    public int getMaxInFlightTransactions() {
+        return maxInFlightTransactions;
+    }
+
+    public void setMaxInFlightTransactions(int maxInFlightTransactions) {
+        this.maxInFlightTransactions = maxInFlightTransactions;
+    }
+
+    public int getTimeBetweenTransactionsMaxMillis() {
+        return timeBetweenTransactionsMaxMillis;
+    }
+
+    public void setTimeBetweenTransactionsMaxMillis(int timeBetweenTransactionsMaxMillis) {
+        this.timeBetweenTransactionsMaxMillis = timeBetweenTransactionsMaxMillis;
+    }
+
+    public int getReadMergeMaxGap() {
+        return readMergeMaxGap;
+    }
+
+    public void setReadMergeMaxGap(int readMergeMaxGap) {
+        this.readMergeMaxGap = readMergeMaxGap;
+    }
+
 }
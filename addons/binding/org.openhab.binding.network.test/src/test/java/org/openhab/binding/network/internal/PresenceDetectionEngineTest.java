@@ -0,0 +1,199 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.network.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+/**
+ * Tests cases for {@see PresenceDetectionEngine}
+ *
+ * @author agent - Initial contribution
+ */
+public class PresenceDetectionEngineTest {
+    @Mock
+    ExecutorService executorService;
+
+    @Mock
+    ScheduledExecutorService scheduler;
+
+    @Mock
+    ScheduledFuture<?> timeout;
+
+    @Mock
+    Supplier<Double> check;
+
+    PresenceDetectionEngine subject;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(check.get()).thenReturn(12.0);
+        doReturn(timeout).when(scheduler).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+        subject = new PresenceDetectionEngine(executorService, scheduler);
+    }
+
+    @Test
+    public void runningCheckIsShared() throws Exception {
+        CompletableFuture<Double> first = subject.submit("ICMP 127.0.0.1", check, 500, false);
+        CompletableFuture<Double> second = subject.submit("ICMP 127.0.0.1", check, 500, false);
+        CompletableFuture<Double> other = subject.submit("ICMP 127.0.0.2", check, 500, false);
+
+        assertSame(first, second);
+        assertNotSame(first, other);
+        assertThat(subject.getRunningChecks(), is(2));
+
+        ArgumentCaptor<Runnable> capture = ArgumentCaptor.forClass(Runnable.class);
+        verify(executorService, times(2)).execute(capture.capture());
+        for (Runnable r : capture.getAllValues()) {
+            r.run();
+        }
+
+        verify(check, times(2)).get();
+        assertThat(first.get(), is(12.0));
+        assertThat(other.get(), is(12.0));
+        assertThat(subject.getRunningChecks(), is(0));
+    }
+
+    @Test
+    public void finishedCheckIsPerformedAgain() throws Exception {
+        CompletableFuture<Double> first = subject.submit("ICMP 127.0.0.1", check, 500, false);
+        ArgumentCaptor<Runnable> capture = ArgumentCaptor.forClass(Runnable.class);
+        verify(executorService).execute(capture.capture());
+        capture.getValue().run();
+        assertTrue(first.isDone());
+
+        CompletableFuture<Double> second = subject.submit("ICMP 127.0.0.1", check, 500, false);
+        assertNotSame(first, second);
+        verify(executorService, times(2)).execute(any());
+    }
+
+    @Test
+    public void failedCheckCompletesExceptionally() {
+        when(check.get()).thenThrow(new IllegalStateException());
+
+        CompletableFuture<Double> future = subject.submit("TCP 127.0.0.1 80", check, 500, false);
+        ArgumentCaptor<Runnable> capture = ArgumentCaptor.forClass(Runnable.class);
+        verify(executorService).execute(capture.capture());
+        capture.getValue().run();
+
+        assertTrue(future.isCompletedExceptionally());
+        assertThat(subject.getRunningChecks(), is(0));
+    }
+
+    @Test
+    public void checkWithOtherTimeoutIsNotShared() {
+        CompletableFuture<Double> first = subject.submit("ICMP 127.0.0.1", check, 500, false);
+        CompletableFuture<Double> second = subject.submit("ICMP 127.0.0.1", check, 1000, false);
+
+        assertNotSame(first, second);
+        assertThat(subject.getRunningChecks(), is(2));
+        verify(executorService, times(2)).execute(any());
+    }
+
+    @Test
+    public void lowPriorityCheckIsSharedOnlyByLowPriorityChecks() {
+        CompletableFuture<Double> discovery = subject.submit("ICMP 127.0.0.1", check, 500, true);
+        CompletableFuture<Double> otherDiscovery = subject.submit("ICMP 127.0.0.1", check, 500, true);
+        CompletableFuture<Double> thing = subject.submit("ICMP 127.0.0.1", check, 500, false);
+        CompletableFuture<Double> laterDiscovery = subject.submit("ICMP 127.0.0.1", check, 500, true);
+
+        assertSame(discovery, otherDiscovery);
+        assertNotSame(discovery, thing);
+        assertSame(thing, laterDiscovery);
+        verify(executorService, times(2)).execute(any());
+    }
+
+    @Test
+    public void lowPriorityChecksWaitForOtherChecks() {
+        List<String> performed = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            String destination = "127.0.0." + i;
+            subject.submit("ICMP " + destination, () -> {
+                performed.add(destination);
+                return 12.0;
+            }, 500, i % 2 == 1);
+        }
+
+        ArgumentCaptor<Runnable> capture = ArgumentCaptor.forClass(Runnable.class);
+        verify(executorService, times(4)).execute(capture.capture());
+        // The first worker performs all waiting checks
+        capture.getAllValues().get(0).run();
+
+        assertThat(performed.toString(), is("[127.0.0.2, 127.0.0.4, 127.0.0.1, 127.0.0.3]"));
+        assertThat(subject.getRunningChecks(), is(0));
+    }
+
+    @Test
+    public void numberOfWorkersIsLimited() {
+        for (int i = 0; i < PresenceDetectionEngine.MAX_THREADS + 5; i++) {
+            subject.submit("ICMP 127.0.0." + i, check, 500, false);
+        }
+
+        ArgumentCaptor<Runnable> capture = ArgumentCaptor.forClass(Runnable.class);
+        verify(executorService, times(PresenceDetectionEngine.MAX_THREADS)).execute(capture.capture());
+        capture.getValue().run();
+
+        verify(check, times(PresenceDetectionEngine.MAX_THREADS + 5)).get();
+        assertThat(subject.getRunningChecks(), is(0));
+
+        // The finished worker can be started again
+        subject.submit("ICMP 127.0.0.1", check, 500, false);
+        verify(executorService, times(PresenceDetectionEngine.MAX_THREADS + 1)).execute(any());
+    }
+
+    @Test
+    public void rejectedWorkerFailsWaitingChecks() {
+        doThrow(new RejectedExecutionException()).when(executorService).execute(any());
+
+        CompletableFuture<Double> future = subject.submit("ICMP 127.0.0.1", check, 500, false);
+
+        assertTrue(future.isCompletedExceptionally());
+        assertThat(subject.getRunningChecks(), is(0));
+        verify(check, never()).get();
+    }
+
+    @Test
+    public void checkTimesOut() throws Exception {
+        ArgumentCaptor<Runnable> timeoutCapture = ArgumentCaptor.forClass(Runnable.class);
+        // The check does not return before the timeout
+        when(check.get()).thenAnswer(invocation -> {
+            verify(scheduler).schedule(timeoutCapture.capture(),
+                    eq(500L + PresenceDetectionEngine.TIMEOUT_MARGIN_IN_MS), eq(TimeUnit.MILLISECONDS));
+            timeoutCapture.getValue().run();
+            return 12.0;
+        });
+
+        CompletableFuture<Double> future = subject.submit("ICMP 127.0.0.1", check, 500, false);
+        ArgumentCaptor<Runnable> capture = ArgumentCaptor.forClass(Runnable.class);
+        verify(executorService).execute(capture.capture());
+        capture.getValue().run();
+
+        assertThat(future.get(), is(PresenceDetection.NOT_REACHABLE));
+        assertThat(subject.getRunningChecks(), is(0));
+        verify(timeout).cancel(false);
+    }
+}
@@ -17,6 +17,8 @@ import java.io.IOException;
 import java.net.UnknownHostException;
 import java.util.Collections;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
@@ -48,6 +50,12 @@ public class PresenceDetectionTest {
     @Mock
     ExecutorService executorService;
 
+    @Mock
+    ScheduledExecutorService scheduler;
+
+    @Mock
+    ScheduledFuture<?> timeout;
+
     @Mock
     Consumer<PresenceDetectionValue> callback;
 
@@ -85,26 +93,26 @@ public class PresenceDetectionTest {
         subject.waitForPresenceDetection();
     }
 
-    // Depending on the amount of test methods an according amount of threads is spawned.
-    // We will check if they spawn and return in time.
+    // Depending on the amount of test methods an according amount of checks is submitted.
+    // We will check if they are performed and return in time.
     @Test
     public void threadCountTest() {
-        assertNull(subject.executorService);
+        assertNull(subject.detection);
 
-        doNothing().when(subject).performARPping(anyObject());
-        doNothing().when(subject).performJavaPing();
-        doNothing().when(subject).performSystemPing();
-        doNothing().when(subject).performServicePing(anyInt());
+        doReturn(PresenceDetection.NOT_REACHABLE).when(subject).performARPping(anyObject());
+        doReturn(PresenceDetection.NOT_REACHABLE).when(subject).performJavaPing();
+        doReturn(PresenceDetection.NOT_REACHABLE).when(subject).performSystemPing();
+        doReturn(PresenceDetection.NOT_REACHABLE).when(subject).performServicePing(anyInt());
 
         subject.performPresenceDetection(false);
 
-        // Thread count: ARP + ICMP + 1*TCP
+        // Check count: ARP + ICMP + 1*TCP
         assertThat(subject.detectionChecks, is(3));
-        assertNotNull(subject.executorService);
+        assertNotNull(subject.detection);
 
         subject.waitForPresenceDetection();
         assertThat(subject.detectionChecks, is(0));
-        assertNull(subject.executorService);
+        assertNull(subject.detection);
     }
 
     @Test
@@ -136,18 +144,19 @@ public class PresenceDetectionTest {
                 anyObject(), anyInt());
         doReturn(true).when(networkUtils).servicePing(anyString(), anyInt(), anyInt());
 
-        doReturn(executorService).when(subject).getThreadsFor(anyInt());
+        doReturn(timeout).when(scheduler).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+        subject.engine = new PresenceDetectionEngine(executorService, scheduler);
 
         // We expect no valid value
         assertTrue(subject.cache.isExpired());
         // Get value will issue a PresenceDetection internally.
         subject.getValue(callback);
         verify(subject).performPresenceDetection(eq(false));
-        assertNotNull(subject.executorService);
+        assertNotNull(subject.detection);
         // There should be no straight callback yet
         verify(callback, times(0)).accept(anyObject());
 
-        // Perform the different presence detection threads now
+        // Perform the different presence detection checks now
         ArgumentCaptor<Runnable> capture = ArgumentCaptor.forClass(Runnable.class);
         verify(executorService, times(3)).execute(capture.capture());
         for (Runnable r : capture.getAllValues()) {
@@ -170,6 +179,23 @@ public class PresenceDetectionTest {
         verify(callback, times(2)).accept(anyObject());
     }
 
+    @Test
+    public void waitForPresenceDetectionIsLimited() {
+        // The checks never get a worker
+        subject.engine = new PresenceDetectionEngine(executorService, scheduler);
+
+        assertTrue(subject.performPresenceDetection(false));
+        long start = System.currentTimeMillis();
+        subject.waitForPresenceDetection();
+        long waited = System.currentTimeMillis() - start;
+
+        assertThat(waited >= 300 + PresenceDetectionEngine.TIMEOUT_MARGIN_IN_MS, is(true));
+        assertNull(subject.detection);
+        ArgumentCaptor<PresenceDetectionValue> capture = ArgumentCaptor.forClass(PresenceDetectionValue.class);
+        verify(listener).finalDetectionResult(capture.capture());
+        assertThat(capture.getValue().isReachable(), is(false));
+    }
+
     @Test
     public void reuseValueTests() throws InterruptedException, IOException {
         final long START_TIME = 1000L;
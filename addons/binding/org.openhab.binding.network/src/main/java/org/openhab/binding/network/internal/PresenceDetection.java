@@ -13,14 +13,18 @@ import java.net.Inet4Address;
 import java.net.InetAddress;
 import java.net.SocketException;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import org.apache.commons.lang.StringUtils;
 import org.openhab.binding.network.internal.dhcp.DHCPListenService;
@@ -41,6 +45,7 @@ import org.slf4j.LoggerFactory;
 public class PresenceDetection implements IPRequestReceivedCallback {
     public static final double NOT_REACHABLE = -1;
     NetworkUtils networkUtils = new NetworkUtils();
+    PresenceDetectionEngine engine = PresenceDetectionEngine.getInstance();
     private Logger logger = LoggerFactory.getLogger(PresenceDetection.class);
 
     /// Configuration variables
@@ -49,6 +54,7 @@ public class PresenceDetection implements IPRequestReceivedCallback {
     private String arpPingUtilPath = "arping";
     private IpPingMethodEnum pingMethod = null;
     private boolean iosDevice;
+    private boolean lowPriority;
     private Set<Integer> tcpPorts = new HashSet<Integer>();
 
     private long refreshIntervalInMS = 60000;
@@ -62,9 +68,8 @@ public class PresenceDetection implements IPRequestReceivedCallback {
     private final PresenceDetectionListener updateListener;
     private ScheduledFuture<?> refreshJob;
     private InetAddress destination;
-    ExecutorService executorService;
+    CompletableFuture<Void> detection;
     private String dhcpState = "off";
-    Integer currentCheck = 0;
     int detectionChecks;
 
     public PresenceDetection(final PresenceDetectionListener updateListener, int cacheDeviceStateTimeInMS)
@@ -184,6 +189,14 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         iosDevice = value;
     }
 
+    /**
+     * Set to true if the checks of this presence detection should wait for the checks of all other presence
+     * detections, for example for discovery.
+     */
+    public void setLowPriority(boolean value) {
+        lowPriority = value;
+    }
+
     /**
      * Return the last seen value in milliseconds based on {@link System.currentTimeMillis()} or 0 if not seen yet.
      */
@@ -202,14 +215,11 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         cache.getValue(callback);
     }
 
-    public ExecutorService getThreadsFor(int threadCount) {
-        return Executors.newFixedThreadPool(threadCount);
-    }
-
     /**
      * Perform a presence detection with ICMP-, ARP ping and
-     * TCP connection attempts simultaneously. A fixed thread pool will be created with as many
-     * thread as necessary to perform all tests at once.
+     * TCP connection attempts simultaneously. The checks are performed by the binding wide
+     * {@link PresenceDetectionEngine}, a check that is already running for the same destination
+     * (for another thing or discovery) is shared instead of being performed again.
      *
      * This is a NO-OP, if there is already an ongoing detection or if the cached value
      * is not expired yet.
@@ -223,7 +233,24 @@ public class PresenceDetection implements IPRequestReceivedCallback {
      * @return Return true if a presence detection is performed and false otherwise.
      */
     public boolean performPresenceDetection(boolean waitForDetectionToFinish) {
-        if (executorService != null) {
+        if (!startPresenceDetection()) {
+            return false;
+        }
+
+        if (waitForDetectionToFinish) {
+            waitForPresenceDetection();
+        }
+
+        return true;
+    }
+
+    /**
+     * Submits all checks of a presence detection to the {@link PresenceDetectionEngine}.
+     *
+     * @return Return true if a presence detection has been started and false otherwise.
+     */
+    private synchronized boolean startPresenceDetection() {
+        if (detection != null) {
             logger.debug(
                     "There is already an ongoing presence discovery for {} and a new one was issued by the scheduler! TCP Port {}",
                     hostname, tcpPorts);
@@ -236,7 +263,6 @@ public class PresenceDetection implements IPRequestReceivedCallback {
 
         Set<String> interfaceNames = null;
 
-        currentCheck = 0;
         detectionChecks = tcpPorts.size();
         if (pingMethod != null) {
             detectionChecks += 1;
@@ -250,61 +276,84 @@ public class PresenceDetection implements IPRequestReceivedCallback {
             return false;
         }
 
-        executorService = getThreadsFor(detectionChecks);
+        final String hostAddress = destination.getHostAddress();
+        final List<CompletableFuture<Void>> checks = new ArrayList<>(detectionChecks);
 
         for (Integer tcpPort : tcpPorts) {
-            executorService.execute(() -> {
-                Thread.currentThread().setName("presenceDetectionTCP_" + hostname + " " + String.valueOf(tcpPort));
-                performServicePing(tcpPort);
-                checkIfFinished();
-            });
+            checks.add(submitCheck("TCP " + hostAddress + " " + tcpPort, () -> performServicePing(tcpPort),
+                    latency -> {
+                        PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.TCP_CONNECTION, latency);
+                        v.addReachableTcpService(tcpPort);
+                        updateListener.partialDetectionResult(v);
+                    }));
         }
 
-        // ARP ping for IPv4 addresses. Use an own executor for each network interface
+        // ARP ping for IPv4 addresses. Use an own check for each network interface
         if (interfaceNames != null) {
+            // The arping tool and the iOS wake up change the result of an ARP ping
+            final String arpOptions = arpPingMethod + " " + arpPingUtilPath + (iosDevice ? " iOS" : "");
             for (final String interfaceName : interfaceNames) {
-                executorService.execute(() -> {
-                    Thread.currentThread().setName("presenceDetectionARP_" + hostname + " " + interfaceName);
-                    performARPping(interfaceName);
-                    checkIfFinished();
-                });
+                checks.add(submitCheck("ARP " + hostAddress + " " + interfaceName + " " + arpOptions,
+                        () -> performARPping(interfaceName), latency -> {
+                            updateListener.partialDetectionResult(
+                                    updateReachableValue(PresenceDetectionType.ARP_PING, latency));
+                        }));
             }
         }
 
         // ICMP ping
         if (pingMethod != null) {
-            executorService.execute(() -> {
-                if (pingMethod != IpPingMethodEnum.JAVA_PING) {
-                    Thread.currentThread().setName("presenceDetectionICMP_" + hostname);
-                    performSystemPing();
-                } else {
-                    performJavaPing();
-                }
-                checkIfFinished();
-            });
-        }
-
-        if (waitForDetectionToFinish) {
-            waitForPresenceDetection();
+            final boolean javaPing = pingMethod == IpPingMethodEnum.JAVA_PING;
+            checks.add(submitCheck(pingMethod + " " + hostAddress,
+                    () -> javaPing ? performJavaPing() : performSystemPing(), latency -> {
+                        updateListener.partialDetectionResult(
+                                updateReachableValue(PresenceDetectionType.ICMP_PING, latency));
+                    }));
         }
 
+        final CompletableFuture<Void> allChecks = CompletableFuture
+                .allOf(checks.toArray(new CompletableFuture<?>[checks.size()]));
+        detection = allChecks;
+        // This will happen way before the "timeoutInMS", if all checks were successful.
+        allChecks.whenComplete((result, e) -> submitFinalResult(allChecks));
         return true;
     }
 
+    /**
+     * Submits a check to the {@link PresenceDetectionEngine}.
+     *
+     * @param key Identifies the check, its destination and options. Running checks with the same key and timeout
+     *            are shared.
+     * @param check Performs the check and returns the latency or {@link #NOT_REACHABLE}.
+     * @param reachable Called with the latency if the device is reachable.
+     * @return A future that is completed after the result of the check has been processed.
+     */
+    private CompletableFuture<Void> submitCheck(String key, Supplier<Double> check, Consumer<Double> reachable) {
+        return engine.submit(key, check, timeoutInMS, lowPriority).handle((latency, e) -> {
+            if (e != null) {
+                logger.debug("Presence detection check {} failed", key, e);
+            } else if (latency != NOT_REACHABLE) {
+                reachable.accept(latency);
+            }
+            return null;
+        });
+    }
+
     /**
      * Calls updateListener.finalDetectionResult() with a final result value.
      * Safe to be called from different threads. After a call to this method,
-     * the presence detection process is finished and all threads are forcefully
-     * shut down.
+     * the presence detection process is finished.
+     *
+     * @param finishedDetection The checks of the finished detection. Nothing happens if
+     *            this is not the ongoing detection (anymore).
      */
-    private synchronized void submitFinalResult() {
-        // Do nothing if we are not in a detection process
-        if (executorService == null) {
+    private synchronized void submitFinalResult(CompletableFuture<Void> finishedDetection) {
+        // Do nothing if we are not in this detection process
+        if (detection != finishedDetection) {
             return;
         }
         // Finish the detection process
-        executorService.shutdownNow();
-        executorService = null;
+        detection = null;
         detectionChecks = 0;
 
         PresenceDetectionValue v;
@@ -323,36 +372,36 @@ public class PresenceDetection implements IPRequestReceivedCallback {
     }
 
     /**
-     * This method is called after each individual check and increases a check counter.
-     * If the counter equals the total checks,the final result is submitted. This will
-     * happen way before the "timeoutInMS", if all checks were successful.
-     * Thread safe.
-     */
-    private synchronized void checkIfFinished() {
-        currentCheck += 1;
-        if (currentCheck < detectionChecks) {
-            return;
-        }
-        submitFinalResult();
-    }
-
-    /**
-     * Waits for the presence detection threads to finish. Returns immediately
-     * if no presence detection is performed right now.
+     * Waits for the presence detection checks to finish. Returns immediately
+     * if no presence detection is performed right now. Each check is limited by the
+     * timeout once it is performed, but may have to wait for a free worker of the
+     * {@link PresenceDetectionEngine} first. If the checks did not finish within the timeout
+     * (plus {@link PresenceDetectionEngine#TIMEOUT_MARGIN_IN_MS}), the final result is
+     * submitted with the checks finished so far.
      */
     public void waitForPresenceDetection() {
-        if (executorService == null) {
+        final CompletableFuture<Void> ongoingDetection = detection;
+        if (ongoingDetection == null) {
             return;
         }
         try {
             // We may get interrupted here by cancelRefreshJob().
-            executorService.awaitTermination(timeoutInMS + 100, TimeUnit.MILLISECONDS);
-            submitFinalResult();
+            ongoingDetection.get(timeoutInMS + PresenceDetectionEngine.TIMEOUT_MARGIN_IN_MS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.debug("Presence detection for {} did not finish in time", hostname);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt(); // Reset interrupt flag
-            executorService.shutdownNow();
-            executorService = null;
+            synchronized (this) {
+                if (detection == ongoingDetection) {
+                    detection = null;
+                    detectionChecks = 0;
+                }
+            }
+            return;
+        } catch (ExecutionException ignored) {
+            // Failed checks are logged and count as not reachable
         }
+        submitFinalResult(ongoingDetection);
     }
 
     /**
@@ -380,20 +429,24 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         return v;
     }
 
-    protected void performServicePing(int tcpPort) {
+    /**
+     * Tries to establish a TCP connection to the given port.
+     *
+     * @param tcpPort The TCP port
+     * @return The latency in milliseconds or {@link #NOT_REACHABLE}.
+     */
+    protected double performServicePing(int tcpPort) {
         logger.trace("Perform TCP presence detection for {} on port: {}", hostname, tcpPort);
         try {
             double pingTime = System.nanoTime();
             if (networkUtils.servicePing(destination.getHostAddress(), tcpPort, timeoutInMS)) {
-                final double latency = Math.round((System.nanoTime() - pingTime) / 1000000.0f);
-                PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.TCP_CONNECTION, latency);
-                v.addReachableTcpService(tcpPort);
-                updateListener.partialDetectionResult(v);
+                return Math.round((System.nanoTime() - pingTime) / 1000000.0f);
             }
         } catch (IOException e) {
             // This should not happen and might be a user configuration issue, we log a warning message therefore.
             logger.warn("Could not create a socket connection", e);
         }
+        return NOT_REACHABLE;
     }
 
     /**
@@ -403,8 +456,9 @@ public class PresenceDetection implements IPRequestReceivedCallback {
      *
      * @param interfaceName The interface name. You can request a list of interface names
      *            from {@see NetworkUtils.getInterfaceNames()} for example.
+     * @return The latency in milliseconds or {@link #NOT_REACHABLE}.
      */
-    protected void performARPping(String interfaceName) {
+    protected double performARPping(String interfaceName) {
         try {
             logger.trace("Perform ARP ping presence detection for {} on interface: {}", hostname, interfaceName);
             if (iosDevice) {
@@ -414,15 +468,14 @@ public class PresenceDetection implements IPRequestReceivedCallback {
             double pingTime = System.nanoTime();
             if (networkUtils.nativeARPPing(arpPingMethod, arpPingUtilPath, interfaceName, destination.getHostAddress(),
                     timeoutInMS)) {
-                final double latency = Math.round((System.nanoTime() - pingTime) / 1000000.0f);
-                PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.ARP_PING, latency);
-                updateListener.partialDetectionResult(v);
+                return Math.round((System.nanoTime() - pingTime) / 1000000.0f);
             }
         } catch (IOException e) {
             logger.trace("Failed to execute an arp ping for ip {}", hostname, e);
         } catch (InterruptedException ignored) {
             // This can be ignored, the thread will end anyway
         }
+        return NOT_REACHABLE;
     }
 
     /**
@@ -430,35 +483,40 @@ public class PresenceDetection implements IPRequestReceivedCallback {
      * and will not work on windows systems reliably and will fall back from ICMP pings to
      * the TCP echo service on port 7 which barely no device or server supports nowadays.
      * (http://docs.oracle.com/javase/7/docs/api/java/net/InetAddress.html#isReachable%28int%29)
+     *
+     * @return The latency in milliseconds or {@link #NOT_REACHABLE}.
      */
-    protected void performJavaPing() {
+    protected double performJavaPing() {
         try {
             logger.trace("Perform java ping presence detection for {}", hostname);
             double pingTime = System.nanoTime();
             if (destination.isReachable(timeoutInMS)) {
-                final double latency = Math.round((System.nanoTime() - pingTime) / 1000000.0f);
-                PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.ICMP_PING, latency);
-                updateListener.partialDetectionResult(v);
+                return Math.round((System.nanoTime() - pingTime) / 1000000.0f);
             }
         } catch (IOException e) {
             logger.trace("Failed to execute a java ping for ip {}", hostname, e);
         }
+        return NOT_REACHABLE;
     }
 
-    protected void performSystemPing() {
+    /**
+     * Performs a ping with the native ping utility of the system.
+     *
+     * @return The latency in milliseconds or {@link #NOT_REACHABLE}.
+     */
+    protected double performSystemPing() {
         try {
             logger.trace("Perform native ping presence detection for {}", hostname);
             double pingTime = System.nanoTime();
             if (networkUtils.nativePing(pingMethod, destination.getHostAddress(), timeoutInMS)) {
-                final double latency = Math.round((System.nanoTime() - pingTime) / 1000000.0f);
-                PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.ICMP_PING, latency);
-                updateListener.partialDetectionResult(v);
+                return Math.round((System.nanoTime() - pingTime) / 1000000.0f);
             }
         } catch (IOException e) {
             logger.trace("Failed to execute a native ping for ip {}", hostname, e);
         } catch (InterruptedException e) {
             // This can be ignored, the thread will end anyway
         }
+        return NOT_REACHABLE;
     }
 
     @Override
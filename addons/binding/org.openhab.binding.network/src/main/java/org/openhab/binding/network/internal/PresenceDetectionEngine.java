@@ -0,0 +1,223 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.network.internal;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A singleton. The {@link PresenceDetectionEngine} performs the checks of all {@link PresenceDetection} objects
+ * of the binding on a bounded number of workers, instead of a thread pool per presence detection. The workers run
+ * on the shared "network" thread pool of the {@link ThreadPoolManager}.
+ *
+ * Checks are identified by a key (the kind of check, the destination and the options of the check) and their timeout.
+ * If a check is requested while a check with the same key and timeout is still running or waiting for a worker, the
+ * running check is shared and no further ping process or connection attempt is started for it.
+ *
+ * Low priority checks (discovery) wait for a free worker after all normal checks (things), and a normal check does not
+ * share a low priority check. A check that does not return within its timeout plus {@link #TIMEOUT_MARGIN_IN_MS} after
+ * it has been started is completed with {@link PresenceDetection#NOT_REACHABLE}.
+ *
+ * @author agent - Initial contribution
+ */
+public class PresenceDetectionEngine {
+    /**
+     * Maximum number of checks performed at the same time. Further checks wait for a free worker. The size of the
+     * thread pool may limit the number of checks further.
+     */
+    static final int MAX_THREADS = 32;
+
+    /** Name of the thread pool of the workers and of the timeouts */
+    static final String THREAD_POOL_NAME = "network";
+
+    /** Time in milliseconds a check may exceed its timeout before it is completed as not reachable */
+    static final int TIMEOUT_MARGIN_IN_MS = 2000;
+
+    private static final PresenceDetectionEngine INSTANCE = new PresenceDetectionEngine(
+            ThreadPoolManager.getPool(THREAD_POOL_NAME), ThreadPoolManager.getScheduledPool(THREAD_POOL_NAME));
+
+    private final Logger logger = LoggerFactory.getLogger(PresenceDetectionEngine.class);
+
+    private final ExecutorService executor;
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, Check> runningChecks = new ConcurrentHashMap<>();
+    /** Checks waiting for a worker, ordered by their priority, see Check.compareTo() */
+    private final PriorityBlockingQueue<Check> waitingChecks = new PriorityBlockingQueue<>();
+    private final AtomicInteger workers = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+
+    PresenceDetectionEngine(ExecutorService executor, ScheduledExecutorService scheduler) {
+        this.executor = executor;
+        this.scheduler = scheduler;
+    }
+
+    public static PresenceDetectionEngine getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Performs a check on a worker thread, or shares the result of a running check with the same key and timeout.
+     *
+     * @param key Identifies the check: the kind of check, the destination address and all options that change the
+     *            result of the check.
+     * @param check Performs the check and returns the latency in milliseconds or
+     *            {@link PresenceDetection#NOT_REACHABLE}.
+     * @param timeoutInMS The timeout of the check in milliseconds.
+     * @param lowPriority True if the check should wait for all other checks, for example for discovery.
+     * @return A future completed with the result of the check. It is completed with
+     *         {@link PresenceDetection#NOT_REACHABLE} if the check did not return in time, and exceptionally if the
+     *         check failed with an exception.
+     */
+    public CompletableFuture<Double> submit(String key, Supplier<Double> check, int timeoutInMS, boolean lowPriority) {
+        final String checkKey = key + " " + timeoutInMS;
+        final Check newCheck = new Check(checkKey, check, timeoutInMS, lowPriority);
+        final Check running = runningChecks.compute(checkKey, (k, runningCheck) -> {
+            // A normal check does not wait for a low priority check
+            if (runningCheck != null && (lowPriority || !runningCheck.lowPriority)) {
+                return runningCheck;
+            }
+            return newCheck;
+        });
+        if (running != newCheck) {
+            logger.trace("Sharing the running check {}", checkKey);
+            return running.future;
+        }
+
+        waitingChecks.add(newCheck);
+        startWorker();
+        return newCheck.future;
+    }
+
+    /**
+     * Starts a worker, unless {@link #MAX_THREADS} workers are running already.
+     */
+    private void startWorker() {
+        int running;
+        do {
+            running = workers.get();
+            if (running >= MAX_THREADS) {
+                return;
+            }
+        } while (!workers.compareAndSet(running, running + 1));
+
+        try {
+            executor.execute(this::performWaitingChecks);
+        } catch (RejectedExecutionException e) {
+            // Fail the waiting checks if no worker is left to perform them
+            if (workers.decrementAndGet() == 0) {
+                Check check;
+                while ((check = waitingChecks.poll()) != null) {
+                    runningChecks.remove(check.key, check);
+                    check.future.completeExceptionally(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * A worker: Performs waiting checks until no check is waiting.
+     */
+    private void performWaitingChecks() {
+        try {
+            Check check;
+            while ((check = waitingChecks.poll()) != null) {
+                check.run();
+            }
+        } finally {
+            workers.decrementAndGet();
+        }
+        // A check might have been added while all workers were about to stop
+        if (!waitingChecks.isEmpty()) {
+            startWorker();
+        }
+    }
+
+    /**
+     * Return the number of checks that are running or waiting for a worker.
+     */
+    public int getRunningChecks() {
+        return runningChecks.size();
+    }
+
+    /**
+     * A check waiting for a worker or running. Checks are ordered by priority first and submission second.
+     */
+    private class Check implements Comparable<Check> {
+        private final String key;
+        private final Supplier<Double> check;
+        private final int timeoutInMS;
+        private final boolean lowPriority;
+        private final long order = sequence.incrementAndGet();
+        private final CompletableFuture<Double> future = new CompletableFuture<>();
+
+        Check(String key, Supplier<Double> check, int timeoutInMS, boolean lowPriority) {
+            this.key = key;
+            this.check = check;
+            this.timeoutInMS = timeoutInMS;
+            this.lowPriority = lowPriority;
+        }
+
+        public void run() {
+            ScheduledFuture<?> timeout = null;
+            try {
+                timeout = scheduler.schedule(() -> {
+                    if (complete(PresenceDetection.NOT_REACHABLE)) {
+                        logger.debug("Presence detection check {} timed out", key);
+                    }
+                }, timeoutInMS + TIMEOUT_MARGIN_IN_MS, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                logger.debug("Cannot limit the duration of the check {}", key, e);
+            }
+
+            try {
+                complete(check.get());
+            } catch (RuntimeException e) {
+                runningChecks.remove(key, this);
+                future.completeExceptionally(e);
+            } finally {
+                if (timeout != null) {
+                    timeout.cancel(false);
+                }
+            }
+        }
+
+        /**
+         * Completes the check with the given result, if it has not been completed yet.
+         *
+         * @return True if the check has been completed by this call.
+         */
+        private boolean complete(double result) {
+            // Remove the check first, so that a check requested from now on is performed again
+            runningChecks.remove(key, this);
+            return future.complete(result);
+        }
+
+        @Override
+        public int compareTo(Check other) {
+            if (lowPriority != other.lowPriority) {
+                return lowPriority ? 1 : -1;
+            }
+            return Long.compare(order, other.order);
+        }
+    }
+}
@@ -11,12 +11,12 @@ package org.openhab.binding.network.internal.discovery;
 import static org.openhab.binding.network.NetworkBindingConstants.*;
 
 import java.net.UnknownHostException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 import org.eclipse.smarthome.config.core.Configuration;
@@ -57,8 +57,9 @@ public class NetworkDiscoveryService extends AbstractDiscoveryService implements
     // TCP port 554 (Windows share / Linux samba)
     // TCP port 1025 (Xbox / MS-RPC)
     private Set<Integer> tcp_service_ports = Sets.newHashSet(80, 548, 554, 1025);
-    private Integer scannedIPcount;
-    private ExecutorService executorService = null;
+    private int scannedIPcount;
+    /** The IPs of the running scan whose presence detection has not finished yet */
+    private final Set<String> pendingIPs = ConcurrentHashMap.newKeySet();
     private final NetworkBindingConfiguration configuration = new NetworkBindingConfiguration();
     NetworkUtils networkUtils = new NetworkUtils();
 
@@ -106,22 +107,24 @@ public class NetworkDiscoveryService extends AbstractDiscoveryService implements
 
     @Override
     public void finalDetectionResult(PresenceDetectionValue value) {
+        detectionFinished(value.getHostAddress());
     }
 
     /**
-     * Starts the DiscoveryThread for each IP on each interface on the network
+     * Starts a presence detection for each IP on each interface on the network. The checks are performed
+     * with low priority by the {@link org.openhab.binding.network.internal.PresenceDetectionEngine}, this
+     * method does not wait for them. The scan is stopped when all presence detections have finished.
      */
     @Override
     protected void startScan() {
-        if (executorService != null) {
+        if (!pendingIPs.isEmpty()) {
             return;
         }
         removeOlderResults(getTimestampOfLastScan(), null);
         logger.trace("Starting Network Device Discovery");
 
         final Set<String> networkIPs = networkUtils.getNetworkIPs(MAXIMUM_IPS_PER_INTERFACE);
-        executorService = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2);
-        scannedIPcount = 0;
+        final List<PresenceDetection> detections = new ArrayList<>(networkIPs.size());
 
         for (String ip : networkIPs) {
             final PresenceDetection s = new PresenceDetection(this, 2000);
@@ -139,35 +142,40 @@ public class NetworkDiscoveryService extends AbstractDiscoveryService implements
             s.setUseArpPing(true, configuration.arpPingToolPath);
             // TCP devices
             s.setServicePorts(tcp_service_ports);
+            // Checks of things go first
+            s.setLowPriority(true);
+            detections.add(s);
+        }
 
-            executorService.execute(() -> {
-                Thread.currentThread().setName("Discovery thread " + ip);
-                s.performPresenceDetection(true);
-                synchronized (scannedIPcount) {
-                    scannedIPcount += 1;
-                    if (scannedIPcount == networkIPs.size()) {
-                        logger.trace("Scan of {} IPs successful", scannedIPcount);
-                        stopScan();
-                    }
-                }
-            });
+        // Register all IPs first, so that the scan does not finish before all detections have been started
+        scannedIPcount = detections.size();
+        for (PresenceDetection s : detections) {
+            pendingIPs.add(s.getHostname());
+        }
+        for (PresenceDetection s : detections) {
+            if (!s.performPresenceDetection(false)) {
+                detectionFinished(s.getHostname());
+            }
+        }
+    }
+
+    /**
+     * Stops the scan when the presence detection of the last pending IP has finished.
+     *
+     * @param ip The IP whose presence detection has finished
+     */
+    private void detectionFinished(String ip) {
+        if (pendingIPs.remove(ip) && pendingIPs.isEmpty()) {
+            logger.trace("Scan of {} IPs successful", scannedIPcount);
+            stopScan();
         }
     }
 
     @Override
     protected synchronized void stopScan() {
         super.stopScan();
-        if (executorService == null) {
-            return;
-        }
-
-        try {
-            executorService.awaitTermination(PING_TIMEOUT_IN_MS, TimeUnit.MILLISECONDS);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt(); // Reset interrupt flag
-        }
-        executorService.shutdown();
-        executorService = null;
+        // Checks that are still running finish in the background and may still report devices
+        pendingIPs.clear();
     }
 
     public static ThingUID createServiceUID(String ip, int tcpPort) {
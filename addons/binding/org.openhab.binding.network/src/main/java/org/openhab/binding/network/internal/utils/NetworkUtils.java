@@ -29,6 +29,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.SystemUtils;
@@ -41,6 +42,9 @@ import org.eclipse.smarthome.io.net.exec.ExecUtil;
  * @author David Graeff <david.graeff@web.de>
  */
 public class NetworkUtils {
+    /** Time in milliseconds a ping process may exceed the timeout before it is killed */
+    static final int PROCESS_TIMEOUT_MARGIN_IN_MS = 1000;
+
     /**
      * Gets every IPv4 Address on each Interface except the loopback
      * The Address format is ip/subnet
@@ -257,10 +261,10 @@ public class NetworkUtils {
         // Exception: return code is also 0 in Windows for all requests on the local subnet.
         // see https://superuser.com/questions/403905/ping-from-windows-7-get-no-reply-but-sets-errorlevel-to-0
         if (method != IpPingMethodEnum.WINDOWS_PING) {
-            return proc.waitFor() == 0;
+            return waitFor(proc, timeoutInMS) == 0;
         }
 
-        int result = proc.waitFor();
+        int result = waitFor(proc, timeoutInMS);
         if (result != 0) {
             return false;
         }
@@ -321,7 +325,29 @@ public class NetworkUtils {
 
         // The return code is 0 for a successful ping. 1 if device didn't respond and 2 if there is another error like
         // network interface not ready.
-        return proc.waitFor() == 0;
+        return waitFor(proc, timeoutInMS) == 0;
+    }
+
+    /**
+     * Waits for a ping process to exit. The process is killed if it does not exit within the timeout plus
+     * {@link #PROCESS_TIMEOUT_MARGIN_IN_MS}, or if the waiting thread is interrupted.
+     *
+     * @param proc The ping process
+     * @param timeoutInMS The timeout of the ping in milliseconds
+     * @return The exit value of the process or -1 if the process has been killed because of the timeout
+     * @throws InterruptedException The waiting thread has been interrupted
+     */
+    private int waitFor(Process proc, int timeoutInMS) throws InterruptedException {
+        try {
+            if (!proc.waitFor(timeoutInMS + PROCESS_TIMEOUT_MARGIN_IN_MS, TimeUnit.MILLISECONDS)) {
+                proc.destroyForcibly();
+                return -1;
+            }
+        } catch (InterruptedException e) {
+            proc.destroyForcibly();
+            throw e;
+        }
+        return proc.exitValue();
     }
 
     /**
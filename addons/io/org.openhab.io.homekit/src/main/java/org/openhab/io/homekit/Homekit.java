@@ -33,4 +33,12 @@ public interface Homekit {
      * @param allow boolean indicating whether or not to allow unauthenticated requests
      */
     void allowUnauthenticatedRequests(boolean allow);
+
+    /**
+     * Returns a summary of the characteristic change notifications sent to HomeKit clients,
+     * including the number of merged and dropped changes and the notification latency.
+     *
+     * @return the notification statistics
+     */
+    String getNotificationStatistics();
 }
@@ -9,12 +9,10 @@
 package org.openhab.io.homekit.internal;
 
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import org.openhab.io.homekit.internal.accessories.GroupedAccessory;
 import org.slf4j.Logger;
@@ -32,35 +30,34 @@ import com.beowulfe.hap.HomekitRoot;
 class HomekitAccessoryRegistry {
 
     private HomekitRoot bridge;
-    private final List<HomekitAccessory> createdAccessories = new LinkedList<>();
-    private final Set<Integer> createdIds = new HashSet<>();
+    private final Map<Integer, HomekitAccessory> createdAccessories = new LinkedHashMap<>();
     private final Map<String, GroupedAccessory> pendingGroupedAccessories = new HashMap<>();
     private final List<HomekitTaggedItem> pendingCharacteristics = new LinkedList<>();
 
     private final Logger logger = LoggerFactory.getLogger(HomekitAccessoryRegistry.class);
 
-    public void remove(HomekitTaggedItem taggedItem) {
-        Iterator<HomekitAccessory> i = createdAccessories.iterator();
-        while (i.hasNext()) {
-            HomekitAccessory accessory = i.next();
-            if (accessory.getId() == taggedItem.getId()) {
-                logger.debug("Removed accessory {}", accessory.getId());
+    public synchronized void remove(HomekitTaggedItem taggedItem) {
+        HomekitAccessory accessory = createdAccessories.remove(taggedItem.getId());
+        if (accessory != null) {
+            logger.debug("Removed accessory {}", accessory.getId());
+            if (bridge != null) {
                 bridge.removeAccessory(accessory);
-                i.remove();
             }
         }
     }
 
     public synchronized void clear() {
-        while (!createdAccessories.isEmpty()) {
-            bridge.removeAccessory(createdAccessories.remove(0));
+        if (bridge != null) {
+            createdAccessories.values().forEach(accessory -> bridge.removeAccessory(accessory));
         }
-        createdIds.clear();
+        createdAccessories.clear();
     }
 
     public synchronized void setBridge(HomekitRoot bridge) {
         this.bridge = bridge;
-        createdAccessories.forEach(accessory -> bridge.addAccessory(accessory));
+        if (bridge != null) {
+            createdAccessories.values().forEach(accessory -> bridge.addAccessory(accessory));
+        }
     }
 
     public synchronized void addRootDevice(HomekitAccessory accessory) {
@@ -99,9 +96,11 @@ class HomekitAccessoryRegistry {
     }
 
     private void doAddDevice(HomekitAccessory accessory) {
-        createdAccessories.add(accessory);
-        createdIds.add(accessory.getId());
+        HomekitAccessory replaced = createdAccessories.put(accessory.getId(), accessory);
         if (bridge != null) {
+            if (replaced != null) {
+                bridge.removeAccessory(replaced);
+            }
             bridge.addAccessory(accessory);
         }
         logger.debug("Added accessory {}", accessory.getId());
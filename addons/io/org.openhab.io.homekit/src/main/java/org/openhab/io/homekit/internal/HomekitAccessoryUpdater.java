@@ -8,9 +8,15 @@
  */
 package org.openhab.io.homekit.internal;
 
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.items.GenericItem;
 import org.eclipse.smarthome.core.items.Item;
 import org.eclipse.smarthome.core.items.StateChangeListener;
@@ -26,12 +32,33 @@ import com.beowulfe.hap.HomekitCharacteristicChangeCallback;
  * Homekit library takes care of insuring only a single subscription exists for
  * each accessory.
  *
+ * Changes are not notified on the thread changing the item state. The first change of an
+ * item/key pair schedules a notification on a shared thread pool after the notification
+ * window, and further changes until then are merged into it.
+ *
  * @author Andy Lintner
  */
 public class HomekitAccessoryUpdater {
 
+    private static final String THREADPOOL_NAME = "homekit";
+
     private Logger logger = LoggerFactory.getLogger(HomekitAccessoryUpdater.class);
     private final ConcurrentMap<ItemKey, Subscription> subscriptionsByName = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = ThreadPoolManager.getScheduledPool(THREADPOOL_NAME);
+    private volatile long notificationWindow = 100;
+
+    private final AtomicLong sentNotifications = new AtomicLong();
+    private final AtomicLong mergedNotifications = new AtomicLong();
+    private final AtomicLong droppedNotifications = new AtomicLong();
+    private final AtomicLong totalLatency = new AtomicLong();
+    private final AtomicLong maxLatency = new AtomicLong();
+
+    /**
+     * Sets the time in milliseconds changes of an item are collected before HomeKit clients are notified.
+     */
+    public void setNotificationWindow(long notificationWindow) {
+        this.notificationWindow = Math.max(0, notificationWindow);
+    }
 
     public void subscribe(GenericItem item, HomekitCharacteristicChangeCallback callback) {
         subscribe(item, null, callback);
@@ -41,16 +68,14 @@ public class HomekitAccessoryUpdater {
         if (item == null) {
             return;
         }
-        ItemKey itemKey = new ItemKey(item, key);
-        if (subscriptionsByName.containsKey(itemKey)) {
-            logger.error("Received duplicate subscription on {}", item.getName());
-        }
+        ItemKey itemKey = new ItemKey(item.getName(), key);
         subscriptionsByName.compute(itemKey, (k, v) -> {
             if (v != null) {
                 logger.error("Received duplicate subscription on {}", item.getName());
-                unsubscribe(item, key);
+                v.item.removeStateChangeListener(v);
+                v.cancel();
             }
-            Subscription subscription = (changedItem, oldState, newState) -> callback.changed();
+            Subscription subscription = new Subscription(item, callback);
             item.addStateChangeListener(subscription);
             return subscription;
         });
@@ -64,30 +89,145 @@ public class HomekitAccessoryUpdater {
         if (item == null) {
             return;
         }
-        subscriptionsByName.computeIfPresent(new ItemKey(item, key), (k, v) -> {
-            item.removeStateChangeListener(v);
+        subscriptionsByName.computeIfPresent(new ItemKey(item.getName(), key), (k, v) -> {
+            v.item.removeStateChangeListener(v);
+            v.cancel();
             return null;
         });
     }
 
-    @FunctionalInterface
-    private static interface Subscription extends StateChangeListener {
+    /**
+     * Moves the subscriptions of an item to the new instance of the item after it has been updated
+     * in the item registry, so the accessories of the item can be kept.
+     *
+     * @param oldItem the item before the update
+     * @param newItem the item after the update
+     */
+    public void itemUpdated(GenericItem oldItem, GenericItem newItem) {
+        if (oldItem == newItem) {
+            return;
+        }
+        for (Map.Entry<ItemKey, Subscription> entry : subscriptionsByName.entrySet()) {
+            if (!entry.getKey().itemName.equals(newItem.getName())) {
+                continue;
+            }
+            subscriptionsByName.computeIfPresent(entry.getKey(), (k, v) -> {
+                v.item.removeStateChangeListener(v);
+                v.item = newItem;
+                newItem.addStateChangeListener(v);
+                return v;
+            });
+        }
+    }
+
+    public long getSentNotifications() {
+        return sentNotifications.get();
+    }
+
+    /**
+     * Returns the number of changes merged into an already scheduled notification
+     */
+    public long getMergedNotifications() {
+        return mergedNotifications.get();
+    }
+
+    /**
+     * Returns the number of notifications which were not sent because the item was unsubscribed
+     * or the thread pool rejected them
+     */
+    public long getDroppedNotifications() {
+        return droppedNotifications.get();
+    }
+
+    /**
+     * Returns the average time in milliseconds from the first change of an item to the notification
+     */
+    public long getAverageLatency() {
+        long sent = sentNotifications.get();
+        return sent == 0 ? 0 : totalLatency.get() / sent;
+    }
+
+    /**
+     * Returns the maximum time in milliseconds from the first change of an item to the notification
+     */
+    public long getMaxLatency() {
+        return maxLatency.get();
+    }
+
+    private class Subscription implements StateChangeListener {
+        private volatile GenericItem item;
+        private final HomekitCharacteristicChangeCallback callback;
+
+        // time of the first change not notified yet, 0 if there is none
+        private long pendingSince;
+        private boolean cancelled;
+
+        Subscription(GenericItem item, HomekitCharacteristicChangeCallback callback) {
+            this.item = item;
+            this.callback = callback;
+        }
 
         @Override
-        void stateChanged(Item item, State oldState, State newState);
+        public void stateChanged(Item item, State oldState, State newState) {
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                if (pendingSince != 0) {
+                    mergedNotifications.incrementAndGet();
+                    return;
+                }
+                pendingSince = System.currentTimeMillis();
+            }
+            try {
+                scheduler.schedule(this::notifyClients, notificationWindow, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                logger.debug("Could not schedule notification for {}: {}", item.getName(), e.getMessage());
+                synchronized (this) {
+                    pendingSince = 0;
+                }
+                droppedNotifications.incrementAndGet();
+            }
+        }
 
         @Override
-        default void stateUpdated(Item item, State state) {
+        public void stateUpdated(Item item, State state) {
             // Do nothing on non-change update
         }
+
+        private void notifyClients() {
+            long since;
+            synchronized (this) {
+                since = pendingSince;
+                pendingSince = 0;
+                if (cancelled) {
+                    droppedNotifications.incrementAndGet();
+                    return;
+                }
+            }
+            try {
+                callback.changed();
+            } catch (RuntimeException e) {
+                logger.warn("Could not notify HomeKit clients of change of {}: {}", item.getName(), e.getMessage());
+                return;
+            }
+            long latency = System.currentTimeMillis() - since;
+            sentNotifications.incrementAndGet();
+            totalLatency.addAndGet(latency);
+            maxLatency.accumulateAndGet(latency, Math::max);
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+        }
     }
 
     private static class ItemKey {
-        public GenericItem item;
+        public String itemName;
         public String key;
 
-        public ItemKey(GenericItem item, String key) {
-            this.item = item;
+        public ItemKey(String itemName, String key) {
+            this.itemName = itemName;
             this.key = key;
         }
 
@@ -95,7 +235,7 @@ public class HomekitAccessoryUpdater {
         public int hashCode() {
             final int prime = 31;
             int result = 1;
-            result = prime * result + ((item == null) ? 0 : item.hashCode());
+            result = prime * result + ((itemName == null) ? 0 : itemName.hashCode());
             result = prime * result + ((key == null) ? 0 : key.hashCode());
             return result;
         }
@@ -112,11 +252,11 @@ public class HomekitAccessoryUpdater {
                 return false;
             }
             ItemKey other = (ItemKey) obj;
-            if (item == null) {
-                if (other.item != null) {
+            if (itemName == null) {
+                if (other.itemName != null) {
                     return false;
                 }
-            } else if (!item.equals(other.item)) {
+            } else if (!itemName.equals(other.itemName)) {
                 return false;
             }
             if (key == null) {
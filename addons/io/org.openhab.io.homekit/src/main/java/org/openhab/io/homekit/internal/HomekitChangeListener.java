@@ -8,8 +8,13 @@
  */
 package org.openhab.io.homekit.internal;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
+import org.eclipse.smarthome.core.items.GenericItem;
 import org.eclipse.smarthome.core.items.Item;
 import org.eclipse.smarthome.core.items.ItemRegistry;
 import org.eclipse.smarthome.core.items.ItemRegistryChangeListener;
@@ -23,6 +28,11 @@ import com.beowulfe.hap.HomekitRoot;
  * Listens for changes to the item registry. When changes are detected, check
  * for Homekit tags and, if present, add the items to the HomekitAccessoryRegistry.
  *
+ * Every change of an accessory makes the Homekit library reset the connections to all
+ * clients, so only the accessories of items whose tags, type, label or groups have
+ * changed are removed and created again. Other updates only move the subscriptions to
+ * the updated item.
+ *
  * @author Andy Lintner
  */
 public class HomekitChangeListener implements ItemRegistryChangeListener {
@@ -33,40 +43,56 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
     private final HomekitAccessoryRegistry accessoryRegistry = new HomekitAccessoryRegistry();
     private HomekitSettings settings;
 
+    // the tagged items the accessories have been created from, by item name
+    private final Map<String, HomekitTaggedItem> taggedItems = new HashMap<>();
+
     @Override
     public synchronized void added(Item item) {
-        HomekitTaggedItem taggedItem = new HomekitTaggedItem(item, itemRegistry);
-        if (taggedItem.isTagged()) {
-            if (taggedItem.isRootDevice()) {
-                createRootDevice(taggedItem);
-            }
-            if (taggedItem.isCharacteristic()) {
-                createCharacteristic(taggedItem);
-            }
-        }
+        add(new HomekitTaggedItem(item, itemRegistry));
     }
 
     @Override
-    public void allItemsChanged(Collection<String> oldItemNames) {
-        clearAccessories();
+    public synchronized void allItemsChanged(Collection<String> oldItemNames) {
+        Map<String, HomekitTaggedItem> newTaggedItems = new HashMap<>();
+        for (Item item : itemRegistry.getAll()) {
+            HomekitTaggedItem taggedItem = new HomekitTaggedItem(item, itemRegistry);
+            if (taggedItem.isTagged()) {
+                newTaggedItems.put(item.getName(), taggedItem);
+            }
+        }
+
+        List<HomekitTaggedItem> changedItems = new ArrayList<>();
+        for (HomekitTaggedItem oldTaggedItem : new ArrayList<>(taggedItems.values())) {
+            HomekitTaggedItem newTaggedItem = newTaggedItems.remove(oldTaggedItem.getItem().getName());
+            if (newTaggedItem == null) {
+                remove(oldTaggedItem.getItem());
+            } else if (!update(oldTaggedItem.getItem(), newTaggedItem)) {
+                changedItems.add(newTaggedItem);
+            }
+        }
+        // add root devices first, so their characteristics can be added to them right away
+        changedItems.addAll(newTaggedItems.values());
+        changedItems.sort((a, b) -> Boolean.compare(b.isRootDevice(), a.isRootDevice()));
+        changedItems.forEach(this::add);
+        logger.debug("Reloaded homekit items, {} accessories changed", changedItems.size());
     }
 
     @Override
     public synchronized void removed(Item item) {
-        HomekitTaggedItem taggedItem = new HomekitTaggedItem(item, itemRegistry);
-        if (taggedItem.isTagged()) {
-            accessoryRegistry.remove(taggedItem);
-        }
+        remove(item);
     }
 
     @Override
-    public void updated(Item oldElement, Item element) {
-        removed(oldElement);
-        added(element);
+    public synchronized void updated(Item oldElement, Item element) {
+        HomekitTaggedItem taggedItem = new HomekitTaggedItem(element, itemRegistry);
+        if (!update(oldElement, taggedItem)) {
+            add(taggedItem);
+        }
     }
 
     public synchronized void clearAccessories() {
         accessoryRegistry.clear();
+        taggedItems.clear();
     }
 
     public synchronized void setBridge(HomekitRoot bridge) {
@@ -76,15 +102,23 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
     public synchronized void setItemRegistry(ItemRegistry itemRegistry) {
         this.itemRegistry = itemRegistry;
         itemRegistry.addRegistryChangeListener(this);
-        itemRegistry.getAll().forEach(item -> added(item));
+        itemRegistry.getAll().forEach(item -> add(new HomekitTaggedItem(item, itemRegistry)));
     }
 
     public void setUpdater(HomekitAccessoryUpdater updater) {
         this.updater = updater;
+        if (settings != null) {
+            updater.setNotificationWindow(settings.getNotificationWindow());
+        }
     }
 
     public void setSettings(HomekitSettings settings) {
         this.settings = settings;
+        updater.setNotificationWindow(settings.getNotificationWindow());
+    }
+
+    public HomekitAccessoryUpdater getUpdater() {
+        return updater;
     }
 
     public void stop() {
@@ -93,6 +127,48 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
         }
     }
 
+    private void add(HomekitTaggedItem taggedItem) {
+        if (taggedItem.isTagged()) {
+            taggedItems.put(taggedItem.getItem().getName(), taggedItem);
+            if (taggedItem.isRootDevice()) {
+                createRootDevice(taggedItem);
+            }
+            if (taggedItem.isCharacteristic()) {
+                createCharacteristic(taggedItem);
+            }
+        }
+    }
+
+    private void remove(Item item) {
+        HomekitTaggedItem taggedItem = taggedItems.remove(item.getName());
+        if (taggedItem == null) {
+            taggedItem = new HomekitTaggedItem(item, itemRegistry);
+        }
+        if (taggedItem.isTagged()) {
+            accessoryRegistry.remove(taggedItem);
+        }
+    }
+
+    /**
+     * Keeps the accessory of an updated item if its structure has not changed, otherwise
+     * removes it.
+     *
+     * @return true if the accessory has been kept
+     */
+    private boolean update(Item oldItem, HomekitTaggedItem newTaggedItem) {
+        HomekitTaggedItem oldTaggedItem = taggedItems.get(oldItem.getName());
+        if (oldTaggedItem != null && newTaggedItem.isTagged() && oldTaggedItem.hasSameStructure(newTaggedItem)) {
+            taggedItems.put(newTaggedItem.getItem().getName(), newTaggedItem);
+            if (oldTaggedItem.getItem() instanceof GenericItem && newTaggedItem.getItem() instanceof GenericItem) {
+                updater.itemUpdated((GenericItem) oldTaggedItem.getItem(), (GenericItem) newTaggedItem.getItem());
+            }
+            logger.trace("Kept homekit accessory of updated item {}", oldItem.getName());
+            return true;
+        }
+        remove(oldItem);
+        return false;
+    }
+
     private void createRootDevice(HomekitTaggedItem taggedItem) {
         try {
             logger.debug("Adding homekit device {}", taggedItem.getItem().getName());
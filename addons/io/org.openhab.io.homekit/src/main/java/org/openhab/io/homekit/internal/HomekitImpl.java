@@ -93,6 +93,14 @@ public class HomekitImpl implements Homekit {
         }
     }
 
+    @Override
+    public String getNotificationStatistics() {
+        HomekitAccessoryUpdater updater = changeListener.getUpdater();
+        return String.format("sent: %d, merged: %d, dropped: %d, average latency: %d ms, maximum latency: %d ms",
+                updater.getSentNotifications(), updater.getMergedNotifications(), updater.getDroppedNotifications(),
+                updater.getAverageLatency(), updater.getMaxLatency());
+    }
+
     private void start() throws IOException, InvalidAlgorithmParameterException {
         homekit = new HomekitServer(settings.getNetworkInterface(), settings.getPort());
         bridge = homekit.createBridge(new HomekitAuthInfoImpl(storageService, settings.getPin()), settings.getName(),
@@ -39,6 +39,7 @@ public class HomekitSettings {
     private String thermostatAutoMode = "Auto";
     private String thermostatOffMode = "Off";
     private InetAddress networkInterface;
+    private int notificationWindow = 100;
 
     private final Logger logger = LoggerFactory.getLogger(HomekitSettings.class);
 
@@ -74,6 +75,10 @@ public class HomekitSettings {
         if (maximumTemperature != null) {
             this.maximumTemperature = Double.parseDouble(maximumTemperature.toString());
         }
+        Object notificationWindow = properties.get("notificationWindow");
+        if (notificationWindow != null) {
+            this.notificationWindow = Integer.parseInt(notificationWindow.toString());
+        }
         this.thermostatHeatMode = (String) properties.get("thermostatHeatMode");
         this.thermostatCoolMode = (String) properties.get("thermostatCoolMode");
         this.thermostatAutoMode = (String) properties.get("thermostatAutoMode");
@@ -148,6 +153,10 @@ public class HomekitSettings {
         return thermostatOffMode;
     }
 
+    public int getNotificationWindow() {
+        return notificationWindow;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
@@ -157,6 +166,7 @@ public class HomekitSettings {
         result = prime * result + (int) (temp ^ (temp >>> 32));
         temp = Double.doubleToLongBits(minimumTemperature);
         result = prime * result + (int) (temp ^ (temp >>> 32));
+        result = prime * result + notificationWindow;
         result = prime * result + ((pin == null) ? 0 : pin.hashCode());
         result = prime * result + port;
         result = prime * result + ((thermostatAutoMode == null) ? 0 : thermostatAutoMode.hashCode());
@@ -185,6 +195,9 @@ public class HomekitSettings {
         if (Double.doubleToLongBits(minimumTemperature) != Double.doubleToLongBits(other.minimumTemperature)) {
             return false;
         }
+        if (notificationWindow != other.notificationWindow) {
+            return false;
+        }
         if (pin == null) {
             if (other.pin != null) {
                 return false;
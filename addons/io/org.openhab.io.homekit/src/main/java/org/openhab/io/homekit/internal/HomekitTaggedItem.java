@@ -9,9 +9,11 @@
 package org.openhab.io.homekit.internal;
 
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang.builder.HashCodeBuilder;
+import org.eclipse.smarthome.core.items.GroupItem;
 import org.eclipse.smarthome.core.items.Item;
 import org.eclipse.smarthome.core.items.ItemRegistry;
 import org.eclipse.smarthome.core.library.items.ColorItem;
@@ -99,6 +101,34 @@ public class HomekitTaggedItem {
         return id;
     }
 
+    /**
+     * Checks whether the accessory created for the other tagged item would be the same as the
+     * one created for this tagged item, so the accessory can be kept when the item is updated.
+     * The item state is not compared, as the accessories read it from the item registry.
+     */
+    public boolean hasSameStructure(HomekitTaggedItem other) {
+        Item otherItem = other.getItem();
+        return id == other.id && homekitDeviceType == other.homekitDeviceType
+                && homekitCharacteristicType == other.homekitCharacteristicType
+                && item.getClass() == otherItem.getClass() && item.getName().equals(otherItem.getName())
+                && Objects.equals(item.getLabel(), otherItem.getLabel())
+                && Objects.equals(item.getType(), otherItem.getType())
+                && item.getTags().equals(otherItem.getTags())
+                && item.getGroupNames().equals(otherItem.getGroupNames()) && hasSameBaseItem(otherItem);
+    }
+
+    private boolean hasSameBaseItem(Item otherItem) {
+        if (!(item instanceof GroupItem)) {
+            return true;
+        }
+        Item baseItem = ((GroupItem) item).getBaseItem();
+        Item otherBaseItem = ((GroupItem) otherItem).getBaseItem();
+        if (baseItem == null || otherBaseItem == null) {
+            return baseItem == otherBaseItem;
+        }
+        return baseItem.getClass() == otherBaseItem.getClass();
+    }
+
     private int calculateId(Item item) {
         int id = new HashCodeBuilder().append(item.getName()).hashCode();
         if (id < 0) {
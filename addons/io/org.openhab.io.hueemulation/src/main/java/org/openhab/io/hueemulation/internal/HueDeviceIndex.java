@@ -0,0 +1,311 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.hueemulation.internal;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.apache.commons.lang.ArrayUtils;
+import org.eclipse.smarthome.core.items.Item;
+import org.eclipse.smarthome.core.items.ItemRegistry;
+import org.eclipse.smarthome.core.items.ItemRegistryChangeListener;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.types.State;
+import org.openhab.io.hueemulation.internal.api.HueDevice;
+import org.openhab.io.hueemulation.internal.api.HueState;
+
+import com.google.gson.Gson;
+
+/**
+ * Keeps the Hue lights in sync with the tagged items of the item registry.
+ *
+ * The index is updated from the registry change events, so serving a request does not scan the registry. The JSON of
+ * each light is kept and only serialized again once the state or the label of its item has changed.
+ *
+ * @author agent - Initial contribution
+ */
+public class HueDeviceIndex implements ItemRegistryChangeListener {
+
+    private static final String[] SUPPORTED_TAGS = new String[] { "Switchable", "Lighting" };
+
+    /**
+     * The JSON of a light for a given state and label of its item
+     */
+    private static class LightJson {
+        final State state;
+        final String label;
+        final String json;
+
+        LightJson(State state, String label, String json) {
+            this.state = state;
+            this.label = label;
+            this.json = json;
+        }
+    }
+
+    private static class Light {
+        final Integer id;
+        volatile Item item;
+        volatile LightJson json;
+
+        Light(Integer id, Item item) {
+            this.id = id;
+            this.item = item;
+        }
+    }
+
+    private final Gson gson;
+    private final Runnable idsChangedCallback;
+
+    // maps a Hue numeric id to a item name, ordered by that id
+    private final TreeMap<Integer, String> deviceMap = new TreeMap<>();
+    private final Map<String, Integer> idsByName = new HashMap<>();
+    private final ConcurrentSkipListMap<Integer, Light> lights = new ConcurrentSkipListMap<>();
+    // the registry this index listens to
+    private volatile ItemRegistry itemRegistry;
+
+    /**
+     * @param gson the Gson instance to serialize the lights with
+     * @param ids the persisted mapping of Hue ids to item names
+     * @param idsChangedCallback called whenever the mapping of Hue ids to item names has changed
+     */
+    public HueDeviceIndex(Gson gson, Map<Integer, String> ids, Runnable idsChangedCallback) {
+        this.gson = gson;
+        this.idsChangedCallback = idsChangedCallback;
+        for (Map.Entry<Integer, String> entry : ids.entrySet()) {
+            deviceMap.put(entry.getKey(), entry.getValue());
+            idsByName.put(entry.getValue(), entry.getKey());
+        }
+    }
+
+    /**
+     * Starts listening to the given registry and synchronizes the index with its items.
+     */
+    public void register(ItemRegistry itemRegistry) {
+        this.itemRegistry = itemRegistry;
+        itemRegistry.addRegistryChangeListener(this);
+        initialize(itemRegistry.getItems());
+    }
+
+    /**
+     * Stops listening to the given registry.
+     */
+    public void unregister(ItemRegistry itemRegistry) {
+        itemRegistry.removeRegistryChangeListener(this);
+        if (this.itemRegistry == itemRegistry) {
+            this.itemRegistry = null;
+        }
+    }
+
+    /**
+     * Synchronizes the index with the given items, removing the ids of the items which are gone or not tagged anymore.
+     */
+    public void initialize(Collection<Item> items) {
+        boolean modified = false;
+        synchronized (this) {
+            Set<String> taggedNames = new HashSet<>();
+            for (Item item : items) {
+                if (isTagged(item)) {
+                    taggedNames.add(item.getName());
+                    modified |= addLight(item);
+                }
+            }
+            Iterator<Map.Entry<Integer, String>> iterator = deviceMap.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Integer, String> entry = iterator.next();
+                if (!taggedNames.contains(entry.getValue())) {
+                    iterator.remove();
+                    idsByName.remove(entry.getValue());
+                    lights.remove(entry.getKey());
+                    modified = true;
+                }
+            }
+        }
+        if (modified) {
+            idsChangedCallback.run();
+        }
+    }
+
+    @Override
+    public void added(Item item) {
+        if (!isTagged(item)) {
+            return;
+        }
+        boolean modified;
+        synchronized (this) {
+            modified = addLight(item);
+        }
+        if (modified) {
+            idsChangedCallback.run();
+        }
+    }
+
+    @Override
+    public void removed(Item item) {
+        boolean modified;
+        synchronized (this) {
+            modified = removeLight(item.getName());
+        }
+        if (modified) {
+            idsChangedCallback.run();
+        }
+    }
+
+    @Override
+    public void updated(Item oldItem, Item item) {
+        if (isTagged(item)) {
+            added(item);
+        } else {
+            removed(item);
+        }
+    }
+
+    @Override
+    public void allItemsChanged(Collection<String> oldItemNames) {
+        ItemRegistry registry = itemRegistry;
+        if (registry != null) {
+            // keeps the ids of the items which are still tagged
+            initialize(registry.getItems());
+        }
+    }
+
+    /**
+     * Adds the given item or replaces the item of its light.
+     *
+     * @return true if a new id has been assigned
+     */
+    private boolean addLight(Item item) {
+        Integer id = idsByName.get(item.getName());
+        boolean modified = false;
+        if (id == null) {
+            // hue devices are assigned a numeric number starting with 1, if a device is
+            // removed that number is not used again. Not sure how high this id can get
+            // not worrying about it here
+            id = deviceMap.isEmpty() ? 1 : deviceMap.lastKey().intValue() + 1;
+            deviceMap.put(id, item.getName());
+            idsByName.put(item.getName(), id);
+            modified = true;
+        }
+        Light light = lights.get(id);
+        if (light == null) {
+            lights.put(id, new Light(id, item));
+        } else {
+            light.item = item;
+        }
+        return modified;
+    }
+
+    /**
+     * @return true if the item had an id
+     */
+    private boolean removeLight(String itemName) {
+        Integer id = idsByName.remove(itemName);
+        if (id == null) {
+            return false;
+        }
+        deviceMap.remove(id);
+        lights.remove(id);
+        return true;
+    }
+
+    private boolean isTagged(Item item) {
+        for (String tag : item.getTags()) {
+            if (ArrayUtils.contains(SUPPORTED_TAGS, tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return a copy of the mapping of Hue ids to item names
+     */
+    public synchronized Map<Integer, String> getIds() {
+        return new TreeMap<>(deviceMap);
+    }
+
+    /**
+     * @return the name of the item with the given Hue id or null if there is none
+     */
+    public String getItemName(Integer id) {
+        Light light = lights.get(id);
+        return light != null ? light.item.getName() : null;
+    }
+
+    /**
+     * @return the Hue ids of all lights in ascending order
+     */
+    public Set<Integer> getLightIds() {
+        return lights.keySet();
+    }
+
+    /**
+     * @return the JSON of the light with the given Hue id or null if there is none
+     */
+    public String getLightJson(Integer id) {
+        Light light = lights.get(id);
+        return light != null ? getJson(light) : null;
+    }
+
+    /**
+     * @return the JSON object of all lights, keyed by their Hue id
+     */
+    public String getLightsJson() {
+        StringBuilder builder = new StringBuilder("{");
+        for (Light light : lights.values()) {
+            if (builder.length() > 1) {
+                builder.append(',');
+            }
+            builder.append('"').append(light.id).append("\":").append(getJson(light));
+        }
+        return builder.append('}').toString();
+    }
+
+    private String getJson(Light light) {
+        Item item = light.item;
+        State state = item.getState();
+        String label = item.getLabel();
+        LightJson json = light.json;
+        if (json == null || !json.state.equals(state) || !Objects.equals(json.label, label)) {
+            json = new LightJson(state, label, gson.toJson(itemToDevice(state, label, light.id)));
+            light.json = json;
+        }
+        return json.json;
+    }
+
+    /**
+     * Converts the state and label of an item to a HueDevice
+     */
+    private HueDevice itemToDevice(State itemState, String label, Integer key) {
+        HueState hueState;
+        if (itemState instanceof HSBType) {
+            HSBType color = (HSBType) itemState;
+            hueState = new HueState(color);
+        } else if (itemState instanceof DecimalType) {
+            short bri = (short) ((((DecimalType) itemState).intValue() * 255) / 100);
+            hueState = new HueState(bri);
+        } else if (itemState instanceof OnOffType) {
+            short bri = (short) (((OnOffType) itemState) == OnOffType.ON ? 255 : 0);
+            hueState = new HueState(bri);
+        } else {
+            hueState = new HueState((short) 0);
+        }
+
+        return new HueDevice(hueState, label, key);
+    }
+}
@@ -18,16 +18,15 @@ import java.io.PrintWriter;
 import java.net.InetAddress;
 import java.util.ArrayList;
 import java.util.Dictionary;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
@@ -35,22 +34,17 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.apache.commons.io.IOUtils;
-import org.apache.commons.lang.ArrayUtils;
 import org.eclipse.smarthome.config.core.ConfigConstants;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.events.EventPublisher;
 import org.eclipse.smarthome.core.items.Item;
 import org.eclipse.smarthome.core.items.ItemNotFoundException;
 import org.eclipse.smarthome.core.items.ItemRegistry;
 import org.eclipse.smarthome.core.items.events.ItemEventFactory;
-import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.library.types.HSBType;
-import org.eclipse.smarthome.core.library.types.OnOffType;
 import org.eclipse.smarthome.core.types.Command;
-import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.core.types.TypeParser;
 import org.openhab.io.hueemulation.internal.api.HueCreateUser;
-import org.openhab.io.hueemulation.internal.api.HueDataStore;
-import org.openhab.io.hueemulation.internal.api.HueDevice;
 import org.openhab.io.hueemulation.internal.api.HueErrorResponse;
 import org.openhab.io.hueemulation.internal.api.HueGroup;
 import org.openhab.io.hueemulation.internal.api.HueState;
@@ -62,7 +56,6 @@ import org.slf4j.LoggerFactory;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import com.google.gson.stream.JsonReader;
-import com.google.gson.stream.JsonWriter;
 
 /**
  * Emulates A Hue compatible HTTP API server
@@ -91,7 +84,8 @@ public class HueEmulationServlet extends HttpServlet {
             ConfigConstants.getUserDataFolder() + File.separator + "hueemulation" + File.separator + "udn");
     private static final File ITEM_FILE = new File(
             ConfigConstants.getUserDataFolder() + File.separator + "hueemulation" + File.separator + "items");
-    private static final String[] SUPPORTED_TAGS = new String[] { "Switchable", "Lighting" };
+    // delay to collect changes of the item list before persisting it
+    private static final long ITEM_FILE_WRITE_DELAY_MILLIS = 1000;
     private Gson gson = new Gson();
     private HttpService httpService;
     private ItemRegistry itemRegistry;
@@ -103,15 +97,16 @@ public class HueEmulationServlet extends HttpServlet {
     private boolean pairingEnabled = false;
     // list of valid Hue API user ids
     private List<String> userNames = new ArrayList<>();
-    // deviceMap maps a Hue numeric id to a Item Name, ordered by that id
-    private TreeMap<Integer, String> deviceMap = new TreeMap<>();
+    // maps the Hue numeric ids to the tagged items, updated from the item registry events
+    private volatile HueDeviceIndex deviceIndex;
+    private final ScheduledExecutorService scheduler = ThreadPoolManager.getScheduledPool("hueemulation");
+    private ScheduledFuture<?> itemFileJob;
+    // the content of the item file as last read or written
+    private String itemFileContent;
 
     protected void activate(Map<String, Object> config) {
         modified(config);
         try {
-            Dictionary<String, String> servletParams = new Hashtable<String, String>();
-            httpService.registerServlet(PATH, this, servletParams, httpService.createDefaultHttpContext());
-
             // load users from disk
             if (USER_FILE.exists()) {
                 FileInputStream fis = null;
@@ -124,6 +119,7 @@ public class HueEmulationServlet extends HttpServlet {
             }
 
             // load item list from disk
+            Map<Integer, String> ids = new LinkedHashMap<>();
             if (ITEM_FILE.exists()) {
                 JsonReader reader = null;
                 try {
@@ -132,12 +128,24 @@ public class HueEmulationServlet extends HttpServlet {
                             new TypeToken<Map<Integer, String>>() {
                             }.getType());
                     if (tmpMap != null) {
-                        deviceMap.putAll(tmpMap);
+                        ids.putAll(tmpMap);
                     }
                 } finally {
                     IOUtils.closeQuietly(reader);
                 }
             }
+            synchronized (this) {
+                itemFileContent = toItemFileContent(ids);
+            }
+            HueDeviceIndex index = new HueDeviceIndex(gson, ids, this::scheduleItemFileWrite);
+            deviceIndex = index;
+            ItemRegistry registry = itemRegistry;
+            if (registry != null) {
+                index.register(registry);
+            }
+
+            Dictionary<String, String> servletParams = new Hashtable<String, String>();
+            httpService.registerServlet(PATH, this, servletParams, httpService.createDefaultHttpContext());
             logger.info("Started Hue Emulation service at " + PATH);
         } catch (Exception e) {
             logger.error("Could not start Hue Emulation service: {}", e.getMessage(), e);
@@ -183,14 +191,41 @@ public class HueEmulationServlet extends HttpServlet {
         if (disco != null) {
             disco.shutdown();
         }
+        HueDeviceIndex index = deviceIndex;
+        if (index != null) {
+            ItemRegistry registry = itemRegistry;
+            if (registry != null) {
+                index.unregister(registry);
+            }
+            deviceIndex = null;
+        }
+        synchronized (this) {
+            if (itemFileJob != null) {
+                itemFileJob.cancel(false);
+                itemFileJob = null;
+            }
+        }
+        if (index != null) {
+            writeItemFile(index);
+        }
     }
 
     protected void setItemRegistry(ItemRegistry itemRegistry) {
         this.itemRegistry = itemRegistry;
+        HueDeviceIndex index = deviceIndex;
+        if (index != null) {
+            index.register(itemRegistry);
+        }
     }
 
     protected void unsetItemRegistry(ItemRegistry itemRegistry) {
-        this.itemRegistry = null;
+        HueDeviceIndex index = deviceIndex;
+        if (index != null) {
+            index.unregister(itemRegistry);
+        }
+        if (this.itemRegistry == itemRegistry) {
+            this.itemRegistry = null;
+        }
     }
 
     protected void setEventPublisher(EventPublisher eventPublisher) {
@@ -318,9 +353,17 @@ public class HueEmulationServlet extends HttpServlet {
             apiServerError(req, out, HueErrorResponse.METHOD_NOT_AVAILABLE, "Only PUT allowed for this resource");
             return;
         }
+        HueDeviceIndex index = getDeviceIndex(req, out);
+        if (index == null) {
+            return;
+        }
         try {
+            String itemName = index.getItemName(new Integer(id));
+            if (itemName == null) {
+                throw new ItemNotFoundException(id);
+            }
             // will throw exception if not found
-            Item item = itemRegistry.getItem(deviceMap.get(new Integer(id)));
+            Item item = itemRegistry.getItem(itemName);
             HueState state = gson.fromJson(req.getReader(), HueState.class);
             HSBType hsb = state.toHSBType();
             logger.debug("HuState {}", state);
@@ -365,14 +408,18 @@ public class HueEmulationServlet extends HttpServlet {
      * Hue API call to get the state of a single light
      */
     private void apiLight(String id, HttpServletRequest req, PrintWriter out) throws IOException {
-        HueDevice device = getHueDevices().get(new Integer(id));
+        HueDeviceIndex index = getDeviceIndex(req, out);
+        if (index == null) {
+            return;
+        }
+        String device = index.getLightJson(new Integer(id));
 
         if (device == null) {
             logger.error("\"Could not find light for id {}. ", id);
             apiServerError(req, out, HueErrorResponse.NOT_AVAILABLE, "Light " + id + " does not exist.");
             return;
         } else {
-            out.write(gson.toJson(device));
+            out.write(device);
         }
     }
 
@@ -380,15 +427,22 @@ public class HueEmulationServlet extends HttpServlet {
      * Hue API call to get a listing of all lights
      */
     public void apiLights(HttpServletRequest req, PrintWriter out) throws IOException {
-        out.write(gson.toJson(getHueDevices()));
+        HueDeviceIndex index = getDeviceIndex(req, out);
+        if (index != null) {
+            out.write(index.getLightsJson());
+        }
     }
 
     /**
      * Hue API call to get a listing of Group 0
      */
     public void apiGroupZero(HttpServletRequest req, PrintWriter out) throws IOException {
+        HueDeviceIndex index = getDeviceIndex(req, out);
+        if (index == null) {
+            return;
+        }
         List<String> lights = new LinkedList<String>();
-        for (Integer key : deviceMap.keySet()) {
+        for (Integer key : index.getLightIds()) {
             lights.add(key.toString());
         }
         HueState action = new HueState();
@@ -400,9 +454,24 @@ public class HueEmulationServlet extends HttpServlet {
      */
     public void apiDataStore(HttpServletRequest req, HttpServletResponse resp) throws IOException {
         PrintWriter out = resp.getWriter();
-        HueDataStore ds = new HueDataStore();
-        ds.lights = getHueDevices();
-        out.write(gson.toJson(ds));
+        HueDeviceIndex index = getDeviceIndex(req, out);
+        if (index == null) {
+            return;
+        }
+        out.write("{\"lights\":");
+        out.write(index.getLightsJson());
+        out.write("}");
+    }
+
+    /**
+     * @return the device index, or null after responding with an error if the service has not been started
+     */
+    private HueDeviceIndex getDeviceIndex(HttpServletRequest req, PrintWriter out) throws IOException {
+        HueDeviceIndex index = deviceIndex;
+        if (index == null) {
+            apiServerError(req, out, HueErrorResponse.INTERNAL_ERROR, "The Hue emulation service is not available");
+        }
+        return index;
     }
 
     /**
@@ -466,93 +535,43 @@ public class HueEmulationServlet extends HttpServlet {
     }
 
     /**
-     * Converts an Item to a HueDevice
+     * Persists the item list in the background, collecting the changes made in the meantime.
      */
-    private HueDevice itemToDevice(Item item, Integer key) {
-        State itemState = item.getState();
-        HueState hueState;
-        if (itemState instanceof HSBType) {
-            HSBType color = (HSBType) itemState;
-            hueState = new HueState(color);
-        } else if (itemState instanceof DecimalType) {
-            short bri = (short) ((((DecimalType) itemState).intValue() * 255) / 100);
-            hueState = new HueState(bri);
-        } else if (itemState instanceof OnOffType) {
-            short bri = (short) (((OnOffType) itemState) == OnOffType.ON ? 255 : 0);
-            hueState = new HueState(bri);
-        } else {
-            hueState = new HueState((short) 0);
+    private synchronized void scheduleItemFileWrite() {
+        if (itemFileJob == null || itemFileJob.isDone()) {
+            itemFileJob = scheduler.schedule(() -> {
+                HueDeviceIndex index = deviceIndex;
+                if (index != null) {
+                    writeItemFile(index);
+                }
+            }, ITEM_FILE_WRITE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
         }
-
-        HueDevice d = new HueDevice(hueState, item.getLabel(), key);
-        return d;
     }
 
     /**
-     * Gets and syncs all items tagged for voice.
+     * Writes the item list to disk unless the file already has that content.
      */
-    private synchronized TreeMap<Integer, HueDevice> getHueDevices() {
-        TreeMap<Integer, HueDevice> returnMap = new TreeMap<Integer, HueDevice>();
-        HashMap<String, Item> taggedItems = new HashMap<String, Item>();
-
-        // if we modify our internal map, persist it to disk
-        boolean modified = false;
-
-        // get all tagged items
-        for (Item item : itemRegistry.getItems()) {
-            for (String tag : item.getTags()) {
-                if (ArrayUtils.contains(SUPPORTED_TAGS, tag)) {
-                    taggedItems.put(item.getName(), item);
-                    if (!deviceMap.containsValue(item.getName())) {
-                        // hue devices are assigned a numeric number starting with 1, if a device is
-                        // removed that number is not used again. Not sure how high this id can get
-                        // not worrying about it here
-                        Integer next = deviceMap.size() == 0 ? 1 : new Integer(deviceMap.lastKey().intValue() + 1);
-                        deviceMap.put(next, item.getName());
-                        modified = true;
-                    }
-                    break;
-                }
-            }
-        }
-
-        Set<Integer> keysToRemove = new HashSet<>();
-
-        // clean up removed entries
-        for (Map.Entry<Integer, String> entry : deviceMap.entrySet()) {
-            String itemName = entry.getValue();
-            if (!taggedItems.containsKey(itemName)) {
-                keysToRemove.add(entry.getKey());
-                modified = true;
-            }
-        }
-
-        for (Integer key : keysToRemove) {
-            deviceMap.remove(key);
+    private synchronized void writeItemFile(HueDeviceIndex index) {
+        String content = toItemFileContent(index.getIds());
+        if (content.equals(itemFileContent)) {
+            return;
         }
-
-        // for each entry, lookup the item and convert it to a hue device
-        for (Integer key : deviceMap.keySet()) {
-            try {
-                returnMap.put(key, itemToDevice(itemRegistry.getItem(deviceMap.get(key)), key));
-            } catch (ItemNotFoundException e) {
-                logger.warn("Could not find item", e);
-            }
+        ITEM_FILE.getParentFile().mkdirs();
+        FileWriter writer = null;
+        try {
+            writer = new FileWriter(ITEM_FILE);
+            writer.write(content);
+            itemFileContent = content;
+        } catch (IOException e) {
+            logger.error("Could not persist item cache", e);
+        } finally {
+            IOUtils.closeQuietly(writer);
         }
+    }
 
-        if (modified) {
-            JsonWriter writer = null;
-            try {
-                writer = new JsonWriter(new FileWriter(ITEM_FILE));
-                gson.toJson(deviceMap, new TypeToken<Map<Integer, String>>() {
-                }.getType(), writer);
-            } catch (IOException e) {
-                logger.error("Could not persist item cache", e);
-            } finally {
-                IOUtils.closeQuietly(writer);
-            }
-        }
-        return returnMap;
+    private String toItemFileContent(Map<Integer, String> ids) {
+        return gson.toJson(ids, new TypeToken<Map<Integer, String>>() {
+        }.getType());
     }
 
     /**
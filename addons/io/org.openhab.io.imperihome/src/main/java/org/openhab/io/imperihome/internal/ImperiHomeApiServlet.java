@@ -26,6 +26,7 @@ import org.eclipse.smarthome.core.persistence.PersistenceServiceRegistry;
 import org.openhab.io.imperihome.internal.action.ActionRegistry;
 import org.openhab.io.imperihome.internal.handler.DeviceActionHandler;
 import org.openhab.io.imperihome.internal.handler.DeviceHistoryHandler;
+import org.openhab.io.imperihome.internal.handler.DeviceListSnapshot;
 import org.openhab.io.imperihome.internal.handler.DevicesListHandler;
 import org.openhab.io.imperihome.internal.handler.RoomListHandler;
 import org.openhab.io.imperihome.internal.handler.SystemHandler;
@@ -111,7 +112,7 @@ public class ImperiHomeApiServlet extends HttpServlet {
         actionRegistry = new ActionRegistry(eventPublisher, deviceRegistry);
         itemProcessor = new ItemProcessor(itemRegistry, deviceRegistry, actionRegistry, imperiHomeConfig);
         roomListHandler = new RoomListHandler(deviceRegistry);
-        devicesListHandler = new DevicesListHandler(deviceRegistry);
+        devicesListHandler = new DevicesListHandler(deviceRegistry, gson);
         deviceActionHandler = new DeviceActionHandler(deviceRegistry);
         deviceHistoryHandler = new DeviceHistoryHandler(deviceRegistry, persistenceServiceRegistry);
 
@@ -201,7 +202,8 @@ public class ImperiHomeApiServlet extends HttpServlet {
         if (URL_PATTERN_ROOMS.matcher(path).matches()) {
             response = roomListHandler.handle(req);
         } else if (URL_PATTERN_DEVICES.matcher(path).matches()) {
-            response = devicesListHandler.handle(req);
+            writeDeviceList(req, resp, devicesListHandler.handle(req));
+            return;
         } else if (actionMatcher.matches()) {
             deviceActionHandler.handle(req, actionMatcher);
         } else if (historyMatcher.matches()) {
@@ -215,6 +217,20 @@ public class ImperiHomeApiServlet extends HttpServlet {
         resp.getWriter().write(gson.toJson(response));
     }
 
+    private void writeDeviceList(HttpServletRequest req, HttpServletResponse resp, DeviceListSnapshot snapshot)
+            throws IOException {
+        resp.setHeader("ETag", snapshot.getETag());
+        resp.setHeader("Cache-Control", "no-cache");
+
+        String ifNoneMatch = req.getHeader("If-None-Match");
+        if (ifNoneMatch != null && ifNoneMatch.contains(snapshot.getETag())) {
+            resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        resp.getWriter().write(snapshot.getJson());
+    }
+
     private void setHeaders(HttpServletResponse response) {
         response.setCharacterEncoding(CHARSET);
         response.setContentType(APPLICATION_JSON);
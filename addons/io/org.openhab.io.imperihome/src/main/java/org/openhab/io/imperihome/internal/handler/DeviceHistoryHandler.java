@@ -9,10 +9,10 @@
 package org.openhab.io.imperihome.internal.handler;
 
 import java.io.UnsupportedEncodingException;
+import java.math.BigDecimal;
 import java.net.URLDecoder;
+import java.util.ArrayList;
 import java.util.Date;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.regex.Matcher;
 
@@ -33,7 +33,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Device history request handler.
+ * Device history request handler. The values of long ranges are averaged to at most {@link #MAX_HISTORY_VALUES}
+ * values, and the most recently requested ranges are cached in a {@link HistoryCache}.
  *
  * @author Pepijn de Geus - Initial contribution
  */
@@ -41,10 +42,14 @@ public class DeviceHistoryHandler {
 
     private static final String CHARSET = "UTF-8";
 
+    // Maximum number of values returned for a history request, more values are averaged over time
+    static final int MAX_HISTORY_VALUES = 500;
+
     private final Logger logger = LoggerFactory.getLogger(DeviceHistoryHandler.class);
 
     private final DeviceRegistry deviceRegistry;
     private final PersistenceServiceRegistry persistenceServiceRegistry;
+    private final HistoryCache historyCache = new HistoryCache();
 
     public DeviceHistoryHandler(DeviceRegistry deviceRegistry, PersistenceServiceRegistry persistenceServiceRegistry) {
         this.deviceRegistry = deviceRegistry;
@@ -86,34 +91,90 @@ public class DeviceHistoryHandler {
 
     private HistoryList serveHistory(AbstractDevice device, QueryablePersistenceService persistence, long start,
             long end) {
+        long now = System.currentTimeMillis();
+        // Values after now cannot exist yet, so cached windows are not extended beyond it
+        long queryEnd = Math.min(end, now);
+        if (queryEnd < start) {
+            return new HistoryList();
+        }
+
+        String key = HistoryCache.getKey(persistence.getId(), device.getItemName());
+        List<HistoryItem> resultItems = historyCache.get(key, start, queryEnd, now);
+        if (resultItems != null) {
+            logger.debug("Serving history of Item {} from cache, from {} to {}", device.getItemName(), start, end);
+        } else {
+            long cachedEnd = historyCache.getExtendableEnd(key, start, now);
+            if (cachedEnd >= 0) {
+                List<HistoryItem> newItems = query(device, persistence, cachedEnd + 1, queryEnd);
+                resultItems = historyCache.append(key, cachedEnd, start, queryEnd, newItems);
+            }
+            if (resultItems == null) {
+                resultItems = query(device, persistence, start, queryEnd);
+                historyCache.put(key, start, queryEnd, resultItems, now);
+            }
+        }
+
+        return new HistoryList(downsample(resultItems, start, queryEnd));
+    }
+
+    private List<HistoryItem> query(AbstractDevice device, QueryablePersistenceService persistence, long start,
+            long end) {
         logger.info("Querying persistence for history of Item {}, from {} to {}", device.getItemName(), start, end);
 
         FilterCriteria criteria = new FilterCriteria().setItemName(device.getItemName()).setBeginDate(new Date(start))
-                .setEndDate(new Date(end));
+                .setEndDate(new Date(end)).setOrdering(FilterCriteria.Ordering.ASCENDING);
+
+        List<HistoryItem> resultItems = new ArrayList<>();
+        boolean hasResults = false;
+        for (HistoricItem historicItem : persistence.query(criteria)) {
+            hasResults = true;
+            State state = historicItem.getState();
+            if (state instanceof DecimalType) {
+                Number value = ((DecimalType) state).toBigDecimal();
+                resultItems.add(new HistoryItem(historicItem.getTimestamp(), value));
+            }
+        }
 
-        List<HistoryItem> resultItems = new LinkedList<>();
-        Iterable<HistoricItem> historicItems = persistence.query(criteria);
+        if (!hasResults) {
+            logger.debug("Persistence returned no results for history query");
+        } else if (resultItems.isEmpty()) {
+            logger.warn("Persistence returned results for history query, but could not be interpreted as DecimalTypes");
+        }
+        return resultItems;
+    }
 
-        Iterator<HistoricItem> iterator = historicItems.iterator();
-        if (!iterator.hasNext()) {
-            logger.info("Persistence returned no results for history query");
-        } else {
-            while (iterator.hasNext()) {
-                HistoricItem historicItem = iterator.next();
-                State state = historicItem.getState();
-                if (state instanceof DecimalType) {
-                    Number value = ((DecimalType) state).toBigDecimal();
-                    resultItems.add(new HistoryItem(historicItem.getTimestamp(), value));
-                }
-            }
+    /**
+     * Averages the values in equally long periods between start and end if there are more than
+     * {@link #MAX_HISTORY_VALUES}. Each average is dated at the mean date of its values.
+     */
+    static List<HistoryItem> downsample(List<HistoryItem> items, long start, long end) {
+        if (items.size() <= MAX_HISTORY_VALUES) {
+            return items;
+        }
 
-            if (resultItems.isEmpty()) {
-                logger.warn(
-                        "Persistence returned results for history query, but could not be interpreted as DecimalTypes");
+        double period = (double) (end - start + 1) / MAX_HISTORY_VALUES;
+        List<HistoryItem> result = new ArrayList<>(MAX_HISTORY_VALUES);
+        int bucket = -1;
+        int count = 0;
+        double sum = 0;
+        long dateSum = 0;
+        for (HistoryItem item : items) {
+            int itemBucket = (int) Math.min((item.getDate() - start) / period, MAX_HISTORY_VALUES - 1);
+            if (itemBucket != bucket && count > 0) {
+                result.add(new HistoryItem(start + dateSum / count, BigDecimal.valueOf(sum / count)));
+                count = 0;
+                sum = 0;
+                dateSum = 0;
             }
+            bucket = itemBucket;
+            count++;
+            sum += item.getValue().doubleValue();
+            dateSum += item.getDate() - start;
         }
-
-        return new HistoryList(resultItems);
+        if (count > 0) {
+            result.add(new HistoryItem(start + dateSum / count, BigDecimal.valueOf(sum / count)));
+        }
+        return result;
     }
 
 }
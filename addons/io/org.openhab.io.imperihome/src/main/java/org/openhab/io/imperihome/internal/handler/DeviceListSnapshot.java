@@ -0,0 +1,45 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.imperihome.internal.handler;
+
+/**
+ * Serialized device list for a given version of the device registry.
+ *
+ * @author agent - Initial contribution
+ */
+public class DeviceListSnapshot {
+
+    private final long version;
+    private final String json;
+    private final String etag;
+
+    public DeviceListSnapshot(long version, String json, String etag) {
+        this.version = version;
+        this.json = json;
+        this.etag = etag;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getJson() {
+        return json;
+    }
+
+    public String getETag() {
+        return etag;
+    }
+
+    @Override
+    public String toString() {
+        return "DeviceListSnapshot{" + "version=" + version + ", etag=" + etag + '}';
+    }
+
+}
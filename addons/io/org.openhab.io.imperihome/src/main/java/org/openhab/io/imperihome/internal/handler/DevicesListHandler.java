@@ -9,17 +9,22 @@
 package org.openhab.io.imperihome.internal.handler;
 
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 
 import javax.servlet.http.HttpServletRequest;
 
 import org.openhab.io.imperihome.internal.model.device.AbstractDevice;
-import org.openhab.io.imperihome.internal.model.device.DeviceList;
 import org.openhab.io.imperihome.internal.processor.DeviceRegistry;
+import org.openhab.io.imperihome.internal.util.DigestUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.gson.Gson;
+
 /**
- * Device list request handler.
+ * Device list request handler. Keeps the serialized device list until a device is added, removed or changed, and only
+ * serializes the devices again whose parameters have changed.
  *
  * @author Pepijn de Geus - Initial contribution
  */
@@ -28,23 +33,69 @@ public class DevicesListHandler {
     private final Logger logger = LoggerFactory.getLogger(DevicesListHandler.class);
 
     private final DeviceRegistry deviceRegistry;
+    private final Gson gson;
+
+    private Map<String, DeviceJson> deviceJson = new HashMap<>();
+    private DeviceListSnapshot snapshot;
+
+    /**
+     * Serialized device for a given version of its parameters.
+     */
+    private static class DeviceJson {
+        final AbstractDevice device;
+        final long paramsVersion;
+        final String json;
+
+        DeviceJson(AbstractDevice device, long paramsVersion, String json) {
+            this.device = device;
+            this.paramsVersion = paramsVersion;
+            this.json = json;
+        }
+    }
 
-    public DevicesListHandler(DeviceRegistry deviceRegistry) {
+    public DevicesListHandler(DeviceRegistry deviceRegistry, Gson gson) {
         this.deviceRegistry = deviceRegistry;
+        this.gson = gson;
     }
 
-    public DeviceList handle(HttpServletRequest req) {
-        DeviceList response = new DeviceList();
+    public synchronized DeviceListSnapshot handle(HttpServletRequest req) {
+        if (snapshot != null && snapshot.getVersion() == deviceRegistry.getVersion()) {
+            logger.trace("Device list unchanged: {}", snapshot);
+            return snapshot;
+        }
 
         Collection<AbstractDevice> devices = deviceRegistry.getDevices().values();
         for (AbstractDevice device : devices) {
             device.updateParams();
         }
 
-        response.setDevices(devices);
+        // Read after updateParams, which changes the version when linked values have changed
+        long version = deviceRegistry.getVersion();
+
+        Map<String, DeviceJson> newDeviceJson = new HashMap<>();
+        StringBuilder json = new StringBuilder("{\"devices\":[");
+        for (AbstractDevice device : devices) {
+            DeviceJson cached = deviceJson.get(device.getId());
+            if (cached == null || cached.device != device || cached.paramsVersion != device.getParamsVersion()) {
+                synchronized (device) {
+                    cached = new DeviceJson(device, device.getParamsVersion(), gson.toJson(device));
+                }
+            }
+            newDeviceJson.put(device.getId(), cached);
+
+            if (newDeviceJson.size() > 1) {
+                json.append(',');
+            }
+            json.append(cached.json);
+        }
+        json.append("]}");
+
+        String body = json.toString();
+        deviceJson = newDeviceJson;
+        snapshot = new DeviceListSnapshot(version, body, '"' + DigestUtil.sha1(body) + '"');
 
-        logger.debug("Device list response: {}", response);
-        return response;
+        logger.debug("Device list response: {}", body);
+        return snapshot;
     }
 
 }
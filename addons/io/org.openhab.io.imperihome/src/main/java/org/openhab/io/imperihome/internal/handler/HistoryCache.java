@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.imperihome.internal.handler;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openhab.io.imperihome.internal.model.HistoryItem;
+
+/**
+ * Cache of the most recently requested history window per Item. A window that starts at or before a requested start
+ * can be extended by appending the values persisted since its end, so a refreshed graph only queries the persistence
+ * service for the new values.
+ *
+ * @author agent - Initial contribution
+ */
+public class HistoryCache {
+
+    // Maximum number of cached windows, the least recently used ones are removed first
+    static final int MAX_ENTRIES = 50;
+
+    // Windows containing more values are not cached
+    static final int MAX_VALUES = 50000;
+
+    // Windows are queried again after this time in ms, to pick up values persisted late or removed
+    static final long MAX_AGE = 60 * 60 * 1000;
+
+    private static class Window {
+        final long created;
+        long start;
+        long end;
+        final List<HistoryItem> items;
+
+        Window(long created, long start, long end, List<HistoryItem> items) {
+            this.created = created;
+            this.start = start;
+            this.end = end;
+            this.items = new ArrayList<>(items);
+        }
+    }
+
+    private final Map<String, Window> windows = new LinkedHashMap<String, Window>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Window> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    public static String getKey(String serviceId, String itemName) {
+        return serviceId + "|" + itemName;
+    }
+
+    /**
+     * @return The cached values from start to end, or null if the cached window does not cover that range.
+     */
+    public synchronized List<HistoryItem> get(String key, long start, long end, long now) {
+        Window window = getWindow(key, now);
+        if (window == null || window.start > start || window.end < end) {
+            return null;
+        }
+        return subList(window, start, end);
+    }
+
+    /**
+     * @return The end of the cached window that can be extended to serve a request from start, or -1 if there is
+     *         none.
+     */
+    public synchronized long getExtendableEnd(String key, long start, long now) {
+        Window window = getWindow(key, now);
+        if (window == null || window.start > start || window.end < start) {
+            return -1;
+        }
+        return window.end;
+    }
+
+    /**
+     * Appends the values persisted after the end of a cached window. Values before the given start are removed from
+     * the window.
+     *
+     * @param previousEnd The end of the window the new values have been queried from.
+     * @return The cached values from start to end, or null if the window has been replaced or removed meanwhile.
+     */
+    public synchronized List<HistoryItem> append(String key, long previousEnd, long start, long end,
+            List<HistoryItem> newItems) {
+        Window window = windows.get(key);
+        if (window == null || window.end != previousEnd || window.start > start) {
+            return null;
+        }
+        window.items.addAll(newItems);
+        window.end = end;
+
+        int first = indexOf(window.items, start);
+        if (first > 0) {
+            window.items.subList(0, first).clear();
+            window.start = start;
+        }
+        List<HistoryItem> result = subList(window, start, end);
+        if (window.items.size() > MAX_VALUES) {
+            windows.remove(key);
+        }
+        return result;
+    }
+
+    /**
+     * Caches the values from start to end, replacing the cached window of the Item.
+     */
+    public synchronized void put(String key, long start, long end, List<HistoryItem> items, long now) {
+        if (items.size() > MAX_VALUES) {
+            windows.remove(key);
+            return;
+        }
+        windows.put(key, new Window(now, start, end, items));
+    }
+
+    public synchronized void clear() {
+        windows.clear();
+    }
+
+    private Window getWindow(String key, long now) {
+        Window window = windows.get(key);
+        if (window != null && now - window.created > MAX_AGE) {
+            windows.remove(key);
+            return null;
+        }
+        return window;
+    }
+
+    private static List<HistoryItem> subList(Window window, long start, long end) {
+        return new ArrayList<>(window.items.subList(indexOf(window.items, start), indexOf(window.items, end + 1)));
+    }
+
+    /**
+     * @return The index of the first item at or after the given date.
+     */
+    private static int indexOf(List<HistoryItem> items, long date) {
+        int low = 0;
+        int high = items.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (items.get(mid).getDate() < date) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+}
@@ -50,9 +50,11 @@ public abstract class AbstractDevice implements StateChangeListener {
     private final transient Map<String, String> links;
     private transient Map<String, String> mapping;
 
-    private transient DeviceRegistry deviceRegistry;
+    private transient volatile DeviceRegistry deviceRegistry;
     private transient ActionRegistry actionRegistry;
 
+    private transient volatile long paramsVersion;
+
     public AbstractDevice(DeviceType type, Item item) {
         this.type = type;
         this.item = item;
@@ -136,7 +138,35 @@ public abstract class AbstractDevice implements StateChangeListener {
 
     public void addParam(DeviceParam param) {
         logger.trace("Setting param for device {}: {}", this, param);
-        params.set(param);
+        boolean changed;
+        synchronized (this) {
+            changed = !param.equals(params.put(param.getKey(), param));
+        }
+        if (changed) {
+            paramsChanged();
+        }
+    }
+
+    /**
+     * Marks the parameters of this device as changed, so the device is serialized again for the next device list.
+     * Called by {@link #addParam(DeviceParam)} when a parameter value has changed, and can be called by devices that
+     * derive parameters from other state in {@link #updateParams()}.
+     */
+    protected void paramsChanged() {
+        synchronized (this) {
+            paramsVersion++;
+        }
+        DeviceRegistry registry = deviceRegistry;
+        if (registry != null) {
+            registry.deviceChanged(this);
+        }
+    }
+
+    /**
+     * @return A counter that is increased whenever the parameters of this device have changed.
+     */
+    public long getParamsVersion() {
+        return paramsVersion;
     }
 
     public Map<String, String> getLinks() {
@@ -60,7 +60,12 @@ public class MultiSwitchDevice extends AbstractDevice {
 
         State state = item.getStateAs(DecimalType.class);
         if (state instanceof DecimalType) {
-            itemValue = String.valueOf(((DecimalType) state).intValue());
+            String value = String.valueOf(((DecimalType) state).intValue());
+            if (!value.equals(itemValue)) {
+                itemValue = value;
+                // the value param is set from the mapping in updateParams
+                paramsChanged();
+            }
         }
     }
 
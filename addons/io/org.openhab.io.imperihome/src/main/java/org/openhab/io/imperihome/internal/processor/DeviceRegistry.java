@@ -15,6 +15,7 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.openhab.io.imperihome.internal.model.Room;
 import org.openhab.io.imperihome.internal.model.device.AbstractDevice;
@@ -33,6 +34,8 @@ public class DeviceRegistry implements Iterable<AbstractDevice> {
     private final Map<String, AbstractDevice> devices;
     private Set<Room> rooms;
 
+    private final AtomicLong version = new AtomicLong();
+
     public DeviceRegistry() {
         devices = new ConcurrentHashMap<>();
     }
@@ -65,8 +68,10 @@ public class DeviceRegistry implements Iterable<AbstractDevice> {
             return;
         }
 
+        device.setDeviceRegistry(this);
         devices.put(device.getId(), device);
         updateRooms();
+        version.incrementAndGet();
 
         logger.debug("Device {} added, registry now contains {} total", device.getName(), devices.size());
     }
@@ -75,11 +80,29 @@ public class DeviceRegistry implements Iterable<AbstractDevice> {
         AbstractDevice removed = devices.remove(deviceId);
         if (removed != null) {
             updateRooms();
+            version.incrementAndGet();
             logger.debug("Device {} removed, registry now contains {} total", removed.getName(), devices.size());
         }
         return removed;
     }
 
+    /**
+     * Called by a device when its parameters have changed.
+     *
+     * @param device The changed device.
+     */
+    public void deviceChanged(AbstractDevice device) {
+        logger.trace("Device {} changed", device.getName());
+        version.incrementAndGet();
+    }
+
+    /**
+     * @return A counter that is increased whenever a device has been added, removed or changed.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
     @Override
     public Iterator<AbstractDevice> iterator() {
         return devices.values().iterator();
@@ -94,6 +117,7 @@ public class DeviceRegistry implements Iterable<AbstractDevice> {
         if (rooms != null) {
             rooms.clear();
         }
+        version.incrementAndGet();
 
         logger.debug("Device registry cleared");
     }
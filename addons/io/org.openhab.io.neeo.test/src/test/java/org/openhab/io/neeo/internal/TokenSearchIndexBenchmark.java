@@ -0,0 +1,164 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.neeo.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang.StringUtils;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.openhab.io.neeo.internal.models.TokenScore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Benchmark of the searches and updates of {@link TokenSearchIndex} with many devices
+ *
+ * Compares the search time of the index with the one of the former scorer, which compared every needle to every token
+ * of every device, and reports the time needed to update a device. The results depend on the timing of the machine
+ * running the test, so the test is not part of the regular test run. Remove the {@link Ignore} annotation to run it
+ * manually. The number of devices can be changed with <code>-Dneeo.benchmark.devices=5000</code>.
+ *
+ * @author agent - Initial contribution
+ */
+@Ignore("Timing dependent benchmark, run manually")
+public class TokenSearchIndexBenchmark {
+
+    private static final String[] ROOMS = { "Living Room", "Kitchen", "Bedroom", "Bathroom", "Office", "Garage",
+            "Garden", "Hallway" };
+    private static final String[] KINDS = { "Light", "Lamp", "Dimmer", "TV", "Speaker", "Thermostat", "Blinds",
+            "Switch" };
+    private static final String[] BINDINGS = { "hue", "zwave", "knx", "sonos", "samsungtv", "mqtt" };
+    private static final String[] MANUFACTURERS = { "Philips", "Fibaro", "Siemens", "Sonos", "Samsung", "Generic" };
+
+    private static final String[] QUERIES = { "l", "light", "living room", "kitchen lamp", "hue", "ight", "tv 42",
+            "openhab", "philips hue light", "zz" };
+
+    private final Logger logger = LoggerFactory.getLogger(TokenSearchIndexBenchmark.class);
+
+    private final int devices = Integer.getInteger("neeo.benchmark.devices", 5000);
+    private final int rounds = Integer.getInteger("neeo.benchmark.rounds", 20);
+
+    private final Map<String, List<String>> texts = new LinkedHashMap<>();
+
+    private TokenSearchIndex<String, String> index;
+
+    @Before
+    public void setUp() {
+        for (int i = 0; i < devices; i++) {
+            texts.put("device" + i, texts(i, ""));
+        }
+
+        index = new TokenSearchIndex<>();
+        long started = System.nanoTime();
+        for (Map.Entry<String, List<String>> entry : texts.entrySet()) {
+            index.put(entry.getKey(), entry.getKey(), new ArrayList<>(entry.getValue()));
+        }
+        logger.info("Indexed {} devices in {} ms", devices, millis(System.nanoTime() - started));
+    }
+
+    @Test
+    public void testSearch() {
+        for (String query : QUERIES) {
+            final String[] needles = StringUtils.split(query, ' ');
+
+            long started = System.nanoTime();
+            List<TokenScore<String>> scores = null;
+            for (int i = 0; i < rounds; i++) {
+                scores = index.score(needles);
+            }
+            long indexed = (System.nanoTime() - started) / rounds;
+
+            started = System.nanoTime();
+            int[] formerScores = null;
+            for (int i = 0; i < rounds; i++) {
+                formerScores = formerScores(needles);
+            }
+            long former = (System.nanoTime() - started) / rounds;
+
+            assertThat(query, scores.size(), is(formerScores.length));
+            for (int i = 0; i < formerScores.length; i++) {
+                assertThat(query, (int) scores.get(i).getScore(), is(formerScores[i]));
+            }
+            logger.info("Search '{}' in {} devices: {} ms with the index, {} ms with the former scorer", query,
+                    devices, millis(indexed), millis(former));
+        }
+    }
+
+    @Test
+    public void testUpdate() {
+        long started = System.nanoTime();
+        for (int i = 0; i < devices; i++) {
+            String key = "device" + i;
+            index.put(key, key, texts(i, " renamed"));
+        }
+        long updated = System.nanoTime() - started;
+
+        started = System.nanoTime();
+        for (int i = 0; i < devices; i++) {
+            index.remove("device" + i);
+        }
+        long removed = System.nanoTime() - started;
+
+        assertThat(index.size(), is(0));
+        logger.info("Updated {} devices in {} ms ({} us per device), removed them in {} ms", devices, millis(updated),
+                updated / devices / 1000, millis(removed));
+    }
+
+    private static List<String> texts(int i, String suffix) {
+        String room = ROOMS[i % ROOMS.length];
+        String kind = KINDS[(i / ROOMS.length) % KINDS.length];
+        return Arrays.asList(room + " " + kind + " " + i + suffix, "openhab", BINDINGS[i % BINDINGS.length], room,
+                MANUFACTURERS[i % MANUFACTURERS.length], kind);
+    }
+
+    private static long millis(long nanos) {
+        return nanos / 1_000_000;
+    }
+
+    private int[] formerScores(String[] needles) {
+        int[] scores = new int[texts.size()];
+        int i = 0;
+        for (List<String> deviceTexts : texts.values()) {
+            int score = 0;
+            for (String text : deviceTexts) {
+                for (String token : StringUtils.split(text, ' ')) {
+                    for (String needle : needles) {
+                        score += formerScore(token, needle);
+                    }
+                }
+            }
+            scores[i++] = score;
+        }
+        return scores;
+    }
+
+    private static int formerScore(String haystack, String needle) {
+        int stringPos = StringUtils.indexOfIgnoreCase(haystack, needle);
+        if (stringPos < 0) {
+            return 0;
+        }
+        if (needle.length() < 2) {
+            return 1;
+        } else if (StringUtils.equalsIgnoreCase(haystack, needle)) {
+            return 6;
+        } else if (stringPos == 0) {
+            return 2;
+        }
+        return 1;
+    }
+}
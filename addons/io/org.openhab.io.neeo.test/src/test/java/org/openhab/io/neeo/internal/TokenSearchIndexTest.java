@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.neeo.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang.StringUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.io.neeo.internal.models.TokenScore;
+
+/**
+ * Tests cases for {@link TokenSearchIndex}. The scores are compared with the ones of the former scorer, which
+ * compared every needle to every token of every item with {@link StringUtils#indexOfIgnoreCase(String, String)}.
+ *
+ * @author agent - Initial contribution
+ */
+public class TokenSearchIndexTest {
+
+    private static final String[] QUERIES = { "a", "L", "living", "LIVING room", "light", "lig", "ight", "openhab",
+            "hue", "Philips Hue", "zz", "o o", "room lamp tv", "x", "tv", "Kitchen", "itch", "n" };
+
+    private final Map<String, List<String>> texts = new LinkedHashMap<>();
+
+    private TokenSearchIndex<String, String> index;
+
+    @Before
+    public void setUp() {
+        texts.put("light1", Arrays.asList("Living Room Light", "openhab", "hue", "Living Room", "Philips", "Hue Lamp",
+                "Philips Hue"));
+        texts.put("light2", Arrays.asList("Kitchen Light light", "openhab", "hue", null, "", "Hue Lamp"));
+        texts.put("tv", Arrays.asList("TV", "openhab", "samsungtv", "Living Room", "Samsung", "Samsung TV"));
+        texts.put("lamp", Arrays.asList("Lamp  x", "openhab", "zwave"));
+
+        index = new TokenSearchIndex<>();
+        for (Map.Entry<String, List<String>> entry : texts.entrySet()) {
+            index.put(entry.getKey(), entry.getKey(), new ArrayList<>(entry.getValue()));
+        }
+    }
+
+    @Test
+    public void testScoresMatchFormerScorer() {
+        assertThat(index.size(), is(4));
+        for (String query : QUERIES) {
+            assertScores(query);
+        }
+    }
+
+    @Test
+    public void testRemove() {
+        assertThat(index.remove("light1"), is(true));
+        assertThat(index.remove("light1"), is(false));
+        texts.remove("light1");
+
+        assertThat(index.size(), is(3));
+        for (String query : QUERIES) {
+            assertScores(query);
+        }
+    }
+
+    @Test
+    public void testReplace() {
+        // a replaced item is ordered as if it had been removed and added again
+        texts.remove("light2");
+        texts.put("light2", Arrays.asList("Bedroom Light", "openhab", "zwave"));
+        index.put("light2", "light2", new ArrayList<>(texts.get("light2")));
+
+        assertThat(index.size(), is(4));
+        for (String query : QUERIES) {
+            assertScores(query);
+        }
+        assertThat(getScore("kitchen", "light2"), is(0));
+        assertThat(getScore("bedroom", "light2"), is(6));
+    }
+
+    private void assertScores(String query) {
+        final String[] needles = StringUtils.split(query, ' ');
+        final List<TokenScore<String>> scores = index.score(needles);
+
+        assertThat(query, scores.size(), is(texts.size()));
+        int i = 0;
+        for (Map.Entry<String, List<String>> entry : texts.entrySet()) {
+            final TokenScore<String> score = scores.get(i++);
+            assertThat(query, score.getItem(), is(entry.getKey()));
+            assertThat(query, (int) score.getScore(), is(formerScore(entry.getValue(), needles)));
+        }
+    }
+
+    private int getScore(String query, String key) {
+        for (TokenScore<String> score : index.score(StringUtils.split(query, ' '))) {
+            if (score.getItem().equals(key)) {
+                return (int) score.getScore();
+            }
+        }
+        throw new IllegalArgumentException(key);
+    }
+
+    private static int formerScore(List<String> texts, String[] needles) {
+        int score = 0;
+        for (String text : texts) {
+            if (StringUtils.isNotEmpty(text)) {
+                for (String token : StringUtils.split(text, ' ')) {
+                    score += formerScore(token, needles);
+                }
+            }
+        }
+        return score;
+    }
+
+    private static int formerScore(String haystack, String[] needles) {
+        int score = 0;
+        for (String needle : needles) {
+            int stringPos = StringUtils.indexOfIgnoreCase(haystack, needle);
+            if (stringPos > -1) {
+                if (needle.length() < 2) {
+                    score += 1;
+                } else if (StringUtils.equalsIgnoreCase(haystack, needle)) {
+                    score += 6;
+                } else if (stringPos == 0) {
+                    score += 2;
+                } else {
+                    score += 1;
+                }
+            }
+        }
+        return score;
+    }
+}
@@ -448,6 +448,7 @@ public class NeeoService implements EventSubscriber, NetworkAddressChangeListene
         final ServiceContext localContext = context;
         if (localContext != null) {
             localContext.getDefinitions().save();
+            localContext.getDefinitions().dispose();
 
             final HttpService service = localContext.getHttpService();
             for (NeeoBrainServlet servlet : servlets) {
@@ -102,7 +102,7 @@ public class NeeoApi implements AutoCloseable {
     /** The check status task (not-null when connecting, null otherwise) */
     private final AtomicReference<@Nullable ScheduledFuture<?>> checkStatus = new AtomicReference<>(null);
 
-    /** The {@link HttpRequest} used for making requests */
+    /** The {@link HttpRequest} used for making requests (shared so connections to the brain are kept alive) */
     private final AtomicReference<HttpRequest> request = new AtomicReference<>(new HttpRequest());
 
     /** Whether the brain is currently connected */
@@ -130,22 +130,20 @@ public class NeeoApi implements AutoCloseable {
         this.systemInfo = getSystemInfo(ipAddress);
 
         String name = brainId;
-        try (HttpRequest request = new HttpRequest()) {
-            logger.debug("Getting existing device mappings from {}{}", brainUrl, NeeoConstants.PROJECTS_HOME);
-            final HttpResponse resp = request.sendGetCommand(brainUrl + NeeoConstants.PROJECTS_HOME);
-            if (resp.getHttpCode() != HttpStatus.OK_200) {
-                throw resp.createException();
-            }
+        logger.debug("Getting existing device mappings from {}{}", brainUrl, NeeoConstants.PROJECTS_HOME);
+        final HttpResponse resp = request.get().sendGetCommand(brainUrl + NeeoConstants.PROJECTS_HOME);
+        if (resp.getHttpCode() != HttpStatus.OK_200) {
+            throw resp.createException();
+        }
 
-            final JsonParser parser = new JsonParser();
-            final JsonObject root = parser.parse(resp.getContent()).getAsJsonObject();
-            for (Map.Entry<String, JsonElement> room : root.getAsJsonObject("rooms").entrySet()) {
-                final JsonObject roomObj = (JsonObject) room.getValue();
+        final JsonParser parser = new JsonParser();
+        final JsonObject root = parser.parse(resp.getContent()).getAsJsonObject();
+        for (Map.Entry<String, JsonElement> room : root.getAsJsonObject("rooms").entrySet()) {
+            final JsonObject roomObj = (JsonObject) room.getValue();
 
-                if (roomObj.get("hasController").getAsBoolean()) {
-                    name = roomObj.get("name").getAsString();
-                    break;
-                }
+            if (roomObj.get("hasController").getAsBoolean()) {
+                name = roomObj.get("name").getAsString();
+                break;
             }
         }
         this.brainName = name;
@@ -373,7 +371,7 @@ public class NeeoApi implements AutoCloseable {
             registerApi();
 
             NeeoUtil.checkInterrupt();
-            deviceKeys.refresh();
+            deviceKeys.refresh(request.get());
 
             NeeoUtil.checkInterrupt();
             setConnected(true);
@@ -14,17 +14,25 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.binding.BindingInfo;
+import org.eclipse.smarthome.core.common.registry.RegistryChangeListener;
 import org.eclipse.smarthome.core.thing.Thing;
 import org.eclipse.smarthome.core.thing.ThingRegistry;
+import org.eclipse.smarthome.core.thing.link.ItemChannelLink;
+import org.eclipse.smarthome.core.thing.type.ThingType;
 import org.openhab.io.neeo.internal.models.NeeoDevice;
 import org.openhab.io.neeo.internal.models.NeeoDeviceChannel;
 import org.openhab.io.neeo.internal.models.NeeoDeviceType;
@@ -68,6 +76,73 @@ public class NeeoDeviceDefinitions {
     /** The file we store definitions in */
     private final File file = new File(NeeoConstants.FILENAME_DEVICEDEFINITIONS);
 
+    /** The version of the definitions, incremented whenever a definition has changed */
+    private final AtomicLong version = new AtomicLong();
+
+    /** The search index of the exposed devices (built lazily, then updated device by device) */
+    @Nullable
+    private volatile TokenSearchIndex<NeeoThingUID, NeeoDevice> searchIndex;
+
+    /** The lock held while building or updating the {@link #searchIndex} */
+    private final Object searchIndexLock = new Object();
+
+    /** The exposed channels of the defined devices by lower case item name (built lazily for the current version) */
+    @Nullable
+    private volatile ChannelIndex channelIndex;
+
+    /**
+     * The exposed channels of the defined devices by lower case item name, built for a version of the definitions
+     */
+    private static class ChannelIndex {
+        /** The version of the definitions the index has been built from */
+        private final long version;
+
+        /** The devices and exposed channels by lower case item name */
+        private final Map<String, List<Map.Entry<NeeoDevice, NeeoDeviceChannel>>> channels;
+
+        private ChannelIndex(long version, Map<String, List<Map.Entry<NeeoDevice, NeeoDeviceChannel>>> channels) {
+            this.version = version;
+            this.channels = channels;
+        }
+    }
+
+    /** Updates the search index entry of a thing when the thing has changed */
+    private final RegistryChangeListener<Thing> thingListener = new RegistryChangeListener<Thing>() {
+        @Override
+        public void added(Thing element) {
+            updateSearchIndex(new NeeoThingUID(element.getUID()));
+        }
+
+        @Override
+        public void removed(Thing element) {
+            updateSearchIndex(new NeeoThingUID(element.getUID()));
+        }
+
+        @Override
+        public void updated(Thing oldElement, Thing element) {
+            updateSearchIndex(new NeeoThingUID(element.getUID()));
+        }
+    };
+
+    /** Updates the search index entry of a thing when an item has been linked to or unlinked from its channel */
+    private final RegistryChangeListener<ItemChannelLink> linkListener = new RegistryChangeListener<ItemChannelLink>() {
+        @Override
+        public void added(ItemChannelLink element) {
+            updateSearchIndex(new NeeoThingUID(element.getLinkedUID().getThingUID()));
+        }
+
+        @Override
+        public void removed(ItemChannelLink element) {
+            updateSearchIndex(new NeeoThingUID(element.getLinkedUID().getThingUID()));
+        }
+
+        @Override
+        public void updated(ItemChannelLink oldElement, ItemChannelLink element) {
+            updateSearchIndex(new NeeoThingUID(oldElement.getLinkedUID().getThingUID()));
+            updateSearchIndex(new NeeoThingUID(element.getLinkedUID().getThingUID()));
+        }
+    };
+
     /**
      * Create the object based on the {@link ServiceContext} and will read the definitions from the {@link #file}
      *
@@ -102,6 +177,19 @@ public class NeeoDeviceDefinitions {
                 logger.debug("IOException reading {}: {}", file.toPath(), e.getMessage(), e);
             }
         }
+
+        context.getThingRegistry().addRegistryChangeListener(thingListener);
+        context.getItemChannelLinkRegistry().addRegistryChangeListener(linkListener);
+    }
+
+    /**
+     * Stops listening to thing and link changes
+     */
+    public void dispose() {
+        context.getThingRegistry().removeRegistryChangeListener(thingListener);
+        context.getItemChannelLinkRegistry().removeRegistryChangeListener(linkListener);
+        searchIndex = null;
+        channelIndex = null;
     }
 
     /**
@@ -144,6 +232,8 @@ public class NeeoDeviceDefinitions {
         Objects.requireNonNull(device, "device cannot be null");
 
         uidToDevice.put(device.getUid(), device);
+        version.incrementAndGet();
+        updateSearchIndex(device.getUid());
         save();
     }
 
@@ -158,6 +248,8 @@ public class NeeoDeviceDefinitions {
 
         final boolean found = uidToDevice.remove(uid) != null;
         if (found) {
+            version.incrementAndGet();
+            updateSearchIndex(uid);
             save();
         }
         return found;
@@ -171,8 +263,7 @@ public class NeeoDeviceDefinitions {
     public List<NeeoDevice> getExposed() {
         final List<NeeoDevice> devices = new ArrayList<>();
         for (NeeoDevice device : exposeAll || exposeNeeoBinding ? getAllDevices() : uidToDevice.values()) {
-            if (device.getExposedChannels().length > 0 && !NeeoDeviceType.EXCLUDE.equals(device.getType())
-                    && StringUtils.isNotEmpty(device.getType().toString())) {
+            if (isExposed(device)) {
                 devices.add(device);
             }
         }
@@ -181,10 +272,143 @@ public class NeeoDeviceDefinitions {
     }
 
     /**
+     * Determines if the device is exposed (has exposed channels and its type isn't {@link NeeoDeviceType#EXCLUDE})
+     *
+     * @param device the non-null device
+     * @return true if exposed, false otherwise
+     */
+    private boolean isExposed(NeeoDevice device) {
+        return device.getExposedChannels().length > 0 && !NeeoDeviceType.EXCLUDE.equals(device.getType())
+                && StringUtils.isNotEmpty(device.getType().toString());
+    }
+
+    /**
+     * Returns the exposed device for the given {@link NeeoThingUID}, the same way {@link #getExposed()} does for all
+     * devices
      *
-     * Checks to see if the specified itemName is bound given the {@link NeeoDeviceKeys}. This method will find any
-     * {@link NeeoDevice} that is bound (according to the {@link NeeoDeviceKeys}) and then will determine if the item
-     * name has been bound on that {@link NeeoDevice}.
+     * @param uid the non-null uid
+     * @return the exposed device or null if the device isn't exposed
+     */
+    private @Nullable NeeoDevice getExposed(NeeoThingUID uid) {
+        NeeoDevice device = uidToDevice.get(uid);
+        if (exposeAll || exposeNeeoBinding) {
+            final boolean neeoBinding = StringUtils.equalsIgnoreCase(NeeoConstants.NEEOIO_BINDING_ID,
+                    uid.getBindingId());
+            if (device == null || !neeoBinding) {
+                final Thing thing = context.getThingRegistry().get(uid.asThingUID());
+                if (thing == null) {
+                    device = null;
+                } else {
+                    device = device == null ? converter.convert(thing) : device.merge(context);
+                }
+            }
+        }
+        return device != null && isExposed(device) ? device : null;
+    }
+
+    /**
+     * Returns the {@link TokenSearchIndex} of the exposed devices. The index is built on first use, and then updated
+     * device by device when a definition, thing or link changes.
+     *
+     * @return a non-null {@link TokenSearchIndex}
+     */
+    public TokenSearchIndex<NeeoThingUID, NeeoDevice> getSearchIndex() {
+        TokenSearchIndex<NeeoThingUID, NeeoDevice> index = searchIndex;
+        if (index == null) {
+            synchronized (searchIndexLock) {
+                index = searchIndex;
+                if (index == null) {
+                    index = new TokenSearchIndex<>();
+                    for (NeeoDevice device : getExposed()) {
+                        index.put(device.getUid(), device, getSearchTexts(device));
+                    }
+                    searchIndex = index;
+                    logger.debug("Built search index for {} exposed devices", index.size());
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Updates the search index entry of the device with the given {@link NeeoThingUID}, if the index has been built
+     *
+     * @param uid the non-null uid
+     */
+    private void updateSearchIndex(NeeoThingUID uid) {
+        synchronized (searchIndexLock) {
+            final TokenSearchIndex<NeeoThingUID, NeeoDevice> index = searchIndex;
+            if (index != null) {
+                final NeeoDevice device = getExposed(uid);
+                if (device == null) {
+                    index.remove(uid);
+                } else {
+                    index.put(uid, device, getSearchTexts(device));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the texts a device is searched by: its name, binding id, location, vendor, thing type label and binding
+     * name
+     *
+     * @param device the non-null device
+     * @return the non-null texts, each possibly null
+     */
+    private List<@Nullable String> getSearchTexts(NeeoDevice device) {
+        final List<@Nullable String> texts = new ArrayList<>();
+        texts.add(device.getName());
+        texts.add("openhab");
+        texts.add(device.getUid().getBindingId());
+
+        final Thing thing = context.getThingRegistry().get(device.getUid().asThingUID());
+        if (thing != null) {
+            texts.add(thing.getLocation());
+            texts.add(thing.getProperties().get(Thing.PROPERTY_VENDOR));
+
+            final ThingType tt = context.getThingTypeRegistry().getThingType(thing.getThingTypeUID());
+            if (tt != null) {
+                texts.add(tt.getLabel());
+
+                final BindingInfo bi = context.getBindingInfoRegistry().getBindingInfo(tt.getBindingId());
+                if (bi != null) {
+                    texts.add(bi.getName());
+                }
+            }
+        }
+        return texts;
+    }
+
+    /**
+     * Returns the exposed channels of the defined devices by lower case item name. The index is rebuilt when a
+     * definition has changed since it was built.
+     *
+     * @return a non-null, possibly empty map of the devices and exposed channels by lower case item name
+     */
+    private Map<String, List<Map.Entry<NeeoDevice, NeeoDeviceChannel>>> getChannelIndex() {
+        final long currentVersion = version.get();
+        ChannelIndex index = channelIndex;
+        if (index == null || index.version != currentVersion) {
+            final Map<String, List<Map.Entry<NeeoDevice, NeeoDeviceChannel>>> channels = new HashMap<>();
+            for (NeeoDevice device : uidToDevice.values()) {
+                for (NeeoDeviceChannel channel : device.getExposedChannels()) {
+                    channels.computeIfAbsent(channel.getItemName().toLowerCase(Locale.ROOT), k -> new ArrayList<>())
+                            .add(new AbstractMap.SimpleImmutableEntry<>(device, channel));
+                }
+            }
+            index = new ChannelIndex(currentVersion, channels);
+            channelIndex = index;
+            logger.debug("Built channel index for {} exposed item names", channels.size());
+        }
+        return index.channels;
+    }
+
+    /**
+     *
+     * Checks to see if the specified itemName is bound given the {@link NeeoDeviceKeys}. This method will look up the
+     * {@link NeeoDevice} that have exposed the item name and then will determine if any of them is bound (according to
+     * the {@link NeeoDeviceKeys}).
      *
      * @param keys a non-null {@link NeeoDeviceKeys}
      * @param itemName a non-null, non-empty item name to use
@@ -194,15 +418,12 @@ public class NeeoDeviceDefinitions {
         Objects.requireNonNull(keys, "keys cannot be null");
         NeeoUtil.requireNotEmpty(itemName, "itemName must not be empty");
 
-        logger.trace("isBound: {} --- {}", itemName, keys);
-        for (NeeoDevice device : uidToDevice.values()) {
-            final NeeoThingUID uid = new NeeoThingUID(device.getUid());
-            final boolean isBound = keys.isBound(uid);
-
-            logger.trace("isBound(device): {} --- {} --- {} --- {}", uid, itemName, isBound, keys);
-            if (isBound) {
-                if (device.isExposed(itemName)) {
-                    logger.trace("isBound(YES!): {} --- {} --- {} --- {}", uid, itemName, isBound, keys);
+        final List<Map.Entry<NeeoDevice, NeeoDeviceChannel>> channels = getChannelIndex()
+                .get(itemName.toLowerCase(Locale.ROOT));
+        if (channels != null) {
+            for (Map.Entry<NeeoDevice, NeeoDeviceChannel> entry : channels) {
+                if (keys.isBound(entry.getKey().getUid())) {
+                    logger.trace("isBound(YES!): {} --- {} --- {}", entry.getKey().getUid(), itemName, keys);
                     return true;
                 }
             }
@@ -235,14 +456,22 @@ public class NeeoDeviceDefinitions {
         Objects.requireNonNull(keys, "keys cannot be null");
 
         final List<Map.Entry<NeeoDevice, NeeoDeviceChannel>> channels = new ArrayList<>();
-        for (NeeoDevice device : uidToDevice.values()) {
-            if (keys.isBound(device.getUid())) {
-                for (NeeoDeviceChannel channel : device.getExposedChannels()) {
-                    if (itemName == null || StringUtils.equalsIgnoreCase(itemName, channel.getItemName())) {
+        if (itemName == null) {
+            for (NeeoDevice device : uidToDevice.values()) {
+                if (keys.isBound(device.getUid())) {
+                    for (NeeoDeviceChannel channel : device.getExposedChannels()) {
                         channels.add(new AbstractMap.SimpleImmutableEntry<>(device, channel));
                     }
                 }
             }
+        } else {
+            // device keys change independently of the definitions, so they are checked on each call
+            for (Map.Entry<NeeoDevice, NeeoDeviceChannel> entry : getChannelIndex()
+                    .getOrDefault(itemName.toLowerCase(Locale.ROOT), Collections.emptyList())) {
+                if (keys.isBound(entry.getKey().getUid())) {
+                    channels.add(entry);
+                }
+            }
         }
         return channels;
     }
@@ -63,41 +63,42 @@ public class NeeoDeviceKeys {
     /**
      * Refreshes the keys from the brain
      *
+     * @param request the non-null {@link HttpRequest} to use
      * @throws IOException Signals that an I/O exception has occurred.
      */
-    void refresh() throws IOException {
-        try (HttpRequest request = new HttpRequest()) {
-            logger.debug("Getting existing device mappings from {}{}", brainUrl, NeeoConstants.PROJECTS_HOME);
-            final HttpResponse resp = request.sendGetCommand(brainUrl + NeeoConstants.PROJECTS_HOME);
-            if (resp.getHttpCode() != HttpStatus.OK_200) {
-                throw resp.createException();
-            }
+    void refresh(HttpRequest request) throws IOException {
+        Objects.requireNonNull(request, "request cannot be null");
+
+        logger.debug("Getting existing device mappings from {}{}", brainUrl, NeeoConstants.PROJECTS_HOME);
+        final HttpResponse resp = request.sendGetCommand(brainUrl + NeeoConstants.PROJECTS_HOME);
+        if (resp.getHttpCode() != HttpStatus.OK_200) {
+            throw resp.createException();
+        }
+
+        uidToKey.clear();
+
+        final JsonParser parser = new JsonParser();
+        final JsonObject root = parser.parse(resp.getContent()).getAsJsonObject();
+        for (Map.Entry<String, JsonElement> room : root.getAsJsonObject("rooms").entrySet()) {
+            final JsonObject roomObj = (JsonObject) room.getValue();
+            for (Map.Entry<String, JsonElement> dev : roomObj.getAsJsonObject("devices").entrySet()) {
+                final JsonObject devObj = (JsonObject) dev.getValue();
+                final String key = devObj.get("key").getAsString();
+
+                final JsonObject det = devObj.getAsJsonObject("details");
+                final String adapterName = det.get("adapterName").getAsString();
+
+                NeeoThingUID thingUID = null;
+                try {
+                    thingUID = new NeeoThingUID(adapterName);
+                } catch (IllegalArgumentException e) {
+                    logger.debug("Invalid UID (probably not an openhab thing): {} for key {}", adapterName, key);
+                }
 
-            uidToKey.clear();
-
-            final JsonParser parser = new JsonParser();
-            final JsonObject root = parser.parse(resp.getContent()).getAsJsonObject();
-            for (Map.Entry<String, JsonElement> room : root.getAsJsonObject("rooms").entrySet()) {
-                final JsonObject roomObj = (JsonObject) room.getValue();
-                for (Map.Entry<String, JsonElement> dev : roomObj.getAsJsonObject("devices").entrySet()) {
-                    final JsonObject devObj = (JsonObject) dev.getValue();
-                    final String key = devObj.get("key").getAsString();
-
-                    final JsonObject det = devObj.getAsJsonObject("details");
-                    final String adapterName = det.get("adapterName").getAsString();
-
-                    NeeoThingUID thingUID = null;
-                    try {
-                        thingUID = new NeeoThingUID(adapterName);
-                    } catch (IllegalArgumentException e) {
-                        logger.debug("Invalid UID (probably not an openhab thing): {} for key {}", adapterName, key);
-                    }
-
-                    if (thingUID != null) {
-                        final Set<String> newMap = ConcurrentHashMap.newKeySet();
-                        final Set<String> uidKeys = uidToKey.putIfAbsent(thingUID, newMap);
-                        (uidKeys == null ? newMap : uidKeys).add(key);
-                    }
+                if (thingUID != null) {
+                    final Set<String> newMap = ConcurrentHashMap.newKeySet();
+                    final Set<String> uidKeys = uidToKey.putIfAbsent(thingUID, newMap);
+                    (uidKeys == null ? newMap : uidKeys).add(key);
                 }
             }
         }
@@ -0,0 +1,227 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.neeo.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.apache.commons.lang.StringUtils;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.neeo.internal.models.TokenScore;
+
+/**
+ * An inverted index of the search tokens of items (the exposed {@link org.openhab.io.neeo.internal.models.NeeoDevice}
+ * in practice). The texts of an item are split into lower case tokens when the item is put into the index, and the
+ * index is updated item by item when items change.
+ *
+ * A search looks up the tokens matching each needle instead of comparing all tokens: tokens are indexed by the
+ * characters and character pairs they contain, so only the tokens containing all character pairs of a needle are
+ * compared to it. The scores are the same as the ones of {@link TokenSearch#searchAlgorithm(String, String)} applied
+ * to every token of every item.
+ *
+ * @author agent - Initial contribution
+ * @param <K> the type of the keys of the items
+ * @param <T> the type of the items
+ */
+@NonNullByDefault
+public class TokenSearchIndex<K, T> {
+
+    /** The delimiter used to split the texts into tokens */
+    private static final char DELIMITER = ' ';
+
+    /** An indexed item with the number of occurrences of each of its lower case tokens */
+    private static class Entry<T> {
+        private final T item;
+        private final Map<String, Integer> tokens;
+
+        private Entry(T item, Map<String, Integer> tokens) {
+            this.item = item;
+            this.tokens = tokens;
+        }
+    }
+
+    /** The indexed items by key, in the order they have been added */
+    private final Map<K, Entry<T>> entries = new LinkedHashMap<>();
+
+    /** The keys of the items containing a token and the number of occurrences, by lower case token */
+    private final Map<String, Map<K, Integer>> postings = new HashMap<>();
+
+    /** The lower case tokens by the characters and character pairs they contain */
+    private final Map<String, Set<String>> tokensByGram = new HashMap<>();
+
+    /**
+     * Adds the item or replaces the item with the same key
+     *
+     * @param key the non-null key of the item
+     * @param item the non-null item
+     * @param texts the non-null texts of the item, each text being possibly null or empty
+     */
+    public synchronized void put(K key, T item, Collection<@Nullable String> texts) {
+        Objects.requireNonNull(key, "key cannot be null");
+        Objects.requireNonNull(item, "item cannot be null");
+        Objects.requireNonNull(texts, "texts cannot be null");
+
+        remove(key);
+
+        final Map<String, Integer> tokens = new HashMap<>();
+        for (String text : texts) {
+            if (text != null && StringUtils.isNotEmpty(text)) {
+                for (String token : StringUtils.split(text, DELIMITER)) {
+                    tokens.merge(token.toLowerCase(Locale.ROOT), 1, Integer::sum);
+                }
+            }
+        }
+
+        entries.put(key, new Entry<>(item, tokens));
+        for (Map.Entry<String, Integer> token : tokens.entrySet()) {
+            Map<K, Integer> keys = postings.get(token.getKey());
+            if (keys == null) {
+                keys = new HashMap<>();
+                postings.put(token.getKey(), keys);
+                for (String gram : getGrams(token.getKey())) {
+                    tokensByGram.computeIfAbsent(gram, k -> new HashSet<>()).add(token.getKey());
+                }
+            }
+            keys.put(key, token.getValue());
+        }
+    }
+
+    /**
+     * Removes the item with the given key
+     *
+     * @param key the non-null key of the item
+     * @return true if the item has been removed, false if there was none
+     */
+    public synchronized boolean remove(K key) {
+        Objects.requireNonNull(key, "key cannot be null");
+
+        final Entry<T> entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        for (String token : entry.tokens.keySet()) {
+            final Map<K, Integer> keys = postings.get(token);
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    postings.remove(token);
+                    for (String gram : getGrams(token)) {
+                        final Set<String> tokens = tokensByGram.get(gram);
+                        if (tokens != null) {
+                            tokens.remove(token);
+                            if (tokens.isEmpty()) {
+                                tokensByGram.remove(gram);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of indexed items
+     *
+     * @return the number of items
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Scores all indexed items against the needles
+     *
+     * @param needles the non-null needles
+     * @return the non-null scores of all items, in the order the items have been added
+     */
+    public synchronized List<TokenScore<T>> score(String[] needles) {
+        Objects.requireNonNull(needles, "needles cannot be null");
+
+        final Map<String, Integer> tokenScores = new HashMap<>();
+        for (String needle : needles) {
+            final String lowerNeedle = needle.toLowerCase(Locale.ROOT);
+            for (String token : getCandidates(lowerNeedle)) {
+                final int tokenScore = TokenSearch.searchAlgorithm(token, lowerNeedle);
+                if (tokenScore > 0) {
+                    tokenScores.merge(token, tokenScore, Integer::sum);
+                }
+            }
+        }
+
+        final Map<K, Integer> scores = new HashMap<>();
+        for (Map.Entry<String, Integer> tokenScore : tokenScores.entrySet()) {
+            for (Map.Entry<K, Integer> key : postings.get(tokenScore.getKey()).entrySet()) {
+                scores.merge(key.getKey(), tokenScore.getValue() * key.getValue(), Integer::sum);
+            }
+        }
+
+        final List<TokenScore<T>> results = new ArrayList<>(entries.size());
+        for (Map.Entry<K, Entry<T>> entry : entries.entrySet()) {
+            final Integer score = scores.get(entry.getKey());
+            results.add(new TokenScore<>(score == null ? 0 : score, entry.getValue().item));
+        }
+        return results;
+    }
+
+    /**
+     * Returns the tokens which may contain the needle: the tokens containing the character of a one character needle,
+     * or the tokens containing the least common character pair of a longer needle
+     *
+     * @param needle the non-null lower case needle
+     * @return the non-null, possibly empty candidate tokens
+     */
+    private Collection<String> getCandidates(String needle) {
+        if (needle.isEmpty()) {
+            // an empty needle is contained in every token
+            return postings.keySet();
+        }
+        if (needle.length() == 1) {
+            return tokensByGram.getOrDefault(needle, Collections.emptySet());
+        }
+        Set<String> candidates = null;
+        for (int i = 0; i < needle.length() - 1; i++) {
+            final Set<String> tokens = tokensByGram.get(needle.substring(i, i + 2));
+            if (tokens == null) {
+                return Collections.emptySet();
+            }
+            if (candidates == null || tokens.size() < candidates.size()) {
+                candidates = tokens;
+            }
+        }
+        return candidates == null ? Collections.emptySet() : candidates;
+    }
+
+    /**
+     * Returns the distinct characters and character pairs of the token
+     *
+     * @param token the non-null token
+     * @return the non-null, possibly empty grams
+     */
+    private static Set<String> getGrams(String token) {
+        final Set<String> grams = new HashSet<>();
+        for (int i = 0; i < token.length(); i++) {
+            grams.add(token.substring(i, i + 1));
+            if (i < token.length() - 1) {
+                grams.add(token.substring(i, i + 2));
+            }
+        }
+        return grams;
+    }
+}
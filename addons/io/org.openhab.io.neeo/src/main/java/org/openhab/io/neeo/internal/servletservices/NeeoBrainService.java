@@ -11,9 +11,14 @@ package org.openhab.io.neeo.internal.servletservices;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -57,7 +62,6 @@ import org.openhab.io.neeo.internal.models.NeeoItemValue;
 import org.openhab.io.neeo.internal.models.NeeoNotification;
 import org.openhab.io.neeo.internal.models.NeeoSensorNotification;
 import org.openhab.io.neeo.internal.models.NeeoThingUID;
-import org.openhab.io.neeo.internal.net.HttpRequest;
 import org.openhab.io.neeo.internal.servletservices.models.PathInfo;
 import org.openhab.io.neeo.internal.servletservices.models.ReturnStatus;
 import org.slf4j.Logger;
@@ -85,13 +89,22 @@ public class NeeoBrainService extends DefaultServletService {
     /** The service context */
     private final ServiceContext context;
 
-    /** The HTTP request */
-    private final HttpRequest request = new HttpRequest();
+    /** The delay (in milliseconds) notifications are collected before they are sent to the brain */
+    private static final long NOTIFICATION_DELAY = 50;
 
     /** The scheduler to use to schedule recipe execution */
     private final ScheduledExecutorService scheduler = ThreadPoolManager
             .getScheduledPool(NeeoConstants.THREAD_POOL_NAME);
 
+    /**
+     * The pending notifications by device key and unique item name. Only the latest state of a sensor is kept, so a
+     * sensor changing faster than the brain can be notified skips intermediate states.
+     */
+    private final Map<String, PendingNotification> pendingNotifications = new LinkedHashMap<>();
+
+    /** Whether a flush of the pending notifications has been scheduled or is running */
+    private boolean flushScheduled;
+
     /** The {@link NeeoItemValueConverter} used to convert values with */
     private final NeeoItemValueConverter itemConverter;
 
@@ -541,7 +554,8 @@ public class NeeoBrainService extends DefaultServletService {
     }
 
     /**
-     * Helper method to send a notification
+     * Helper method to queue a notification. The pending notifications are sent to the brain by a single task
+     * after {@link #NOTIFICATION_DELAY}.
      *
      * @param channel a non-null channel
      * @param deviceKey a non-null, non-empty device id
@@ -552,39 +566,105 @@ public class NeeoBrainService extends DefaultServletService {
         NeeoUtil.requireNotEmpty(deviceKey, "deviceKey cannot be empty");
         Objects.requireNonNull(state, "state cannot be null");
 
-        scheduler.execute(() -> {
-            final String uin = channel.getUniqueItemName();
+        synchronized (pendingNotifications) {
+            pendingNotifications.put(deviceKey + ":" + channel.getUniqueItemName(),
+                    new PendingNotification(channel, deviceKey, state));
+            if (!flushScheduled) {
+                flushScheduled = true;
+                scheduler.schedule(this::flushNotifications, NOTIFICATION_DELAY, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Helper method to send all pending notifications to the brain. Notifications queued while sending are sent by
+     * another flush after {@link #NOTIFICATION_DELAY}, so the notifications of a sensor are never sent out of order.
+     * The next flush is scheduled (or {@link #flushScheduled} reset) even if sending fails, so notifications are never
+     * left pending without a flush.
+     */
+    private void flushNotifications() {
+        try {
+            final List<PendingNotification> notifications;
+            synchronized (pendingNotifications) {
+                notifications = new ArrayList<>(pendingNotifications.values());
+                pendingNotifications.clear();
+            }
 
-            final NeeoItemValue niv = itemConverter.convert(channel, state);
+            logger.trace("flushNotifications: {}", notifications.size());
+            for (PendingNotification notification : notifications) {
+                sendNotification(notification);
+            }
+        } finally {
+            synchronized (pendingNotifications) {
+                flushScheduled = false;
+                if (!pendingNotifications.isEmpty()) {
+                    scheduler.schedule(this::flushNotifications, NOTIFICATION_DELAY, TimeUnit.MILLISECONDS);
+                    flushScheduled = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Helper method to send a notification
+     *
+     * @param notification a non-null pending notification
+     */
+    private void sendNotification(PendingNotification notification) {
+        Objects.requireNonNull(notification, "notification cannot be null");
+
+        final NeeoDeviceChannel channel = notification.channel;
+        final String deviceKey = notification.deviceKey;
+        final String uin = channel.getUniqueItemName();
+
+        try {
+            final NeeoItemValue niv = itemConverter.convert(channel, notification.state);
 
             // Use sensor notification if we have a >= 0.50 firmware AND it's not a power sensor
             if (api.getSystemInfo().isFirmwareGreaterOrEqual(NeeoConstants.NEEO_FIRMWARE_0_51_1)
                     && channel.getType() != NeeoCapabilityType.SENSOR_POWER) {
-                final NeeoSensorNotification notify = new NeeoSensorNotification(deviceKey, uin, niv.getValue());
-                try {
-                    api.notify(gson.toJson(notify));
-                } catch (IOException e) {
-                    logger.debug("Exception occurred while handling event: {}", e.getMessage(), e);
-                }
+                api.notify(gson.toJson(new NeeoSensorNotification(deviceKey, uin, niv.getValue())));
             } else {
-                final NeeoNotification notify = new NeeoNotification(deviceKey, uin, niv.getValue());
-                try {
-                    api.notify(gson.toJson(notify));
-                } catch (IOException e) {
-                    logger.debug("Exception occurred while handling event: {}", e.getMessage(), e);
-                }
+                api.notify(gson.toJson(new NeeoNotification(deviceKey, uin, niv.getValue())));
             }
-        });
+        } catch (IOException e) {
+            logger.debug("Exception occurred while handling event: {}", e.getMessage(), e);
+        } catch (RuntimeException e) {
+            // don't let one notification stop the flush of the others
+            logger.debug("Exception occurred while sending a notification: {}", e.getMessage(), e);
+        }
     }
 
     /**
-     * Simply closes the {@link #request}
+     * Removes the property change listener and discards any pending notifications
      *
      * @see DefaultServletService#close()
      */
     @Override
     public void close() {
         this.api.removePropertyChangeListener(listener);
-        request.close();
+        synchronized (pendingNotifications) {
+            pendingNotifications.clear();
+        }
+    }
+
+    /**
+     * A notification waiting to be sent to the brain
+     */
+    private static class PendingNotification {
+        /** The channel of the sensor */
+        private final NeeoDeviceChannel channel;
+
+        /** The device key */
+        private final String deviceKey;
+
+        /** The latest state */
+        private final State state;
+
+        private PendingNotification(NeeoDeviceChannel channel, String deviceKey, State state) {
+            this.channel = channel;
+            this.deviceKey = deviceKey;
+            this.state = state;
+        }
     }
 }
@@ -8,6 +8,7 @@
  */
 package org.openhab.io.openhabcloud.internal;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URI;
@@ -18,10 +19,13 @@ import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
 
 import org.eclipse.jetty.client.HttpClient;
 import org.eclipse.jetty.client.api.Request;
@@ -33,6 +37,7 @@ import org.eclipse.jetty.client.api.Result;
 import org.eclipse.jetty.client.util.BytesContentProvider;
 import org.eclipse.jetty.http.HttpField;
 import org.eclipse.jetty.http.HttpFields;
+import org.eclipse.jetty.http.HttpHeader;
 import org.eclipse.jetty.http.HttpMethod;
 import org.eclipse.jetty.http.HttpStatus;
 import org.eclipse.jetty.util.BufferUtil;
@@ -79,6 +84,34 @@ public class CloudClient {
      */
     private static final int HTTP_CLIENT_TIMEOUT = 30000;
 
+    /*
+     * This constant defines the maximum number of requests to local openHAB which run at the same time.
+     * Further requests are queued until a running one has finished.
+     */
+    private static final int MAX_RUNNING_REQUESTS = 32;
+
+    /*
+     * This constant defines the size in bytes above which response content is sent to the openHAB Cloud
+     * right away. Smaller chunks of content are collected into one message.
+     */
+    private static final int RESPONSE_FRAME_SIZE = 64 * 1024;
+
+    /*
+     * This constant defines how long in milliseconds response content is collected at most before it is sent
+     */
+    private static final int RESPONSE_FLUSH_DELAY = 20;
+
+    /*
+     * This constant defines the minimum size in bytes of a response to be compressed. Only responses which
+     * complete within a single message are compressed.
+     */
+    private static final int COMPRESSION_MIN_SIZE = 1024;
+
+    /*
+     * The name of the thread pool used by the openHAB Cloud connector
+     */
+    private static final String THREADPOOL_OPENHABCLOUD = "openhabcloud";
+
     /*
      * This variable holds base URL for the openHAB Cloud connections
      */
@@ -109,6 +142,11 @@ public class CloudClient {
      */
     private HashMap<Integer, Request> runningRequests;
 
+    /*
+     * This hashmap holds HTTP requests to local openHAB which wait for running requests to finish
+     */
+    private final LinkedHashMap<Integer, ResponseListener> pendingRequests = new LinkedHashMap<>();
+
     /*
      * This variable indicates if connection to the openHAB Cloud is currently in an established state
      */
@@ -138,6 +176,26 @@ public class CloudClient {
     private boolean remoteAccessEnabled;
     private Set<String> exposedItems;
 
+    /*
+     * This variable holds the item updates which have not been sent to the openHAB Cloud yet
+     */
+    private final ItemUpdateBuffer itemUpdates = new ItemUpdateBuffer();
+
+    /*
+     * This variable holds the time in milliseconds the item updates are collected before they are sent
+     */
+    private final long itemUpdateInterval;
+
+    /*
+     * This variable holds the scheduled sending of the buffered item updates
+     */
+    private ScheduledFuture<?> itemUpdateJob;
+
+    /*
+     * This variable is locked while sending item updates, so that the updates of an item are sent in order
+     */
+    private final Object itemUpdateSendLock = new Object();
+
     /**
      * Constructor of CloudClient
      *
@@ -145,16 +203,18 @@ public class CloudClient {
      * @param secret openHAB's Secret to connect to the openHAB Cloud
      * @param remoteAccessEnabled Allow the openHAB Cloud to be used as a remote proxy
      * @param exposedItems Items that are made available to apps connected to the openHAB Cloud
+     * @param itemUpdateInterval Time in milliseconds the item updates are collected before they are sent
      *
      */
     public CloudClient(String uuid, String secret, String baseURL, String localBaseUrl, boolean remoteAccessEnabled,
-            Set<String> exposedItems) {
+            Set<String> exposedItems, long itemUpdateInterval) {
         this.uuid = uuid;
         this.secret = secret;
         this.baseURL = baseURL;
         this.localBaseUrl = localBaseUrl;
         this.remoteAccessEnabled = remoteAccessEnabled;
         this.exposedItems = exposedItems;
+        this.itemUpdateInterval = itemUpdateInterval;
         runningRequests = new HashMap<Integer, Request>();
         jettyClient = new HttpClient();
         jettyClient.setMaxConnectionsPerDestination(HTTP_CLIENT_MAX_CONNECTIONS_PER_DEST);
@@ -249,6 +309,8 @@ public class CloudClient {
                 logger.error("Could not start Jetty client: {}", e.getMessage());
             }
         }
+        // Send the item updates buffered while there was no connection
+        scheduleItemUpdates(0);
     }
 
     /**
@@ -267,9 +329,10 @@ public class CloudClient {
                 logger.error("Could not stop Jetty client: {}", e.getMessage());
             }
         }
-        // And clean up the list of running requests
-        if (runningRequests != null) {
+        // And clean up the list of running and pending requests
+        synchronized (runningRequests) {
             runningRequests.clear();
+            pendingRequests.clear();
         }
     }
 
@@ -360,11 +423,21 @@ public class CloudClient {
                 logger.error("Unsupported request method {}", requestMethod);
                 return;
             }
-            ResponseListener listener = new ResponseListener(requestId);
-            request.onResponseHeaders(listener).onResponseContent(listener).onRequestFailure(listener).send(listener);
-            // If successfully submitted request to http client, add it to the list of currently
-            // running requests to be able to cancel it if needed
-            runningRequests.put(requestId, request);
+            boolean acceptsGzip = requestHeadersJson.has("accept-encoding")
+                    && requestHeadersJson.getString("accept-encoding").contains("gzip");
+            ResponseListener listener = new ResponseListener(requestId, request, acceptsGzip);
+            request.onResponseHeaders(listener).onResponseContent(listener).onRequestFailure(listener);
+            // Add the request to the list of currently running requests to be able to cancel it if needed,
+            // or queue it if too many requests are running already
+            synchronized (runningRequests) {
+                if (runningRequests.size() >= MAX_RUNNING_REQUESTS) {
+                    logger.debug("Queueing request {}, {} requests are running", requestId, runningRequests.size());
+                    pendingRequests.put(requestId, listener);
+                    return;
+                }
+                runningRequests.put(requestId, request);
+            }
+            listener.send();
         } catch (JSONException e) {
             logger.error("{}", e.getMessage());
         } catch (IOException e) {
@@ -397,17 +470,41 @@ public class CloudClient {
         try {
             int requestId = data.getInt("id");
             logger.debug("Received cancel for request {}", requestId);
-            // Find and abort running request
-            if (runningRequests.containsKey(requestId)) {
-                Request request = runningRequests.get(requestId);
+            // Find and abort running request, or drop it if it has not been started yet
+            Request request;
+            synchronized (runningRequests) {
+                request = runningRequests.remove(requestId);
+                if (request == null) {
+                    pendingRequests.remove(requestId);
+                }
+            }
+            if (request != null) {
                 request.abort(new InterruptedException());
-                runningRequests.remove(requestId);
             }
         } catch (JSONException e) {
             logger.error("{}", e.getMessage());
         }
     }
 
+    /**
+     * Removes a finished request from the list of running requests and starts the next queued one, if any
+     */
+    private void requestFinished(int requestId) {
+        ResponseListener next = null;
+        synchronized (runningRequests) {
+            runningRequests.remove(requestId);
+            if (runningRequests.size() < MAX_RUNNING_REQUESTS && !pendingRequests.isEmpty()) {
+                Iterator<ResponseListener> iterator = pendingRequests.values().iterator();
+                next = iterator.next();
+                iterator.remove();
+                runningRequests.put(next.mRequestId, next.mRequest);
+            }
+        }
+        if (next != null) {
+            next.send();
+        }
+    }
+
     private void handleCommandEvent(JSONObject data) {
         String itemName = data.getString("item");
         if (exposedItems.contains(itemName)) {
@@ -499,28 +596,76 @@ public class CloudClient {
     }
 
     /**
-     * Send item update to openHAB Cloud
+     * Send item update to openHAB Cloud. The updates are collected for the configured interval,
+     * keeping only the latest state of each item, and buffered while there is no connection.
      *
      * @param itemName the name of the item
      * @param itemState updated item state
      *
      */
     public void sendItemUpdate(String itemName, String itemState) {
+        if (!itemUpdates.add(itemName, itemState)) {
+            logger.debug("Too many pending item updates, update '{}' for item '{}' is not sent", itemState,
+                    itemName);
+            return;
+        }
         if (isConnected()) {
-            logger.debug("Sending update '{}' for item '{}'", itemState, itemName);
-            JSONObject itemUpdateMessage = new JSONObject();
-            try {
-                itemUpdateMessage.put("itemName", itemName);
-                itemUpdateMessage.put("itemStatus", itemState);
-                socket.emit("itemupdate", itemUpdateMessage);
-            } catch (JSONException e) {
-                logger.error("{}", e.getMessage());
-            }
+            scheduleItemUpdates(itemUpdateInterval);
         } else {
-            logger.debug("No connection, Item update is not sent");
+            logger.debug("No connection, Item update is sent once connected");
+        }
+    }
+
+    private synchronized void scheduleItemUpdates(long delay) {
+        if (itemUpdateJob == null || itemUpdateJob.isDone()) {
+            itemUpdateJob = ThreadPoolManager.getScheduledPool(THREADPOOL_OPENHABCLOUD)
+                    .schedule(this::sendItemUpdates, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Sends all buffered item updates to the openHAB Cloud
+     */
+    private void sendItemUpdates() {
+        synchronized (this) {
+            // updates added from now on schedule a new run, even while this one is still sending
+            itemUpdateJob = null;
+        }
+        if (!isConnected()) {
+            logger.debug("No connection, {} Item updates are sent once connected", itemUpdates.size());
+            return;
+        }
+        synchronized (itemUpdateSendLock) {
+            Map<String, String> updates = itemUpdates.drain();
+            for (Map.Entry<String, String> update : updates.entrySet()) {
+                JSONObject itemUpdateMessage = new JSONObject();
+                try {
+                    itemUpdateMessage.put("itemName", update.getKey());
+                    itemUpdateMessage.put("itemStatus", update.getValue());
+                    socket.emit("itemupdate", itemUpdateMessage);
+                } catch (JSONException e) {
+                    logger.error("{}", e.getMessage());
+                }
+            }
+            logger.debug("Sent {} Item updates ({} sent, {} coalesced, {} dropped in total)", updates.size(),
+                    itemUpdates.getSent(), itemUpdates.getCoalesced(), itemUpdates.getDropped());
         }
     }
 
+    /**
+     * Returns the number of item updates sent to the openHAB Cloud
+     */
+    public long getSentItemUpdates() {
+        return itemUpdates.getSent();
+    }
+
+    /**
+     * Returns the number of item updates which were replaced by a later update of the same item before being sent
+     */
+    public long getCoalescedItemUpdates() {
+        return itemUpdates.getCoalesced();
+    }
+
     /**
      * Returns true if openHAB Cloud connection is active
      */
@@ -533,6 +678,14 @@ public class CloudClient {
      */
     public void shutdown() {
         logger.info("Shutting down openHAB Cloud service connection");
+        synchronized (this) {
+            if (itemUpdateJob != null) {
+                itemUpdateJob.cancel(false);
+                itemUpdateJob = null;
+            }
+        }
+        logger.debug("{} Item updates sent, {} coalesced, {} dropped, {} not sent", itemUpdates.getSent(),
+                itemUpdates.getCoalesced(), itemUpdates.getDropped(), itemUpdates.size());
         try {
             jettyClient.stop();
         } catch (Exception e) {
@@ -554,25 +707,45 @@ public class CloudClient {
     }
 
     /*
-     * An internal class which forwards response headers and data back to the openHAB Cloud
+     * An internal class which forwards response headers and data back to the openHAB Cloud.
+     * Content is collected into messages of up to RESPONSE_FRAME_SIZE bytes, which are sent once they
+     * are full or RESPONSE_FLUSH_DELAY has passed. Headers are held back until the first message is
+     * sent, so a small response which completes in time can be sent compressed.
      */
     private class ResponseListener
             implements Response.CompleteListener, HeadersListener, ContentListener, FailureListener {
 
-        private static final String THREADPOOL_OPENHABCLOUD = "openhabcloud";
-        private int mRequestId;
+        private final int mRequestId;
+        private final Request mRequest;
+        private final boolean mAcceptsGzip;
         private boolean mHeadersSent = false;
+        private Response mResponse;
+        private final ByteArrayOutputStream mContent = new ByteArrayOutputStream();
+        private ScheduledFuture<?> mFlushJob;
 
-        public ResponseListener(int requestId) {
+        public ResponseListener(int requestId, Request request, boolean acceptsGzip) {
             mRequestId = requestId;
+            mRequest = request;
+            mAcceptsGzip = acceptsGzip;
+        }
+
+        public void send() {
+            mRequest.send(this);
         }
 
-        private JSONObject getJSONHeaders(HttpFields httpFields) {
+        private JSONObject getJSONHeaders(HttpFields httpFields, int compressedLength) {
             JSONObject headersJSON = new JSONObject();
             try {
                 for (HttpField field : httpFields) {
+                    if (compressedLength >= 0 && field.getHeader() == HttpHeader.CONTENT_LENGTH) {
+                        continue;
+                    }
                     headersJSON.put(field.getName(), field.getValue());
                 }
+                if (compressedLength >= 0) {
+                    headersJSON.put(HttpHeader.CONTENT_ENCODING.asString(), "gzip");
+                    headersJSON.put(HttpHeader.CONTENT_LENGTH.asString(), compressedLength);
+                }
             } catch (JSONException e) {
                 logger.error("Error forming response headers: {}", e.getMessage());
             }
@@ -582,7 +755,7 @@ public class CloudClient {
         @Override
         public void onComplete(Result result) {
             // Remove this request from list of running requests
-            runningRequests.remove(mRequestId);
+            requestFinished(mRequestId);
             if ((result != null && result.isFailed())
                     && (result.getResponse() != null && result.getResponse().getStatus() != HttpStatus.OK_200)) {
                 if (result.getFailure() != null) {
@@ -595,6 +768,13 @@ public class CloudClient {
                     logger.warn("Response Failure: {}", result.getResponseFailure().getMessage());
                 }
             }
+            synchronized (this) {
+                if (mFlushJob != null) {
+                    mFlushJob.cancel(false);
+                    mFlushJob = null;
+                }
+                flush(true);
+            }
 
             /**
              * What is this? In some cases where latency is very low the myopenhab service
@@ -627,39 +807,117 @@ public class CloudClient {
         }
 
         @Override
-        public void onContent(Response response, ByteBuffer content) {
+        public synchronized void onContent(Response response, ByteBuffer content) {
             logger.debug("Jetty received response content of size {}", String.valueOf(content.remaining()));
-            JSONObject responseJson = new JSONObject();
             try {
-                responseJson.put("id", mRequestId);
-                responseJson.put("body", BufferUtil.toArray(content));
-                socket.emit("responseContentBinary", responseJson);
-                logger.debug("Sent content to request {}", mRequestId);
-            } catch (JSONException e) {
+                BufferUtil.writeTo(content, mContent);
+            } catch (IOException e) {
+                // cannot happen when writing to memory
                 logger.error("{}", e.getMessage());
             }
+            if (mContent.size() >= RESPONSE_FRAME_SIZE) {
+                flush(false);
+            } else {
+                scheduleFlush();
+            }
         }
 
         @Override
-        public void onHeaders(Response response) {
-            if (!mHeadersSent) {
+        public synchronized void onHeaders(Response response) {
+            if (!mHeadersSent && mResponse == null) {
                 logger.debug("Jetty finished receiving response header");
-                JSONObject responseJson = new JSONObject();
-                mHeadersSent = true;
-                try {
-                    responseJson.put("id", mRequestId);
-                    responseJson.put("headers", getJSONHeaders(response.getHeaders()));
-                    responseJson.put("responseStatusCode", response.getStatus());
-                    responseJson.put("responseStatusText", "OK");
-                    socket.emit("responseHeader", responseJson);
-                    logger.debug("Sent headers to request {}", mRequestId);
-                    logger.debug("{}", responseJson.toString());
-                } catch (JSONException e) {
-                    logger.error("{}", e.getMessage());
-                }
+                mResponse = response;
+                scheduleFlush();
             } else {
                 // We should not send headers for the second time...
             }
         }
+
+        private void scheduleFlush() {
+            if (mFlushJob == null) {
+                mFlushJob = ThreadPoolManager.getScheduledPool(THREADPOOL_OPENHABCLOUD).schedule(() -> {
+                    synchronized (this) {
+                        mFlushJob = null;
+                        flush(false);
+                    }
+                }, RESPONSE_FLUSH_DELAY, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        /**
+         * Sends the headers, if not done yet, and the collected content
+         *
+         * @param complete true if the response is complete, so it may be compressed
+         */
+        private void flush(boolean complete) {
+            if (!mHeadersSent && mResponse != null) {
+                if (complete && isCompressible(mResponse, mContent.size())) {
+                    byte[] compressed = compress(mContent.toByteArray());
+                    if (compressed != null && compressed.length < mContent.size()) {
+                        logger.debug("Compressed response to request {} from {} to {} bytes", mRequestId,
+                                mContent.size(), compressed.length);
+                        sendHeaders(mResponse, compressed.length);
+                        sendContent(compressed);
+                        mContent.reset();
+                        return;
+                    }
+                }
+                sendHeaders(mResponse, -1);
+            }
+            if (mContent.size() > 0) {
+                sendContent(mContent.toByteArray());
+                mContent.reset();
+            }
+        }
+
+        private boolean isCompressible(Response response, int length) {
+            if (!mAcceptsGzip || length < COMPRESSION_MIN_SIZE || length > RESPONSE_FRAME_SIZE
+                    || response.getHeaders().containsKey(HttpHeader.CONTENT_ENCODING.asString())) {
+                return false;
+            }
+            String contentType = response.getHeaders().get(HttpHeader.CONTENT_TYPE);
+            return contentType != null && (contentType.startsWith("text/") || contentType.contains("json")
+                    || contentType.contains("javascript") || contentType.contains("xml"));
+        }
+
+        private byte[] compress(byte[] content) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 2);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(content);
+            } catch (IOException e) {
+                logger.debug("Could not compress response to request {}: {}", mRequestId, e.getMessage());
+                return null;
+            }
+            return compressed.toByteArray();
+        }
+
+        private void sendHeaders(Response response, int compressedLength) {
+            JSONObject responseJson = new JSONObject();
+            mHeadersSent = true;
+            mResponse = null;
+            try {
+                responseJson.put("id", mRequestId);
+                responseJson.put("headers", getJSONHeaders(response.getHeaders(), compressedLength));
+                responseJson.put("responseStatusCode", response.getStatus());
+                responseJson.put("responseStatusText", "OK");
+                socket.emit("responseHeader", responseJson);
+                logger.debug("Sent headers to request {}", mRequestId);
+                logger.debug("{}", responseJson.toString());
+            } catch (JSONException e) {
+                logger.error("{}", e.getMessage());
+            }
+        }
+
+        private void sendContent(byte[] content) {
+            JSONObject responseJson = new JSONObject();
+            try {
+                responseJson.put("id", mRequestId);
+                responseJson.put("body", content);
+                socket.emit("responseContentBinary", responseJson);
+                logger.debug("Sent {} bytes of content to request {}", content.length, mRequestId);
+            } catch (JSONException e) {
+                logger.error("{}", e.getMessage());
+            }
+        }
     }
 }
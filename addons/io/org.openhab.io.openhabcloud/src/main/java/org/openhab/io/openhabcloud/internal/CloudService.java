@@ -60,8 +60,10 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
     private static final String CFG_EXPOSE = "expose";
     private static final String CFG_BASE_URL = "baseURL";
     private static final String CFG_MODE = "mode";
+    private static final String CFG_ITEM_UPDATE_INTERVAL = "itemUpdateInterval";
     private static final String SECRET_FILE_NAME = "openhabcloud" + File.separator + "secret";
     private static final String DEFAULT_URL = "https://myopenhab.org/";
+    private static final long DEFAULT_ITEM_UPDATE_INTERVAL = 1000;
 
     private Logger logger = LoggerFactory.getLogger(CloudService.class);
 
@@ -73,6 +75,7 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
 
     private boolean remoteAccessEnabled = true;
     private Set<String> exposedItems = null;
+    private long itemUpdateInterval = DEFAULT_ITEM_UPDATE_INTERVAL;
     private int localPort;
 
     public CloudService() {
@@ -184,6 +187,17 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
             }
         }
 
+        itemUpdateInterval = DEFAULT_ITEM_UPDATE_INTERVAL;
+        Object intervalCfg = config.get(CFG_ITEM_UPDATE_INTERVAL);
+        if (intervalCfg != null) {
+            try {
+                itemUpdateInterval = Math.max(0, Long.parseLong(intervalCfg.toString().trim()));
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid item update interval '{}', using {} ms", intervalCfg,
+                        DEFAULT_ITEM_UPDATE_INTERVAL);
+            }
+        }
+
         logger.debug("UUID = {}, secret = {}", InstanceUUID.get(), getSecret());
 
         if (cloudClient != null) {
@@ -192,7 +206,7 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
 
         String localBaseUrl = "http://localhost:" + localPort;
         cloudClient = new CloudClient(InstanceUUID.get(), getSecret(), cloudBaseUrl, localBaseUrl, remoteAccessEnabled,
-                exposedItems);
+                exposedItems, itemUpdateInterval);
         cloudClient.setOpenHABVersion(OpenHAB.getVersion());
         cloudClient.connect();
         cloudClient.setListener(this);
@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class buffers the item updates to be sent to the openHAB Cloud. Only the latest state
+ * of an item is kept until the buffer is drained, and the number of buffered items is limited so
+ * the buffer cannot grow without bounds while there is no connection.
+ *
+ * @author agent - Initial contribution
+ *
+ */
+public class ItemUpdateBuffer {
+
+    /*
+     * Maximum number of items with a pending update
+     */
+    static final int MAX_BUFFERED_ITEMS = 1000;
+
+    private final Map<String, String> updates = new LinkedHashMap<>();
+
+    private long sent;
+    private long coalesced;
+    private long dropped;
+
+    /**
+     * Buffer the update of an item, replacing a pending update of the same item
+     *
+     * @param itemName the name of the item
+     * @param itemState updated item state
+     * @return false if the update has been dropped because the buffer is full
+     */
+    public synchronized boolean add(String itemName, String itemState) {
+        if (updates.containsKey(itemName)) {
+            // keeps the position of the replaced update
+            updates.put(itemName, itemState);
+            coalesced++;
+            return true;
+        }
+        if (updates.size() >= MAX_BUFFERED_ITEMS) {
+            dropped++;
+            return false;
+        }
+        updates.put(itemName, itemState);
+        return true;
+    }
+
+    /**
+     * Take all pending updates from the buffer
+     *
+     * @return the pending states by item name, in the order the items were first updated
+     */
+    public synchronized Map<String, String> drain() {
+        if (updates.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> drained = new LinkedHashMap<>(updates);
+        updates.clear();
+        sent += drained.size();
+        return drained;
+    }
+
+    /**
+     * Returns the number of items with a pending update
+     */
+    public synchronized int size() {
+        return updates.size();
+    }
+
+    /**
+     * Returns the number of updates taken from the buffer for sending
+     */
+    public synchronized long getSent() {
+        return sent;
+    }
+
+    /**
+     * Returns the number of updates which replaced a pending update of the same item
+     */
+    public synchronized long getCoalesced() {
+        return coalesced;
+    }
+
+    /**
+     * Returns the number of updates dropped because the buffer was full
+     */
+    public synchronized long getDropped() {
+        return dropped;
+    }
+}
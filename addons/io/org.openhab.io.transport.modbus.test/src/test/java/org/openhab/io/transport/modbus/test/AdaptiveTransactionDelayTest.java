@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.endpoint.EndpointPoolConfiguration;
+import org.openhab.io.transport.modbus.internal.pooling.AdaptiveTransactionDelay;
+
+public class AdaptiveTransactionDelayTest {
+
+    @Test
+    public void testFixedDelay() {
+        EndpointPoolConfiguration config = new EndpointPoolConfiguration();
+        config.setInterTransactionDelayMillis(60);
+        AdaptiveTransactionDelay delay = new AdaptiveTransactionDelay(config);
+        assertFalse(config.isAdaptiveInterTransactionDelay());
+        assertFalse(delay.isAdaptive());
+
+        delay.recordFailure();
+        delay.recordFailure();
+        assertThat(delay.getDelayMillis(), is(equalTo(60L)));
+        assertThat(delay.getRetryDelayMillis(1), is(equalTo(60L)));
+        assertThat(delay.getRetryDelayMillis(3), is(equalTo(60L)));
+    }
+
+    @Test
+    public void testFailuresIncreaseDelayUpToMaximum() {
+        EndpointPoolConfiguration config = new EndpointPoolConfiguration();
+        config.setInterTransactionDelayMillis(0);
+        config.setMaxInterTransactionDelayMillis(100);
+        AdaptiveTransactionDelay delay = new AdaptiveTransactionDelay(config);
+        assertTrue(delay.isAdaptive());
+        assertThat(delay.getDelayMillis(), is(equalTo(0L)));
+
+        delay.recordFailure();
+        assertThat(delay.getDelayMillis(), is(equalTo(10L)));
+        delay.recordFailure();
+        assertThat(delay.getDelayMillis(), is(equalTo(20L)));
+        delay.recordFailure();
+        assertThat(delay.getDelayMillis(), is(equalTo(40L)));
+        for (int i = 0; i < 10; i++) {
+            delay.recordFailure();
+        }
+        assertThat(delay.getDelayMillis(), is(equalTo(100L)));
+    }
+
+    @Test
+    public void testSuccessesDecreaseDelayDownToMinimum() {
+        AdaptiveTransactionDelay delay = new AdaptiveTransactionDelay(20, 120);
+        delay.recordFailure();
+        delay.recordFailure();
+        assertThat(delay.getDelayMillis(), is(equalTo(80L)));
+
+        for (int i = 0; i < 9; i++) {
+            delay.recordSuccess(5);
+        }
+        assertThat(delay.getDelayMillis(), is(equalTo(80L)));
+        delay.recordSuccess(5);
+        assertThat(delay.getDelayMillis(), is(equalTo(70L)));
+
+        for (int i = 0; i < 1000; i++) {
+            delay.recordSuccess(5);
+        }
+        assertThat(delay.getDelayMillis(), is(equalTo(20L)));
+    }
+
+    @Test
+    public void testSlowResponsesDoNotDecreaseDelay() {
+        AdaptiveTransactionDelay delay = new AdaptiveTransactionDelay(0, 100);
+        delay.recordFailure();
+        assertThat(delay.getDelayMillis(), is(equalTo(10L)));
+        for (int i = 0; i < 30; i++) {
+            // every third response is slow
+            delay.recordSuccess(i % 3 == 2 ? 100 : 5);
+        }
+        assertThat(delay.getDelayMillis(), is(equalTo(10L)));
+    }
+
+    @Test
+    public void testRetryBackoff() {
+        AdaptiveTransactionDelay delay = new AdaptiveTransactionDelay(30, 200);
+        assertThat(delay.getRetryDelayMillis(1), is(equalTo(30L)));
+        assertThat(delay.getRetryDelayMillis(2), is(equalTo(60L)));
+        assertThat(delay.getRetryDelayMillis(3), is(equalTo(120L)));
+        assertThat(delay.getRetryDelayMillis(4), is(equalTo(200L)));
+        assertThat(delay.getRetryDelayMillis(100), is(equalTo(200L)));
+    }
+}
@@ -303,4 +303,21 @@ public class BitUtilitiesExtractStateFromRegistersTest {
         assertThat(String.format("registers=%s, index=%d, type=%s", registers, index, type), actualState,
                 is(equalTo(expectedResult)));
     }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Test
+    public void testExtractPrimitive() {
+        if (expectedResult instanceof Class && Exception.class.isAssignableFrom((Class) expectedResult)) {
+            shouldThrow.expect((Class) expectedResult);
+        }
+
+        double actualDouble = ModbusBitUtilities.extractDoubleFromRegisters(this.registers, this.index, this.type);
+        assertThat(String.format("registers=%s, index=%d, type=%s", registers, index, type),
+                new DecimalType(actualDouble), is(equalTo(expectedResult)));
+        if (!ModbusBitUtilities.isFloatType(type)) {
+            long actualLong = ModbusBitUtilities.extractLongFromRegisters(this.registers, this.index, this.type);
+            assertThat(String.format("registers=%s, index=%d, type=%s", registers, index, type),
+                    new DecimalType(actualLong), is(equalTo(expectedResult)));
+        }
+    }
 }
@@ -0,0 +1,60 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.internal.ModbusLatencyHistogramImpl;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testEmpty() {
+        ModbusLatencyHistogramImpl histogram = new ModbusLatencyHistogramImpl();
+        assertThat(histogram.getCount(), is(equalTo(0L)));
+        assertThat(histogram.getMin(), is(equalTo(0L)));
+        assertThat(histogram.getMax(), is(equalTo(0L)));
+        assertThat(histogram.getMean(), is(equalTo(0.0)));
+        assertThat(histogram.getPercentile(50), is(equalTo(0L)));
+    }
+
+    @Test
+    public void testStatistics() {
+        ModbusLatencyHistogramImpl histogram = new ModbusLatencyHistogramImpl();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+        assertThat(histogram.getCount(), is(equalTo(100L)));
+        assertThat(histogram.getMin(), is(equalTo(1L)));
+        assertThat(histogram.getMax(), is(equalTo(100L)));
+        assertThat(histogram.getMean(), is(equalTo(50.5)));
+        // 50th value is in bucket 32...63
+        assertThat(histogram.getPercentile(50), is(equalTo(63L)));
+        // bucket bound is limited by the largest value
+        assertThat(histogram.getPercentile(99), is(equalTo(100L)));
+        assertThat(histogram.getPercentile(0), is(equalTo(1L)));
+    }
+
+    @Test
+    public void testNegativeAndLargeValues() {
+        ModbusLatencyHistogramImpl histogram = new ModbusLatencyHistogramImpl();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE / 2);
+        assertThat(histogram.getMin(), is(equalTo(0L)));
+        assertThat(histogram.getPercentile(50), is(equalTo(0L)));
+        assertThat(histogram.getPercentile(100), is(equalTo(histogram.getMax())));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPercentile() {
+        new ModbusLatencyHistogramImpl().getPercentile(101);
+    }
+}
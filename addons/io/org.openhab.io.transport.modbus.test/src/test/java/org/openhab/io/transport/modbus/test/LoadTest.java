@@ -0,0 +1,212 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.BasicPollTaskImpl;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusEndpointMetrics;
+import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.EndpointPoolConfiguration;
+import org.openhab.io.transport.modbus.internal.ModbusLatencyHistogramImpl;
+import org.openhab.io.transport.modbus.test.IntegrationTestSupport.NonOSGIModbusManager;
+import org.openhab.io.transport.modbus.test.ModbusSlaveSimulator.Protocol;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Load test of the transport against many simulated slaves
+ *
+ * Reports throughput, poll period jitter and callback latency. The results depend on the timing of the machine running
+ * the test, so the test is not part of the regular test run. Remove the {@link Ignore} annotation to run it manually.
+ * The load can be scaled using system properties (e.g.
+ * <code>-Dmodbus.loadtest.endpoints=100 -Dmodbus.loadtest.tasksPerEndpoint=30</code>) to get a baseline for changes
+ * in the connection pool or scheduling:
+ * <ul>
+ * <li><code>modbus.loadtest.endpoints</code>: number of simulated slaves</li>
+ * <li><code>modbus.loadtest.tasksPerEndpoint</code>: number of regular polls per slave</li>
+ * <li><code>modbus.loadtest.pollPeriodMillis</code>: poll period</li>
+ * <li><code>modbus.loadtest.durationMillis</code>: duration of the measurement</li>
+ * <li><code>modbus.loadtest.latencyMillis</code> and <code>modbus.loadtest.jitterMillis</code>: response latency of
+ * the slaves</li>
+ * <li><code>modbus.loadtest.maxInFlightTransactions</code> and <code>modbus.loadtest.readMergeMaxGap</code>: pool
+ * configuration of the TCP endpoints</li>
+ * </ul>
+ *
+ * @author agent - Initial contribution
+ *
+ */
+@Ignore("Timing dependent load test, run manually")
+public class LoadTest {
+
+    private final Logger logger = LoggerFactory.getLogger(LoadTest.class);
+
+    private final int endpoints = Integer.getInteger("modbus.loadtest.endpoints", 5);
+    private final int tasksPerEndpoint = Integer.getInteger("modbus.loadtest.tasksPerEndpoint", 5);
+    private final long pollPeriodMillis = Long.getLong("modbus.loadtest.pollPeriodMillis", 100L);
+    private final long durationMillis = Long.getLong("modbus.loadtest.durationMillis", 2000L);
+    private final long latencyMillis = Long.getLong("modbus.loadtest.latencyMillis", 1L);
+    private final long jitterMillis = Long.getLong("modbus.loadtest.jitterMillis", 2L);
+    private final int maxInFlightTransactions = Integer.getInteger("modbus.loadtest.maxInFlightTransactions", 1);
+    private final int readMergeMaxGap = Integer.getInteger("modbus.loadtest.readMergeMaxGap", -1);
+
+    private NonOSGIModbusManager modbusManager;
+    private final List<ModbusSlaveSimulator> simulators = new ArrayList<>();
+
+    /**
+     * Callback recording the interval between successful polls
+     */
+    private static class MeasuringCallback implements ModbusReadCallback {
+
+        private final long pollPeriodMillis;
+        private final ModbusLatencyHistogramImpl jitter;
+        private final AtomicLong responses = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private volatile long lastResponseNanos;
+
+        public MeasuringCallback(long pollPeriodMillis, ModbusLatencyHistogramImpl jitter) {
+            this.pollPeriodMillis = pollPeriodMillis;
+            this.jitter = jitter;
+        }
+
+        @Override
+        public void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
+            long now = System.nanoTime();
+            if (responses.getAndIncrement() > 0) {
+                jitter.record(Math.abs((now - lastResponseNanos) / 1_000_000 - pollPeriodMillis));
+            }
+            lastResponseNanos = now;
+        }
+
+        @Override
+        public void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
+            responses.incrementAndGet();
+        }
+
+        @Override
+        public void onError(ModbusReadRequestBlueprint request, Exception error) {
+            errors.incrementAndGet();
+        }
+    }
+
+    @Before
+    public void setUp() {
+        modbusManager = new NonOSGIModbusManager();
+    }
+
+    @After
+    public void tearDown() {
+        modbusManager.close();
+        simulators.forEach(ModbusSlaveSimulator::close);
+        simulators.clear();
+    }
+
+    private List<MeasuringCallback> runLoad(Protocol protocol, int endpoints, ModbusLatencyHistogramImpl jitter,
+            double busyProbability) throws IOException, InterruptedException {
+        List<MeasuringCallback> callbacks = new ArrayList<>();
+        for (int i = 0; i < endpoints; i++) {
+            ModbusSlaveSimulator simulator = new ModbusSlaveSimulator(protocol, 10 * tasksPerEndpoint);
+            simulator.setLatency(latencyMillis, jitterMillis);
+            simulator.setBusyProbability(busyProbability);
+            simulator.start();
+            simulators.add(simulator);
+
+            EndpointPoolConfiguration config = new EndpointPoolConfiguration();
+            config.setInterTransactionDelayMillis(0);
+            config.setReconnectAfterMillis(-1);
+            config.setConnectMaxTries(3);
+            config.setReadMergeMaxGap(readMergeMaxGap);
+            if (protocol == Protocol.TCP) {
+                config.setMaxInFlightTransactions(maxInFlightTransactions);
+            }
+            modbusManager.setEndpointPoolConfiguration(simulator.getEndpoint(), config);
+
+            for (int j = 0; j < tasksPerEndpoint; j++) {
+                MeasuringCallback callback = new MeasuringCallback(pollPeriodMillis, jitter);
+                callbacks.add(callback);
+                PollTask task = new BasicPollTaskImpl(simulator.getEndpoint(), new BasicModbusReadRequestBlueprint(1,
+                        ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, j * 10, 5, 3), callback);
+                modbusManager.registerRegularPoll(task, pollPeriodMillis, 0);
+            }
+        }
+        Thread.sleep(durationMillis);
+        report(protocol, endpoints, callbacks, jitter);
+        return callbacks;
+    }
+
+    private void report(Protocol protocol, int endpoints, List<MeasuringCallback> callbacks,
+            ModbusLatencyHistogramImpl jitter) {
+        long responses = callbacks.stream().mapToLong(callback -> callback.responses.get()).sum();
+        long errors = callbacks.stream().mapToLong(callback -> callback.errors.get()).sum();
+        long worstCallbackLagP99 = 0;
+        long worstPollDriftP99 = 0;
+        long worstRoundTripP99 = 0;
+        for (ModbusEndpointMetrics metrics : modbusManager.getEndpointMetrics()) {
+            worstCallbackLagP99 = Math.max(worstCallbackLagP99, metrics.getCallbackQueueLag().getPercentile(99));
+            worstPollDriftP99 = Math.max(worstPollDriftP99, metrics.getPollPeriodDrift().getPercentile(99));
+            worstRoundTripP99 = Math.max(worstRoundTripP99, metrics.getTransactionRoundTrip().getPercentile(99));
+        }
+        logger.info(
+                "Load test ({}, {} endpoints, {} polls per endpoint, period {} ms): {} responses/s, {} errors, poll interval jitter ({}), worst p99 round trip {} ms, worst p99 callback lag {} ms, worst p99 poll drift {} ms",
+                protocol, endpoints, tasksPerEndpoint, pollPeriodMillis,
+                String.format("%.1f", responses * 1000.0 / durationMillis), errors, jitter, worstRoundTripP99,
+                worstCallbackLagP99, worstPollDriftP99);
+    }
+
+    @Test
+    public void testTCPLoad() throws Exception {
+        ModbusLatencyHistogramImpl jitter = new ModbusLatencyHistogramImpl();
+        List<MeasuringCallback> callbacks = runLoad(Protocol.TCP, endpoints, jitter, 0);
+        for (MeasuringCallback callback : callbacks) {
+            assertThat(callback.errors.get(), is(equalTo(0L)));
+            assertTrue(callback.responses.get() > 0);
+        }
+    }
+
+    @Test
+    public void testUDPLoad() throws Exception {
+        ModbusLatencyHistogramImpl jitter = new ModbusLatencyHistogramImpl();
+        // UDP connections of jamod share the same local port, only one UDP endpoint can be connected at a time
+        List<MeasuringCallback> callbacks = runLoad(Protocol.UDP, 1, jitter, 0);
+        for (MeasuringCallback callback : callbacks) {
+            assertThat(callback.errors.get(), is(equalTo(0L)));
+            assertTrue(callback.responses.get() > 0);
+        }
+    }
+
+    @Test
+    public void testTCPLoadWithBusySlaves() throws Exception {
+        ModbusLatencyHistogramImpl jitter = new ModbusLatencyHistogramImpl();
+        List<MeasuringCallback> callbacks = runLoad(Protocol.TCP, endpoints, jitter, 0.2);
+        long faults = simulators.stream().mapToLong(ModbusSlaveSimulator::getFaults).sum();
+        long retries = modbusManager.getEndpointMetrics().stream().mapToLong(ModbusEndpointMetrics::getRetries).sum();
+        assertTrue(faults > 0);
+        // busy responses are retried
+        assertTrue(retries > 0);
+        for (MeasuringCallback callback : callbacks) {
+            assertTrue(callback.responses.get() > 0);
+        }
+    }
+}
@@ -0,0 +1,400 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus.test;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.endpoint.ModbusUDPSlaveEndpoint;
+
+/**
+ * In-process MODBUS/TCP and MODBUS/UDP slave for tests
+ *
+ * Unlike the jamod listeners used by {@link IntegrationTestSupport}, each simulator has data of its own, and many
+ * simulators can run at the same time. Simulator serves all unit ids with the same data.
+ *
+ * Supported function codes are 1-6, 15 and 16. Response latency, jitter, and faults (dropped responses, "slave device
+ * busy" exception responses, closed connections) can be configured while the simulator is running.
+ *
+ * Serial endpoints are not simulated since the serial connections of the transport need a real serial port.
+ *
+ * @author agent - Initial contribution
+ *
+ */
+public class ModbusSlaveSimulator implements AutoCloseable {
+
+    public enum Protocol {
+        TCP,
+        UDP
+    }
+
+    private static final int MBAP_HEADER_LENGTH = 7;
+    private static final int MAX_PDU_LENGTH = 253;
+    private static final int SLAVE_DEVICE_BUSY_EXCEPTION = 6;
+
+    private final Protocol protocol;
+    private final boolean[] coils;
+    private final boolean[] discreteInputs;
+    private final short[] holdingRegisters;
+    private final short[] inputRegisters;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Set<Socket> connections = new CopyOnWriteArraySet<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong faults = new AtomicLong();
+
+    private volatile long latencyMillis;
+    private volatile long jitterMillis;
+    private volatile double dropResponseProbability;
+    private volatile double busyProbability;
+    private volatile double disconnectProbability;
+    private volatile boolean running;
+
+    private ServerSocket serverSocket;
+    private DatagramSocket datagramSocket;
+
+    /**
+     * Construct simulator with data tables of the given size
+     *
+     * @param protocol protocol to serve
+     * @param size number of coils, discrete inputs, holding registers and input registers
+     */
+    public ModbusSlaveSimulator(Protocol protocol, int size) {
+        this.protocol = protocol;
+        coils = new boolean[size];
+        discreteInputs = new boolean[size];
+        holdingRegisters = new short[size];
+        inputRegisters = new short[size];
+    }
+
+    /**
+     * Start serving requests, using any free port of the loopback interface
+     *
+     * @throws IOException when the socket cannot be opened
+     */
+    public void start() throws IOException {
+        running = true;
+        if (protocol == Protocol.TCP) {
+            serverSocket = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.1"));
+            executor.execute(this::acceptConnections);
+        } else {
+            datagramSocket = new DatagramSocket(0, InetAddress.getByName("127.0.0.1"));
+            executor.execute(this::serveDatagrams);
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            if (serverSocket != null) {
+                serverSocket.close();
+            }
+            for (Socket connection : connections) {
+                connection.close();
+            }
+        } catch (IOException e) {
+            // closing anyways
+        }
+        if (datagramSocket != null) {
+            datagramSocket.close();
+        }
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getPort() {
+        return protocol == Protocol.TCP ? serverSocket.getLocalPort() : datagramSocket.getLocalPort();
+    }
+
+    public ModbusSlaveEndpoint getEndpoint() {
+        return protocol == Protocol.TCP ? new ModbusTCPSlaveEndpoint("127.0.0.1", getPort())
+                : new ModbusUDPSlaveEndpoint("127.0.0.1", getPort());
+    }
+
+    /**
+     * Delay responses
+     *
+     * @param latencyMillis minimum delay of each response
+     * @param jitterMillis maximum random delay added on top of latencyMillis
+     */
+    public void setLatency(long latencyMillis, long jitterMillis) {
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+    }
+
+    /**
+     * @param probability probability of not responding to a request at all
+     */
+    public void setDropResponseProbability(double probability) {
+        this.dropResponseProbability = probability;
+    }
+
+    /**
+     * @param probability probability of responding with "slave device busy" exception response
+     */
+    public void setBusyProbability(double probability) {
+        this.busyProbability = probability;
+    }
+
+    /**
+     * @param probability probability of closing the connection instead of responding. Only applicable to TCP.
+     */
+    public void setDisconnectProbability(double probability) {
+        this.disconnectProbability = probability;
+    }
+
+    /**
+     * @return number of requests received
+     */
+    public long getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * @return number of requests not responded normally due to injected faults
+     */
+    public long getFaults() {
+        return faults.get();
+    }
+
+    public synchronized void setHoldingRegister(int index, int value) {
+        holdingRegisters[index] = (short) value;
+    }
+
+    public synchronized int getHoldingRegister(int index) {
+        return holdingRegisters[index] & 0xffff;
+    }
+
+    public synchronized void setInputRegister(int index, int value) {
+        inputRegisters[index] = (short) value;
+    }
+
+    public synchronized void setCoil(int index, boolean value) {
+        coils[index] = value;
+    }
+
+    public synchronized boolean getCoil(int index) {
+        return coils[index];
+    }
+
+    public synchronized void setDiscreteInput(int index, boolean value) {
+        discreteInputs[index] = value;
+    }
+
+    private void acceptConnections() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                connections.add(socket);
+                executor.execute(() -> serveConnection(socket));
+            } catch (IOException e) {
+                // server socket closed
+                return;
+            }
+        }
+    }
+
+    private void serveConnection(Socket socket) {
+        try (Socket closedOnExit = socket) {
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            OutputStream out = socket.getOutputStream();
+            byte[] frame = new byte[MBAP_HEADER_LENGTH + MAX_PDU_LENGTH];
+            while (running) {
+                in.readFully(frame, 0, MBAP_HEADER_LENGTH);
+                int length = ((frame[4] & 0xff) << 8) | (frame[5] & 0xff);
+                if (length < 2 || length > MAX_PDU_LENGTH + 1) {
+                    // garbage, give up with the connection
+                    return;
+                }
+                in.readFully(frame, MBAP_HEADER_LENGTH, length - 1);
+                byte[] response = respond(frame, length - 1);
+                if (response == null) {
+                    continue;
+                }
+                if (disconnectProbability > 0 && ThreadLocalRandom.current().nextDouble() < disconnectProbability) {
+                    faults.incrementAndGet();
+                    return;
+                }
+                out.write(response);
+                out.flush();
+            }
+        } catch (EOFException | SocketException e) {
+            // client closed the connection
+        } catch (IOException | InterruptedException e) {
+            // shutting down
+        } finally {
+            connections.remove(socket);
+        }
+    }
+
+    private void serveDatagrams() {
+        byte[] frame = new byte[MBAP_HEADER_LENGTH + MAX_PDU_LENGTH];
+        while (running) {
+            try {
+                DatagramPacket packet = new DatagramPacket(frame, frame.length);
+                datagramSocket.receive(packet);
+                if (packet.getLength() < MBAP_HEADER_LENGTH + 1) {
+                    continue;
+                }
+                byte[] response = respond(frame, packet.getLength() - MBAP_HEADER_LENGTH);
+                if (response != null) {
+                    datagramSocket.send(new DatagramPacket(response, response.length, packet.getSocketAddress()));
+                }
+            } catch (IOException | InterruptedException e) {
+                // socket closed
+                return;
+            }
+        }
+    }
+
+    /**
+     * Process single request
+     *
+     * @param frame request with MBAP header
+     * @param pduLength length of the request PDU following the header
+     * @return response with MBAP header, or null when response is not sent
+     * @throws InterruptedException when interrupted while simulating latency
+     */
+    private byte[] respond(byte[] frame, int pduLength) throws InterruptedException {
+        requests.incrementAndGet();
+        long delay = latencyMillis + (jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis + 1) : 0);
+        if (delay > 0) {
+            Thread.sleep(delay);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (dropResponseProbability > 0 && random.nextDouble() < dropResponseProbability) {
+            faults.incrementAndGet();
+            return null;
+        }
+        byte[] pdu;
+        if (busyProbability > 0 && random.nextDouble() < busyProbability) {
+            faults.incrementAndGet();
+            pdu = exception(frame[MBAP_HEADER_LENGTH], SLAVE_DEVICE_BUSY_EXCEPTION);
+        } else {
+            pdu = process(Arrays.copyOfRange(frame, MBAP_HEADER_LENGTH, MBAP_HEADER_LENGTH + pduLength));
+        }
+        byte[] response = new byte[MBAP_HEADER_LENGTH + pdu.length];
+        // transaction id, protocol id and unit id are echoed
+        System.arraycopy(frame, 0, response, 0, MBAP_HEADER_LENGTH);
+        response[4] = (byte) ((pdu.length + 1) >> 8);
+        response[5] = (byte) (pdu.length + 1);
+        System.arraycopy(pdu, 0, response, MBAP_HEADER_LENGTH, pdu.length);
+        return response;
+    }
+
+    private synchronized byte[] process(byte[] pdu) {
+        int functionCode = pdu[0] & 0xff;
+        if (pdu.length < 5) {
+            return exception(pdu[0], 3);
+        }
+        int address = uint16(pdu, 1);
+        int quantity = uint16(pdu, 3);
+        switch (functionCode) {
+            case 1:
+                return readBits(pdu[0], coils, address, quantity);
+            case 2:
+                return readBits(pdu[0], discreteInputs, address, quantity);
+            case 3:
+                return readRegisters(pdu[0], holdingRegisters, address, quantity);
+            case 4:
+                return readRegisters(pdu[0], inputRegisters, address, quantity);
+            case 5:
+                if (address >= coils.length) {
+                    return exception(pdu[0], 2);
+                }
+                coils[address] = quantity == 0xff00;
+                return pdu;
+            case 6:
+                if (address >= holdingRegisters.length) {
+                    return exception(pdu[0], 2);
+                }
+                holdingRegisters[address] = (short) quantity;
+                return pdu;
+            case 15:
+                if (address + quantity > coils.length) {
+                    return exception(pdu[0], 2);
+                }
+                for (int i = 0; i < quantity; i++) {
+                    coils[address + i] = (pdu[6 + i / 8] & (1 << (i % 8))) != 0;
+                }
+                return Arrays.copyOf(pdu, 5);
+            case 16:
+                if (address + quantity > holdingRegisters.length) {
+                    return exception(pdu[0], 2);
+                }
+                for (int i = 0; i < quantity; i++) {
+                    holdingRegisters[address + i] = (short) uint16(pdu, 6 + 2 * i);
+                }
+                return Arrays.copyOf(pdu, 5);
+            default:
+                return exception(pdu[0], 1);
+        }
+    }
+
+    private static byte[] readBits(byte functionCode, boolean[] table, int address, int quantity) {
+        if (quantity < 1 || address + quantity > table.length) {
+            return exception(functionCode, 2);
+        }
+        byte[] response = new byte[2 + (quantity + 7) / 8];
+        response[0] = functionCode;
+        response[1] = (byte) (response.length - 2);
+        for (int i = 0; i < quantity; i++) {
+            if (table[address + i]) {
+                response[2 + i / 8] |= 1 << (i % 8);
+            }
+        }
+        return response;
+    }
+
+    private static byte[] readRegisters(byte functionCode, short[] table, int address, int quantity) {
+        if (quantity < 1 || address + quantity > table.length) {
+            return exception(functionCode, 2);
+        }
+        byte[] response = new byte[2 + 2 * quantity];
+        response[0] = functionCode;
+        response[1] = (byte) (2 * quantity);
+        for (int i = 0; i < quantity; i++) {
+            response[2 + 2 * i] = (byte) (table[address + i] >> 8);
+            response[3 + 2 * i] = (byte) table[address + i];
+        }
+        return response;
+    }
+
+    private static byte[] exception(byte functionCode, int code) {
+        return new byte[] { (byte) (functionCode | 0x80), (byte) code };
+    }
+
+    private static int uint16(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xff) << 8) | (bytes[offset + 1] & 0xff);
+    }
+}
@@ -0,0 +1,213 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.BasicBitArray;
+import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+import org.openhab.io.transport.modbus.BasicPollTaskImpl;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.MergedPollTask;
+import org.openhab.io.transport.modbus.internal.ModbusReadRequestPlanner;
+
+public class ReadRequestPlannerTest {
+
+    private static final ModbusSlaveEndpoint ENDPOINT = new ModbusTCPSlaveEndpoint("127.0.0.1", 502);
+
+    private static class RecordingCallback implements ModbusReadCallback {
+        private final List<Object> received = new ArrayList<>();
+
+        @Override
+        public void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
+            received.add(registers);
+        }
+
+        @Override
+        public void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
+            received.add(bits);
+        }
+
+        @Override
+        public void onError(ModbusReadRequestBlueprint request, Exception error) {
+            received.add(error);
+        }
+    }
+
+    private static PollTask task(ModbusReadFunctionCode functionCode, int start, int length) {
+        return task(functionCode, start, length, new RecordingCallback());
+    }
+
+    private static PollTask task(ModbusReadFunctionCode functionCode, int start, int length,
+            ModbusReadCallback callback) {
+        return new BasicPollTaskImpl(ENDPOINT, new BasicModbusReadRequestBlueprint(1, functionCode, start, length, 3),
+                callback);
+    }
+
+    private static PollTask task(int start, int length, int protocolID) {
+        BasicModbusReadRequestBlueprint request = new BasicModbusReadRequestBlueprint(1,
+                ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, start, length, 3) {
+            @Override
+            public int getProtocolID() {
+                return protocolID;
+            }
+        };
+        return new BasicPollTaskImpl(ENDPOINT, request, new RecordingCallback());
+    }
+
+    @Test
+    public void testNegativeGapDisablesMerging() {
+        List<PollTask> tasks = Arrays.asList(task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 2),
+                task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 2, 2));
+        List<PollTask> planned = ModbusReadRequestPlanner.plan(tasks, -1);
+        assertThat(planned, is(equalTo(tasks)));
+    }
+
+    @Test
+    public void testAdjacentAndOverlappingTasksAreMerged() {
+        List<PollTask> tasks = Arrays.asList(task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 10, 2),
+                task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 5),
+                task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 3, 4));
+        List<PollTask> planned = ModbusReadRequestPlanner.plan(tasks, 3);
+        assertThat(planned.size(), is(equalTo(1)));
+        assertTrue(planned.get(0) instanceof MergedPollTask);
+        assertThat(planned.get(0).getRequest().getReference(), is(equalTo(0)));
+        assertThat(planned.get(0).getRequest().getDataLength(), is(equalTo(12)));
+        assertThat(planned.get(0).getRequest().getMaxTries(), is(equalTo(3)));
+    }
+
+    @Test
+    public void testReplanningIsEqual() {
+        List<PollTask> tasks = Arrays.asList(task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 2),
+                task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 2, 2),
+                task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 10, 2));
+        List<PollTask> planned = ModbusReadRequestPlanner.plan(tasks, 1);
+        List<PollTask> replanned = ModbusReadRequestPlanner.plan(tasks, 1);
+        assertThat(replanned, is(equalTo(planned)));
+        assertThat(replanned.hashCode(), is(equalTo(planned.hashCode())));
+        assertThat(ModbusReadRequestPlanner.plan(tasks, 8), is(not(equalTo(planned))));
+    }
+
+    @Test
+    public void testProtocolIdIsKept() {
+        List<PollTask> planned = ModbusReadRequestPlanner.plan(Arrays.asList(task(0, 2, 5), task(2, 2, 5)), 0);
+        assertThat(planned.size(), is(equalTo(1)));
+        assertThat(planned.get(0).getRequest().getProtocolID(), is(equalTo(5)));
+    }
+
+    @Test
+    public void testDifferentProtocolIdsAreNotMerged() {
+        List<PollTask> tasks = Arrays.asList(task(0, 2, 0), task(2, 2, 5));
+        assertThat(ModbusReadRequestPlanner.plan(tasks, 0), is(equalTo(tasks)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergingDifferentProtocolIdsFails() {
+        new MergedPollTask(Arrays.asList(task(0, 2, 0), task(2, 2, 5)));
+    }
+
+    @Test
+    public void testGapTooLarge() {
+        PollTask first = task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 2);
+        PollTask second = task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 5, 2);
+        List<PollTask> planned = ModbusReadRequestPlanner.plan(Arrays.asList(second, first), 2);
+        assertThat(planned, is(equalTo(Arrays.asList(first, second))));
+    }
+
+    @Test
+    public void testRegisterLimit() {
+        List<PollTask> tasks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            tasks.add(task(ModbusReadFunctionCode.READ_INPUT_REGISTERS, i * 50, 50));
+        }
+        List<PollTask> planned = ModbusReadRequestPlanner.plan(tasks, 0);
+        assertThat(planned.size(), is(equalTo(5)));
+        for (PollTask merged : planned) {
+            assertThat(merged.getRequest().getDataLength(), is(equalTo(100)));
+        }
+    }
+
+    @Test
+    public void testBitLimit() {
+        List<PollTask> tasks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            tasks.add(task(ModbusReadFunctionCode.READ_COILS, i * 500, 500));
+        }
+        List<PollTask> planned = ModbusReadRequestPlanner.plan(tasks, 0);
+        assertThat(planned.size(), is(equalTo(3)));
+        assertThat(planned.get(0).getRequest().getDataLength(), is(equalTo(2000)));
+        assertThat(planned.get(1).getRequest().getDataLength(), is(equalTo(2000)));
+        assertThat(planned.get(2).getRequest().getDataLength(), is(equalTo(1000)));
+    }
+
+    @Test
+    public void testMergedRegistersAreSplit() {
+        RecordingCallback first = new RecordingCallback();
+        RecordingCallback second = new RecordingCallback();
+        List<PollTask> planned = ModbusReadRequestPlanner
+                .plan(Arrays.asList(task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 5, 2, first),
+                        task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 8, 3, second)), 1);
+        assertThat(planned.size(), is(equalTo(1)));
+        PollTask merged = planned.get(0);
+
+        merged.getCallback().onRegisters(merged.getRequest(), new BasicModbusRegisterArray(5, 6, 7, 8, 9, 10));
+
+        assertThat(first.received.size(), is(equalTo(1)));
+        assertThat(((ModbusRegisterArray) first.received.get(0)).toHexString(), is(equalTo("00 05 00 06")));
+        assertThat(second.received.size(), is(equalTo(1)));
+        assertThat(((ModbusRegisterArray) second.received.get(0)).toHexString(),
+                is(equalTo("00 08 00 09 00 0a")));
+    }
+
+    @Test
+    public void testMergedBitsAreSplit() {
+        RecordingCallback first = new RecordingCallback();
+        RecordingCallback second = new RecordingCallback();
+        List<PollTask> planned = ModbusReadRequestPlanner
+                .plan(Arrays.asList(task(ModbusReadFunctionCode.READ_INPUT_DISCRETES, 0, 2, first),
+                        task(ModbusReadFunctionCode.READ_INPUT_DISCRETES, 3, 2, second)), 1);
+        assertThat(planned.size(), is(equalTo(1)));
+        PollTask merged = planned.get(0);
+
+        merged.getCallback().onBits(merged.getRequest(), new BasicBitArray(true, false, false, false, true));
+
+        assertThat(first.received, is(equalTo(Arrays.asList(new BasicBitArray(true, false)))));
+        assertThat(second.received, is(equalTo(Arrays.asList(new BasicBitArray(false, true)))));
+    }
+
+    @Test
+    public void testErrorIsDeliveredToAllMergedTasks() {
+        RecordingCallback first = new RecordingCallback();
+        RecordingCallback second = new RecordingCallback();
+        List<PollTask> planned = ModbusReadRequestPlanner
+                .plan(Arrays.asList(task(ModbusReadFunctionCode.READ_COILS, 0, 2, first),
+                        task(ModbusReadFunctionCode.READ_COILS, 2, 2, second)), 0);
+        PollTask merged = planned.get(0);
+        Exception error = new Exception();
+
+        merged.getCallback().onError(merged.getRequest(), error);
+
+        assertThat(first.received, is(equalTo(Arrays.asList(error))));
+        assertThat(second.received, is(equalTo(Arrays.asList(error))));
+    }
+}
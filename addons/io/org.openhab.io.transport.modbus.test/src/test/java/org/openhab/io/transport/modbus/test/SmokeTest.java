@@ -20,6 +20,7 @@ import org.junit.Test;
 import org.openhab.io.transport.modbus.BitArray;
 import org.openhab.io.transport.modbus.BasicBitArray;
 import org.openhab.io.transport.modbus.ModbusConnectionException;
+import org.openhab.io.transport.modbus.ModbusEndpointMetrics;
 import org.openhab.io.transport.modbus.ModbusManagerListener;
 import org.openhab.io.transport.modbus.ModbusReadCallback;
 import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
@@ -828,6 +829,126 @@ public class SmokeTest extends IntegrationTestSupport {
         assertTrue(String.valueOf(averagePollPeriodMillis), averagePollPeriodMillis < 400);
     }
 
+    /**
+     * Many one-off reads with endpoint allowing multiple outstanding transactions. All reads should share single
+     * connection.
+     *
+     * @throws InterruptedException
+     */
+    @Test
+    public void testOneOffReadsWithPipelinedConnection() throws InterruptedException {
+        generateData();
+        ModbusSlaveEndpoint endpoint = getEndpoint();
+        EndpointPoolConfiguration config = new EndpointPoolConfiguration();
+        config.setMaxInFlightTransactions(4);
+        modbusManager.setEndpointPoolConfiguration(endpoint, config);
+
+        int reads = 10;
+        AtomicInteger unexpectedCount = new AtomicInteger();
+        CountDownLatch callbackCalled = new CountDownLatch(reads);
+
+        for (int i = 0; i < reads; i++) {
+            int offset = i;
+            BasicPollTaskImpl task = new BasicPollTaskImpl(endpoint, new BasicModbusReadRequestBlueprint(SLAVE_UNIT_ID,
+                    ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, offset, 5, 1), new ModbusReadCallback() {
+
+                        @Override
+                        public void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
+                            testHoldingValues(registers, offset);
+                            callbackCalled.countDown();
+                        }
+
+                        @Override
+                        public void onError(ModbusReadRequestBlueprint request, Exception error) {
+                            unexpectedCount.incrementAndGet();
+                            callbackCalled.countDown();
+                        }
+
+                        @Override
+                        public void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
+                            unexpectedCount.incrementAndGet();
+                            callbackCalled.countDown();
+                        }
+                    });
+            modbusManager.submitOneTimePoll(task);
+        }
+        assertTrue(callbackCalled.await(5, TimeUnit.SECONDS));
+        assertThat(unexpectedCount.get(), is(equalTo(0)));
+        waitForRequests(reads);
+        waitForConnectionsReceived(1);
+    }
+
+    @Test
+    public void testEndpointMetrics() throws InterruptedException {
+        generateData();
+        ModbusSlaveEndpoint endpoint = getEndpoint();
+        assertThat(modbusManager.getEndpointMetrics(endpoint), is(nullValue()));
+
+        CountDownLatch callbackCalled = new CountDownLatch(1);
+        BasicPollTaskImpl task = new BasicPollTaskImpl(endpoint, new BasicModbusReadRequestBlueprint(SLAVE_UNIT_ID,
+                ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 1, 15, 1), new ModbusReadCallback() {
+
+                    @Override
+                    public void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
+                        callbackCalled.countDown();
+                    }
+
+                    @Override
+                    public void onError(ModbusReadRequestBlueprint request, Exception error) {
+                    }
+
+                    @Override
+                    public void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
+                    }
+                });
+        modbusManager.submitOneTimePoll(task);
+        assertTrue(callbackCalled.await(5, TimeUnit.SECONDS));
+
+        ModbusEndpointMetrics metrics = modbusManager.getEndpointMetrics(endpoint);
+        assertThat(metrics, is(notNullValue()));
+        assertThat(metrics.getEndpoint(), is(equalTo(endpoint)));
+        assertThat(metrics.getTransactions(), is(equalTo(1L)));
+        assertThat(metrics.getFailedTransactions(), is(equalTo(0L)));
+        assertThat(metrics.getRetries(), is(equalTo(0L)));
+        assertThat(metrics.getConnectionFailures(), is(equalTo(0L)));
+        assertThat(metrics.getConnectionWait().getCount(), is(equalTo(1L)));
+        assertThat(metrics.getTransactionRoundTrip().getCount(), is(equalTo(1L)));
+        assertThat(metrics.getCallbackQueueLag().getCount(), is(equalTo(1L)));
+        assertThat(modbusManager.getEndpointMetrics().size(), is(equalTo(1)));
+        assertThat(modbusManager.getEndpointMetrics().iterator().next(), is(sameInstance(metrics)));
+    }
+
+    @Test
+    public void testEndpointMetricsDiscardedWhenLastRegularPollUnregistered() throws InterruptedException {
+        generateData();
+        ModbusSlaveEndpoint endpoint = getEndpoint();
+
+        CountDownLatch callbackCalled = new CountDownLatch(1);
+        BasicPollTaskImpl task = new BasicPollTaskImpl(endpoint, new BasicModbusReadRequestBlueprint(SLAVE_UNIT_ID,
+                ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 1, 15, 1), new ModbusReadCallback() {
+
+                    @Override
+                    public void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
+                        callbackCalled.countDown();
+                    }
+
+                    @Override
+                    public void onError(ModbusReadRequestBlueprint request, Exception error) {
+                    }
+
+                    @Override
+                    public void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
+                    }
+                });
+        modbusManager.registerRegularPoll(task, 50, 0);
+        assertTrue(callbackCalled.await(5, TimeUnit.SECONDS));
+        assertThat(modbusManager.getEndpointMetrics(endpoint), is(notNullValue()));
+
+        assertTrue(modbusManager.unregisterRegularPoll(task));
+        waitForAssert(() -> assertThat(modbusManager.getEndpointMetrics(endpoint), is(nullValue())));
+        assertThat(modbusManager.getEndpointMetrics().size(), is(equalTo(0)));
+    }
+
     @SuppressWarnings("null")
     @Test
     public void testPoolConfigurationWithoutListener() {
@@ -9,8 +9,6 @@
 package org.openhab.io.transport.modbus;
 
 import java.math.BigDecimal;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 import java.util.Optional;
 
@@ -82,72 +80,115 @@ public class ModbusBitUtilities {
      */
     public static DecimalType extractStateFromRegisters(ModbusRegisterArray registers, int index,
             ModbusConstants.ValueType type) {
-        int endBitIndex = (type.getBits() >= 16 ? 16 * index : type.getBits() * index) + type.getBits() - 1;
-        // each register has 16 bits
-        int lastValidIndex = registers.size() * 16 - 1;
-        if (endBitIndex > lastValidIndex || index < 0) {
-            throw new IllegalArgumentException(
-                    String.format("Index=%d with type=%s is out-of-bounds given registers of size %d", index, type,
-                            registers.size()));
+        if (isFloatType(type)) {
+            return new DecimalType(extractDoubleFromRegisters(registers, index, type));
+        } else {
+            return new DecimalType(extractLongFromRegisters(registers, index, type));
         }
+    }
+
+    /**
+     * Read data from registers and return the result as primitive long
+     *
+     * Same as {@link #extractStateFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)} but without
+     * allocating any objects. All value types except floating point types are supported, see
+     * {@link #extractDoubleFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)} for those.
+     *
+     * @param registers list of registers, each register represent 16bit of data
+     * @param index zero based item index, see
+     *            {@link #extractStateFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)}
+     * @param type item type, e.g. unsigned 16bit integer (<tt>ModbusBindingProvider.ValueType.UINT16</tt>)
+     * @return queried value
+     * @throws IllegalArgumentException when <tt>index</tt> is out of bounds of registers, or when type is floating
+     *             point type
+     */
+    public static long extractLongFromRegisters(ModbusRegisterArray registers, int index,
+            ModbusConstants.ValueType type) {
+        checkRegisterBounds(registers, index, type);
         switch (type) {
             case BIT:
-                return new DecimalType((registers.getRegister(index / 16).toUnsignedShort() >> (index % 16)) & 1);
+                return (registers.getRegisterUnsignedShort(index / 16) >> (index % 16)) & 1;
             case INT8:
-                return new DecimalType(registers.getRegister(index / 2).getBytes()[1 - (index % 2)]);
+                return (byte) (registers.getRegisterUnsignedShort(index / 2) >> (8 * (index % 2)));
             case UINT8:
-                return new DecimalType(
-                        (registers.getRegister(index / 2).toUnsignedShort() >> (8 * (index % 2))) & 0xff);
-            case INT16: {
-                ByteBuffer buff = ByteBuffer.allocate(2);
-                buff.put(registers.getRegister(index).getBytes());
-                return new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getShort(0));
-            }
+                return (registers.getRegisterUnsignedShort(index / 2) >> (8 * (index % 2))) & 0xff;
+            case INT16:
+                return (short) registers.getRegisterUnsignedShort(index);
             case UINT16:
-                return new DecimalType(registers.getRegister(index).toUnsignedShort());
-            case INT32: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                return new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getInt(0));
-            }
-            case UINT32: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.position(4);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                return new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0));
-            }
-            case FLOAT32: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                return new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getFloat(0));
-            }
-            case INT32_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getInt(0));
-            }
-            case UINT32_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.position(4);
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0));
-            }
-            case FLOAT32_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getFloat(0));
-            }
+                return registers.getRegisterUnsignedShort(index);
+            case INT32:
+                return int32(registers, index, index + 1);
+            case UINT32:
+                return int32(registers, index, index + 1) & 0xffffffffL;
+            case INT32_SWAP:
+                return int32(registers, index + 1, index);
+            case UINT32_SWAP:
+                return int32(registers, index + 1, index) & 0xffffffffL;
             default:
-                throw new IllegalArgumentException(type.getConfigValue());
+                throw new IllegalArgumentException(
+                        String.format("Type=%s cannot be represented as long", type.getConfigValue()));
         }
     }
 
+    /**
+     * Read data from registers and return the result as primitive double
+     *
+     * Same as {@link #extractStateFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)} but without
+     * allocating any objects. All value types are supported.
+     *
+     * @param registers list of registers, each register represent 16bit of data
+     * @param index zero based item index, see
+     *            {@link #extractStateFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)}
+     * @param type item type, e.g. 32bit floating point number (<tt>ModbusBindingProvider.ValueType.FLOAT32</tt>)
+     * @return queried value
+     * @throws IllegalArgumentException when <tt>index</tt> is out of bounds of registers
+     */
+    public static double extractDoubleFromRegisters(ModbusRegisterArray registers, int index,
+            ModbusConstants.ValueType type) {
+        switch (type) {
+            case FLOAT32:
+                checkRegisterBounds(registers, index, type);
+                return Float.intBitsToFloat(int32(registers, index, index + 1));
+            case FLOAT32_SWAP:
+                checkRegisterBounds(registers, index, type);
+                return Float.intBitsToFloat(int32(registers, index + 1, index));
+            default:
+                return extractLongFromRegisters(registers, index, type);
+        }
+    }
+
+    /**
+     * Whether the value type is floating point type
+     *
+     * Values of floating point types should be extracted using
+     * {@link #extractDoubleFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)}, other types with
+     * {@link #extractLongFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)}.
+     *
+     * @param type value type
+     * @return true with floating point types
+     */
+    public static boolean isFloatType(ModbusConstants.ValueType type) {
+        return type == ModbusConstants.ValueType.FLOAT32 || type == ModbusConstants.ValueType.FLOAT32_SWAP;
+    }
+
+    private static void checkRegisterBounds(ModbusRegisterArray registers, int index, ModbusConstants.ValueType type) {
+        int endBitIndex = (type.getBits() >= 16 ? 16 * index : type.getBits() * index) + type.getBits() - 1;
+        // each register has 16 bits
+        int lastValidIndex = registers.size() * 16 - 1;
+        if (endBitIndex > lastValidIndex || index < 0) {
+            throw new IllegalArgumentException(
+                    String.format("Index=%d with type=%s is out-of-bounds given registers of size %d", index, type,
+                            registers.size()));
+        }
+    }
+
+    /**
+     * Combine two registers to 32 bit integer, high register providing the most significant 16 bits
+     */
+    private static int int32(ModbusRegisterArray registers, int highIndex, int lowIndex) {
+        return (registers.getRegisterUnsignedShort(highIndex) << 16) | registers.getRegisterUnsignedShort(lowIndex);
+    }
+
     /**
      * Read data from registers and convert the result to StringType
      * Strings should start the the first byte of a register, but could
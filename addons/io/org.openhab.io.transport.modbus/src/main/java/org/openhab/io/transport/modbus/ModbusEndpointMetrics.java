@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+
+/**
+ * Runtime statistics of the communication with a single endpoint
+ *
+ * Values are live: they keep on updating while the manager communicates with the endpoint. All durations are in
+ * milliseconds.
+ *
+ * @author agent - Initial contribution
+ *
+ * @see ModbusManager#getEndpointMetrics(ModbusSlaveEndpoint)
+ */
+@NonNullByDefault
+public interface ModbusEndpointMetrics {
+
+    /**
+     * Get the endpoint these statistics are about
+     *
+     * @return endpoint
+     */
+    public ModbusSlaveEndpoint getEndpoint();
+
+    /**
+     * Get number of successful transactions, i.e. requests for which a response was received
+     *
+     * Responses with Modbus exception code are counted as failed transactions. Responses with mismatching transaction
+     * id are counted here, and in {@link #getTransactionIdMismatches()}.
+     *
+     * @return number of successful transactions
+     */
+    public long getTransactions();
+
+    /**
+     * Get number of failed transactions, i.e. I/O errors and exception responses from the slave
+     *
+     * @return number of failed transactions
+     */
+    public long getFailedTransactions();
+
+    /**
+     * Get number of retried transactions
+     *
+     * @return number of tries beyond the first try of each read or write
+     */
+    public long getRetries();
+
+    /**
+     * Get number of responses with transaction id not matching the request
+     *
+     * @return number of transaction id mismatches
+     */
+    public long getTransactionIdMismatches();
+
+    /**
+     * Get number of times connection to the endpoint could not be established
+     *
+     * @return number of connection failures
+     */
+    public long getConnectionFailures();
+
+    /**
+     * Get time spent waiting for a connection to the endpoint
+     *
+     * This includes the inter-transaction delay, and waiting for other operations using the connection.
+     *
+     * @return histogram of connection wait times
+     */
+    public ModbusLatencyHistogram getConnectionWait();
+
+    /**
+     * Get time from sending a request to receiving the response
+     *
+     * @return histogram of transaction round-trip times
+     */
+    public ModbusLatencyHistogram getTransactionRoundTrip();
+
+    /**
+     * Get time callbacks wait in the queue of the callback thread pool before they are called
+     *
+     * @return histogram of callback queue lag
+     */
+    public ModbusLatencyHistogram getCallbackQueueLag();
+
+    /**
+     * Get delays of regular polls compared to their schedule
+     *
+     * Regular polls are executed with fixed delay between the polls. The drift tells how late the poll started
+     * compared to the end of the previous poll plus the poll period. Large drift suggests that the thread pool
+     * executing the polls is saturated.
+     *
+     * @return histogram of poll period drift
+     */
+    public ModbusLatencyHistogram getPollPeriodDrift();
+
+    /**
+     * Get the delay between transactions currently in effect
+     *
+     * With adaptive inter-transaction delay (see
+     * {@link org.openhab.io.transport.modbus.endpoint.EndpointPoolConfiguration#isAdaptiveInterTransactionDelay()})
+     * the delay changes over time, following the behaviour of the slave.
+     *
+     * @return delay between transactions, in milliseconds
+     */
+    public long getInterTransactionDelayMillis();
+
+    /**
+     * Get the delay before the first retry currently in effect
+     *
+     * With adaptive inter-transaction delay, subsequent retries are delayed exponentially longer.
+     *
+     * @return delay before first retry, in milliseconds
+     */
+    public long getRetryDelayMillis();
+
+}
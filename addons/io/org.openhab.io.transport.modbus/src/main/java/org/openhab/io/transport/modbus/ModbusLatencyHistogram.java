@@ -0,0 +1,62 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Distribution of durations measured in milliseconds
+ *
+ * Values are collected into buckets growing in powers of two. Percentiles are thus estimates: the returned value is
+ * the upper bound of the bucket the percentile falls into.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public interface ModbusLatencyHistogram {
+
+    /**
+     * Get number of recorded values
+     *
+     * @return number of values
+     */
+    public long getCount();
+
+    /**
+     * Get smallest recorded value
+     *
+     * @return smallest value in milliseconds, or 0 if nothing has been recorded
+     */
+    public long getMin();
+
+    /**
+     * Get largest recorded value
+     *
+     * @return largest value in milliseconds, or 0 if nothing has been recorded
+     */
+    public long getMax();
+
+    /**
+     * Get mean of the recorded values
+     *
+     * @return mean value in milliseconds, or 0 if nothing has been recorded
+     */
+    public double getMean();
+
+    /**
+     * Estimate percentile of the recorded values
+     *
+     * @param percentile percentile between 0 and 100, e.g. 99 for 99th percentile
+     * @return value in milliseconds such that at least the given percentage of recorded values are equal to or smaller
+     *         than it. 0 if nothing has been recorded
+     * @throws IllegalArgumentException when percentile is not between 0 and 100
+     */
+    public long getPercentile(double percentile);
+
+}
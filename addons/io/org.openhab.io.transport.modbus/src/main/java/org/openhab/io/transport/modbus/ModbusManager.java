@@ -8,6 +8,7 @@
  */
 package org.openhab.io.transport.modbus;
 
+import java.util.Collection;
 import java.util.Set;
 import java.util.concurrent.ScheduledFuture;
 
@@ -93,6 +94,23 @@ public interface ModbusManager {
      */
     public void removeListener(ModbusManagerListener listener);
 
+    /**
+     * Get communication statistics of an endpoint
+     *
+     * Statistics of an endpoint are discarded when the last regular poll of the endpoint is unregistered.
+     *
+     * @param endpoint endpoint to query
+     * @return statistics of the endpoint, or null if the manager has not communicated with the endpoint
+     */
+    public @Nullable ModbusEndpointMetrics getEndpointMetrics(ModbusSlaveEndpoint endpoint);
+
+    /**
+     * Get communication statistics of all endpoints the manager has communicated with
+     *
+     * @return statistics of the endpoints
+     */
+    public Collection<ModbusEndpointMetrics> getEndpointMetrics();
+
     /**
      * Get registered regular polls
      *
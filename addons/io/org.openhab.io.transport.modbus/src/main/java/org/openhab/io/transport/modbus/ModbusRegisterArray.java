@@ -31,6 +31,20 @@ public interface ModbusRegisterArray extends Iterable<ModbusRegister> {
      */
     ModbusRegister getRegister(int index);
 
+    /**
+     * Return the data of the register at the given index as unsigned 16 bit integer
+     *
+     * Equivalent to <code>getRegister(index).toUnsignedShort()</code>, but implementations can avoid creating
+     * register objects.
+     *
+     * @param index the index of the register
+     * @return the register content as unsigned integer
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    default int getRegisterUnsignedShort(int index) {
+        return getRegister(index).toUnsignedShort();
+    }
+
     /**
      * Get number of registers stored in this instance
      *
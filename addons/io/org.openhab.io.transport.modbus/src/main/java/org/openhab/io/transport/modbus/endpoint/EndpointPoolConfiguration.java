@@ -33,6 +33,19 @@ public class EndpointPoolConfiguration {
      */
     private long interTransactionDelayMillis;
 
+    /**
+     * Upper bound for the delay between transactions. When greater than interTransactionDelayMillis, the delay is
+     * adapted to the behaviour of the slave: it starts from interTransactionDelayMillis, and is increased on failed
+     * transactions and decreased back on successful transactions. Retries are then backed off exponentially up to
+     * this delay. Zero (default) means that the delay is fixed.
+     *
+     * With pipelined connections (see maxInFlightTransactions) transactions are not delayed, and the adapted delay
+     * applies only to retries.
+     *
+     * In milliseconds.
+     */
+    private long maxInterTransactionDelayMillis;
+
     /**
      * How long should be the minimum duration between connection-establishments from the pool (with same endpoint). In
      * milliseconds.
@@ -57,6 +70,23 @@ public class EndpointPoolConfiguration {
      */
     private int connectTimeoutMillis;
 
+    /**
+     * How many transactions can be outstanding at the same time with the endpoint. Only applicable with TCP
+     * endpoints. One (default) means that next transaction is started only after the previous one has finished.
+     *
+     * With values greater than one, single connection is shared between all transactions to the endpoint. Requests
+     * are written to the connection without waiting for the previous responses, and the responses are matched to the
+     * requests using the transaction ID. The slave must support multiple outstanding transactions.
+     */
+    private int maxInFlightTransactions = 1;
+
+    /**
+     * Regular polls of the endpoint having the same slave id, function code and poll period are merged to a single
+     * read request when there are at most this many unused registers (or coils/discrete inputs) between them.
+     * Negative value (default) means that the polls are never merged.
+     */
+    private int readMergeMaxGap = -1;
+
     private static StandardToStringStyle toStringStyle = new StandardToStringStyle();
 
     static {
@@ -95,6 +125,14 @@ public class EndpointPoolConfiguration {
         this.interTransactionDelayMillis = interTransactionDelayMillis;
     }
 
+    public long getMaxInterTransactionDelayMillis() {
+        return maxInterTransactionDelayMillis;
+    }
+
+    public void setMaxInterTransactionDelayMillis(long maxInterTransactionDelayMillis) {
+        this.maxInterTransactionDelayMillis = maxInterTransactionDelayMillis;
+    }
+
     public int getConnectTimeoutMillis() {
         return connectTimeoutMillis;
     }
@@ -103,10 +141,46 @@ public class EndpointPoolConfiguration {
         this.connectTimeoutMillis = connectTimeoutMillis;
     }
 
+    public int getMaxInFlightTransactions() {
+        return maxInFlightTransactions;
+    }
+
+    public void setMaxInFlightTransactions(int maxInFlightTransactions) {
+        this.maxInFlightTransactions = maxInFlightTransactions;
+    }
+
+    public int getReadMergeMaxGap() {
+        return readMergeMaxGap;
+    }
+
+    public void setReadMergeMaxGap(int readMergeMaxGap) {
+        this.readMergeMaxGap = readMergeMaxGap;
+    }
+
+    /**
+     * Whether multiple transactions are allowed to be outstanding at the same time with the endpoint
+     *
+     * @return true when more than one transaction is allowed to be in flight
+     */
+    public boolean isPipelined() {
+        return maxInFlightTransactions > 1;
+    }
+
+    /**
+     * Whether the delay between transactions adapts to the behaviour of the slave
+     *
+     * @return true when maximum inter-transaction delay is greater than the (minimum) inter-transaction delay
+     */
+    public boolean isAdaptiveInterTransactionDelay() {
+        return maxInterTransactionDelayMillis > interTransactionDelayMillis;
+    }
+
     @Override
     public int hashCode() {
         return new HashCodeBuilder(2149, 3117).append(interTransactionDelayMillis).append(interConnectDelayMillis)
-                .append(connectMaxTries).append(reconnectAfterMillis).append(connectTimeoutMillis).toHashCode();
+                .append(connectMaxTries).append(reconnectAfterMillis).append(connectTimeoutMillis)
+                .append(maxInFlightTransactions).append(readMergeMaxGap).append(maxInterTransactionDelayMillis)
+                .toHashCode();
     }
 
     @Override
@@ -115,7 +189,9 @@ public class EndpointPoolConfiguration {
                 .append("interTransactionDelayMillis", interTransactionDelayMillis)
                 .append("interConnectDelayMillis", interConnectDelayMillis).append("connectMaxTries", connectMaxTries)
                 .append("reconnectAfterMillis", reconnectAfterMillis)
-                .append("connectTimeoutMillis", connectTimeoutMillis).toString();
+                .append("connectTimeoutMillis", connectTimeoutMillis)
+                .append("maxInFlightTransactions", maxInFlightTransactions).append("readMergeMaxGap", readMergeMaxGap)
+                .append("maxInterTransactionDelayMillis", maxInterTransactionDelayMillis).toString();
     }
 
     @Override
@@ -133,7 +209,10 @@ public class EndpointPoolConfiguration {
         return new EqualsBuilder().append(interTransactionDelayMillis, rhs.interTransactionDelayMillis)
                 .append(interConnectDelayMillis, rhs.interConnectDelayMillis)
                 .append(connectMaxTries, rhs.connectMaxTries).append(reconnectAfterMillis, rhs.reconnectAfterMillis)
-                .append(connectTimeoutMillis, rhs.connectTimeoutMillis).isEquals();
+                .append(connectTimeoutMillis, rhs.connectTimeoutMillis)
+                .append(maxInFlightTransactions, rhs.maxInFlightTransactions)
+                .append(readMergeMaxGap, rhs.readMergeMaxGap)
+                .append(maxInterTransactionDelayMillis, rhs.maxInterTransactionDelayMillis).isEquals();
     }
 
 }
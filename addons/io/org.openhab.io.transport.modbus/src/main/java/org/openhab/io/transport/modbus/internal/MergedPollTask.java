@@ -0,0 +1,242 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.apache.commons.lang.builder.EqualsBuilder;
+import org.apache.commons.lang.builder.HashCodeBuilder;
+import org.apache.commons.lang.builder.StandardToStringStyle;
+import org.apache.commons.lang.builder.ToStringBuilder;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.BasicBitArray;
+import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusRegister;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Poll task reading the data of many poll tasks with a single request
+ *
+ * The request covers the data of all the merged tasks. The response is split back: callbacks of the merged tasks are
+ * called with their original requests and the part of the data matching the original request.
+ *
+ * The merged tasks must share the endpoint, slave id, function code and protocol id.
+ *
+ * Equals and hashCode are defined such that two merged tasks are considered the same if they have equal requests and
+ * merge the same tasks, in the same order.
+ *
+ * @author agent - Initial contribution
+ *
+ * @see ModbusReadRequestPlanner
+ */
+@NonNullByDefault
+public class MergedPollTask implements PollTask {
+
+    private static StandardToStringStyle toStringStyle = new StandardToStringStyle();
+    static {
+        toStringStyle.setUseShortClassName(true);
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(MergedPollTask.class);
+
+    private final ModbusSlaveEndpoint endpoint;
+    private final ModbusReadRequestBlueprint request;
+    private final List<PollTask> tasks;
+    private final ModbusReadCallback callback = new SplittingCallback();
+
+    /**
+     * Construct task reading the data of all the given tasks
+     *
+     * @param tasks tasks to merge. Must share the endpoint, slave id, function code and protocol id.
+     * @throws IllegalArgumentException when there are no tasks to merge, or the protocol ids of the tasks differ
+     */
+    public MergedPollTask(List<PollTask> tasks) {
+        if (tasks.isEmpty()) {
+            throw new IllegalArgumentException("Must provide at least one task to merge");
+        }
+        ModbusReadRequestBlueprint first = tasks.get(0).getRequest();
+        int start = Integer.MAX_VALUE;
+        int end = Integer.MIN_VALUE;
+        int maxTries = 1;
+        for (PollTask task : tasks) {
+            ModbusReadRequestBlueprint taskRequest = task.getRequest();
+            if (taskRequest.getProtocolID() != first.getProtocolID()) {
+                throw new IllegalArgumentException("Cannot merge tasks with different protocol ids");
+            }
+            start = Math.min(start, taskRequest.getReference());
+            end = Math.max(end, taskRequest.getReference() + taskRequest.getDataLength());
+            maxTries = Math.max(maxTries, taskRequest.getMaxTries());
+        }
+        this.endpoint = tasks.get(0).getEndpoint();
+        this.request = new MergedReadRequestBlueprint(first.getUnitID(), first.getFunctionCode(), start, end - start,
+                maxTries, first.getProtocolID());
+        this.tasks = Collections.unmodifiableList(tasks);
+    }
+
+    @Override
+    public ModbusSlaveEndpoint getEndpoint() {
+        return endpoint;
+    }
+
+    @Override
+    public ModbusReadRequestBlueprint getRequest() {
+        return request;
+    }
+
+    @Override
+    public ModbusReadCallback getCallback() {
+        return callback;
+    }
+
+    /**
+     * Get the tasks merged by this task
+     *
+     * @return merged tasks
+     */
+    public List<PollTask> getTasks() {
+        return tasks;
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder(73, 11).append(request).append(tasks).toHashCode();
+    }
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+        if (obj == null) {
+            return false;
+        }
+        if (obj == this) {
+            return true;
+        }
+        if (obj.getClass() != getClass()) {
+            return false;
+        }
+        MergedPollTask rhs = (MergedPollTask) obj;
+        return new EqualsBuilder().append(request, rhs.request).append(tasks, rhs.tasks).isEquals();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, toStringStyle).append("request", request).append("endpoint", endpoint)
+                .append("tasks", tasks.size()).toString();
+    }
+
+    private static ModbusRegisterArray slice(ModbusRegisterArray registers, int offset, int length) {
+        int available = Math.max(0, Math.min(length, registers.size() - offset));
+        ModbusRegister[] slice = new ModbusRegister[available];
+        for (int i = 0; i < available; i++) {
+            slice[i] = registers.getRegister(offset + i);
+        }
+        return new BasicModbusRegisterArray(slice);
+    }
+
+    private static BitArray slice(BitArray bits, int offset, int length) {
+        int available = Math.max(0, Math.min(length, bits.size() - offset));
+        BasicBitArray slice = new BasicBitArray(available);
+        for (int i = 0; i < available; i++) {
+            slice.setBit(i, bits.getBit(offset + i));
+        }
+        return slice;
+    }
+
+    /**
+     * Request of the merged tasks, keeping the protocol id of the merged requests
+     */
+    private static class MergedReadRequestBlueprint extends BasicModbusReadRequestBlueprint {
+        private final int protocolID;
+
+        public MergedReadRequestBlueprint(int slaveId, ModbusReadFunctionCode functionCode, int start, int length,
+                int maxTries, int protocolID) {
+            super(slaveId, functionCode, start, length, maxTries);
+            this.protocolID = protocolID;
+        }
+
+        @Override
+        public int getProtocolID() {
+            return protocolID;
+        }
+
+        @Override
+        public int hashCode() {
+            return new HashCodeBuilder(79, 5).appendSuper(super.hashCode()).append(protocolID).toHashCode();
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (!super.equals(obj)) {
+                return false;
+            }
+            // super checks that the classes match
+            MergedReadRequestBlueprint rhs = (MergedReadRequestBlueprint) obj;
+            return rhs != null && protocolID == rhs.protocolID;
+        }
+    }
+
+    /**
+     * Callback splitting the merged response to the callbacks of the merged tasks
+     */
+    private class SplittingCallback implements ModbusReadCallback {
+
+        @Override
+        public void onRegisters(ModbusReadRequestBlueprint mergedRequest, ModbusRegisterArray registers) {
+            for (PollTask task : tasks) {
+                ModbusReadRequestBlueprint taskRequest = task.getRequest();
+                ModbusRegisterArray taskRegisters = slice(registers,
+                        taskRequest.getReference() - mergedRequest.getReference(), taskRequest.getDataLength());
+                dispatch(task, callback -> callback.onRegisters(taskRequest, taskRegisters));
+            }
+        }
+
+        @Override
+        public void onBits(ModbusReadRequestBlueprint mergedRequest, BitArray bits) {
+            for (PollTask task : tasks) {
+                ModbusReadRequestBlueprint taskRequest = task.getRequest();
+                BitArray taskBits = slice(bits, taskRequest.getReference() - mergedRequest.getReference(),
+                        taskRequest.getDataLength());
+                dispatch(task, callback -> callback.onBits(taskRequest, taskBits));
+            }
+        }
+
+        @Override
+        public void onError(ModbusReadRequestBlueprint mergedRequest, Exception error) {
+            for (PollTask task : tasks) {
+                dispatch(task, callback -> callback.onError(task.getRequest(), error));
+            }
+        }
+
+        private void dispatch(PollTask task, Consumer<ModbusReadCallback> invocation) {
+            @Nullable
+            ModbusReadCallback taskCallback = task.getCallback();
+            if (taskCallback == null) {
+                return;
+            }
+            try {
+                invocation.accept(taskCallback);
+            } catch (RuntimeException e) {
+                // do not let one callback prevent the others from receiving the data
+                logger.error("Callback {} of merged poll task {} failed: {} {}", taskCallback, task,
+                        e.getClass().getName(), e.getMessage(), e);
+            }
+        }
+    }
+}
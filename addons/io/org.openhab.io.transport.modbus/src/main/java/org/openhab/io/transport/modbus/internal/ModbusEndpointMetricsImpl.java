@@ -0,0 +1,148 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.ModbusEndpointMetrics;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+
+/**
+ * Implementation of {@link ModbusEndpointMetrics} updated by {@link ModbusManagerImpl}
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusEndpointMetricsImpl implements ModbusEndpointMetrics {
+
+    private final ModbusSlaveEndpoint endpoint;
+    private final AtomicLong transactions = new AtomicLong();
+    private final AtomicLong failedTransactions = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong transactionIdMismatches = new AtomicLong();
+    private final AtomicLong connectionFailures = new AtomicLong();
+    private final ModbusLatencyHistogramImpl connectionWait = new ModbusLatencyHistogramImpl();
+    private final ModbusLatencyHistogramImpl transactionRoundTrip = new ModbusLatencyHistogramImpl();
+    private final ModbusLatencyHistogramImpl callbackQueueLag = new ModbusLatencyHistogramImpl();
+    private final ModbusLatencyHistogramImpl pollPeriodDrift = new ModbusLatencyHistogramImpl();
+    private volatile long interTransactionDelayMillis;
+    private volatile long retryDelayMillis;
+
+    public ModbusEndpointMetricsImpl(ModbusSlaveEndpoint endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public void recordTransaction(long roundTripMillis) {
+        transactions.incrementAndGet();
+        transactionRoundTrip.record(roundTripMillis);
+    }
+
+    public void recordFailedTransaction() {
+        failedTransactions.incrementAndGet();
+    }
+
+    public void recordRetry() {
+        retries.incrementAndGet();
+    }
+
+    public void recordTransactionIdMismatch() {
+        transactionIdMismatches.incrementAndGet();
+    }
+
+    public void recordConnectionFailure() {
+        connectionFailures.incrementAndGet();
+    }
+
+    public void recordConnectionWait(long millis) {
+        connectionWait.record(millis);
+    }
+
+    public void recordCallbackQueueLag(long millis) {
+        callbackQueueLag.record(millis);
+    }
+
+    public void recordPollPeriodDrift(long millis) {
+        pollPeriodDrift.record(millis);
+    }
+
+    public void recordTransactionDelay(long interTransactionDelayMillis, long retryDelayMillis) {
+        this.interTransactionDelayMillis = interTransactionDelayMillis;
+        this.retryDelayMillis = retryDelayMillis;
+    }
+
+    @Override
+    public ModbusSlaveEndpoint getEndpoint() {
+        return endpoint;
+    }
+
+    @Override
+    public long getTransactions() {
+        return transactions.get();
+    }
+
+    @Override
+    public long getFailedTransactions() {
+        return failedTransactions.get();
+    }
+
+    @Override
+    public long getRetries() {
+        return retries.get();
+    }
+
+    @Override
+    public long getTransactionIdMismatches() {
+        return transactionIdMismatches.get();
+    }
+
+    @Override
+    public long getConnectionFailures() {
+        return connectionFailures.get();
+    }
+
+    @Override
+    public ModbusLatencyHistogramImpl getConnectionWait() {
+        return connectionWait;
+    }
+
+    @Override
+    public ModbusLatencyHistogramImpl getTransactionRoundTrip() {
+        return transactionRoundTrip;
+    }
+
+    @Override
+    public ModbusLatencyHistogramImpl getCallbackQueueLag() {
+        return callbackQueueLag;
+    }
+
+    @Override
+    public ModbusLatencyHistogramImpl getPollPeriodDrift() {
+        return pollPeriodDrift;
+    }
+
+    @Override
+    public long getInterTransactionDelayMillis() {
+        return interTransactionDelayMillis;
+    }
+
+    @Override
+    public long getRetryDelayMillis() {
+        return retryDelayMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "ModbusEndpointMetrics [endpoint=%s, transactions=%d, failedTransactions=%d, retries=%d, transactionIdMismatches=%d, connectionFailures=%d, connectionWait=(%s), transactionRoundTrip=(%s), callbackQueueLag=(%s), pollPeriodDrift=(%s), interTransactionDelayMillis=%d, retryDelayMillis=%d]",
+                endpoint, getTransactions(), getFailedTransactions(), getRetries(), getTransactionIdMismatches(),
+                getConnectionFailures(), connectionWait, transactionRoundTrip, callbackQueueLag, pollPeriodDrift,
+                interTransactionDelayMillis, retryDelayMillis);
+    }
+}
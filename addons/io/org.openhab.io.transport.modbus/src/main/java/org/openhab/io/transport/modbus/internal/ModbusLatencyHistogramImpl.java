@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.ModbusLatencyHistogram;
+
+/**
+ * Lock-free implementation of {@link ModbusLatencyHistogram}
+ *
+ * Bucket 0 counts zero values, bucket i (i &gt; 0) counts values between 2^(i-1) and 2^i - 1 (inclusive). The last
+ * bucket counts all the larger values as well.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusLatencyHistogramImpl implements ModbusLatencyHistogram {
+
+    /**
+     * Number of buckets. Values up to 2^23 - 1 milliseconds (over two hours) are counted in buckets of their own.
+     */
+    private static final int BUCKETS = 24;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Record a value
+     *
+     * @param millis value to record. Negative values are recorded as zero.
+     */
+    public void record(long millis) {
+        long value = Math.max(0, millis);
+        buckets.incrementAndGet(bucketOf(value));
+        sum.addAndGet(value);
+        min.accumulateAndGet(value, Math::min);
+        max.accumulateAndGet(value, Math::max);
+        count.incrementAndGet();
+    }
+
+    private static int bucketOf(long value) {
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(value));
+    }
+
+    private static long upperBoundOf(int bucket) {
+        return bucket == 0 ? 0 : (1L << bucket) - 1;
+    }
+
+    @Override
+    public long getCount() {
+        return count.get();
+    }
+
+    @Override
+    public long getMin() {
+        long min = this.min.get();
+        return min == Long.MAX_VALUE ? 0 : min;
+    }
+
+    @Override
+    public long getMax() {
+        return max.get();
+    }
+
+    @Override
+    public double getMean() {
+        long count = this.count.get();
+        return count == 0 ? 0 : (double) sum.get() / count;
+    }
+
+    @Override
+    public long getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile should be between 0 and 100");
+        }
+        long total = 0;
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long cumulative = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            cumulative += counts[i];
+            if (cumulative >= rank) {
+                // bucket bound might exceed the largest actual value, and the last bucket has no bound
+                return i == BUCKETS - 1 ? getMax() : Math.min(upperBoundOf(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d, min=%d, mean=%.1f, p50=%d, p99=%d, max=%d", getCount(), getMin(), getMean(),
+                getPercentile(50), getPercentile(99), getMax());
+    }
+}
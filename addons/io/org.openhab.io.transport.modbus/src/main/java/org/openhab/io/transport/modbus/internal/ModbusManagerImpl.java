@@ -9,18 +9,24 @@
 package org.openhab.io.transport.modbus.internal;
 
 import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 import javax.imageio.IIOException;
@@ -35,9 +41,11 @@ import org.eclipse.smarthome.core.common.QueueingThreadPoolExecutor;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.openhab.io.transport.modbus.ModbusCallback;
 import org.openhab.io.transport.modbus.ModbusConnectionException;
+import org.openhab.io.transport.modbus.ModbusEndpointMetrics;
 import org.openhab.io.transport.modbus.ModbusManager;
 import org.openhab.io.transport.modbus.ModbusManagerListener;
 import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
 import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
 import org.openhab.io.transport.modbus.ModbusRequestBlueprint;
 import org.openhab.io.transport.modbus.ModbusUnexpectedTransactionIdException;
@@ -52,6 +60,7 @@ import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
 import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpointVisitor;
 import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
 import org.openhab.io.transport.modbus.endpoint.ModbusUDPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.pooling.AdaptiveTransactionDelay;
 import org.openhab.io.transport.modbus.internal.pooling.ModbusSlaveConnectionFactoryImpl;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -75,6 +84,16 @@ import net.wimpi.modbus.net.ModbusSlaveConnection;
  * important with serial slaves but practice has shown that even many tcp slaves have limited
  * capability to handle many connections at the same time
  *
+ * TCP endpoints can be configured to allow many outstanding transactions (see
+ * {@link EndpointPoolConfiguration#getMaxInFlightTransactions()}). With such endpoints, the connection pool is bypassed
+ * and all transactions share a single {@link ModbusPipelinedTCPConnection}.
+ *
+ * Endpoints can also be configured to merge regular polls reading nearby data (see
+ * {@link EndpointPoolConfiguration#getReadMergeMaxGap()}). Such polls are grouped by slave id, function code and poll
+ * period, and each group is executed with as few read requests as possible (see {@link ModbusReadRequestPlanner}).
+ *
+ * Communication statistics are collected per endpoint, see {@link #getEndpointMetrics(ModbusSlaveEndpoint)}.
+ *
  * @author Sami Salonen - Initial contribution
  */
 @Component(service = ModbusManager.class, immediate = true, configurationPid = "transport.modbus")
@@ -102,11 +121,165 @@ public class ModbusManagerImpl implements ModbusManager {
          * @throws Exception on IO errors, slave exception responses, and when transaction IDs of the request and
          *             response do not match
          */
-        public void accept(String operationId, T task, ModbusSlaveConnection connection)
+        public void accept(long operationId, T task, ModbusSlaveConnection connection)
                 throws ModbusException, IIOException, ModbusUnexpectedTransactionIdException;
 
     }
 
+    /**
+     * Key for grouping regular polls that can be merged together
+     */
+    private static class PollTaskGroupKey {
+        private final ModbusSlaveEndpoint endpoint;
+        private final int unitId;
+        private final int protocolId;
+        private final ModbusReadFunctionCode functionCode;
+        private final long pollPeriodMillis;
+
+        public PollTaskGroupKey(PollTask task, long pollPeriodMillis) {
+            this.endpoint = task.getEndpoint();
+            this.unitId = task.getRequest().getUnitID();
+            this.protocolId = task.getRequest().getProtocolID();
+            this.functionCode = task.getRequest().getFunctionCode();
+            this.pollPeriodMillis = pollPeriodMillis;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(endpoint, unitId, protocolId, functionCode, pollPeriodMillis);
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj == null || obj.getClass() != getClass()) {
+                return false;
+            }
+            PollTaskGroupKey rhs = (PollTaskGroupKey) obj;
+            return endpoint.equals(rhs.endpoint) && unitId == rhs.unitId && protocolId == rhs.protocolId
+                    && functionCode == rhs.functionCode && pollPeriodMillis == rhs.pollPeriodMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("PollTaskGroupKey(endpoint=%s, unitId=%d, functionCode=%s, pollPeriodMillis=%d)",
+                    endpoint, unitId, functionCode, pollPeriodMillis);
+        }
+    }
+
+    /**
+     * Records how late regular poll executions start compared to their schedule
+     *
+     * Regular polls are scheduled with fixed delay, so each execution is expected to start one poll period after the
+     * previous execution finished.
+     */
+    private class PollDriftMonitor {
+        private final ModbusEndpointMetricsImpl metrics;
+        private final long pollPeriodMillis;
+        private volatile long expectedStartMillis;
+
+        public PollDriftMonitor(ModbusSlaveEndpoint endpoint, long pollPeriodMillis, long initialDelayMillis) {
+            this.metrics = metricsOf(endpoint);
+            this.pollPeriodMillis = pollPeriodMillis;
+            this.expectedStartMillis = System.currentTimeMillis() + initialDelayMillis;
+        }
+
+        public void pollStarted(long startedMillis) {
+            metrics.recordPollPeriodDrift(startedMillis - expectedStartMillis);
+        }
+
+        public void pollFinished(long finishedMillis) {
+            expectedStartMillis = finishedMillis + pollPeriodMillis;
+        }
+    }
+
+    /**
+     * Group of regular polls executed together, with requests planned by {@link ModbusReadRequestPlanner}
+     *
+     * The planned requests are executed independently in the thread pool, so that a slow request does not delay the
+     * others. A planned request still executing from the previous period is skipped.
+     */
+    private class PollTaskGroup {
+        private final PollTaskGroupKey key;
+        private final Set<PollTask> tasks = new CopyOnWriteArraySet<>();
+        private final Set<PollTask> executingTasks = ConcurrentHashMap.newKeySet();
+        private final PollDriftMonitor driftMonitor;
+        private volatile List<PollTask> plannedTasks = Collections.emptyList();
+        private volatile @Nullable ScheduledFuture<?> future;
+
+        public PollTaskGroup(PollTaskGroupKey key, long initialDelayMillis) {
+            this.key = key;
+            this.driftMonitor = new PollDriftMonitor(key.endpoint, key.pollPeriodMillis, initialDelayMillis);
+        }
+
+        public synchronized void add(PollTask task, int maxGap) {
+            tasks.add(task);
+            replan(maxGap);
+        }
+
+        public synchronized boolean remove(PollTask task, int maxGap) {
+            tasks.remove(task);
+            replan(maxGap);
+            return tasks.isEmpty();
+        }
+
+        private void replan(int maxGap) {
+            plannedTasks = ModbusReadRequestPlanner.plan(tasks, maxGap);
+            logger.debug("Poll group {} has {} tasks, which are polled with {} requests", key, tasks.size(),
+                    plannedTasks.size());
+        }
+
+        public synchronized void replanIfChanged(int maxGap) {
+            List<PollTask> previous = plannedTasks;
+            replan(maxGap);
+            if (!previous.equals(plannedTasks)) {
+                logger.info("Poll group {} re-planned after endpoint configuration change", key);
+            }
+        }
+
+        public void poll() {
+            driftMonitor.pollStarted(System.currentTimeMillis());
+            ScheduledExecutorService executor = scheduledThreadPoolExecutor;
+            if (executor == null) {
+                return;
+            }
+            // the poll is finished when the submitting loop and all submitted planned tasks are done
+            AtomicInteger pending = new AtomicInteger(1);
+            for (PollTask task : plannedTasks) {
+                if (!executingTasks.add(task)) {
+                    logger.debug("Previous execution of scheduled ({}ms) poll task {} still ongoing, skipping",
+                            key.pollPeriodMillis, task);
+                    continue;
+                }
+                pending.incrementAndGet();
+                executor.execute(() -> {
+                    try {
+                        long started = System.currentTimeMillis();
+                        logger.debug("Executing scheduled ({}ms) poll task {}. Current millis: {}",
+                                key.pollPeriodMillis, task, started);
+                        executeOperation(task, false, pollOperation);
+                        long finished = System.currentTimeMillis();
+                        logger.debug(
+                                "Execution of scheduled ({}ms) poll task {} finished at {}. Was started at millis: {} (=duration of {} millis)",
+                                key.pollPeriodMillis, task, finished, started, finished - started);
+                    } finally {
+                        executingTasks.remove(task);
+                        taskFinished(pending);
+                    }
+                });
+            }
+            taskFinished(pending);
+        }
+
+        private void taskFinished(AtomicInteger pending) {
+            if (pending.decrementAndGet() == 0) {
+                driftMonitor.pollFinished(System.currentTimeMillis());
+            }
+        }
+    }
+
     /**
      * Check that transaction id of the response and request match
      *
@@ -117,7 +290,7 @@ public class ModbusManagerImpl implements ModbusManager {
      * @throws ModbusUnexpectedTransactionIdException
      */
     private <R> void checkTransactionId(ModbusResponse response, ModbusRequest libRequest,
-            TaskWithEndpoint<R, ? extends ModbusCallback> task, String operationId)
+            TaskWithEndpoint<R, ? extends ModbusCallback> task, long operationId)
             throws ModbusUnexpectedTransactionIdException {
         // Compare request and response transaction ID. NOTE: ModbusTransaction.getTransactionID() is static and
         // not safe to use
@@ -126,11 +299,104 @@ public class ModbusManagerImpl implements ModbusManager {
                     "Transaction id of the response ({}) does not match request ({}) {}. Endpoint {}. Ignoring response. [operation ID {}]",
                     response.getTransactionID(), libRequest.getTransactionID(), task.getRequest(), task.getEndpoint(),
                     operationId);
+            metricsOf(task.getEndpoint()).recordTransactionIdMismatch();
+            recordTransactionFailure(task.getEndpoint());
             throw new ModbusUnexpectedTransactionIdException(libRequest.getTransactionID(),
                     response.getTransactionID());
         }
     }
 
+    /**
+     * Execute the request using the given connection
+     *
+     * Pipelined connections execute the request by themselves, other connection types use a fresh transaction.
+     *
+     * @param endpoint endpoint of the connection
+     * @param connection connection to use
+     * @param libRequest request to send
+     * @return response received
+     * @throws ModbusException on I/O errors and when slave responds with an exception response
+     */
+    private ModbusResponse executeTransaction(ModbusSlaveEndpoint endpoint, ModbusSlaveConnection connection,
+            ModbusRequest libRequest) throws ModbusException {
+        ModbusEndpointMetricsImpl metrics = metricsOf(endpoint);
+        long started = System.nanoTime();
+        ModbusResponse response;
+        try {
+            if (connection instanceof ModbusPipelinedTCPConnection) {
+                response = ((ModbusPipelinedTCPConnection) connection).executeTransaction(libRequest);
+            } else {
+                ModbusTransaction transaction = ModbusLibraryWrapper.createTransactionForEndpoint(endpoint,
+                        Optional.of(connection));
+                transaction.setRequest(libRequest);
+                transaction.execute();
+                response = transaction.getResponse();
+            }
+        } catch (ModbusException e) {
+            metrics.recordFailedTransaction();
+            if (e instanceof ModbusIOException || (e instanceof ModbusSlaveException
+                    && ((ModbusSlaveException) e).isType(SLAVE_DEVICE_BUSY_EXCEPTION))) {
+                recordTransactionFailure(endpoint);
+            }
+            throw e;
+        }
+        long roundTripMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        metrics.recordTransaction(roundTripMillis);
+        AdaptiveTransactionDelay delay = transactionDelayOf(endpoint);
+        if (delay != null && delay.isAdaptive()) {
+            delay.recordSuccess(roundTripMillis);
+            metrics.recordTransactionDelay(delay.getDelayMillis(), delay.getRetryDelayMillis(1));
+        }
+        return response;
+    }
+
+    /**
+     * Let the adaptive transaction delay of the endpoint know that the slave failed to respond properly
+     *
+     * @param endpoint endpoint of the failed transaction
+     */
+    private void recordTransactionFailure(ModbusSlaveEndpoint endpoint) {
+        AdaptiveTransactionDelay delay = transactionDelayOf(endpoint);
+        if (delay != null && delay.isAdaptive()) {
+            delay.recordFailure();
+            metricsOf(endpoint).recordTransactionDelay(delay.getDelayMillis(), delay.getRetryDelayMillis(1));
+            logger.debug("Transaction with endpoint {} failed, adapted delay between transactions: {}", endpoint,
+                    delay);
+        }
+    }
+
+    private @Nullable AdaptiveTransactionDelay transactionDelayOf(ModbusSlaveEndpoint endpoint) {
+        ModbusSlaveConnectionFactoryImpl connectionFactory = this.connectionFactory;
+        return connectionFactory == null ? null : connectionFactory.getTransactionDelay(endpoint);
+    }
+
+    /**
+     * Call the callback in the callback thread pool, recording the time the callback waited in the queue
+     *
+     * @param callbackPool callback thread pool
+     * @param endpoint endpoint the callback is about
+     * @param callback callback invocation
+     */
+    private void executeCallback(ExecutorService callbackPool, ModbusSlaveEndpoint endpoint, Runnable callback) {
+        ModbusEndpointMetricsImpl metrics = metricsOf(endpoint);
+        long submitted = System.currentTimeMillis();
+        callbackPool.execute(() -> {
+            metrics.recordCallbackQueueLag(System.currentTimeMillis() - submitted);
+            callback.run();
+        });
+    }
+
+    private ModbusEndpointMetricsImpl metricsOf(ModbusSlaveEndpoint endpoint) {
+        return endpointMetrics.computeIfAbsent(endpoint, key -> {
+            ModbusEndpointMetricsImpl metrics = new ModbusEndpointMetricsImpl(key);
+            AdaptiveTransactionDelay delay = transactionDelayOf(key);
+            if (delay != null) {
+                metrics.recordTransactionDelay(delay.getDelayMillis(), delay.getRetryDelayMillis(1));
+            }
+            return metrics;
+        });
+    }
+
     /**
      * Implementation for the PollTask operation
      *
@@ -139,29 +405,30 @@ public class ModbusManagerImpl implements ModbusManager {
      */
     private class PollOperation implements ModbusOperation<PollTask> {
         @Override
-        public void accept(String operationId, PollTask task, ModbusSlaveConnection connection)
+        public void accept(long operationId, PollTask task, ModbusSlaveConnection connection)
                 throws ModbusException, ModbusUnexpectedTransactionIdException {
             ModbusSlaveEndpoint endpoint = task.getEndpoint();
             ModbusReadRequestBlueprint request = task.getRequest();
             ModbusReadCallback callback = task.getCallback();
 
-            Optional<ModbusSlaveConnection> optionalConnection = Optional.of(connection);
-            ModbusTransaction transaction = ModbusLibraryWrapper.createTransactionForEndpoint(endpoint,
-                    optionalConnection);
             ModbusRequest libRequest = ModbusLibraryWrapper.createRequest(request);
-            transaction.setRequest(libRequest);
 
-            logger.trace("Going execute transaction with request request (FC={}): {} [operation ID {}]",
-                    request.getFunctionCode(), libRequest.getHexMessage(), operationId);
+            if (logger.isTraceEnabled()) {
+                logger.trace("Going execute transaction with request request (FC={}): {} [operation ID {}]",
+                        request.getFunctionCode(), libRequest.getHexMessage(), operationId);
+            }
             // Might throw ModbusIOException (I/O error) or ModbusSlaveException (explicit exception response from
             // slave)
-            transaction.execute();
-            ModbusResponse response = transaction.getResponse();
-            logger.trace("Response for read request (FC={}, transaction ID={}): {} [operation ID {}]",
-                    response.getFunctionCode(), response.getTransactionID(), response.getHexMessage(), operationId);
+            ModbusResponse response = executeTransaction(endpoint, connection, libRequest);
+            if (logger.isTraceEnabled()) {
+                logger.trace("Response for read request (FC={}, transaction ID={}): {} [operation ID {}]",
+                        response.getFunctionCode(), response.getTransactionID(), response.getHexMessage(),
+                        operationId);
+            }
             checkTransactionId(response, libRequest, task, operationId);
+            ExecutorService callbackThreadPool = ModbusManagerImpl.this.callbackThreadPool;
             if (callback != null && callbackThreadPool != null) {
-                callbackThreadPool.execute(() -> {
+                executeCallback(callbackThreadPool, endpoint, () -> {
                     ModbusLibraryWrapper.invokeCallbackWithResponse(request, callback, response);
                 });
             }
@@ -176,31 +443,32 @@ public class ModbusManagerImpl implements ModbusManager {
      */
     private class WriteOperation implements ModbusOperation<WriteTask> {
         @Override
-        public void accept(String operationId, WriteTask task, ModbusSlaveConnection connection)
+        public void accept(long operationId, WriteTask task, ModbusSlaveConnection connection)
                 throws ModbusException, ModbusUnexpectedTransactionIdException {
             ModbusSlaveEndpoint endpoint = task.getEndpoint();
             ModbusWriteRequestBlueprint request = task.getRequest();
             ModbusWriteCallback callback = task.getCallback();
 
-            Optional<ModbusSlaveConnection> optionalConnection = Optional.of(connection);
-            ModbusTransaction transaction = ModbusLibraryWrapper.createTransactionForEndpoint(endpoint,
-                    optionalConnection);
             ModbusRequest libRequest = ModbusLibraryWrapper.createRequest(request);
-            transaction.setRequest(libRequest);
 
-            logger.trace("Going execute transaction with read request (FC={}): {} [operation ID {}]",
-                    request.getFunctionCode(), libRequest.getHexMessage(), operationId);
+            if (logger.isTraceEnabled()) {
+                logger.trace("Going execute transaction with read request (FC={}): {} [operation ID {}]",
+                        request.getFunctionCode(), libRequest.getHexMessage(), operationId);
+            }
 
             // Might throw ModbusIOException (I/O error) or ModbusSlaveException (explicit exception response from
             // slave)
-            transaction.execute();
-            ModbusResponse response = transaction.getResponse();
-            logger.trace("Response for write request (FC={}, transaction ID={}): {} [operation ID {}]",
-                    response.getFunctionCode(), response.getTransactionID(), response.getHexMessage(), operationId);
+            ModbusResponse response = executeTransaction(endpoint, connection, libRequest);
+            if (logger.isTraceEnabled()) {
+                logger.trace("Response for write request (FC={}, transaction ID={}): {} [operation ID {}]",
+                        response.getFunctionCode(), response.getTransactionID(), response.getHexMessage(),
+                        operationId);
+            }
 
             checkTransactionId(response, libRequest, task, operationId);
+            ExecutorService callbackThreadPool = ModbusManagerImpl.this.callbackThreadPool;
             if (callback != null && callbackThreadPool != null) {
-                callbackThreadPool.execute(() -> {
+                executeCallback(callbackThreadPool, endpoint, () -> {
                     invokeCallbackWithResponse(request, callback, new ModbusResponseImpl(response));
                 });
             }
@@ -250,11 +518,21 @@ public class ModbusManagerImpl implements ModbusManager {
     private static final long WARN_QUEUE_SIZE = 500;
     private static final long MONITOR_QUEUE_INTERVAL_MILLIS = 10000;
 
+    /**
+     * Exception code of the slave telling that it is busy processing a previous request
+     */
+    private static final int SLAVE_DEVICE_BUSY_EXCEPTION = 6;
+
     private final PollOperation pollOperation = new PollOperation();
     private final WriteOperation writeOperation = new WriteOperation();
 
     private volatile long lastQueueMonitorLog = -1;
 
+    /**
+     * Operation IDs are used only for identifying the log messages of single operation, a counter suffices
+     */
+    private final AtomicLong lastOperationId = new AtomicLong();
+
     /**
      * We use connection pool to ensure that only single transaction is ongoing per each endpoint. This is especially
      * important with serial slaves but practice has shown that even many tcp slaves have limited
@@ -269,6 +547,27 @@ public class ModbusManagerImpl implements ModbusManager {
     @Nullable
     private volatile ModbusSlaveConnectionFactoryImpl connectionFactory;
     private volatile Map<PollTask, ScheduledFuture<?>> scheduledPollTasks = new ConcurrentHashMap<>();
+    /**
+     * Shared connections of the endpoints allowing many outstanding transactions. These bypass the connection pool.
+     */
+    private final Map<ModbusSlaveEndpoint, ModbusPipelinedTCPConnection> sharedConnections = new ConcurrentHashMap<>();
+    /**
+     * Groups of regular polls that are merged together, and the group of each regular poll belonging to a group
+     */
+    private volatile Map<PollTaskGroupKey, PollTaskGroup> pollTaskGroups = new ConcurrentHashMap<>();
+    private volatile Map<PollTask, PollTaskGroup> pollTaskGroupOfTask = new ConcurrentHashMap<>();
+    /**
+     * Poll period of each regular poll, for re-registering the polls when the configuration of the endpoint changes
+     */
+    private volatile Map<PollTask, Long> pollPeriods = new ConcurrentHashMap<>();
+    /**
+     * Number of regular polls registered for each endpoint. Endpoints without regular polls have no entry.
+     */
+    private volatile Map<ModbusSlaveEndpoint, Integer> regularPollCounts = new ConcurrentHashMap<>();
+    /**
+     * Communication statistics of each endpoint
+     */
+    private volatile Map<ModbusSlaveEndpoint, ModbusEndpointMetricsImpl> endpointMetrics = new ConcurrentHashMap<>();
     /**
      * Executor for requests
      */
@@ -332,8 +631,92 @@ public class ModbusManagerImpl implements ModbusManager {
         this.connectionFactory = connectionFactory;
     }
 
+    private @Nullable EndpointPoolConfiguration getPipelinedConfiguration(ModbusSlaveEndpoint endpoint) {
+        ModbusSlaveConnectionFactoryImpl connectionFactory = this.connectionFactory;
+        if (connectionFactory == null || !(endpoint instanceof ModbusTCPSlaveEndpoint)) {
+            return null;
+        }
+        EndpointPoolConfiguration config = connectionFactory.getEndpointPoolConfiguration(endpoint);
+        return config != null && config.isPipelined() ? config : null;
+    }
+
+    /**
+     * Get the shared connection of a pipelined endpoint, connecting it if necessary
+     *
+     * @param endpoint endpoint to connect to
+     * @param config pool configuration of the endpoint
+     * @return connected connection, or empty {@link Optional} when connection cannot be established
+     */
+    private Optional<ModbusSlaveConnection> borrowPipelinedConnection(ModbusTCPSlaveEndpoint endpoint,
+            EndpointPoolConfiguration config) {
+        @Nullable
+        ModbusPipelinedTCPConnection connection = sharedConnections.computeIfAbsent(endpoint, key -> {
+            try {
+                return new ModbusPipelinedTCPConnection(endpoint, InetAddress.getByName(endpoint.getAddress()),
+                        config.getConnectTimeoutMillis(), config.getMaxInFlightTransactions());
+            } catch (UnknownHostException e) {
+                logger.error("Unknown host: {}. Connection creation failed for endpoint {}.", e.getMessage(),
+                        endpoint);
+                return null;
+            }
+        });
+        if (connection == null) {
+            return Optional.empty();
+        }
+        synchronized (connection) {
+            @Nullable
+            Long lastTryMillis = null;
+            for (int tryIndex = 1; !connection.isConnected() && tryIndex <= config.getConnectMaxTries(); tryIndex++) {
+                try {
+                    ModbusSlaveConnectionFactoryImpl.waitAtleast(lastTryMillis, config.getInterConnectDelayMillis());
+                    connection.connect();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (Exception e) {
+                    logger.warn("connect try {}/{} error: {}. Connection {}. Endpoint {}", tryIndex,
+                            config.getConnectMaxTries(), e.getMessage(), connection, endpoint);
+                }
+                lastTryMillis = System.currentTimeMillis();
+            }
+        }
+        return connection.isConnected() ? Optional.of(connection) : Optional.empty();
+    }
+
+    /**
+     * Close the shared connection of a pipelined endpoint, if any
+     *
+     * @param endpoint endpoint to disconnect
+     */
+    private void closePipelinedConnection(ModbusSlaveEndpoint endpoint) {
+        ModbusPipelinedTCPConnection connection = sharedConnections.remove(endpoint);
+        if (connection != null) {
+            logger.debug("Closing pipelined connection {}", connection);
+            connection.resetConnection();
+        }
+    }
+
+    /**
+     * Close the shared connection of a pipelined endpoint, if any, once the transactions in flight on it have
+     * completed. New transactions use a new connection.
+     *
+     * @param endpoint endpoint to disconnect
+     */
+    private void closePipelinedConnectionWhenIdle(ModbusSlaveEndpoint endpoint) {
+        ModbusPipelinedTCPConnection connection = sharedConnections.remove(endpoint);
+        if (connection != null) {
+            logger.debug("Closing pipelined connection {} once idle ({} transactions in flight)", connection,
+                    connection.getTransactionsInFlight());
+            connection.closeWhenIdle();
+        }
+    }
+
     private Optional<ModbusSlaveConnection> borrowConnection(ModbusSlaveEndpoint endpoint) {
         Optional<ModbusSlaveConnection> connection = Optional.empty();
+        EndpointPoolConfiguration pipelinedConfig = getPipelinedConfiguration(endpoint);
+        if (pipelinedConfig != null) {
+            return borrowPipelinedConnection((ModbusTCPSlaveEndpoint) endpoint, pipelinedConfig);
+        }
         KeyedObjectPool<ModbusSlaveEndpoint, ModbusSlaveConnection> pool = connectionPool;
         if (pool == null) {
             return connection;
@@ -354,8 +737,10 @@ public class ModbusManagerImpl implements ModbusManager {
                 connection = Optional.empty();
             }
         }
-        logger.trace("borrowing connection (got {}) for endpoint {} took {} ms", connection, endpoint,
-                System.currentTimeMillis() - start);
+        if (logger.isTraceEnabled()) {
+            logger.trace("borrowing connection (got {}) for endpoint {} took {} ms", connection, endpoint,
+                    System.currentTimeMillis() - start);
+        }
         return connection;
     }
 
@@ -365,6 +750,11 @@ public class ModbusManagerImpl implements ModbusManager {
             return;
         }
         connection.ifPresent(con -> {
+            if (con instanceof ModbusPipelinedTCPConnection) {
+                // outstanding transactions sharing the connection fail as well
+                con.resetConnection();
+                return;
+            }
             try {
                 pool.invalidateObject(endpoint, con);
             } catch (Exception e) {
@@ -380,6 +770,10 @@ public class ModbusManagerImpl implements ModbusManager {
             return;
         }
         connection.ifPresent(con -> {
+            if (con instanceof ModbusPipelinedTCPConnection) {
+                // shared connection is kept open
+                return;
+            }
             try {
                 pool.returnObject(endpoint, con);
                 logger.trace("returned connection to pool for endpoint {}", endpoint);
@@ -403,23 +797,29 @@ public class ModbusManagerImpl implements ModbusManager {
      * @throws PollTaskUnregistered
      */
     private <R extends ModbusRequestBlueprint, C extends ModbusCallback, T extends TaskWithEndpoint<R, C>> Optional<ModbusSlaveConnection> getConnection(
-            String operationId, boolean oneOffTask, @NonNull T task) throws PollTaskUnregistered {
+            long operationId, boolean oneOffTask, @NonNull T task) throws PollTaskUnregistered {
         KeyedObjectPool<ModbusSlaveEndpoint, ModbusSlaveConnection> connectionPool = this.connectionPool;
         if (connectionPool == null) {
             return Optional.empty();
         }
-        logger.trace(
-                "Executing task {} (oneOff={})! Waiting for connection. Idle connections for this endpoint: {}, and active {} [operation ID {}]",
-                task, oneOffTask, connectionPool.getNumIdle(task.getEndpoint()),
-                connectionPool.getNumActive(task.getEndpoint()), operationId);
+        if (logger.isTraceEnabled()) {
+            logger.trace(
+                    "Executing task {} (oneOff={})! Waiting for connection. Idle connections for this endpoint: {}, and active {} [operation ID {}]",
+                    task, oneOffTask, connectionPool.getNumIdle(task.getEndpoint()),
+                    connectionPool.getNumActive(task.getEndpoint()), operationId);
+        }
         long connectionBorrowStart = System.currentTimeMillis();
         ModbusCallback callback = task.getCallback();
         ModbusSlaveEndpoint endpoint = task.getEndpoint();
 
         ModbusRequestBlueprint request = task.getRequest();
         Optional<ModbusSlaveConnection> connection = borrowConnection(endpoint);
-        logger.trace("Executing task {} (oneOff={})! Connection received in {} ms [operation ID {}]", task, oneOffTask,
-                System.currentTimeMillis() - connectionBorrowStart, operationId);
+        long connectionWaitMillis = System.currentTimeMillis() - connectionBorrowStart;
+        metricsOf(endpoint).recordConnectionWait(connectionWaitMillis);
+        if (logger.isTraceEnabled()) {
+            logger.trace("Executing task {} (oneOff={})! Connection received in {} ms [operation ID {}]", task,
+                    oneOffTask, connectionWaitMillis, operationId);
+        }
         ExecutorService callbackPool = callbackThreadPool;
         if (callbackPool == null) {
             // manager deactivated
@@ -429,8 +829,9 @@ public class ModbusManagerImpl implements ModbusManager {
         if (!connection.isPresent()) {
             logger.warn("Could not connect to endpoint {} -- aborting request {} [operation ID {}]", endpoint, request,
                     operationId);
+            metricsOf(endpoint).recordConnectionFailure();
             if (callback != null) {
-                callbackPool.execute(() -> {
+                executeCallback(callbackPool, endpoint, () -> {
                     invokeCallbackWithError(request, callback, new ModbusConnectionException(endpoint));
                 });
             }
@@ -469,6 +870,15 @@ public class ModbusManagerImpl implements ModbusManager {
     }
 
     private void verifyTaskIsRegistered(PollTask task) throws PollTaskUnregistered {
+        if (task instanceof MergedPollTask) {
+            // merged task is alive as long as some of the tasks it merges is registered
+            if (((MergedPollTask) task).getTasks().stream().noneMatch(scheduledPollTasks::containsKey)) {
+                String msg = String.format("All poll tasks merged by %s are unregistered", task);
+                logger.debug(msg);
+                throw new PollTaskUnregistered(msg);
+            }
+            return;
+        }
         if (!this.scheduledPollTasks.containsKey(task)) {
             String msg = String.format("Poll task %s is unregistered", task);
             logger.debug(msg);
@@ -505,21 +915,24 @@ public class ModbusManagerImpl implements ModbusManager {
         C callback = task.getCallback();
         int maxTries = task.getMaxTries();
         AtomicReference<@Nullable Exception> lastError = new AtomicReference<>();
-        long retryDelay = Optional.ofNullable(connectionFactory.getEndpointPoolConfiguration(endpoint))
-                .map(cfg -> cfg.getInterTransactionDelayMillis()).orElse(0L);
 
         if (maxTries <= 0) {
             throw new IllegalArgumentException("maxTries should be positive");
         }
 
-        String operationId = UUID.randomUUID().toString();
+        long operationId = lastOperationId.incrementAndGet();
         Optional<ModbusSlaveConnection> connection = Optional.empty();
         try {
-            logger.trace("Starting new operation with task {}. Trying to get connection [operation ID {}]", task,
-                    operationId);
+            if (logger.isTraceEnabled()) {
+                logger.trace("Starting new operation with task {}. Trying to get connection [operation ID {}]", task,
+                        operationId);
+            }
             connection = getConnection(operationId, oneOffTask, task);
-            logger.trace("Operation with task {}. Got a connection {} [operation ID {}]", task,
-                    connection.isPresent() ? "successfully" : "which was unconnected (connection issue)", operationId);
+            if (logger.isTraceEnabled()) {
+                logger.trace("Operation with task {}. Got a connection {} [operation ID {}]", task,
+                        connection.isPresent() ? "successfully" : "which was unconnected (connection issue)",
+                        operationId);
+            }
             if (!connection.isPresent()) {
                 // Could not acquire connection, time to abort
                 // Error logged already, error callback called as well
@@ -543,7 +956,9 @@ public class ModbusManagerImpl implements ModbusManager {
             @Nullable
             Long lastTryMillis = null;
             while (tryIndex < maxTries) {
-                logger.trace("Try {} out of {} [operation ID {}]", tryIndex + 1, maxTries, operationId);
+                if (logger.isTraceEnabled()) {
+                    logger.trace("Try {} out of {} [operation ID {}]", tryIndex + 1, maxTries, operationId);
+                }
                 if (!connection.isPresent()) {
                     // Connection was likely reseted with previous try, and connection was not successfully
                     // re-established. Error has been logged, time to abort.
@@ -560,16 +975,20 @@ public class ModbusManagerImpl implements ModbusManager {
                     verifyTaskIsRegistered((PollTask) task);
                 }
                 // Let's ensure that enough time is between the retries
-                logger.trace(
-                        "Ensuring that enough time passes before retrying again. Sleeping if necessary [operation ID {}]",
-                        operationId);
+                long retryDelay = connectionFactory.getTransactionDelay(endpoint).getRetryDelayMillis(tryIndex);
                 long slept = ModbusSlaveConnectionFactoryImpl.waitAtleast(lastTryMillis, retryDelay);
-                logger.trace("Sleep ended, slept {} [operation ID {}]", slept, operationId);
+                if (logger.isTraceEnabled()) {
+                    logger.trace("Ensured that enough time passed before retrying again, slept {} [operation ID {}]",
+                            slept, operationId);
+                }
 
                 boolean willRetry = false;
                 try {
                     tryIndex++;
                     willRetry = tryIndex < maxTries;
+                    if (tryIndex > 1) {
+                        metricsOf(endpoint).recordRetry();
+                    }
                     operation.accept(operationId, task, connection.get());
                     lastError.set(null);
                     break;
@@ -665,7 +1084,7 @@ public class ModbusManagerImpl implements ModbusManager {
             if (exception != null) {
                 // All retries failed with some error
                 if (callback != null) {
-                    callbackThreadPool.execute(() -> {
+                    executeCallback(callbackThreadPool, endpoint, () -> {
                         invokeCallbackWithError(request, callback, exception);
                     });
                 }
@@ -682,7 +1101,9 @@ public class ModbusManagerImpl implements ModbusManager {
             connection = Optional.empty();
         } finally {
             returnConnection(endpoint, connection);
-            logger.trace("Connection was returned to the pool, ending operation [operation ID {}]", operationId);
+            if (logger.isTraceEnabled()) {
+                logger.trace("Connection was returned to the pool, ending operation [operation ID {}]", operationId);
+            }
         }
     }
 
@@ -712,23 +1133,100 @@ public class ModbusManagerImpl implements ModbusManager {
                 logger.trace("Unregistering previous poll task (possibly with different period)");
                 unregisterRegularPoll(task);
             }
+            pollPeriods.put(task, pollPeriodMillis);
+            int maxGap = getReadMergeMaxGap(task.getEndpoint());
+            if (maxGap >= 0) {
+                registerGroupedPoll(executor, task, pollPeriodMillis, initialDelayMillis, maxGap);
+                return;
+            }
+            PollDriftMonitor driftMonitor = new PollDriftMonitor(task.getEndpoint(), pollPeriodMillis,
+                    initialDelayMillis);
             ScheduledFuture<?> future = executor.scheduleWithFixedDelay(() -> {
                 long started = System.currentTimeMillis();
+                driftMonitor.pollStarted(started);
                 logger.debug("Executing scheduled ({}ms) poll task {}. Current millis: {}", pollPeriodMillis, task,
                         started);
                 executeOperation(task, false, pollOperation);
                 long finished = System.currentTimeMillis();
+                driftMonitor.pollFinished(finished);
                 logger.debug(
                         "Execution of scheduled ({}ms) poll task {} finished at {}. Was started at millis: {} (=duration of {} millis)",
                         pollPeriodMillis, task, finished, started, finished - started);
             }, initialDelayMillis, pollPeriodMillis, TimeUnit.MILLISECONDS);
 
             scheduledPollTasks.put(task, future);
+            regularPollCounts.merge(task.getEndpoint(), 1, Integer::sum);
             logger.trace("Registered poll task {} with period {} using initial delay {}", task, pollPeriodMillis,
                     initialDelayMillis);
         }
     }
 
+    private int getReadMergeMaxGap(ModbusSlaveEndpoint endpoint) {
+        ModbusSlaveConnectionFactoryImpl connectionFactory = this.connectionFactory;
+        EndpointPoolConfiguration config = connectionFactory == null ? null
+                : connectionFactory.getEndpointPoolConfiguration(endpoint);
+        return config == null ? -1 : config.getReadMergeMaxGap();
+    }
+
+    /**
+     * Apply changed read merge gap to the regular polls of the endpoint that are already registered
+     *
+     * Groups of merged polls are re-planned. When merging is enabled or disabled, the polls are registered again.
+     *
+     * @param endpoint endpoint whose configuration changed
+     * @param maxGap new read merge gap of the endpoint
+     */
+    private void replanRegularPolls(ModbusSlaveEndpoint endpoint, int maxGap) {
+        synchronized (this) {
+            List<PollTask> tasksToRegister = new ArrayList<>();
+            for (PollTask task : scheduledPollTasks.keySet()) {
+                if (!task.getEndpoint().equals(endpoint)) {
+                    continue;
+                }
+                PollTaskGroup group = pollTaskGroupOfTask.get(task);
+                if (group != null && maxGap >= 0) {
+                    group.replanIfChanged(maxGap);
+                } else {
+                    tasksToRegister.add(task);
+                }
+            }
+            for (PollTask task : tasksToRegister) {
+                Long pollPeriodMillis = pollPeriods.get(task);
+                if (pollPeriodMillis != null) {
+                    logger.debug("Registering poll task {} again after endpoint configuration change", task);
+                    registerRegularPoll(task, pollPeriodMillis, 0);
+                }
+            }
+        }
+    }
+
+    /**
+     * Register regular poll as part of a group of polls that are executed together
+     *
+     * Must be called while synchronized on this.
+     */
+    private void registerGroupedPoll(ScheduledExecutorService executor, PollTask task, long pollPeriodMillis,
+            long initialDelayMillis, int maxGap) {
+        PollTaskGroupKey key = new PollTaskGroupKey(task, pollPeriodMillis);
+        PollTaskGroup group = pollTaskGroups.get(key);
+        boolean newGroup = group == null;
+        if (group == null) {
+            group = new PollTaskGroup(key, initialDelayMillis);
+        }
+        group.add(task, maxGap);
+        if (newGroup) {
+            group.future = executor.scheduleWithFixedDelay(group::poll, initialDelayMillis, pollPeriodMillis,
+                    TimeUnit.MILLISECONDS);
+            pollTaskGroups.put(key, group);
+        }
+        ScheduledFuture<?> future = group.future;
+        Objects.requireNonNull(future);
+        pollTaskGroupOfTask.put(task, group);
+        scheduledPollTasks.put(task, future);
+        regularPollCounts.merge(task.getEndpoint(), 1, Integer::sum);
+        logger.trace("Registered poll task {} to poll group {} (new group: {})", task, key, newGroup);
+    }
+
     @SuppressWarnings({ "null", "unused" })
     @Override
     public boolean unregisterRegularPoll(PollTask task) {
@@ -747,15 +1245,32 @@ public class ModbusManagerImpl implements ModbusManager {
                 return false;
             }
             logger.info("Unregistering regular poll task {} (interrupting if necessary)", task);
+            pollPeriods.remove(task);
 
             // Make sure connections to this endpoint are closed when they are returned to pool (which
             // is usually pretty soon as transactions should be relatively short-lived)
             factory.disconnectOnReturn(task.getEndpoint(), System.currentTimeMillis());
 
-            future.cancel(true);
+            PollTaskGroup group = pollTaskGroupOfTask.remove(task);
+            if (group == null || group.remove(task, getReadMergeMaxGap(task.getEndpoint()))) {
+                // no other tasks share the poller, stop it
+                future.cancel(true);
+                if (group != null) {
+                    pollTaskGroups.remove(group.key);
+                }
+            }
 
             logger.info("Poll task {} canceled", task);
 
+            // the count of the endpoint is removed when its last regular poll is unregistered
+            Integer remainingPolls = regularPollCounts.computeIfPresent(task.getEndpoint(),
+                    (endpoint, count) -> count > 1 ? count - 1 : null);
+            if (remainingPolls == null) {
+                // one-off writes might still use the connection
+                closePipelinedConnectionWhenIdle(task.getEndpoint());
+                endpointMetrics.remove(task.getEndpoint());
+            }
+
             try {
                 // Close all idle connections as well (they will be reconnected if necessary on borrow)
                 if (connectionPool != null) {
@@ -790,7 +1305,23 @@ public class ModbusManagerImpl implements ModbusManager {
     public void setEndpointPoolConfiguration(ModbusSlaveEndpoint endpoint,
             @Nullable EndpointPoolConfiguration configuration) {
         Objects.requireNonNull(connectionFactory, "Not activated!");
+        EndpointPoolConfiguration previous = connectionFactory.getEndpointPoolConfiguration(endpoint);
         connectionFactory.setEndpointPoolConfiguration(endpoint, configuration);
+        EndpointPoolConfiguration current = connectionFactory.getEndpointPoolConfiguration(endpoint);
+        int previousMaxGap = previous == null ? -1 : previous.getReadMergeMaxGap();
+        int currentMaxGap = current == null ? -1 : current.getReadMergeMaxGap();
+        if (previousMaxGap != currentMaxGap) {
+            replanRegularPolls(endpoint, currentMaxGap);
+        }
+        if (!Objects.equals(previous, current)) {
+            // re-created with the new configuration when needed
+            closePipelinedConnectionWhenIdle(endpoint);
+            ModbusEndpointMetricsImpl metrics = endpointMetrics.get(endpoint);
+            if (metrics != null) {
+                AdaptiveTransactionDelay delay = connectionFactory.getTransactionDelay(endpoint);
+                metrics.recordTransactionDelay(delay.getDelayMillis(), delay.getRetryDelayMillis(1));
+            }
+        }
         for (ModbusManagerListener listener : listeners) {
             listener.onEndpointPoolConfigurationSet(endpoint, configuration);
         }
@@ -812,6 +1343,16 @@ public class ModbusManagerImpl implements ModbusManager {
         listeners.remove(listener);
     }
 
+    @Override
+    public @Nullable ModbusEndpointMetrics getEndpointMetrics(ModbusSlaveEndpoint endpoint) {
+        return endpointMetrics.get(endpoint);
+    }
+
+    @Override
+    public Collection<ModbusEndpointMetrics> getEndpointMetrics() {
+        return Collections.unmodifiableCollection(endpointMetrics.values());
+    }
+
     @Override
     public Set<@NonNull PollTask> getRegisteredRegularPolls() {
         return this.scheduledPollTasks.keySet();
@@ -856,6 +1397,8 @@ public class ModbusManagerImpl implements ModbusManager {
                 connectionPool.close();
                 this.connectionPool = connectionPool = null;
             }
+            sharedConnections.keySet().forEach(this::closePipelinedConnection);
+            endpointMetrics.clear();
 
             if (monitorFuture != null) {
                 monitorFuture.cancel(true);
@@ -871,6 +1414,10 @@ public class ModbusManagerImpl implements ModbusManager {
     }
 
     private void logTaskQueueInfo() {
+        // cheap check without locking, executed with every operation
+        if (System.currentTimeMillis() - lastQueueMonitorLog < MONITOR_QUEUE_INTERVAL_MILLIS) {
+            return;
+        }
         synchronized (pollMonitorLogger) {
             ScheduledExecutorService scheduledThreadPoolExecutor = this.scheduledThreadPoolExecutor;
             ExecutorService callbackThreadPool = this.callbackThreadPool;
@@ -903,6 +1450,18 @@ public class ModbusManagerImpl implements ModbusManager {
                 }
             }
 
+            this.endpointMetrics.values().forEach(metrics -> {
+                pollMonitorLogger.debug("POLL MONITOR: {}", metrics);
+            });
+
+            this.sharedConnections.forEach((endpoint, connection) -> {
+                pollMonitorLogger.debug(
+                        "POLL MONITOR: pipelined endpoint {}: {} transactions/s, {}/{} transactions in flight, {} unexpected responses",
+                        endpoint, String.format("%.1f", connection.sampleTransactionsPerSecond()),
+                        connection.getTransactionsInFlight(), connection.getMaxInFlightTransactions(),
+                        connection.getUnexpectedResponses());
+            });
+
             pollMonitorLogger.trace("</POLL MONITOR>");
         }
     }
@@ -0,0 +1,294 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.net.InetAddress;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.wimpi.modbus.Modbus;
+import net.wimpi.modbus.ModbusException;
+import net.wimpi.modbus.ModbusIOException;
+import net.wimpi.modbus.ModbusSlaveException;
+import net.wimpi.modbus.io.ModbusTCPTransport;
+import net.wimpi.modbus.msg.ExceptionResponse;
+import net.wimpi.modbus.msg.ModbusRequest;
+import net.wimpi.modbus.msg.ModbusResponse;
+import net.wimpi.modbus.net.ModbusSlaveConnection;
+import net.wimpi.modbus.net.TCPMasterConnection;
+
+/**
+ * TCP connection allowing many outstanding transactions over a single socket
+ *
+ * Requests are written to the socket as soon as there is room in the in-flight window, without waiting for the
+ * responses of the previous requests. Responses are matched to the requests using the MODBUS/TCP transaction ID.
+ *
+ * There is no separate reader thread. Instead, the callers waiting for responses take turns in reading the socket:
+ * one caller at a time reads the next response and hands it over to the caller waiting for it. The other callers
+ * wait until a response has been read, and then either find their own response or take over reading.
+ *
+ * On I/O errors all outstanding transactions fail and the connection is reset. It is reconnected with the next
+ * {@link #connect()}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusPipelinedTCPConnection implements ModbusSlaveConnection {
+
+    private final Logger logger = LoggerFactory.getLogger(ModbusPipelinedTCPConnection.class);
+
+    private final ModbusTCPSlaveEndpoint endpoint;
+    private final TCPMasterConnection connection;
+    private final int maxInFlightTransactions;
+    private final Semaphore inFlight;
+    private final Object writeLock = new Object();
+    private final Object readMonitor = new Object();
+    private final Map<Integer, CompletableFuture<ModbusResponse>> pendingResponses = new ConcurrentHashMap<>();
+    private final AtomicInteger lastTransactionId = new AtomicInteger();
+    private final AtomicLong completedTransactions = new AtomicLong();
+    private final AtomicLong unexpectedResponses = new AtomicLong();
+
+    private volatile @Nullable ModbusTCPTransport transport;
+    /** True while a caller is reading the socket, guarded by {@link #readMonitor} */
+    private boolean reading;
+    private volatile boolean closeWhenIdle;
+    private volatile long lastSampleMillis = System.currentTimeMillis();
+    private volatile long lastSampleTransactions;
+
+    public ModbusPipelinedTCPConnection(ModbusTCPSlaveEndpoint endpoint, InetAddress address,
+            int connectTimeoutMillis, int maxInFlightTransactions) {
+        if (maxInFlightTransactions <= 0) {
+            throw new IllegalArgumentException("maxInFlightTransactions should be positive");
+        }
+        this.endpoint = endpoint;
+        this.connection = new TCPMasterConnection(address, endpoint.getPort(), connectTimeoutMillis);
+        this.maxInFlightTransactions = maxInFlightTransactions;
+        this.inFlight = new Semaphore(maxInFlightTransactions, true);
+    }
+
+    @Override
+    public synchronized boolean connect() throws Exception {
+        if (connection.isConnected() && transport != null) {
+            return true;
+        }
+        boolean connected = connection.connect();
+        transport = (ModbusTCPTransport) connection.getModbusTransport();
+        logger.debug("Connected pipelined connection to endpoint {} (max {} transactions in flight)", endpoint,
+                maxInFlightTransactions);
+        return connected;
+    }
+
+    @Override
+    public void resetConnection() {
+        resetConnection(new ModbusIOException("Connection was reset"));
+    }
+
+    private synchronized void resetConnection(ModbusException error) {
+        transport = null;
+        connection.resetConnection();
+        failPendingTransactions(error);
+    }
+
+    @Override
+    public boolean isConnected() {
+        return transport != null && connection.isConnected();
+    }
+
+    /**
+     * Execute the request and wait for the matching response
+     *
+     * Transaction ID of the request is overwritten.
+     *
+     * @param request request to send
+     * @return response with transaction ID matching the request
+     * @throws ModbusIOException on I/O errors, or when interrupted
+     * @throws ModbusSlaveException when slave responded with an exception response
+     * @throws ModbusException on other errors
+     */
+    public ModbusResponse executeTransaction(ModbusRequest request) throws ModbusException {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ModbusIOException("Interrupted while waiting for room in the transaction window");
+        }
+        try {
+            int transactionId = nextTransactionId();
+            request.setTransactionID(transactionId);
+            CompletableFuture<ModbusResponse> future = new CompletableFuture<>();
+            pendingResponses.put(transactionId, future);
+            try {
+                ModbusTCPTransport transport = this.transport;
+                if (transport == null) {
+                    throw new ModbusIOException("Not connected");
+                }
+                synchronized (writeLock) {
+                    transport.writeMessage(request);
+                }
+                ModbusResponse response = awaitResponse(transport, future);
+                if (response instanceof ExceptionResponse) {
+                    throw new ModbusSlaveException(((ExceptionResponse) response).getExceptionCode());
+                }
+                completedTransactions.incrementAndGet();
+                return response;
+            } finally {
+                pendingResponses.remove(transactionId);
+            }
+        } finally {
+            inFlight.release();
+            closeIfIdle();
+        }
+    }
+
+    /**
+     * Close the connection once no transactions are in flight anymore
+     */
+    public void closeWhenIdle() {
+        closeWhenIdle = true;
+        closeIfIdle();
+    }
+
+    private void closeIfIdle() {
+        if (closeWhenIdle && getTransactionsInFlight() == 0) {
+            logger.debug("Closing idle pipelined connection to endpoint {}", endpoint);
+            resetConnection();
+        }
+    }
+
+    private ModbusResponse awaitResponse(ModbusTCPTransport transport, CompletableFuture<ModbusResponse> future)
+            throws ModbusException {
+        try {
+            while (true) {
+                synchronized (readMonitor) {
+                    while (reading && !future.isDone()) {
+                        // woken up after every response read by the other caller
+                        readMonitor.wait();
+                    }
+                    if (future.isDone()) {
+                        break;
+                    }
+                    reading = true;
+                }
+                try {
+                    readNextResponse(transport);
+                } finally {
+                    synchronized (readMonitor) {
+                        reading = false;
+                        readMonitor.notifyAll();
+                    }
+                }
+            }
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ModbusIOException("Interrupted while waiting for response");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ModbusException) {
+                throw (ModbusException) cause;
+            }
+            throw new ModbusIOException(String.valueOf(cause));
+        }
+    }
+
+    /**
+     * Read single response from the socket and complete the transaction waiting for it
+     *
+     * Must only be called by the caller currently reading (see {@link #reading}). On I/O errors the connection is
+     * reset, failing all outstanding transactions.
+     */
+    private void readNextResponse(ModbusTCPTransport transport) {
+        ModbusResponse response;
+        try {
+            response = transport.readResponse();
+        } catch (ModbusIOException e) {
+            logger.debug("Error reading response from endpoint {}, failing {} outstanding transactions: {}", endpoint,
+                    pendingResponses.size(), e.getMessage());
+            resetConnection(e);
+            return;
+        }
+        CompletableFuture<ModbusResponse> future = pendingResponses.get(response.getTransactionID());
+        if (future == null) {
+            unexpectedResponses.incrementAndGet();
+            logger.warn("Received response with transaction id {} from endpoint {} but no such transaction is "
+                    + "outstanding. Ignoring response.", response.getTransactionID(), endpoint);
+        } else {
+            future.complete(response);
+        }
+    }
+
+    private void failPendingTransactions(ModbusException error) {
+        pendingResponses.values().forEach(future -> future.completeExceptionally(error));
+    }
+
+    private int nextTransactionId() {
+        return lastTransactionId.updateAndGet(id -> id >= Modbus.MAX_TRANSACTION_ID ? 1 : id + 1);
+    }
+
+    public ModbusTCPSlaveEndpoint getEndpoint() {
+        return endpoint;
+    }
+
+    public int getMaxInFlightTransactions() {
+        return maxInFlightTransactions;
+    }
+
+    /**
+     * @return number of transactions currently outstanding
+     */
+    public int getTransactionsInFlight() {
+        return maxInFlightTransactions - inFlight.availablePermits();
+    }
+
+    /**
+     * @return number of successfully completed transactions
+     */
+    public long getCompletedTransactions() {
+        return completedTransactions.get();
+    }
+
+    /**
+     * @return number of responses not matching any outstanding transaction
+     */
+    public long getUnexpectedResponses() {
+        return unexpectedResponses.get();
+    }
+
+    /**
+     * Calculate throughput of completed transactions since the previous call of this method
+     *
+     * @return completed transactions per second
+     */
+    public synchronized double sampleTransactionsPerSecond() {
+        long now = System.currentTimeMillis();
+        long transactions = completedTransactions.get();
+        long elapsedMillis = Math.max(1, now - lastSampleMillis);
+        double perSecond = (transactions - lastSampleTransactions) * 1000.0 / elapsedMillis;
+        lastSampleMillis = now;
+        lastSampleTransactions = transactions;
+        return perSecond;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ModbusPipelinedTCPConnection [endpoint=%s, maxInFlightTransactions=%d]", endpoint,
+                maxInFlightTransactions);
+    }
+}
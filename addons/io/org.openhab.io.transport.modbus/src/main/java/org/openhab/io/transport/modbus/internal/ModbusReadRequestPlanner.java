@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.PollTask;
+
+/**
+ * Planner merging poll tasks reading nearby data to larger read requests
+ *
+ * Tasks are merged when
+ * - the gap between the data read by the tasks is small enough
+ * - the merged request does not exceed the limits of the MODBUS protocol ({@link #MAX_REGISTERS_PER_READ} registers,
+ * {@link #MAX_BITS_PER_READ} coils or discrete inputs)
+ * - the tasks use the same protocol id
+ *
+ * The planner expects that all the tasks share the endpoint, slave id and function code.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusReadRequestPlanner {
+
+    /**
+     * Maximum number of registers that can be read with a single request
+     */
+    public static final int MAX_REGISTERS_PER_READ = 125;
+
+    /**
+     * Maximum number of coils or discrete inputs that can be read with a single request
+     */
+    public static final int MAX_BITS_PER_READ = 2000;
+
+    private static final Comparator<PollTask> BY_START_AND_LENGTH = Comparator
+            .<PollTask> comparingInt(task -> task.getRequest().getReference())
+            .thenComparingInt(task -> task.getRequest().getDataLength());
+
+    /**
+     * Plan requests covering the data of the given tasks
+     *
+     * Tasks that cannot be merged with any other task are returned as-is, others are replaced by
+     * {@link MergedPollTask}s.
+     *
+     * @param tasks tasks to plan. All tasks must share the endpoint, slave id and function code.
+     * @param maxGap maximum number of unused registers (or bits) allowed between two merged tasks. Negative values
+     *            disable merging altogether.
+     * @return poll tasks to execute
+     */
+    public static List<PollTask> plan(Collection<PollTask> tasks, int maxGap) {
+        List<PollTask> planned = new ArrayList<>(tasks.size());
+        if (maxGap < 0) {
+            planned.addAll(tasks);
+            return planned;
+        }
+        List<PollTask> sorted = new ArrayList<>(tasks);
+        sorted.sort(BY_START_AND_LENGTH);
+
+        List<PollTask> window = new ArrayList<>();
+        int windowStart = 0;
+        int windowEnd = 0;
+        int windowProtocolId = 0;
+        for (PollTask task : sorted) {
+            ModbusReadRequestBlueprint request = task.getRequest();
+            int start = request.getReference();
+            int end = start + request.getDataLength();
+            if (!window.isEmpty() && start - windowEnd <= maxGap && request.getProtocolID() == windowProtocolId
+                    && Math.max(windowEnd, end) - windowStart <= maxLength(request.getFunctionCode())) {
+                window.add(task);
+                windowEnd = Math.max(windowEnd, end);
+                continue;
+            }
+            closeWindow(window, planned);
+            window = new ArrayList<>();
+            window.add(task);
+            windowStart = start;
+            windowEnd = end;
+            windowProtocolId = request.getProtocolID();
+        }
+        closeWindow(window, planned);
+        return planned;
+    }
+
+    private static void closeWindow(List<PollTask> window, List<PollTask> planned) {
+        if (window.size() == 1) {
+            planned.add(window.get(0));
+        } else if (window.size() > 1) {
+            planned.add(new MergedPollTask(window));
+        }
+    }
+
+    private static int maxLength(ModbusReadFunctionCode functionCode) {
+        switch (functionCode) {
+            case READ_COILS:
+            case READ_INPUT_DISCRETES:
+                return MAX_BITS_PER_READ;
+            default:
+                return MAX_REGISTERS_PER_READ;
+        }
+    }
+}
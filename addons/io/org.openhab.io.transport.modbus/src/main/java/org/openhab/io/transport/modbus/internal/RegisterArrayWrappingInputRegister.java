@@ -69,6 +69,11 @@ public class RegisterArrayWrappingInputRegister implements ModbusRegisterArray {
         return cache.computeIfAbsent(index, i -> new RegisterReference(i));
     }
 
+    @Override
+    public int getRegisterUnsignedShort(int index) {
+        return wrapped[index].toUnsignedShort();
+    }
+
     @Override
     public int size() {
         return wrapped.length;
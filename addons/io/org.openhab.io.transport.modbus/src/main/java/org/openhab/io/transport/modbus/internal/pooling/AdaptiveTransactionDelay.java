@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus.internal.pooling;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.endpoint.EndpointPoolConfiguration;
+
+/**
+ * Delay between transactions of a single endpoint, adapting to the behaviour of the slave
+ *
+ * The delay starts from the minimum. Each failed transaction (I/O error, timeout, slave busy) increases the delay
+ * towards the maximum, while a streak of successful transactions decreases it back towards the minimum. Successful
+ * transactions with response latency clearly above the average are taken as a sign of a stressed slave and do not
+ * count towards the streak.
+ *
+ * Retries are backed off exponentially, starting from the current delay, but never exceeding the maximum.
+ *
+ * With equal minimum and maximum the delay is fixed.
+ *
+ * Note that the implementation must be thread safe.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class AdaptiveTransactionDelay {
+
+    /**
+     * How many consecutive successful transactions are required before the delay is decreased
+     */
+    static final int SUCCESSES_BEFORE_DECREASE = 10;
+
+    /**
+     * Transactions with latency more than this many times the average latency do not count as success
+     */
+    private static final double SLOW_RESPONSE_FACTOR = 2.0;
+
+    /**
+     * Weight of the newest latency sample in the average
+     */
+    private static final double LATENCY_SMOOTHING = 0.2;
+
+    private final long minDelayMillis;
+    private final long maxDelayMillis;
+    private final long stepMillis;
+
+    private long delayMillis;
+    private int successes;
+    private double averageLatencyMillis = -1;
+
+    /**
+     * Construct delay following the pool configuration
+     *
+     * @param config configuration of the endpoint
+     */
+    public AdaptiveTransactionDelay(EndpointPoolConfiguration config) {
+        this(config.getInterTransactionDelayMillis(),
+                config.isAdaptiveInterTransactionDelay() ? config.getMaxInterTransactionDelayMillis()
+                        : config.getInterTransactionDelayMillis());
+    }
+
+    /**
+     * Construct delay varying between the given bounds
+     *
+     * @param minDelayMillis minimum (and initial) delay between transactions
+     * @param maxDelayMillis maximum delay between transactions and retries. Values smaller than minDelayMillis are
+     *            interpreted as minDelayMillis.
+     */
+    public AdaptiveTransactionDelay(long minDelayMillis, long maxDelayMillis) {
+        this.minDelayMillis = Math.max(0, minDelayMillis);
+        this.maxDelayMillis = Math.max(this.minDelayMillis, maxDelayMillis);
+        this.stepMillis = Math.max(1, (this.maxDelayMillis - this.minDelayMillis) / 10);
+        this.delayMillis = this.minDelayMillis;
+    }
+
+    /**
+     * @return whether the delay can change
+     */
+    public boolean isAdaptive() {
+        return maxDelayMillis > minDelayMillis;
+    }
+
+    /**
+     * @return current delay between transactions, in milliseconds
+     */
+    public synchronized long getDelayMillis() {
+        return delayMillis;
+    }
+
+    /**
+     * Get delay to wait before a retry
+     *
+     * @param retry retry number, 1 meaning the first retry (that is, second try)
+     * @return delay before the retry, in milliseconds
+     */
+    public synchronized long getRetryDelayMillis(int retry) {
+        if (!isAdaptive()) {
+            return delayMillis;
+        }
+        int shift = Math.min(Math.max(0, retry - 1), 20);
+        return Math.min(maxDelayMillis, Math.max(delayMillis, stepMillis) << shift);
+    }
+
+    /**
+     * Record successful transaction
+     *
+     * @param latencyMillis round trip time of the transaction
+     */
+    public synchronized void recordSuccess(long latencyMillis) {
+        if (!isAdaptive()) {
+            return;
+        }
+        boolean slow = averageLatencyMillis > 0 && latencyMillis > averageLatencyMillis * SLOW_RESPONSE_FACTOR;
+        averageLatencyMillis = averageLatencyMillis < 0 ? latencyMillis
+                : averageLatencyMillis + LATENCY_SMOOTHING * (latencyMillis - averageLatencyMillis);
+        if (slow) {
+            successes = 0;
+            return;
+        }
+        if (++successes >= SUCCESSES_BEFORE_DECREASE) {
+            successes = 0;
+            delayMillis = Math.max(minDelayMillis, delayMillis - stepMillis);
+        }
+    }
+
+    /**
+     * Record failed transaction, suggesting that the slave needs more time between the transactions
+     */
+    public synchronized void recordFailure() {
+        if (!isAdaptive()) {
+            return;
+        }
+        successes = 0;
+        delayMillis = Math.min(maxDelayMillis, Math.max(delayMillis * 2, delayMillis + stepMillis));
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("AdaptiveTransactionDelay [delayMillis=%d, minDelayMillis=%d, maxDelayMillis=%d]",
+                delayMillis, minDelayMillis, maxDelayMillis);
+    }
+}
@@ -11,6 +11,7 @@ package org.openhab.io.transport.modbus.internal.pooling;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
@@ -79,6 +80,7 @@ public class ModbusSlaveConnectionFactoryImpl
     private volatile Map<ModbusSlaveEndpoint, Long> lastPassivateMillis = new ConcurrentHashMap<>();
     private volatile Map<ModbusSlaveEndpoint, Long> lastConnectMillis = new ConcurrentHashMap<>();
     private volatile Map<ModbusSlaveEndpoint, Long> disconnectIfConnectedBefore = new ConcurrentHashMap<>();
+    private volatile Map<ModbusSlaveEndpoint, AdaptiveTransactionDelay> transactionDelays = new ConcurrentHashMap<>();
     private volatile Function<ModbusSlaveEndpoint, @Nullable EndpointPoolConfiguration> defaultPoolConfigurationFactory = endpoint -> null;
 
     private @Nullable InetAddress getInetAddress(ModbusIPSlaveEndpoint key) {
@@ -166,10 +168,13 @@ public class ModbusSlaveConnectionFactoryImpl
             }
 
             if (config != null) {
-                long waited = waitAtleast(lastPassivateMillis.get(endpoint), config.getInterTransactionDelayMillis());
-                logger.trace(
-                        "Waited {}ms (interTransactionDelayMillis {}ms) before giving returning connection {} for endpoint {}, to ensure delay between transactions.",
-                        waited, config.getInterTransactionDelayMillis(), obj.getObject(), endpoint);
+                long interTransactionDelayMillis = getTransactionDelay(endpoint).getDelayMillis();
+                long waited = waitAtleast(lastPassivateMillis.get(endpoint), interTransactionDelayMillis);
+                if (logger.isTraceEnabled()) {
+                    logger.trace(
+                            "Waited {}ms (interTransactionDelayMillis {}ms) before giving returning connection {} for endpoint {}, to ensure delay between transactions.",
+                            waited, interTransactionDelayMillis, obj.getObject(), endpoint);
+                }
             }
         } catch (InterruptedException e) {
             // Someone wants to cancel us, reset the connection and abort
@@ -203,16 +208,20 @@ public class ModbusSlaveConnectionFactoryImpl
                 : connected <= disconnectIfConnectedBeforeMillis;
         if (reconnectAfterMillis == 0 || (reconnectAfterMillis > 0 && connectionAgeMillis > reconnectAfterMillis)
                 || disconnectSinceTooOldConnection) {
-            logger.trace(
-                    "(passivate) Connection {} (endpoint {}) age {}ms is over the reconnectAfterMillis={}ms limit or has been connection time ({}) is after the \"disconnectBeforeConnectedMillis\"={} -> disconnecting.",
-                    connection, endpoint, connectionAgeMillis, reconnectAfterMillis, connected,
-                    disconnectIfConnectedBeforeMillis);
+            if (logger.isTraceEnabled()) {
+                logger.trace(
+                        "(passivate) Connection {} (endpoint {}) age {}ms is over the reconnectAfterMillis={}ms limit or has been connection time ({}) is after the \"disconnectBeforeConnectedMillis\"={} -> disconnecting.",
+                        connection, endpoint, connectionAgeMillis, reconnectAfterMillis, connected,
+                        disconnectIfConnectedBeforeMillis);
+            }
             connection.resetConnection();
         } else {
-            logger.trace(
-                    "(passivate) Connection {} (endpoint {}) age ({}ms) is below the reconnectAfterMillis ({}ms) limit and connection time ({}) is after the \"disconnectBeforeConnectedMillis\"={}. Keep the connection open.",
-                    connection, endpoint, connectionAgeMillis, reconnectAfterMillis, connected,
-                    disconnectIfConnectedBeforeMillis);
+            if (logger.isTraceEnabled()) {
+                logger.trace(
+                        "(passivate) Connection {} (endpoint {}) age ({}ms) is below the reconnectAfterMillis ({}ms) limit and connection time ({}) is after the \"disconnectBeforeConnectedMillis\"={}. Keep the connection open.",
+                        connection, endpoint, connectionAgeMillis, reconnectAfterMillis, connected,
+                        disconnectIfConnectedBeforeMillis);
+            }
         }
         logger.trace("...Passivated connection {} for endpoint {}", obj.getObject(), endpoint);
     }
@@ -231,10 +240,16 @@ public class ModbusSlaveConnectionFactoryImpl
      * @param configuration configuration for the endpoint. Use null to reset the configuration to default settings.
      */
     public void setEndpointPoolConfiguration(ModbusSlaveEndpoint endpoint, @Nullable EndpointPoolConfiguration config) {
+        @Nullable
+        EndpointPoolConfiguration previous;
         if (config == null) {
-            endpointPoolConfigs.remove(endpoint);
+            previous = endpointPoolConfigs.remove(endpoint);
         } else {
-            endpointPoolConfigs.put(endpoint, config);
+            previous = endpointPoolConfigs.put(endpoint, config);
+        }
+        if (!Objects.equals(previous, config)) {
+            // start adapting from scratch with the new configuration
+            transactionDelays.remove(endpoint);
         }
     }
 
@@ -254,6 +269,27 @@ public class ModbusSlaveConnectionFactoryImpl
         return config;
     }
 
+    /**
+     * Get delay between transactions applied to a given endpoint
+     *
+     * The delay follows the inter-transaction delay settings of the endpoint configuration. With adaptive
+     * configuration, the returned delay should be informed about the outcome of the transactions.
+     *
+     * @param endpoint endpoint to query
+     * @return delay between transactions of the given endpoint
+     */
+    @SuppressWarnings("null")
+    public AdaptiveTransactionDelay getTransactionDelay(ModbusSlaveEndpoint endpoint) {
+        @Nullable
+        AdaptiveTransactionDelay delay = transactionDelays.computeIfAbsent(endpoint, key -> {
+            @Nullable
+            EndpointPoolConfiguration config = getEndpointPoolConfiguration(key);
+            return config == null ? null : new AdaptiveTransactionDelay(config);
+        });
+        // Without configuration the delay is not remembered, so that it follows the configuration once it is set
+        return delay == null ? new AdaptiveTransactionDelay(0, 0) : delay;
+    }
+
     /**
      * Set default factory for {@link EndpointPoolConfiguration}
      *
@@ -275,14 +311,15 @@ public class ModbusSlaveConnectionFactoryImpl
         do {
             try {
                 if (config != null) {
+                    long interTransactionDelayMillis = getTransactionDelay(endpoint).getDelayMillis();
                     long waited = waitAtleast(lastConnect,
-                            Math.max(config.getInterConnectDelayMillis(), config.getInterTransactionDelayMillis()));
+                            Math.max(config.getInterConnectDelayMillis(), interTransactionDelayMillis));
                     if (waited > 0) {
                         logger.trace(
                                 "Waited {}ms (interConnectDelayMillis {}ms, interTransactionDelayMillis {}ms) before "
                                         + "connecting disconnected connection {} for endpoint {}, to allow delay "
                                         + "between connections re-connects",
-                                waited, config.getInterConnectDelayMillis(), config.getInterTransactionDelayMillis(),
+                                waited, config.getInterConnectDelayMillis(), interTransactionDelayMillis,
                                 obj.getObject(), endpoint);
                     }
                 }
@@ -0,0 +1,173 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.ui.cometvisu.internal.backend;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * caches the chart series sent to the CometVisu client, so that several clients showing the same
+ * diagram do not query the persistence service each.
+ *
+ * A series is removed when it is too old, or when a state of one of its items is persisted within
+ * the time range of the series.
+ *
+ * @author agent - Initial contribution
+ *
+ */
+public class ChartCache {
+
+    // maximum number of cached series, the least recently used ones are removed first
+    static final int MAX_ENTRIES = 100;
+
+    private static class Entry {
+        final Object data;
+        final Set<String> itemNames;
+        final long endTime;
+        final long expires;
+
+        Entry(Object data, Collection<String> itemNames, long endTime, long expires) {
+            this.data = data;
+            this.itemNames = new HashSet<String>(itemNames);
+            this.endTime = endTime;
+            this.expires = expires;
+        }
+    }
+
+    private final Map<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            if (size() > MAX_ENTRIES) {
+                unindex(eldest.getKey(), eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    };
+
+    // the cached series of each item, keyed by item name and the key of the series
+    private final Map<String, Map<String, Entry>> entriesByItem = new ConcurrentHashMap<String, Map<String, Entry>>();
+
+    /**
+     * builds the key of a series
+     */
+    public static String getKey(String service, String itemName, String consolidationFunction, String start,
+            String end, long resolution) {
+        return service + "|" + itemName + "|" + consolidationFunction + "|" + start + "|" + end + "|" + resolution;
+    }
+
+    /**
+     * returns the cached series or null if there is none
+     *
+     * @param key the key of the series
+     * @param now the current time in milliseconds
+     */
+    public synchronized Object get(String key, long now) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (now >= entry.expires) {
+            remove(key);
+            return null;
+        }
+        return entry.data;
+    }
+
+    /**
+     * caches a series
+     *
+     * @param key the key of the series
+     * @param data the series
+     * @param itemNames the items the series has been read from
+     * @param endTime the end of the time range of the series in milliseconds
+     * @param expires the time in milliseconds the series is to be removed at latest
+     */
+    public synchronized void put(String key, Object data, Collection<String> itemNames, long endTime,
+            long expires) {
+        remove(key);
+        Entry entry = new Entry(data, itemNames, endTime, expires);
+        entries.put(key, entry);
+        for (String itemName : entry.itemNames) {
+            Map<String, Entry> itemEntries = entriesByItem.get(itemName);
+            if (itemEntries == null) {
+                itemEntries = new HashMap<String, Entry>();
+                entriesByItem.put(itemName, itemEntries);
+            }
+            itemEntries.put(key, entry);
+        }
+    }
+
+    /**
+     * returns whether a series of the given item is cached. Does not block while the cache is being updated.
+     *
+     * @param itemName the name of the item
+     */
+    public boolean containsItem(String itemName) {
+        return entriesByItem.containsKey(itemName);
+    }
+
+    /**
+     * removes the series containing the given item which end after the given time
+     *
+     * @param itemName the item which got a new state
+     * @param time the time of the new state in milliseconds
+     */
+    public synchronized void invalidate(String itemName, long time) {
+        Map<String, Entry> itemEntries = entriesByItem.get(itemName);
+        if (itemEntries == null) {
+            return;
+        }
+        List<String> keys = new ArrayList<String>();
+        for (Map.Entry<String, Entry> entry : itemEntries.entrySet()) {
+            if (entry.getValue().endTime >= time) {
+                keys.add(entry.getKey());
+            }
+        }
+        for (String key : keys) {
+            remove(key);
+        }
+    }
+
+    /**
+     * removes all series
+     */
+    public synchronized void clear() {
+        entries.clear();
+        entriesByItem.clear();
+    }
+
+    private void remove(String key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            unindex(key, entry);
+        }
+    }
+
+    private void unindex(String key, Entry entry) {
+        for (String itemName : entry.itemNames) {
+            Map<String, Entry> itemEntries = entriesByItem.get(itemName);
+            if (itemEntries != null) {
+                itemEntries.remove(key);
+                if (itemEntries.isEmpty()) {
+                    entriesByItem.remove(itemName);
+                }
+            }
+        }
+    }
+}
@@ -14,13 +14,16 @@ import java.io.IOException;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.TreeMap;
 
 import javax.ws.rs.GET;
@@ -33,10 +36,14 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 
+import org.eclipse.smarthome.core.events.Event;
+import org.eclipse.smarthome.core.events.EventFilter;
+import org.eclipse.smarthome.core.events.EventSubscriber;
 import org.eclipse.smarthome.core.items.GroupItem;
 import org.eclipse.smarthome.core.items.Item;
 import org.eclipse.smarthome.core.items.ItemNotFoundException;
 import org.eclipse.smarthome.core.items.ItemRegistry;
+import org.eclipse.smarthome.core.items.events.ItemStateEvent;
 import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.persistence.FilterCriteria;
 import org.eclipse.smarthome.core.persistence.FilterCriteria.Ordering;
@@ -57,11 +64,14 @@ import org.slf4j.LoggerFactory;
  * handles requests for chart series data from the CometVisu client
  * used by the diagram plugin
  *
+ * Series of other persistence services than rrd4j are reduced to the requested resolution.
+ * The series are cached until a new state of their items arrives.
+ *
  * @author Tobias Bräutigam
  *
  */
 @Path(Config.COMETVISU_BACKEND_ALIAS + "/" + Config.COMETVISU_BACKEND_CHART_ALIAS)
-public class ChartResource implements RESTResource {
+public class ChartResource implements RESTResource, EventSubscriber {
     private final Logger logger = LoggerFactory.getLogger(ChartResource.class);
 
     // pattern RRDTool uses to format doubles in XML files
@@ -69,6 +79,9 @@ public class ChartResource implements RESTResource {
 
     static final DecimalFormat df;
 
+    // maximum time in milliseconds a series is cached
+    static final long MAX_CACHE_AGE = 60000;
+
     protected static final String RRD_FOLDER = org.eclipse.smarthome.config.core.ConfigConstants.getUserDataFolder()
             + File.separator + "persistence" + File.separator + "rrd4j";
 
@@ -82,6 +95,12 @@ public class ChartResource implements RESTResource {
 
     private ItemRegistry itemRegistry;
 
+    private final ChartCache cache = new ChartCache();
+
+    // only the states of items with cached series are of interest
+    private final EventFilter eventFilter = event -> event instanceof ItemStateEvent
+            && cache.containsItem(((ItemStateEvent) event).getItemName());
+
     @Context
     private UriInfo uriInfo;
 
@@ -93,6 +112,7 @@ public class ChartResource implements RESTResource {
 
     public void removePersistenceService(PersistenceService service) {
         persistenceServices.remove(service.getId());
+        cache.clear();
     }
 
     public static Map<String, QueryablePersistenceService> getPersistenceServices() {
@@ -160,12 +180,24 @@ public class ChartResource implements RESTResource {
             } else {
                 logger.debug("using {} persistence for item {}", persistenceService.getId(), itemName);
             }
-            Object data = null;
+            long now = System.currentTimeMillis();
+            String cacheKey = ChartCache.getKey(persistenceService.getId(), itemName, consFunction, start, end,
+                    resolution);
+            Object data = cache.get(cacheKey, now);
+            if (data != null) {
+                logger.debug("using cached series for item {}", itemName);
+                return Response.ok(data, responseType).build();
+            }
             if (persistenceService.getId().equals("rrd4j")) {
                 data = getRrdSeries(persistenceService, item, consilidationFunction, startTime, endTime, resolution);
             } else {
-                data = getPersistenceSeries(persistenceService, item, startTime, endTime, resolution);
+                data = getPersistenceSeries(persistenceService, item, consilidationFunction, startTime, endTime,
+                        resolution);
             }
+            // a series up to now gets outdated by every new state
+            long cacheEnd = endTime.getTime() >= now - 1000 ? Long.MAX_VALUE : endTime.getTime();
+            cache.put(cacheKey, data, getItemNames(item), cacheEnd,
+                    now + Math.min(Math.max(resolution, 1) * 1000, MAX_CACHE_AGE));
             return Response.ok(data, responseType).build();
         } catch (ItemNotFoundException e1) {
             logger.error("Item '{}' not found error while requesting series data.", itemName);
@@ -174,9 +206,21 @@ public class ChartResource implements RESTResource {
         return Response.serverError().build();
     }
 
-    public Object getPersistenceSeries(QueryablePersistenceService persistenceService, Item item, Date timeBegin,
-            Date timeEnd, long resolution) {
-        Map<Long, ArrayList<String>> data = new HashMap<Long, ArrayList<String>>();
+    /**
+     * returns a series of a persistence service, reduced to one value per resolution interval
+     * by the given consolidation function.
+     *
+     * @param persistenceService
+     * @param item
+     * @param consilidationFunction
+     * @param timeBegin
+     * @param timeEnd
+     * @param resolution interval in seconds, 0 to return all values
+     * @return
+     */
+    public Object getPersistenceSeries(QueryablePersistenceService persistenceService, Item item,
+            ConsolFun consilidationFunction, Date timeBegin, Date timeEnd, long resolution) {
+        ArrayList<Object> rrd = new ArrayList<Object>();
 
         // Define the data filter
         FilterCriteria filter = new FilterCriteria();
@@ -189,21 +233,99 @@ public class ChartResource implements RESTResource {
         Iterable<HistoricItem> result = persistenceService.query(filter);
         Iterator<HistoricItem> it = result.iterator();
 
-        // Iterate through the data
+        // Iterate through the data, the values are in ascending order so each interval is complete
+        // once a value of a later interval is read
+        long interval = resolution * 1000;
+        Bucket bucket = null;
         int dataCounter = 0;
         while (it.hasNext()) {
             dataCounter++;
             HistoricItem historicItem = it.next();
             org.eclipse.smarthome.core.types.State state = historicItem.getState();
             if (state instanceof DecimalType) {
-                ArrayList<String> vals = new ArrayList<String>();
-                vals.add(formatDouble(((DecimalType) state).doubleValue(), "null", true));
-                data.put(historicItem.getTimestamp().getTime(), vals);
+                long time = historicItem.getTimestamp().getTime();
+                double value = ((DecimalType) state).doubleValue();
+                if (interval <= 0) {
+                    rrd.add(toRrdEntry(time, value));
+                    continue;
+                }
+                long bucketStart = timeBegin.getTime()
+                        + Math.floorDiv(time - timeBegin.getTime(), interval) * interval;
+                if (bucket != null && bucket.start != bucketStart) {
+                    rrd.add(toRrdEntry(bucket.start, bucket.getValue(consilidationFunction)));
+                    bucket = null;
+                }
+                if (bucket == null) {
+                    bucket = new Bucket(bucketStart, value);
+                } else {
+                    bucket.add(value);
+                }
+            }
+        }
+        if (bucket != null) {
+            rrd.add(toRrdEntry(bucket.start, bucket.getValue(consilidationFunction)));
+        }
+        logger.debug("'{}' querying item '{}' from '{}' to '{}' => '{}' results, '{}' values",
+                persistenceService.getId(), filter.getItemName(), filter.getBeginDate(), filter.getEndDate(),
+                dataCounter, rrd.size());
+        return rrd;
+    }
+
+    private Object[] toRrdEntry(long time, double value) {
+        ArrayList<String> vals = new ArrayList<String>(1);
+        vals.add(formatDouble(value, "null", true));
+        Object[] entry = new Object[2];
+        entry[0] = time;
+        entry[1] = vals;
+        return entry;
+    }
+
+    /**
+     * values of one resolution interval
+     */
+    private static class Bucket {
+        final long start;
+        final double first;
+        double last;
+        double min;
+        double max;
+        double sum;
+        int count;
+
+        Bucket(long start, double value) {
+            this.start = start;
+            this.first = value;
+            this.last = value;
+            this.min = value;
+            this.max = value;
+            this.sum = value;
+            this.count = 1;
+        }
+
+        void add(double value) {
+            last = value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            sum += value;
+            count++;
+        }
+
+        double getValue(ConsolFun consilidationFunction) {
+            switch (consilidationFunction) {
+                case MIN:
+                    return min;
+                case MAX:
+                    return max;
+                case FIRST:
+                    return first;
+                case LAST:
+                    return last;
+                case TOTAL:
+                    return sum;
+                default:
+                    return sum / count;
             }
         }
-        logger.debug("'{}' querying item '{}' from '{}' to '{}' => '{}' results", persistenceService.getId(),
-                filter.getItemName(), filter.getBeginDate(), filter.getEndDate(), dataCounter);
-        return convertToRrd(data);
     }
 
     /**
@@ -238,10 +360,12 @@ public class ChartResource implements RESTResource {
         } catch (FileNotFoundException e) {
             // rrd file does not exist, fallback to generic persistance service
             logger.debug("no rrd file found '{}'", (RRD_FOLDER + File.separator + item.getName() + ".rrd"));
-            return getPersistenceSeries(persistenceService, item, timeBegin, timeEnd, resolution);
+            return getPersistenceSeries(persistenceService, item, consilidationFunction, timeBegin, timeEnd,
+                    resolution);
         } catch (Exception e) {
             logger.error("{}: fallback to generic persistance service", e.getLocalizedMessage());
-            return getPersistenceSeries(persistenceService, item, timeBegin, timeEnd, resolution);
+            return getPersistenceSeries(persistenceService, item, consilidationFunction, timeBegin, timeEnd,
+                    resolution);
         }
         return convertToRrd(data);
     }
@@ -290,6 +414,33 @@ public class ChartResource implements RESTResource {
         return data;
     }
 
+    private Set<String> getItemNames(Item item) {
+        if (item instanceof GroupItem) {
+            Set<String> itemNames = new HashSet<String>();
+            itemNames.add(item.getName());
+            for (Item member : ((GroupItem) item).getMembers()) {
+                itemNames.add(member.getName());
+            }
+            return itemNames;
+        }
+        return Collections.singleton(item.getName());
+    }
+
+    @Override
+    public Set<String> getSubscribedEventTypes() {
+        return Collections.singleton(ItemStateEvent.TYPE);
+    }
+
+    @Override
+    public EventFilter getEventFilter() {
+        return eventFilter;
+    }
+
+    @Override
+    public void receive(Event event) {
+        cache.invalidate(((ItemStateEvent) event).getItemName(), System.currentTimeMillis());
+    }
+
     static String formatDouble(double x, String nanString, boolean forceExponents) {
         if (Double.isNaN(x)) {
             return nanString;
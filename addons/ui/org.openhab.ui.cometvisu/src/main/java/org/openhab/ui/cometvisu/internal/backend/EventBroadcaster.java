@@ -8,10 +8,7 @@
  */
 package org.openhab.ui.cometvisu.internal.backend;
 
-import java.util.Map;
-
 import org.eclipse.smarthome.core.items.Item;
-import org.eclipse.smarthome.core.types.State;
 
 /**
  * Broadcast state change events of items to listening clients
@@ -20,15 +17,14 @@ import org.eclipse.smarthome.core.types.State;
  */
 public interface EventBroadcaster {
     /**
-     * Broadcasts an event described by the given parameters to all currently
-     * listening clients.
+     * Sends the state of the given item to all clients which requested it.
      *
      * @param item
      *            - the item that should be broadcasted
-     * @param eventObject
-     *            - bean that can be converted to a JSON object.
+     * @param typedOnly
+     *            - true to send the state only to clients which requested it as a certain type
      */
-    public void broadcastEvent(final Object eventObject);
+    public void broadcastState(Item item, boolean typedOnly);
 
     /**
      * listens to state changes of the given item, if it is part of the
@@ -40,11 +36,10 @@ public interface EventBroadcaster {
     public void registerItem(Item item);
 
     /**
-     * listens to state changes of the given item, if it is part of the
-     * requested items
+     * stops listening to state changes of the given item
      *
      * @param item
-     *            - the new item, that should be listened to
+     *            - the item, that should not be listened to anymore
      */
     public void unregisterItem(Item item);
 
@@ -53,13 +48,4 @@ public interface EventBroadcaster {
      */
     public void registerItems();
 
-    /**
-     * lists all client item names and the associated type which must be notified
-     * when the item changes
-     *
-     * @param item
-     *            - the item that is listened to
-     * @return
-     */
-    public Map<String, Class<? extends State>> getClientItems(Item item);
 }
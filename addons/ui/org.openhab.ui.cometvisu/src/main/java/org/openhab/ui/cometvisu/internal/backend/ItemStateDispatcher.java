@@ -0,0 +1,218 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.ui.cometvisu.internal.backend;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.items.Item;
+import org.eclipse.smarthome.core.types.State;
+import org.glassfish.jersey.media.sse.EventOutput;
+import org.openhab.ui.cometvisu.internal.StateBeanMessageBodyWriter;
+import org.openhab.ui.cometvisu.internal.util.SseUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * dispatches the states of items to the SSE connections of the CometVisu clients which requested them
+ *
+ * The state of an item is serialized once per change and shared by all clients. The changes are collected
+ * per client for a short time and sent as one event. While an event is written to a client only the latest
+ * state of each item is kept for it, so a slow client skips intermediate states instead of queueing them.
+ *
+ * A client is removed when writing to it fails or its connection has been closed. Closed connections are
+ * also looked for whenever a client subscribes, so clients of items which do not change are not kept forever.
+ *
+ * @author agent - Initial contribution
+ */
+public class ItemStateDispatcher {
+    private final Logger logger = LoggerFactory.getLogger(ItemStateDispatcher.class);
+
+    // time in milliseconds the state changes are collected before they are sent to a client
+    static final long COALESCE_WINDOW = 50;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final Map<String, Set<Client>> clientsByItem = new ConcurrentHashMap<String, Set<Client>>();
+
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+
+    public ItemStateDispatcher(ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * a connected CometVisu client
+     */
+    private class Client {
+        private final EventOutput eventOutput;
+
+        // the requested CometVisu item names and their state types by openHAB item name
+        private final Map<String, Map<String, Class<? extends State>>> items;
+
+        // the serialized states to send by CometVisu item name
+        private final Map<String, String> pending = new LinkedHashMap<String, String>();
+
+        // true while a flush is scheduled or an event is written
+        private boolean busy;
+
+        Client(EventOutput eventOutput, Map<String, Map<String, Class<? extends State>>> items) {
+            this.eventOutput = eventOutput;
+            this.items = items;
+        }
+
+        synchronized void offer(String cvItemName, String serializedState, long delay) {
+            pending.put(cvItemName, serializedState);
+            if (!busy) {
+                busy = true;
+                scheduler.schedule(this::flush, delay, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private void flush() {
+            List<String> states;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    busy = false;
+                    return;
+                }
+                states = new ArrayList<String>(pending.values());
+                pending.clear();
+            }
+            if (eventOutput.isClosed()) {
+                logger.debug("client disconnected");
+                unsubscribe(this);
+                return;
+            }
+            try {
+                eventOutput.write(SseUtil.buildStateEvent(states));
+            } catch (IOException | IllegalStateException e) {
+                logger.debug("client disconnected: {}", e.getMessage());
+                unsubscribe(this);
+                return;
+            }
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    busy = false;
+                } else {
+                    // states changed while writing, send them after the next window
+                    scheduler.schedule(this::flush, COALESCE_WINDOW, TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+    }
+
+    /**
+     * subscribes a client to the given items and sends their current states to it
+     *
+     * @param eventOutput
+     *            - the SSE connection of the client
+     * @param items
+     *            - the requested items with the CometVisu item names and their state types
+     */
+    public void subscribe(EventOutput eventOutput, Map<Item, Map<String, Class<? extends State>>> items) {
+        removeClosedClients();
+        Map<String, Map<String, Class<? extends State>>> itemNames = new HashMap<>();
+        for (Entry<Item, Map<String, Class<? extends State>>> entry : items.entrySet()) {
+            itemNames.put(entry.getKey().getName(), entry.getValue());
+        }
+        Client client = new Client(eventOutput, itemNames);
+        clients.add(client);
+        for (Entry<Item, Map<String, Class<? extends State>>> entry : items.entrySet()) {
+            clientsByItem.computeIfAbsent(entry.getKey().getName(), name -> new CopyOnWriteArraySet<Client>())
+                    .add(client);
+            for (Entry<String, Class<? extends State>> cvItem : entry.getValue().entrySet()) {
+                client.offer(cvItem.getKey(), serialize(entry.getKey(), cvItem.getKey(), cvItem.getValue()), 0);
+            }
+        }
+        logger.debug("client subscribed to {} items, {} items with clients", items.size(), clientsByItem.size());
+    }
+
+    private void removeClosedClients() {
+        for (Client client : clients) {
+            if (client.eventOutput.isClosed()) {
+                unsubscribe(client);
+            }
+        }
+    }
+
+    private void unsubscribe(Client client) {
+        if (!clients.remove(client)) {
+            return;
+        }
+        for (String itemName : client.items.keySet()) {
+            clientsByItem.computeIfPresent(itemName, (name, clients) -> {
+                clients.remove(client);
+                return clients.isEmpty() ? null : clients;
+            });
+        }
+        try {
+            client.eventOutput.close();
+        } catch (IOException ignore) {
+            // already closed
+        }
+    }
+
+    /**
+     * sends the state of the given item to the clients which requested it
+     *
+     * @param item
+     *            - the item
+     * @param typedOnly
+     *            - true to send the state only to clients which requested it as a certain type
+     */
+    public void dispatch(Item item, boolean typedOnly) {
+        Set<Client> clients = clientsByItem.get(item.getName());
+        if (clients == null) {
+            return;
+        }
+        // the same CometVisu item name always has the same type, so its state is serialized once
+        Map<String, String> serializedStates = new HashMap<String, String>();
+        for (Client client : clients) {
+            Map<String, Class<? extends State>> cvItems = client.items.get(item.getName());
+            for (Entry<String, Class<? extends State>> cvItem : cvItems.entrySet()) {
+                if (typedOnly && cvItem.getValue() == null) {
+                    continue;
+                }
+                String serializedState = serializedStates.computeIfAbsent(cvItem.getKey(),
+                        name -> serialize(item, name, cvItem.getValue()));
+                client.offer(cvItem.getKey(), serializedState, COALESCE_WINDOW);
+            }
+        }
+    }
+
+    /**
+     * returns true if any client requested the item with the given name
+     */
+    public boolean isSubscribed(String itemName) {
+        return clientsByItem.containsKey(itemName);
+    }
+
+    /**
+     * returns the names of all items requested by any client
+     */
+    public Set<String> getItemNames() {
+        return clientsByItem.keySet();
+    }
+
+    private String serialize(Item item, String cvItemName, Class<? extends State> stateClass) {
+        State state = stateClass != null ? item.getStateAs(stateClass) : item.getState();
+        return StateBeanMessageBodyWriter.serializeState(cvItemName, String.valueOf(state));
+    }
+}
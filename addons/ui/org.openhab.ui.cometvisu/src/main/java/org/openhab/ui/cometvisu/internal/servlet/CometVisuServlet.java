@@ -18,6 +18,9 @@ import java.io.PrintWriter;
 import java.io.RandomAccessFile;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -96,6 +99,7 @@ public class CometVisuServlet extends HttpServlet {
     private static final long DEFAULT_EXPIRE_TIME = 604800000L; // ..ms = 1
                                                                 // week.
     private static final String MULTIPART_BOUNDARY = "MULTIPART_BYTERANGES";
+    private static final long STATIC_FILE_CACHE_SIZE = 32 * 1024 * 1024; // ..bytes = 32MB.
 
     private Pattern sitemapPattern = Pattern.compile(".*/visu_config_?(oh_)?([^\\.]+)?\\.xml");
     private Pattern configStorePattern = Pattern.compile("config/visu_config_oh_([a-z0-9_]+)\\.xml");
@@ -117,6 +121,8 @@ public class CometVisuServlet extends HttpServlet {
 
     private CometVisuApp cometVisuApp;
 
+    private final StaticFileCache staticFileCache = new StaticFileCache(STATIC_FILE_CACHE_SIZE);
+
     public CometVisuServlet(String filesystemDir, CometVisuApp cometVisuApp) {
         root = filesystemDir;
         rootFolder = new File(root);
@@ -570,13 +576,48 @@ public class CometVisuServlet extends HttpServlet {
             return;
         }
 
-        // Prepare some variables. The ETag is an unique identifier of the file.
+        // Prepare some variables.
         String fileName = file.getName();
         long length = file.length();
         long lastModified = file.lastModified();
-        String eTag = fileName + "_" + length + "_" + lastModified;
         long expires = System.currentTimeMillis() + DEFAULT_EXPIRE_TIME;
 
+        // Get content type by file name.
+        String contentType = getServletContext().getMimeType(fileName);
+
+        // If content type is unknown, then set the default value.
+        // For all content types, see:
+        // http://www.w3schools.com/media/media_mimeref.asp
+        // To add new content types, add new mime-mapping entry in web.xml.
+        if (contentType == null) {
+            contentType = "application/octet-stream";
+        }
+
+        // Determine the content encoding. A precompressed variant of the file
+        // (.br or .gz) is preferred if the browser accepts it, text is GZIPped
+        // otherwise. Ranges are always served from the file itself.
+        String encoding = null;
+        File encodedFile = null;
+        String acceptEncoding = request.getHeader("Accept-Encoding");
+        if (acceptEncoding != null && request.getHeader("Range") == null) {
+            File brFile = new File(file.getPath() + ".br");
+            File gzFile = new File(file.getPath() + ".gz");
+            if (accepts(acceptEncoding, "br") && brFile.isFile()) {
+                encoding = "br";
+                encodedFile = brFile;
+            } else if (accepts(acceptEncoding, "gzip") && gzFile.isFile()) {
+                encoding = "gzip";
+                encodedFile = gzFile;
+            } else if (contentType.startsWith("text") && accepts(acceptEncoding, "gzip")) {
+                encoding = "gzip";
+            }
+        }
+
+        // The ETag is an unique identifier of the content sent, so it differs
+        // for each encoding.
+        String eTag = encodedFile != null ? getETag(encodedFile.length(), encodedFile.lastModified(), encoding)
+                : getETag(length, lastModified, encoding);
+
         // Validate request headers for caching
         // ---------------------------------------------------
 
@@ -697,27 +738,12 @@ public class CometVisuServlet extends HttpServlet {
         // Prepare and initialize response
         // --------------------------------------------------------
 
-        // Get content type by file name and set default GZIP support and
-        // content disposition.
-        String contentType = getServletContext().getMimeType(fileName);
-        boolean acceptsGzip = false;
+        // Set default content disposition.
         String disposition = "inline";
 
-        // If content type is unknown, then set the default value.
-        // For all content types, see:
-        // http://www.w3schools.com/media/media_mimeref.asp
-        // To add new content types, add new mime-mapping entry in web.xml.
-        if (contentType == null) {
-            contentType = "application/octet-stream";
-        }
-
-        // If content type is text, then determine whether GZIP content encoding
-        // is supported by
-        // the browser and expand content type with the one and right character
-        // encoding.
+        // If content type is text, then expand content type with the right
+        // character encoding.
         if (contentType.startsWith("text")) {
-            String acceptEncoding = request.getHeader("Accept-Encoding");
-            acceptsGzip = acceptEncoding != null && accepts(acceptEncoding, "gzip");
             contentType += ";charset=UTF-8";
         }
 
@@ -734,6 +760,7 @@ public class CometVisuServlet extends HttpServlet {
         response.setHeader("Content-Disposition", disposition + ";filename=\"" + fileName + "\"");
         response.setHeader("Accept-Ranges", "bytes");
         response.setHeader("ETag", eTag);
+        response.setHeader("Vary", "Accept-Encoding");
         response.setDateHeader("Last-Modified", lastModified);
         response.setDateHeader("Expires", expires);
 
@@ -746,7 +773,6 @@ public class CometVisuServlet extends HttpServlet {
 
         try {
             // Open streams.
-            input = new RandomAccessFile(file, "r");
             output = response.getOutputStream();
 
             if (ranges.isEmpty() || ranges.get(0) == full) {
@@ -754,23 +780,42 @@ public class CometVisuServlet extends HttpServlet {
                 // Return full file.
                 Range r = full;
                 response.setContentType(contentType);
-                response.setHeader("Content-Range", "bytes " + r.start + "-" + r.end + "/" + r.total);
+                if (encoding != null) {
+                    response.setHeader("Content-Encoding", encoding);
+                } else {
+                    response.setHeader("Content-Range", "bytes " + r.start + "-" + r.end + "/" + r.total);
+                }
 
                 if (content) {
-                    if (acceptsGzip) {
-                        // The browser accepts GZIP, so GZIP the content.
-                        response.setHeader("Content-Encoding", "gzip");
-                        output = new GZIPOutputStream(output, DEFAULT_BUFFER_SIZE);
+                    // Small files are served from memory.
+                    byte[] data;
+                    if (encodedFile != null) {
+                        data = staticFileCache.getContent(encodedFile);
+                    } else if (encoding != null) {
+                        data = staticFileCache.getGzippedContent(file);
                     } else {
+                        data = staticFileCache.getContent(file);
+                    }
+
+                    if (data != null) {
+                        response.setHeader("Content-Length", String.valueOf(data.length));
+                        output.write(data);
+                    } else if (encodedFile != null) {
+                        response.setHeader("Content-Length", String.valueOf(encodedFile.length()));
+                        input = new RandomAccessFile(encodedFile, "r");
+                        copy(input, output, 0, input.length());
+                    } else if (encoding != null) {
                         // Content length is not directly predictable in case of
-                        // GZIP.
-                        // So only add it if there is no means of GZIP, else
-                        // browser will hang.
+                        // GZIP. So only add it if there is no means of GZIP,
+                        // else browser will hang.
+                        output = new GZIPOutputStream(output, DEFAULT_BUFFER_SIZE);
+                        input = new RandomAccessFile(file, "r");
+                        copy(input, output, r.start, r.length);
+                    } else {
                         response.setHeader("Content-Length", String.valueOf(r.length));
+                        input = new RandomAccessFile(file, "r");
+                        copy(input, output, r.start, r.length);
                     }
-
-                    // Copy full range.
-                    copy(input, output, r.start, r.length);
                 }
 
             } else if (ranges.size() == 1) {
@@ -784,6 +829,7 @@ public class CometVisuServlet extends HttpServlet {
 
                 if (content) {
                     // Copy single part range.
+                    input = new RandomAccessFile(file, "r");
                     copy(input, output, r.start, r.length);
                 }
 
@@ -797,6 +843,7 @@ public class CometVisuServlet extends HttpServlet {
                     // Cast back to ServletOutputStream to get the easy println
                     // methods.
                     ServletOutputStream sos = (ServletOutputStream) output;
+                    input = new RandomAccessFile(file, "r");
 
                     // Copy multi part range.
                     for (Range r : ranges) {
@@ -1123,7 +1170,25 @@ public class CometVisuServlet extends HttpServlet {
     }
 
     /**
-     * Copy the given byte range of the given input to the given output.
+     * Returns a strong ETag for the content of a file.
+     *
+     * @param length
+     *            The length of the file.
+     * @param lastModified
+     *            The modification time of the file.
+     * @param encoding
+     *            The content encoding, or null if the content is sent as is.
+     * @return The quoted ETag.
+     */
+    private static String getETag(long length, long lastModified, String encoding) {
+        return "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(length)
+                + (encoding != null ? "-" + encoding : "") + "\"";
+    }
+
+    /**
+     * Copy the given byte range of the given input to the given output. The
+     * bytes are transferred by the file channel, which avoids copying them
+     * through a buffer of our own.
      *
      * @param input
      *            The input to copy the given range to the given output for.
@@ -1137,27 +1202,19 @@ public class CometVisuServlet extends HttpServlet {
      *             If something fails at I/O level.
      */
     private static void copy(RandomAccessFile input, OutputStream output, long start, long length) throws IOException {
-        byte[] buffer = new byte[DEFAULT_BUFFER_SIZE];
-        int read;
-
-        if (input.length() == length) {
-            // Write full range.
-            while ((read = input.read(buffer)) > 0) {
-                output.write(buffer, 0, read);
-            }
-        } else {
-            // Write partial range.
-            input.seek(start);
-            long toRead = length;
-
-            while ((read = input.read(buffer)) > 0) {
-                if ((toRead -= read) > 0) {
-                    output.write(buffer, 0, read);
-                } else {
-                    output.write(buffer, 0, (int) toRead + read);
-                    break;
-                }
+        FileChannel channel = input.getChannel();
+        WritableByteChannel target = Channels.newChannel(output);
+        long position = start;
+        long remaining = length;
+
+        while (remaining > 0) {
+            long transferred = channel.transferTo(position, remaining, target);
+            if (transferred <= 0) {
+                // end of file reached, the file has been truncated
+                break;
             }
+            position += transferred;
+            remaining -= transferred;
         }
     }
 
@@ -0,0 +1,173 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.ui.cometvisu.internal.servlet;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the content of small static files in memory, so that they do not have to be read from disk for every
+ * request. The GZIP compressed content of a file is kept as well once it has been requested.
+ *
+ * A cached file is read again when its size or modification time has changed. The total size of the cached
+ * content is limited, the least recently used files are removed first.
+ *
+ * @author agent - Initial contribution
+ */
+public class StaticFileCache {
+
+    // files larger than this are not cached but sent from disk
+    static final long MAX_FILE_SIZE = 512 * 1024;
+
+    private static class CachedFile {
+        final long length;
+        final long lastModified;
+        final byte[] content;
+        byte[] gzippedContent;
+
+        CachedFile(long length, long lastModified, byte[] content) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.content = content;
+        }
+
+        int size() {
+            return content.length + (gzippedContent != null ? gzippedContent.length : 0);
+        }
+    }
+
+    private final long maxSize;
+    private long size;
+    private long hits;
+    private long misses;
+
+    private final Map<String, CachedFile> files = new LinkedHashMap<String, CachedFile>(16, 0.75f, true);
+
+    /**
+     * @param maxSize the maximum total size in bytes of the cached content
+     */
+    public StaticFileCache(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the content of the given file.
+     *
+     * @param file the file
+     * @return the content or null if the file is too large to be cached
+     * @throws IOException if the file could not be read
+     */
+    public byte[] getContent(File file) throws IOException {
+        CachedFile cachedFile = getCachedFile(file);
+        return cachedFile != null ? cachedFile.content : null;
+    }
+
+    /**
+     * Returns the GZIP compressed content of the given file.
+     *
+     * @param file the file
+     * @return the compressed content or null if the file is too large to be cached
+     * @throws IOException if the file could not be read
+     */
+    public byte[] getGzippedContent(File file) throws IOException {
+        CachedFile cachedFile = getCachedFile(file);
+        if (cachedFile == null) {
+            return null;
+        }
+        synchronized (this) {
+            if (cachedFile.gzippedContent != null) {
+                return cachedFile.gzippedContent;
+            }
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(cachedFile.content.length / 2);
+        try (GZIPOutputStream output = new GZIPOutputStream(compressed)) {
+            output.write(cachedFile.content);
+        }
+        byte[] gzippedContent = compressed.toByteArray();
+        synchronized (this) {
+            if (cachedFile.gzippedContent == null && files.get(file.getPath()) == cachedFile) {
+                cachedFile.gzippedContent = gzippedContent;
+                size += gzippedContent.length;
+                evict();
+            }
+        }
+        return gzippedContent;
+    }
+
+    private CachedFile getCachedFile(File file) throws IOException {
+        long length = file.length();
+        long lastModified = file.lastModified();
+        if (length > MAX_FILE_SIZE) {
+            return null;
+        }
+        String key = file.getPath();
+        synchronized (this) {
+            CachedFile cachedFile = files.get(key);
+            if (cachedFile != null && cachedFile.length == length && cachedFile.lastModified == lastModified) {
+                hits++;
+                return cachedFile;
+            }
+            misses++;
+        }
+        byte[] content = Files.readAllBytes(file.toPath());
+        CachedFile cachedFile = new CachedFile(content.length, lastModified, content);
+        synchronized (this) {
+            CachedFile previous = files.put(key, cachedFile);
+            if (previous != null) {
+                size -= previous.size();
+            }
+            size += cachedFile.size();
+            evict();
+        }
+        return cachedFile;
+    }
+
+    private void evict() {
+        Iterator<CachedFile> it = files.values().iterator();
+        while (size > maxSize && it.hasNext()) {
+            size -= it.next().size();
+            it.remove();
+        }
+    }
+
+    /**
+     * Returns the total size in bytes of the cached content
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the number of requests served from the cache
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of requests which had to read the file
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Removes all files from the cache
+     */
+    public synchronized void clear() {
+        files.clear();
+        size = 0;
+    }
+}
@@ -8,6 +8,8 @@
  */
 package org.openhab.ui.cometvisu.internal.util;
 
+import java.util.Collection;
+
 import javax.ws.rs.core.MediaType;
 
 import org.glassfish.jersey.media.sse.OutboundEvent;
@@ -47,6 +49,20 @@ public class SseUtil {
         return event;
     }
 
+    /**
+     * Creates a new {@link OutboundEvent} object containing the given states.
+     *
+     * @param states
+     *            - states serialized by {@link StateBeanMessageBodyWriter#serializeState(String, String)}
+     * @return a new OutboundEvent.
+     */
+    public static OutboundEvent buildStateEvent(Collection<String> states) {
+        OutboundEvent.Builder eventBuilder = new OutboundEvent.Builder();
+        return eventBuilder.mediaType(MediaType.APPLICATION_JSON_TYPE)
+                .data(StateBeanMessageBodyWriter.serializeStates(states))
+                .id(String.valueOf(System.currentTimeMillis())).build();
+    }
+
     /**
      * Used to mark our current thread(request processing) that SSE blocking
      * should be enabled.